@@ -65,11 +65,11 @@ public final class HttpUtils {
             httpsConn.setSSLSocketFactory(CONFIG.sslConfig.mSSLSocketFactory);
             httpsConn.setHostnameVerifier(CONFIG.sslConfig.mHostnameVerifier);
         }
-        System.out.println(conn.getHeaderField("USE"));
-        addHeader(conn, request.mHeader);
-        addBody(conn, request.mBody);
+        // the body connects, so configure the connection before it
         conn.setConnectTimeout(CONFIG.connectTimeout);
         conn.setReadTimeout(CONFIG.readTimeout);
+        addHeader(conn, request.mHeader);
+        addBody(conn, request.mBody);
         return conn;
     }
 
@@ -83,6 +83,9 @@ public final class HttpUtils {
             conn.setRequestProperty("content-type", body.mediaType);
             if (body.length > 0) {
                 conn.setRequestProperty("content-length", String.valueOf(body.length));
+            } else if (body.length < 0) {
+                // stream the body rather than buffering it all in memory
+                conn.setChunkedStreamingMode(0);
             }
             BufferedOutputStream bos = new BufferedOutputStream(conn.getOutputStream(), 10240);
             if (body.bis != null) {
@@ -110,6 +110,14 @@ public final class Request {
             return new Body(mediaType, content);
         }
 
+        /**
+         * Create the body whose length is unknown, which is sent in chunked streaming mode, such as
+         * the {@code EncodeUtils.Base64InputStream} wrapping a file.
+         */
+        public static Body create(@NonNull String mediaType, @NonNull InputStream content) {
+            return new Body(mediaType, content);
+        }
+
         public static Body form(@NonNull final Map<String, String> form) {
             return form(form, "utf-8");
         }
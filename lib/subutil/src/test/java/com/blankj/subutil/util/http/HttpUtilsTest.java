@@ -2,15 +2,27 @@ package com.blankj.subutil.util.http;
 
 import com.blankj.subutil.util.BaseTest;
 import com.blankj.subutil.util.TestConfig;
+import com.blankj.utilcode.util.EncodeUtils;
 import com.blankj.utilcode.util.FileIOUtils;
 import com.blankj.utilcode.util.GsonUtils;
 import com.blankj.utilcode.util.TimeUtils;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
 
 import org.apache.tools.ant.util.FileUtils;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 /**
  * <pre>
@@ -24,6 +36,56 @@ public class HttpUtilsTest extends BaseTest {
 
     private static final String BASE_URL = "http://127.0.0.1:8081";
 
+    @Test
+    public void postStream() throws Exception {
+        // the server echoes the body which is decoded from Base64
+        final AtomicReference<String> transferEncoding = new AtomicReference<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/echo", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                byte[] body = EncodeUtils.base64Decode(
+                        HttpUtils.is2String(exchange.getRequestBody(), "utf-8").getBytes("utf-8")
+                );
+                transferEncoding.set(exchange.getRequestHeaders().getFirst("Transfer-Encoding"));
+                exchange.sendResponseHeaders(200, body.length);
+                OutputStream os = exchange.getResponseBody();
+                os.write(body);
+                os.close();
+            }
+        });
+        server.start();
+        try {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < 10000; i++) {
+                sb.append("stream line ").append(i).append('\n');
+            }
+            final String content = sb.toString();
+            final AtomicReference<String> result = new AtomicReference<>();
+            final AtomicReference<Exception> error = new AtomicReference<>();
+            String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/echo";
+            Request request = Request.withUrl(url).post(Request.Body.create("text/plain",
+                    new EncodeUtils.Base64InputStream(new ByteArrayInputStream(content.getBytes("utf-8")), true, false)
+            ));
+            HttpUtils.call(request, new ResponseCallback() {
+                @Override
+                public void onResponse(Response response) {
+                    result.set(response.getString("utf-8"));
+                }
+
+                @Override
+                public void onFailed(Exception e) {
+                    error.set(e);
+                }
+            });
+            assertNull(error.get());
+            assertEquals("chunked", transferEncoding.get());
+            assertEquals(content, result.get());
+        } finally {
+            server.stop(0);
+        }
+    }
+
 //    @Test
 //    public void getString() {
 //        HttpUtils.call(Request.withUrl(BASE_URL + "/listUsers"), new ResponseCallback() {
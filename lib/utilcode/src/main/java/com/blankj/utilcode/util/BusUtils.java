@@ -1,14 +1,23 @@
 package com.blankj.utilcode.util;
 
+import android.os.Bundle;
 import android.util.Log;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.channels.FileLock;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -17,6 +26,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * <pre>
@@ -31,14 +41,33 @@ public final class BusUtils {
     private static final Object NULL = "nULl";
     private static final String TAG  = "BusUtils";
 
-    private final Map<String, List<BusInfo>> mTag_BusInfoListMap = new HashMap<>();
+    private static final String KEY_CROSS_PROCESS_STICKY = "BUS_UTILS_CROSS_PROCESS_STICKY";
+    private static final String KEY_TAG                  = "BUS_UTILS_TAG";
+    private static final String KEY_VERSION              = "BUS_UTILS_VERSION";
+    private static final String KEY_ARG                  = "BUS_UTILS_ARG";
+
+    private final Map<String, List<BusInfo>> mTag_BusInfoListMap       = new HashMap<>();
+    private final Map<String, List<BusInfo>> mEventType_BusInfoListMap = new HashMap<>();
+    private final Map<String, List<BusInfo>> mParamType_BusInfoListMap = new HashMap<>();
+    private final Map<String, BusInfo>       mTypeBusKey_BusInfoMap    = new HashMap<>();
+    private final Map<String, List<String>>  mEventType_UnresolvedMap  = new HashMap<>();
+
+    private final Map<Class, List<BusInfo>> mEventClass_BusInfoListCache = new ConcurrentHashMap<>();
 
-    private final Map<String, Set<Object>>         mClassName_BusesMap          = new ConcurrentHashMap<>();
-    private final Map<String, List<String>>        mClassName_TagsMap           = new ConcurrentHashMap<>();
-    private final Map<String, Map<String, Object>> mClassName_Tag_Arg4StickyMap = new ConcurrentHashMap<>();
+    private final Map<String, Set<Object>>                 mClassName_BusesMap = new ConcurrentHashMap<>();
+    private final Map<String, List<String>>                mClassName_TagsMap  = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, StickyEvent>   mTag_StickyEventMap = new ConcurrentHashMap<>();
+    private final Set<String>                              mLoadedStickyTags   = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private final AtomicLong                               mStickyVersion      = new AtomicLong();
 
     private BusUtils() {
         init();
+        MessengerUtils.subscribe(KEY_CROSS_PROCESS_STICKY, new MessengerUtils.MessageCallback() {
+            @Override
+            public void messageCall(Bundle data) {
+                onCrossProcessStickyReceived(data);
+            }
+        });
     }
 
     /**
@@ -64,6 +93,47 @@ public final class BusUtils {
         busInfoList.add(new BusInfo(className, funName, paramType, paramName, sticky, threadMode, priority));
     }
 
+    /**
+     * It'll be injected by the plugin for every event type that is assignable to the param of the bus,
+     * in order of priority, so the flattened list of one event type costs only one lookup.
+     */
+    private void registerEventTypeBus(String eventType,
+                                      String className, String funName, String paramType, String paramName,
+                                      String threadMode, int priority) {
+        String busKey = className + "#" + funName + "(" + paramType + ")";
+        BusInfo busInfo = mTypeBusKey_BusInfoMap.get(busKey);
+        if (busInfo == null) {
+            busInfo = new BusInfo(className, funName, paramType, paramName, false, threadMode, priority);
+            mTypeBusKey_BusInfoMap.put(busKey, busInfo);
+            String boxedParamType = getBoxedClassName(paramType);
+            List<BusInfo> paramTypeBusInfoList = mParamType_BusInfoListMap.get(boxedParamType);
+            if (paramTypeBusInfoList == null) {
+                paramTypeBusInfoList = new ArrayList<>();
+                mParamType_BusInfoListMap.put(boxedParamType, paramTypeBusInfoList);
+            }
+            paramTypeBusInfoList.add(busInfo);
+        }
+        List<BusInfo> busInfoList = mEventType_BusInfoListMap.get(eventType);
+        if (busInfoList == null) {
+            busInfoList = new ArrayList<>();
+            mEventType_BusInfoListMap.put(eventType, busInfoList);
+        }
+        busInfoList.add(busInfo);
+    }
+
+    /**
+     * It'll be injected by the plugin for every super type of the event type that was not scanned,
+     * such as types of framework, whose buses are merged at runtime.
+     */
+    private void registerUnresolvedEventType(String eventType, String unresolvedType) {
+        List<String> unresolvedTypes = mEventType_UnresolvedMap.get(eventType);
+        if (unresolvedTypes == null) {
+            unresolvedTypes = new ArrayList<>();
+            mEventType_UnresolvedMap.put(eventType, unresolvedTypes);
+        }
+        unresolvedTypes.add(unresolvedType);
+    }
+
     public static void register(final Object bus) {
         getInstance().registerInner(bus);
     }
@@ -92,13 +162,42 @@ public final class BusUtils {
         getInstance().removeStickyInner(tag);
     }
 
+    public static void postStickyCrossProcess(final String tag) {
+        getInstance().postStickyCrossProcessInner(tag, NULL);
+    }
+
+    /**
+     * Post the sticky which is shared with other processes of the app.
+     * <p>It's saved in the files dir, so the process which registers the bus later will receive the latest one,
+     * and it will be sent to the processes which have called {@link MessengerUtils#register()} at once.</p>
+     *
+     * @param tag The tag of bus.
+     * @param arg The arg.
+     */
+    public static void postStickyCrossProcess(final String tag, final Serializable arg) {
+        getInstance().postStickyCrossProcessInner(tag, arg);
+    }
+
+    public static void removeStickyCrossProcess(final String tag) {
+        getInstance().removeStickyCrossProcessInner(tag);
+    }
+
+    /**
+     * Post the event to the buses whose tag is empty and whose param is assignable from the type of event.
+     *
+     * @param event The event.
+     */
+    public static void postEvent(final Object event) {
+        getInstance().postEventInner(event);
+    }
+
     public static String toString_() {
         return getInstance().toString();
     }
 
     @Override
     public String toString() {
-        return "BusUtils: " + mTag_BusInfoListMap;
+        return "BusUtils: " + mTag_BusInfoListMap + ", EventTypes: " + mEventType_BusInfoListMap;
     }
 
     private static BusUtils getInstance() {
@@ -127,7 +226,9 @@ public final class BusUtils {
                         for (BusInfo busInfo : entry.getValue()) {
                             try {
                                 if (Class.forName(busInfo.className).isAssignableFrom(aClass)) {
-                                    tags.add(entry.getKey());
+                                    if (!tags.contains(entry.getKey())) {
+                                        tags.add(entry.getKey());
+                                    }
                                     busInfo.subClassNames.add(className);
                                 }
                             } catch (ClassNotFoundException e) {
@@ -135,23 +236,94 @@ public final class BusUtils {
                             }
                         }
                     }
+                    for (BusInfo busInfo : mTypeBusKey_BusInfoMap.values()) {
+                        try {
+                            if (Class.forName(busInfo.className).isAssignableFrom(aClass)) {
+                                busInfo.subClassNames.add(className);
+                            }
+                        } catch (ClassNotFoundException e) {
+                            e.printStackTrace();
+                        }
+                    }
                     mClassName_TagsMap.put(className, tags);
                 }
             }
         }
-        processSticky(bus);
+        processSticky(bus, tags);
+    }
+
+    /**
+     * Only the latest sticky of each tag will be sent to the bus which just registered,
+     * the other buses won't receive it again.
+     */
+    private void processSticky(final Object bus, final List<String> tags) {
+        String className = bus.getClass().getName();
+        for (String tag : tags) {
+            StickyEvent stickyEvent = null;
+            for (BusInfo busInfo : mTag_BusInfoListMap.get(tag)) {
+                if (!busInfo.sticky || !busInfo.subClassNames.contains(className)) continue;
+                if (stickyEvent == null) {
+                    stickyEvent = getStickyEvent(tag);
+                    if (stickyEvent == null || stickyEvent.isRemoved()) break;
+                }
+                invokeBus(tag, stickyEvent.arg, busInfo, true, bus);
+            }
+        }
+    }
+
+    private StickyEvent getStickyEvent(final String tag) {
+        StickyEvent stickyEvent = mTag_StickyEventMap.get(tag);
+        if (stickyEvent == null && mLoadedStickyTags.add(tag)) {
+            loadCrossProcessSticky(tag);
+        }
+        return stickyEvent;
     }
 
-    private void processSticky(final Object bus) {
-        Map<String, Object> tagArgMap = mClassName_Tag_Arg4StickyMap.get(bus.getClass().getName());
-        if (tagArgMap == null) return;
-        synchronized (mClassName_Tag_Arg4StickyMap) {
-            for (Map.Entry<String, Object> tagArgEntry : tagArgMap.entrySet()) {
-                postStickyInner(tagArgEntry.getKey(), tagArgEntry.getValue(), true);
+    /**
+     * Load the sticky which was posted by other processes only once,
+     * it's read in io pool cause the bus is registered in main thread mostly,
+     * and the sticky buses of the tag will receive it when it's loaded.
+     */
+    private void loadCrossProcessSticky(final String tag) {
+        ThreadUtils.getIoPool().execute(new Runnable() {
+            @Override
+            public void run() {
+                StickyEvent stickyEvent = StickyStore.read(tag);
+                if (stickyEvent == null) return;
+                if (!updateStickyEvent(tag, stickyEvent) || stickyEvent.isRemoved()) return;
+                for (BusInfo busInfo : mTag_BusInfoListMap.get(tag)) {
+                    if (busInfo.sticky) {
+                        invokeBus(tag, stickyEvent.arg, busInfo, true);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * @return {@code true}: the sticky is newer than the current one
+     */
+    private boolean updateStickyEvent(final String tag, final StickyEvent stickyEvent) {
+        while (true) {
+            StickyEvent oldEvent = mTag_StickyEventMap.get(tag);
+            if (oldEvent == null) {
+                if (mTag_StickyEventMap.putIfAbsent(tag, stickyEvent) == null) return true;
+            } else {
+                if (oldEvent.version >= stickyEvent.version) return false;
+                if (mTag_StickyEventMap.replace(tag, oldEvent, stickyEvent)) return true;
             }
         }
     }
 
+    private long nextStickyVersion() {
+        long now = System.currentTimeMillis();
+        while (true) {
+            long last = mStickyVersion.get();
+            long next = now > last ? now : last + 1;
+            if (mStickyVersion.compareAndSet(last, next)) return next;
+        }
+    }
+
     private void unregisterInner(final Object bus) {
         if (bus == null) return;
         String className = bus.getClass().getName();
@@ -180,7 +352,101 @@ public final class BusUtils {
         }
     }
 
+    private void postEventInner(final Object event) {
+        if (event == null) {
+            Log.e(TAG, "The event should not be null.");
+            return;
+        }
+        Class eventClass = event.getClass();
+        List<BusInfo> busInfoList = getBusInfoListByEventClass(eventClass);
+        if (busInfoList.isEmpty()) {
+            Log.e(TAG, "The bus of event type <" + eventClass.getName() + "> is not exists.");
+            return;
+        }
+        for (BusInfo busInfo : busInfoList) {
+            invokeBus(eventClass.getName(), event, busInfo, false);
+        }
+    }
+
+    private List<BusInfo> getBusInfoListByEventClass(final Class eventClass) {
+        List<BusInfo> resolvedList = mEventType_BusInfoListMap.get(eventClass.getName());
+        List<String> unresolvedTypes = mEventType_UnresolvedMap.get(eventClass.getName());
+        if (resolvedList != null && unresolvedTypes == null) return resolvedList;
+        // The event type was not scanned by the plugin, or some of its super types were not,
+        // such as types of framework, so walk them only once and cache the result.
+        List<BusInfo> busInfoList = mEventClass_BusInfoListCache.get(eventClass);
+        if (busInfoList != null) return busInfoList;
+        busInfoList = new ArrayList<>();
+        Set<Class> visitedTypes = new HashSet<>();
+        if (resolvedList == null) {
+            collectBusInfoOfEventClass(eventClass, visitedTypes, busInfoList);
+        } else {
+            busInfoList.addAll(resolvedList);
+            List<BusInfo> unresolvedList = new ArrayList<>();
+            for (String unresolvedType : unresolvedTypes) {
+                try {
+                    Class type = Class.forName(unresolvedType, false, eventClass.getClassLoader());
+                    collectBusInfoOfEventClass(type, visitedTypes, unresolvedList);
+                } catch (ClassNotFoundException e) {
+                    e.printStackTrace();
+                }
+            }
+            for (BusInfo busInfo : unresolvedList) {
+                if (!busInfoList.contains(busInfo)) {
+                    busInfoList.add(busInfo);
+                }
+            }
+        }
+        Collections.sort(busInfoList, new Comparator<BusInfo>() {
+            @Override
+            public int compare(BusInfo t0, BusInfo t1) {
+                return t1.priority - t0.priority;
+            }
+        });
+        mEventClass_BusInfoListCache.put(eventClass, busInfoList);
+        return busInfoList;
+    }
+
+    private void collectBusInfoOfEventClass(final Class type, final Set<Class> visitedTypes, final List<BusInfo> result) {
+        if (type == null || !visitedTypes.add(type)) return;
+        List<BusInfo> busInfoList = mParamType_BusInfoListMap.get(type.getName());
+        if (busInfoList != null) {
+            result.addAll(busInfoList);
+        }
+        collectBusInfoOfEventClass(type.getSuperclass(), visitedTypes, result);
+        for (Class anInterface : type.getInterfaces()) {
+            collectBusInfoOfEventClass(anInterface, visitedTypes, result);
+        }
+    }
+
+    private static String getBoxedClassName(String paramType) {
+        switch (paramType) {
+            case "boolean":
+                return Boolean.class.getName();
+            case "int":
+                return Integer.class.getName();
+            case "long":
+                return Long.class.getName();
+            case "short":
+                return Short.class.getName();
+            case "byte":
+                return Byte.class.getName();
+            case "double":
+                return Double.class.getName();
+            case "float":
+                return Float.class.getName();
+            case "char":
+                return Character.class.getName();
+            default:
+                return paramType;
+        }
+    }
+
     private void invokeBus(String tag, Object arg, BusInfo busInfo, boolean sticky) {
+        invokeBus(tag, arg, busInfo, sticky, null);
+    }
+
+    private void invokeBus(String tag, Object arg, BusInfo busInfo, boolean sticky, Object targetBus) {
         if (busInfo.method == null) {
             Method method = getMethodByBusInfo(busInfo);
             if (method == null) {
@@ -188,7 +454,7 @@ public final class BusUtils {
             }
             busInfo.method = method;
         }
-        invokeMethod(tag, arg, busInfo, sticky);
+        invokeMethod(tag, arg, busInfo, sticky, targetBus);
     }
 
     private Method getMethodByBusInfo(BusInfo busInfo) {
@@ -229,11 +495,16 @@ public final class BusUtils {
         }
     }
 
-    private void invokeMethod(final String tag, final Object arg, final BusInfo busInfo, final boolean sticky) {
+    private void invokeMethod(final String tag, final Object arg, final BusInfo busInfo, final boolean sticky,
+                              final Object targetBus) {
         Runnable runnable = new Runnable() {
             @Override
             public void run() {
-                realInvokeMethod(tag, arg, busInfo, sticky);
+                if (targetBus != null) {
+                    realInvokeMethod(arg, busInfo, Collections.singleton(targetBus));
+                } else {
+                    realInvokeMethod(tag, arg, busInfo, sticky);
+                }
             }
         };
         switch (busInfo.threadMode) {
@@ -273,6 +544,10 @@ public final class BusUtils {
                 return;
             }
         }
+        realInvokeMethod(arg, busInfo, buses);
+    }
+
+    private void realInvokeMethod(Object arg, BusInfo busInfo, Set<Object> buses) {
         try {
             if (arg == NULL) {
                 for (Object bus : buses) {
@@ -291,54 +566,131 @@ public final class BusUtils {
     }
 
     private void postStickyInner(final String tag, final Object arg) {
-        postStickyInner(tag, arg, false);
+        postStickyInner(tag, arg, nextStickyVersion());
     }
 
-    private void postStickyInner(final String tag, final Object arg, boolean isInvokeOnlySticky) {
+    private boolean postStickyInner(final String tag, final Object arg, final long version) {
         List<BusInfo> busInfoList = mTag_BusInfoListMap.get(tag);
         if (busInfoList == null) {
             Log.e(TAG, "The bus of tag <" + tag + "> is not exists.");
-            return;
+            return false;
+        }
+        if (hasStickyBus(busInfoList)) {
+            updateStickyEvent(tag, new StickyEvent(arg, version));
         }
         for (BusInfo busInfo : busInfoList) {
-            if (!busInfo.sticky) { // not sticky bus will post directly.
-                if (!isInvokeOnlySticky) {
-                    invokeBus(tag, arg, busInfo, false);
-                }
-                continue;
-            }
-            synchronized (mClassName_Tag_Arg4StickyMap) {
-                Map<String, Object> tagArgMap = mClassName_Tag_Arg4StickyMap.get(busInfo.className);
-                if (tagArgMap == null) {
-                    tagArgMap = new HashMap<>();
-                    mClassName_Tag_Arg4StickyMap.put(busInfo.className, tagArgMap);
-                }
-                tagArgMap.put(tag, arg);
-            }
-            invokeBus(tag, arg, busInfo, true);
+            invokeBus(tag, arg, busInfo, busInfo.sticky); // not sticky bus will post directly.
         }
+        return true;
     }
 
     private void removeStickyInner(final String tag) {
+        removeStickyInner(tag, nextStickyVersion());
+    }
+
+    private boolean removeStickyInner(final String tag, final long version) {
+        if (!isStickyTag(tag)) return false;
+        StickyEvent stickyEvent = getStickyEvent(tag);
+        if (stickyEvent == null || stickyEvent.isRemoved()) {
+            Log.e(TAG, "The sticky bus of tag <" + tag + "> didn't post.");
+            return false;
+        }
+        // keep the removed one with its version to ignore the older sticky from other processes.
+        updateStickyEvent(tag, new StickyEvent(null, version));
+        return true;
+    }
+
+    private boolean isStickyTag(final String tag) {
         List<BusInfo> busInfoList = mTag_BusInfoListMap.get(tag);
         if (busInfoList == null) {
             Log.e(TAG, "The bus of tag <" + tag + "> is not exists.");
-            return;
+            return false;
+        }
+        if (!hasStickyBus(busInfoList)) {
+            Log.e(TAG, "The bus of tag <" + tag + "> is not sticky.");
+            return false;
         }
+        return true;
+    }
+
+    private static boolean hasStickyBus(final List<BusInfo> busInfoList) {
         for (BusInfo busInfo : busInfoList) {
-            if (!busInfo.sticky) {
-                Log.e(TAG, "The bus of tag <" + tag + "> is not sticky.");
-                return;
-            }
-            synchronized (mClassName_Tag_Arg4StickyMap) {
-                Map<String, Object> tagArgMap = mClassName_Tag_Arg4StickyMap.get(busInfo.className);
-                if (tagArgMap == null || !tagArgMap.containsKey(tag)) {
-                    Log.e(TAG, "The sticky bus of tag <" + tag + "> didn't post.");
-                    return;
-                }
-                tagArgMap.remove(tag);
+            if (busInfo.sticky) return true;
+        }
+        return false;
+    }
+
+    private void postStickyCrossProcessInner(final String tag, final Object arg) {
+        final long version = nextStickyVersion();
+        if (!(arg instanceof Serializable)) {
+            Log.e(TAG, "The arg of cross process sticky bus <" + tag + "> should be serializable.");
+            return;
+        }
+        final byte[] bytes = arg2Bytes(arg);
+        if (bytes == null) {
+            Log.e(TAG, "The arg of cross process sticky bus <" + tag + "> serialized failed.");
+            return;
+        }
+        mLoadedStickyTags.add(tag);
+        if (!postStickyInner(tag, arg, version)) return;
+        sendStickyCrossProcess(tag, version, bytes);
+    }
+
+    /**
+     * The sticky may be posted by other process and not loaded in this process yet,
+     * so the removal is always saved and sent without checking whether it has posted.
+     */
+    private void removeStickyCrossProcessInner(final String tag) {
+        final long version = nextStickyVersion();
+        if (!isStickyTag(tag)) return;
+        mLoadedStickyTags.add(tag);
+        updateStickyEvent(tag, new StickyEvent(null, version));
+        sendStickyCrossProcess(tag, version, null);
+    }
+
+    private void sendStickyCrossProcess(final String tag, final long version, final byte[] bytes) {
+        ThreadUtils.getIoPool().execute(new Runnable() {
+            @Override
+            public void run() {
+                if (!StickyStore.write(tag, version, bytes)) return;
+                Bundle data = new Bundle();
+                data.putString(KEY_TAG, tag);
+                data.putLong(KEY_VERSION, version);
+                data.putByteArray(KEY_ARG, bytes);
+                MessengerUtils.post(KEY_CROSS_PROCESS_STICKY, data);
             }
+        });
+    }
+
+    private void onCrossProcessStickyReceived(final Bundle data) {
+        String tag = data.getString(KEY_TAG);
+        if (tag == null) return;
+        long version = data.getLong(KEY_VERSION);
+        byte[] bytes = data.getByteArray(KEY_ARG);
+        mLoadedStickyTags.add(tag);
+        if (bytes == null) {
+            updateStickyEvent(tag, new StickyEvent(null, version));
+            return;
         }
+        Object arg = bytes2Arg(bytes);
+        if (arg == null) return;
+        StickyEvent current = mTag_StickyEventMap.get(tag);
+        if (current != null && current.version >= version) return;// posted by this process or outdated
+        postStickyInner(tag, arg, version);
+    }
+
+    /**
+     * The arg of no param bus is sent as empty bytes,
+     * cause {@link #NULL} won't be the same instance after deserialized.
+     */
+    private static byte[] arg2Bytes(final Object arg) {
+        if (arg == NULL) return new byte[0];
+        return UtilsBridge.serializable2Bytes((Serializable) arg);
+    }
+
+    private static Object bytes2Arg(final byte[] bytes) {
+        if (bytes.length == 0) return NULL;
+        return UtilsBridge.bytes2Object(bytes);
     }
 
     static void registerBus4Test(String tag,
@@ -347,6 +699,125 @@ public final class BusUtils {
         getInstance().registerBus(tag, className, funName, paramType, paramName, sticky, threadMode, priority);
     }
 
+    static void registerEventTypeBus4Test(String eventType,
+                                          String className, String funName, String paramType, String paramName,
+                                          String threadMode, int priority) {
+        getInstance().registerEventTypeBus(eventType, className, funName, paramType, paramName, threadMode, priority);
+    }
+
+    static void registerUnresolvedEventType4Test(String eventType, String unresolvedType) {
+        getInstance().registerUnresolvedEventType(eventType, unresolvedType);
+    }
+
+    /**
+     * Receive the no param sticky as it's posted by other process.
+     */
+    static void receiveStickyCrossProcess4Test(String tag) {
+        BusUtils busUtils = getInstance();
+        Bundle data = new Bundle();
+        data.putString(KEY_TAG, tag);
+        data.putLong(KEY_VERSION, busUtils.nextStickyVersion());
+        data.putByteArray(KEY_ARG, arg2Bytes(NULL));
+        busUtils.onCrossProcessStickyReceived(data);
+    }
+
+    /**
+     * @return {@code true}: the sticky of tag saved for all processes is removed
+     */
+    static boolean isStickyCrossProcessRemoved4Test(String tag) {
+        StickyEvent stickyEvent = StickyStore.read(tag);
+        return stickyEvent != null && stickyEvent.isRemoved();
+    }
+
+    private static final class StickyEvent {
+
+        final Object arg;
+        final long   version;
+
+        StickyEvent(Object arg, long version) {
+            this.arg = arg;
+            this.version = version;
+        }
+
+        boolean isRemoved() {
+            return arg == null;
+        }
+    }
+
+    /**
+     * Save the cross process sticky in files dir, which is shared by all processes of the app,
+     * the newer version will win when several processes write the same tag.
+     * <p>The file lock is held by the whole process, so the threads of this process are serialized by monitor.</p>
+     */
+    private static final class StickyStore {
+
+        private static File getStickyFile(final String tag) {
+            File dir = new File(Utils.getApp().getFilesDir(), "bus_sticky");
+            String name = UtilsBridge.bytes2HexString(UtilsBridge.hashTemplate(UtilsBridge.string2Bytes(tag), "MD5"));
+            return new File(dir, name);
+        }
+
+        static synchronized StickyEvent read(final String tag) {
+            File file = getStickyFile(tag);
+            if (!file.exists()) return null;
+            RandomAccessFile raf = null;
+            try {
+                raf = new RandomAccessFile(file, "r");
+                FileLock lock = raf.getChannel().lock(0, Long.MAX_VALUE, true);
+                try {
+                    if (raf.length() < 12) return null;
+                    long version = raf.readLong();
+                    int len = raf.readInt();
+                    if (len < 0) return new StickyEvent(null, version);
+                    if (raf.length() - 12 != len) return null;
+                    byte[] bytes = new byte[len];
+                    raf.readFully(bytes);
+                    Object arg = bytes2Arg(bytes);
+                    return arg == null ? null : new StickyEvent(arg, version);
+                } finally {
+                    lock.release();
+                }
+            } catch (IOException e) {
+                Log.e(TAG, "read sticky of <" + tag + "> failed.", e);
+                return null;
+            } finally {
+                CloseUtils.closeIOQuietly(raf);
+            }
+        }
+
+        static synchronized boolean write(final String tag, final long version, final byte[] bytes) {
+            File file = getStickyFile(tag);
+            if (!UtilsBridge.createOrExistsDir(file.getParentFile())) return false;
+            RandomAccessFile raf = null;
+            try {
+                raf = new RandomAccessFile(file, "rw");
+                FileLock lock = raf.getChannel().lock();
+                try {
+                    if (raf.length() >= 8 && raf.readLong() >= version) {
+                        return false;// other process has written the newer one
+                    }
+                    raf.seek(0);
+                    raf.writeLong(version);
+                    if (bytes == null) {
+                        raf.writeInt(-1);
+                    } else {
+                        raf.writeInt(bytes.length);
+                        raf.write(bytes);
+                    }
+                    raf.setLength(raf.getFilePointer());
+                    return true;
+                } finally {
+                    lock.release();
+                }
+            } catch (IOException e) {
+                Log.e(TAG, "write sticky of <" + tag + "> failed.", e);
+                return false;
+            } finally {
+                CloseUtils.closeIOQuietly(raf);
+            }
+        }
+    }
+
     private static final class BusInfo {
 
         String       className;
@@ -390,7 +861,10 @@ public final class BusUtils {
     @Target({ElementType.METHOD})
     @Retention(RetentionPolicy.CLASS)
     public @interface Bus {
-        String tag();
+        /**
+         * Leave it empty to subscribe by the type of the only param, which is posted by {@link #postEvent}.
+         */
+        String tag() default "";
 
         boolean sticky() default false;
 
@@ -9,6 +9,7 @@ import org.json.JSONArray;
 import org.json.JSONObject;
 
 import java.io.Serializable;
+import java.lang.reflect.Type;
 
 /**
  * <pre>
@@ -406,6 +407,56 @@ public final class CacheDiskStaticUtils {
         return getSerializable(key, defaultValue, getDefaultCacheDiskUtils());
     }
 
+    ///////////////////////////////////////////////////////////////////////////
+    // about Object
+    ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Put object in cache by the codec of object.
+     *
+     * @param key   The key of cache.
+     * @param value The value of cache.
+     */
+    public static void putObject(@NonNull final String key, final Object value) {
+        putObject(key, value, getDefaultCacheDiskUtils());
+    }
+
+    /**
+     * Put object in cache by the codec of object.
+     *
+     * @param key      The key of cache.
+     * @param value    The value of cache.
+     * @param saveTime The save time of cache, in seconds.
+     */
+    public static void putObject(@NonNull final String key, final Object value, final int saveTime) {
+        putObject(key, value, saveTime, getDefaultCacheDiskUtils());
+    }
+
+    /**
+     * Return the object in cache.
+     *
+     * @param key  The key of cache.
+     * @param type The type of object.
+     * @param <T>  The value type.
+     * @return the object if cache exists or null otherwise
+     */
+    public static <T> T getObject(@NonNull final String key, @NonNull final Type type) {
+        return getObject(key, type, getDefaultCacheDiskUtils());
+    }
+
+    /**
+     * Return the object in cache.
+     *
+     * @param key          The key of cache.
+     * @param type         The type of object.
+     * @param defaultValue The default value if the cache doesn't exist.
+     * @param <T>          The value type.
+     * @return the object if cache exists or defaultValue otherwise
+     */
+    public static <T> T getObject(@NonNull final String key, @NonNull final Type type, final T defaultValue) {
+        return getObject(key, type, defaultValue, getDefaultCacheDiskUtils());
+    }
+
     /**
      * Return the size of cache, in bytes.
      *
@@ -908,6 +959,70 @@ public final class CacheDiskStaticUtils {
         return cacheDiskUtils.getSerializable(key, defaultValue);
     }
 
+    ///////////////////////////////////////////////////////////////////////////
+    // about Object
+    ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Put object in cache by the codec of object.
+     *
+     * @param key            The key of cache.
+     * @param value          The value of cache.
+     * @param cacheDiskUtils The instance of {@link CacheDiskUtils}.
+     */
+    public static void putObject(@NonNull final String key,
+                                 final Object value,
+                                 @NonNull final CacheDiskUtils cacheDiskUtils) {
+        cacheDiskUtils.putObject(key, value);
+    }
+
+    /**
+     * Put object in cache by the codec of object.
+     *
+     * @param key            The key of cache.
+     * @param value          The value of cache.
+     * @param saveTime       The save time of cache, in seconds.
+     * @param cacheDiskUtils The instance of {@link CacheDiskUtils}.
+     */
+    public static void putObject(@NonNull final String key,
+                                 final Object value,
+                                 final int saveTime,
+                                 @NonNull final CacheDiskUtils cacheDiskUtils) {
+        cacheDiskUtils.putObject(key, value, saveTime);
+    }
+
+    /**
+     * Return the object in cache.
+     *
+     * @param key            The key of cache.
+     * @param type           The type of object.
+     * @param cacheDiskUtils The instance of {@link CacheDiskUtils}.
+     * @param <T>            The value type.
+     * @return the object if cache exists or null otherwise
+     */
+    public static <T> T getObject(@NonNull final String key,
+                                  @NonNull final Type type,
+                                  @NonNull final CacheDiskUtils cacheDiskUtils) {
+        return cacheDiskUtils.getObject(key, type);
+    }
+
+    /**
+     * Return the object in cache.
+     *
+     * @param key            The key of cache.
+     * @param type           The type of object.
+     * @param defaultValue   The default value if the cache doesn't exist.
+     * @param cacheDiskUtils The instance of {@link CacheDiskUtils}.
+     * @param <T>            The value type.
+     * @return the object if cache exists or defaultValue otherwise
+     */
+    public static <T> T getObject(@NonNull final String key,
+                                  @NonNull final Type type,
+                                  final T defaultValue,
+                                  @NonNull final CacheDiskUtils cacheDiskUtils) {
+        return cacheDiskUtils.getObject(key, type, defaultValue);
+    }
+
     /**
      * Return the size of cache, in bytes.
      *
@@ -14,6 +14,7 @@ import org.json.JSONObject;
 import java.io.File;
 import java.io.FilenameFilter;
 import java.io.Serializable;
+import java.lang.reflect.Type;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Locale;
@@ -43,14 +44,16 @@ public final class CacheDiskUtils implements CacheConstants {
     private static final String TYPE_DRAWABLE     = "dr_";
     private static final String TYPE_PARCELABLE   = "pa_";
     private static final String TYPE_SERIALIZABLE = "se_";
+    private static final String TYPE_OBJECT       = "ob_";
 
     private static final Map<String, CacheDiskUtils> CACHE_MAP = new HashMap<>();
 
-    private final String           mCacheKey;
-    private final File             mCacheDir;
-    private final long             mMaxSize;
-    private final int              mMaxCount;
-    private       DiskCacheManager mDiskCacheManager;
+    private final    String                   mCacheKey;
+    private final    File                     mCacheDir;
+    private final    long                     mMaxSize;
+    private final    int                      mMaxCount;
+    private          DiskCacheManager         mDiskCacheManager;
+    private volatile ConvertUtils.ObjectCodec mObjectCodec = ConvertUtils.BINARY_CODEC;
 
     /**
      * Return the single {@link CacheDiskUtils} instance.
@@ -594,6 +597,75 @@ public final class CacheDiskUtils implements CacheConstants {
         return UtilsBridge.bytes2Object(bytes);
     }
 
+    ///////////////////////////////////////////////////////////////////////////
+    // about Object
+    ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Set the codec of object, default is {@link ConvertUtils#BINARY_CODEC}.
+     * <p>The cache put by the other codec can't be got.</p>
+     *
+     * @param codec The codec, such as {@link ConvertUtils#GSON_CODEC}.
+     * @return the single {@link CacheDiskUtils} instance
+     */
+    public CacheDiskUtils setObjectCodec(@NonNull final ConvertUtils.ObjectCodec codec) {
+        mObjectCodec = codec;
+        return this;
+    }
+
+    public ConvertUtils.ObjectCodec getObjectCodec() {
+        return mObjectCodec;
+    }
+
+    /**
+     * Put object in cache by the codec of object.
+     *
+     * @param key   The key of cache.
+     * @param value The value of cache.
+     */
+    public void putObject(@NonNull final String key, final Object value) {
+        putObject(key, value, -1);
+    }
+
+    /**
+     * Put object in cache by the codec of object.
+     *
+     * @param key      The key of cache.
+     * @param value    The value of cache.
+     * @param saveTime The save time of cache, in seconds.
+     */
+    public void putObject(@NonNull final String key, final Object value, final int saveTime) {
+        realPutBytes(TYPE_OBJECT + key, ConvertUtils.object2Bytes(value, mObjectCodec), saveTime);
+    }
+
+    /**
+     * Return the object in cache.
+     *
+     * @param key  The key of cache.
+     * @param type The type of object.
+     * @param <T>  The value type.
+     * @return the object if cache exists or null otherwise
+     */
+    public <T> T getObject(@NonNull final String key, @NonNull final Type type) {
+        return getObject(key, type, null);
+    }
+
+    /**
+     * Return the object in cache.
+     *
+     * @param key          The key of cache.
+     * @param type         The type of object.
+     * @param defaultValue The default value if the cache doesn't exist.
+     * @param <T>          The value type.
+     * @return the object if cache exists or defaultValue otherwise
+     */
+    public <T> T getObject(@NonNull final String key, @NonNull final Type type, final T defaultValue) {
+        byte[] bytes = realGetBytes(TYPE_OBJECT + key);
+        if (bytes == null) return defaultValue;
+        T object = ConvertUtils.bytes2Object(bytes, type, mObjectCodec);
+        return object == null ? defaultValue : object;
+    }
+
     /**
      * Return the size of cache, in bytes.
      *
@@ -632,7 +704,8 @@ public final class CacheDiskUtils implements CacheConstants {
                 && diskCacheManager.removeByKey(TYPE_BITMAP + key)
                 && diskCacheManager.removeByKey(TYPE_DRAWABLE + key)
                 && diskCacheManager.removeByKey(TYPE_PARCELABLE + key)
-                && diskCacheManager.removeByKey(TYPE_SERIALIZABLE + key);
+                && diskCacheManager.removeByKey(TYPE_SERIALIZABLE + key)
+                && diskCacheManager.removeByKey(TYPE_OBJECT + key);
     }
 
     /**
@@ -5,6 +5,7 @@ import android.graphics.Bitmap;
 import android.graphics.drawable.Drawable;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.support.annotation.NonNull;
 import android.view.View;
 
 import com.blankj.utilcode.constant.MemoryConstants;
@@ -24,9 +25,37 @@ import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
 import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * <pre>
@@ -43,6 +72,33 @@ public final class ConvertUtils {
             {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F'};
     private static final char[] HEX_DIGITS_LOWER =
             {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
+    private static final byte[] HEX_DECODE_TABLE = new byte[128];// -1 for the invalid char
+
+    /**
+     * The codec of java serialization, which is the same as {@link #serializable2Bytes(Serializable)}.
+     */
+    public static final ObjectCodec SERIALIZABLE_CODEC = new SerializableCodec();
+    /**
+     * The codec of {@link Parcel}, whose bytes should not be persisted across the versions of
+     * platform, so it's fit for the cache only.
+     */
+    public static final ObjectCodec PARCELABLE_CODEC   = new ParcelableCodec();
+    /**
+     * The codec of json by {@link GsonUtils#getGson()}.
+     */
+    public static final ObjectCodec GSON_CODEC         = new GsonCodec();
+    /**
+     * The codec of compact tagged-binary, see {@link BinaryCodec}.
+     */
+    public static final ObjectCodec BINARY_CODEC       = new BinaryCodec();
+
+    static {
+        Arrays.fill(HEX_DECODE_TABLE, (byte) -1);
+        for (int i = 0; i < 16; i++) {
+            HEX_DECODE_TABLE[HEX_DIGITS_UPPER[i]] = (byte) i;
+            HEX_DECODE_TABLE[HEX_DIGITS_LOWER[i]] = (byte) i;
+        }
+    }
 
     private ConvertUtils() {
         throw new UnsupportedOperationException("u can't instantiate me...");
@@ -165,17 +221,38 @@ public final class ConvertUtils {
      */
     public static String bytes2HexString(final byte[] bytes, boolean isUpperCase) {
         if (bytes == null) return "";
-        char[] hexDigits = isUpperCase ? HEX_DIGITS_UPPER : HEX_DIGITS_LOWER;
         int len = bytes.length;
         if (len <= 0) return "";
         char[] ret = new char[len << 1];
-        for (int i = 0, j = 0; i < len; i++) {
-            ret[j++] = hexDigits[bytes[i] >> 4 & 0x0f];
-            ret[j++] = hexDigits[bytes[i] & 0x0f];
-        }
+        bytes2HexChars(bytes, 0, len, ret, 0, isUpperCase);
         return new String(ret);
     }
 
+    /**
+     * Bytes to hex chars into the destination, which allocates nothing.
+     *
+     * @param src         The source bytes.
+     * @param srcOff      The offset of source.
+     * @param len         The length of source to convert.
+     * @param dest        The destination chars, whose remaining is at least {@code len * 2}.
+     * @param destOff     The offset of destination.
+     * @param isUpperCase True to use upper case, false otherwise.
+     * @return the count of chars written
+     */
+    public static int bytes2HexChars(final byte[] src,
+                                     final int srcOff,
+                                     final int len,
+                                     final char[] dest,
+                                     final int destOff,
+                                     final boolean isUpperCase) {
+        char[] hexDigits = isUpperCase ? HEX_DIGITS_UPPER : HEX_DIGITS_LOWER;
+        for (int i = srcOff, end = srcOff + len, j = destOff; i < end; i++) {
+            dest[j++] = hexDigits[src[i] >> 4 & 0x0f];
+            dest[j++] = hexDigits[src[i] & 0x0f];
+        }
+        return len << 1;
+    }
+
     /**
      * Hex string to bytes.
      * <p>e.g. hexString2Bytes("00A8") returns { 0, (byte) 0xA8 }</p>
@@ -186,26 +263,53 @@ public final class ConvertUtils {
     public static byte[] hexString2Bytes(String hexString) {
         if (UtilsBridge.isSpace(hexString)) return new byte[0];
         int len = hexString.length();
-        if (len % 2 != 0) {
-            hexString = "0" + hexString;
-            len = len + 1;
-        }
-        char[] hexBytes = hexString.toUpperCase().toCharArray();
-        byte[] ret = new byte[len >> 1];
-        for (int i = 0; i < len; i += 2) {
-            ret[i >> 1] = (byte) (hex2Dec(hexBytes[i]) << 4 | hex2Dec(hexBytes[i + 1]));
+        byte[] ret = new byte[(len + 1) >> 1];
+        int odd = len & 1;
+        if (odd != 0) {
+            // it's the same as padding "0" ahead
+            ret[0] = (byte) hex2Dec(hexString.charAt(0));
         }
+        hexChars2Bytes(hexString, odd, len - odd, ret, odd);
         return ret;
     }
 
-    private static int hex2Dec(final char hexChar) {
-        if (hexChar >= '0' && hexChar <= '9') {
-            return hexChar - '0';
-        } else if (hexChar >= 'A' && hexChar <= 'F') {
-            return hexChar - 'A' + 10;
-        } else {
-            throw new IllegalArgumentException();
+    /**
+     * Hex chars to bytes into the destination in one pass, which allocates nothing.
+     *
+     * @param src     The source chars, such as {@link String}, {@link StringBuilder} or
+     *                {@link java.nio.CharBuffer}.
+     * @param srcOff  The offset of source.
+     * @param len     The length of source to convert, which must be even.
+     * @param dest    The destination bytes, whose remaining is at least {@code len / 2}.
+     * @param destOff The offset of destination.
+     * @return the count of bytes written
+     * @throws IllegalArgumentException if the length is odd or the char is not hex
+     */
+    public static int hexChars2Bytes(final CharSequence src,
+                                     final int srcOff,
+                                     final int len,
+                                     final byte[] dest,
+                                     final int destOff) {
+        if ((len & 1) != 0) {
+            throw new IllegalArgumentException("The length of hex chars is odd: " + len);
         }
+        for (int i = srcOff, end = srcOff + len, j = destOff; i < end; i += 2) {
+            char c0 = src.charAt(i);
+            char c1 = src.charAt(i + 1);
+            int high = c0 < 128 ? HEX_DECODE_TABLE[c0] : -1;
+            int low = c1 < 128 ? HEX_DECODE_TABLE[c1] : -1;
+            if ((high | low) < 0) {
+                throw new IllegalArgumentException("Invalid hex char at " + (high < 0 ? i : i + 1));
+            }
+            dest[j++] = (byte) (high << 4 | low);
+        }
+        return len >> 1;
+    }
+
+    private static int hex2Dec(final char hexChar) {
+        int dec = hexChar < 128 ? HEX_DECODE_TABLE[hexChar] : -1;
+        if (dec < 0) throw new IllegalArgumentException("Invalid hex char: " + hexChar);
+        return dec;
     }
 
     /**
@@ -364,6 +468,73 @@ public final class ConvertUtils {
         }
     }
 
+    /**
+     * Object to bytes by the codec.
+     *
+     * @param object The object.
+     * @param codec  The codec, such as {@link #BINARY_CODEC}.
+     * @return the bytes, null if failed
+     */
+    public static byte[] object2Bytes(final Object object, @NonNull final ObjectCodec codec) {
+        if (object == null) return null;
+        return object2Bytes(object, object.getClass(), codec);
+    }
+
+    /**
+     * Object to bytes by the codec.
+     *
+     * @param object The object.
+     * @param type   The type of object, which is used by the generic one.
+     * @param codec  The codec, such as {@link #BINARY_CODEC}.
+     * @return the bytes, null if failed
+     */
+    public static byte[] object2Bytes(final Object object,
+                                      @NonNull final Type type,
+                                      @NonNull final ObjectCodec codec) {
+        if (object == null) return null;
+        try {
+            return codec.encode(object, type);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Register the types which can be decoded by {@link #BINARY_CODEC} when the declared type
+     * is their super one, such as the element of {@code List<Animal>} or the field of {@link Object},
+     * the class written in the bytes won't be loaded if it isn't the declared type or registered.
+     *
+     * @param types The types.
+     */
+    public static void registerBinaryTypes(@NonNull final Class<?>... types) {
+        for (Class<?> type : types) {
+            BinaryCodec.TYPES.put(type.getName(), type);
+        }
+    }
+
+    /**
+     * Bytes to object by the codec.
+     *
+     * @param bytes The bytes.
+     * @param type  The type of object.
+     * @param codec The codec which encodes the bytes.
+     * @param <T>   The value type.
+     * @return the object, null if failed
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T bytes2Object(final byte[] bytes,
+                                     @NonNull final Type type,
+                                     @NonNull final ObjectCodec codec) {
+        if (bytes == null) return null;
+        try {
+            return (T) codec.decode(bytes, type);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
     /**
      * Bytes to bitmap.
      */
@@ -758,4 +929,678 @@ public final class ConvertUtils {
         }
         return cn;
     }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // object codec
+    ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * The codec which converts object to bytes and back, it's used by
+     * {@link #object2Bytes(Object, Type, ObjectCodec)} and {@link CacheDiskUtils#putObject(String, Object)}.
+     */
+    public interface ObjectCodec {
+
+        byte[] encode(Object object, Type type) throws Exception;
+
+        Object decode(byte[] bytes, Type type) throws Exception;
+    }
+
+    private static final class SerializableCodec implements ObjectCodec {
+
+        @Override
+        public byte[] encode(final Object object, final Type type) {
+            return serializable2Bytes((Serializable) object);
+        }
+
+        @Override
+        public Object decode(final byte[] bytes, final Type type) {
+            return bytes2Object(bytes);
+        }
+    }
+
+    private static final class ParcelableCodec implements ObjectCodec {
+
+        @Override
+        public byte[] encode(final Object object, final Type type) {
+            return parcelable2Bytes((Parcelable) object);
+        }
+
+        @Override
+        public Object decode(final byte[] bytes, final Type type) throws Exception {
+            Field field = BinaryCodec.getRawType(type).getField("CREATOR");
+            field.setAccessible(true);
+            return bytes2Parcelable(bytes, (Parcelable.Creator<?>) field.get(null));
+        }
+    }
+
+    private static final class GsonCodec implements ObjectCodec {
+
+        @Override
+        public byte[] encode(final Object object, final Type type) throws Exception {
+            return UtilsBridge.toJson(object, type).getBytes("UTF-8");
+        }
+
+        @Override
+        public Object decode(final byte[] bytes, final Type type) throws Exception {
+            return UtilsBridge.fromJson(new String(bytes, "UTF-8"), type);
+        }
+    }
+
+    /**
+     * The compact tagged-binary codec, each value is prefixed with a tag of one byte, the integers
+     * are zig-zag varints and the fields of class are named once in the bytes, so it's much smaller
+     * and faster than java serialization and json for the graph of models.
+     * <p>It supports the primitives and their boxes, {@link String}, enum, {@link Date},
+     * {@link BigInteger}, {@link BigDecimal}, arrays, {@link Collection}, {@link Map} and the objects
+     * whose fields are of them, the static and transient fields are ignored and the graph which has
+     * cycle fails to encode.</p>
+     * <p>The fields are matched by name when decoding, the unknown ones are skipped and the missing
+     * ones keep the default value, so the models can evolve. The object whose class written in the
+     * bytes isn't the declared type is decoded as that class only if it's registered by
+     * {@link #registerBinaryTypes(Class[])}, so the bytes can't instantiate other classes.</p>
+     */
+    private static final class BinaryCodec implements ObjectCodec {
+
+        private static final int VERSION        = 1;
+        private static final int TAG_NULL       = 0;
+        private static final int TAG_FALSE      = 1;
+        private static final int TAG_TRUE       = 2;
+        private static final int TAG_INT        = 3;
+        private static final int TAG_LONG       = 4;
+        private static final int TAG_FLOAT      = 5;
+        private static final int TAG_DOUBLE     = 6;
+        private static final int TAG_STRING     = 7;
+        private static final int TAG_BYTES      = 8;
+        private static final int TAG_ARRAY      = 9;
+        private static final int TAG_MAP        = 10;
+        private static final int TAG_OBJECT_DEF = 11;// the first object of class with its names
+        private static final int TAG_OBJECT     = 12;// the object of class defined before
+
+        private static final Charset                   UTF_8       = Charset.forName("UTF-8");
+        private static final Map<Class<?>, ClassInfo> CLASS_INFOS = new ConcurrentHashMap<>();
+        private static final Map<String, Class<?>>    TYPES       = new ConcurrentHashMap<>();
+
+        @Override
+        public byte[] encode(final Object object, final Type type) throws Exception {
+            Output out = new Output();
+            out.writeByte(VERSION);
+            writeValue(out, object);
+            return Arrays.copyOf(out.buf, out.count);
+        }
+
+        @Override
+        public Object decode(final byte[] bytes, final Type type) throws Exception {
+            Input in = new Input(bytes);
+            if (in.readByte() != VERSION) throw new IllegalArgumentException("Unknown version.");
+            Object value = readValue(in, type);
+            if (in.pos != bytes.length) throw new IllegalArgumentException("Redundant bytes.");
+            return value;
+        }
+
+        private static void writeValue(final Output out, final Object value) throws Exception {
+            if (value == null) {
+                out.writeByte(TAG_NULL);
+                return;
+            }
+            Class<?> clazz = value.getClass();
+            if (clazz == Integer.class || clazz == Short.class || clazz == Byte.class) {
+                out.writeByte(TAG_INT);
+                out.writeZigzag(((Number) value).intValue());
+            } else if (clazz == Long.class) {
+                out.writeByte(TAG_LONG);
+                out.writeZigzag((Long) value);
+            } else if (clazz == Boolean.class) {
+                out.writeByte((Boolean) value ? TAG_TRUE : TAG_FALSE);
+            } else if (clazz == Character.class) {
+                out.writeByte(TAG_INT);
+                out.writeZigzag((Character) value);
+            } else if (clazz == Float.class) {
+                out.writeByte(TAG_FLOAT);
+                out.writeFixed(Float.floatToIntBits((Float) value), 4);
+            } else if (clazz == Double.class) {
+                out.writeByte(TAG_DOUBLE);
+                out.writeFixed(Double.doubleToLongBits((Double) value), 8);
+            } else if (clazz == String.class) {
+                out.writeByte(TAG_STRING);
+                out.writeString((String) value);
+            } else if (value instanceof Enum) {
+                out.writeByte(TAG_STRING);
+                out.writeString(((Enum<?>) value).name());
+            } else if (clazz == byte[].class) {
+                byte[] bytes = (byte[]) value;
+                out.writeByte(TAG_BYTES);
+                out.writeVarint(bytes.length);
+                out.write(bytes, 0, bytes.length);
+            } else if (value instanceof Date) {
+                out.writeByte(TAG_LONG);
+                out.writeZigzag(((Date) value).getTime());
+            } else if (value instanceof BigInteger || value instanceof BigDecimal) {
+                out.writeByte(TAG_STRING);
+                out.writeString(value.toString());
+            } else {
+                // the containers are tracked, or the cycle will overflow the stack
+                if (!out.visiting.add(value)) {
+                    throw new IOException("The graph has cycle at " + clazz.getName() + ".");
+                }
+                try {
+                    writeContainer(out, value, clazz);
+                } finally {
+                    out.visiting.remove(value);
+                }
+            }
+        }
+
+        private static void writeContainer(final Output out, final Object value, final Class<?> clazz)
+                throws Exception {
+            if (clazz.isArray()) {
+                int len = Array.getLength(value);
+                out.writeByte(TAG_ARRAY);
+                out.writeVarint(len);
+                for (int i = 0; i < len; i++) {
+                    writeValue(out, Array.get(value, i));
+                }
+            } else if (value instanceof Collection) {
+                Collection<?> collection = (Collection<?>) value;
+                out.writeByte(TAG_ARRAY);
+                out.writeVarint(collection.size());
+                for (Object element : collection) {
+                    writeValue(out, element);
+                }
+            } else if (value instanceof Map) {
+                Map<?, ?> map = (Map<?, ?>) value;
+                out.writeByte(TAG_MAP);
+                out.writeVarint(map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    writeValue(out, entry.getKey());
+                    writeValue(out, entry.getValue());
+                }
+            } else {
+                writeObject(out, value, clazz);
+            }
+        }
+
+        private static void writeObject(final Output out, final Object value, final Class<?> clazz)
+                throws Exception {
+            ClassInfo info = ClassInfo.of(clazz);
+            Integer index = out.classes.get(clazz);
+            if (index == null) {
+                out.classes.put(clazz, out.classes.size());
+                out.writeByte(TAG_OBJECT_DEF);
+                out.writeString(clazz.getName());
+                out.writeVarint(info.fields.length);
+                for (Field field : info.fields) {
+                    out.writeString(field.getName());
+                }
+            } else {
+                out.writeByte(TAG_OBJECT);
+                out.writeVarint(index);
+            }
+            for (Field field : info.fields) {
+                Class<?> type = field.getType();
+                // write the primitives without boxing
+                if (type == int.class) {
+                    out.writeByte(TAG_INT);
+                    out.writeZigzag(field.getInt(value));
+                } else if (type == long.class) {
+                    out.writeByte(TAG_LONG);
+                    out.writeZigzag(field.getLong(value));
+                } else if (type == boolean.class) {
+                    out.writeByte(field.getBoolean(value) ? TAG_TRUE : TAG_FALSE);
+                } else if (type == double.class) {
+                    out.writeByte(TAG_DOUBLE);
+                    out.writeFixed(Double.doubleToLongBits(field.getDouble(value)), 8);
+                } else if (type == float.class) {
+                    out.writeByte(TAG_FLOAT);
+                    out.writeFixed(Float.floatToIntBits(field.getFloat(value)), 4);
+                } else if (type == String.class) {
+                    String string = (String) field.get(value);
+                    if (string == null) {
+                        out.writeByte(TAG_NULL);
+                    } else {
+                        out.writeByte(TAG_STRING);
+                        out.writeString(string);
+                    }
+                } else {
+                    writeValue(out, field.get(value));
+                }
+            }
+        }
+
+        private static Object readValue(final Input in, final Type type) throws Exception {
+            Class<?> raw = getRawType(type);
+            int tag = in.readByte();
+            switch (tag) {
+                case TAG_NULL:
+                    return null;
+                case TAG_FALSE:
+                    return Boolean.FALSE;
+                case TAG_TRUE:
+                    return Boolean.TRUE;
+                case TAG_INT:
+                    return toNumber(in.readZigzag(), raw, false);
+                case TAG_LONG:
+                    long value = in.readZigzag();
+                    if (raw == Date.class) return new Date(value);
+                    return toNumber(value, raw, true);
+                case TAG_FLOAT:
+                    float f = Float.intBitsToFloat((int) in.readFixed(4));
+                    return raw == double.class || raw == Double.class ? (Object) (double) f : (Object) f;
+                case TAG_DOUBLE:
+                    double d = Double.longBitsToDouble(in.readFixed(8));
+                    return raw == float.class || raw == Float.class ? (Object) (float) d : (Object) d;
+                case TAG_STRING:
+                    return toString(in.readString(), raw);
+                case TAG_BYTES:
+                    return in.readBytes(in.readCount());
+                case TAG_ARRAY:
+                    return readArray(in, in.readCount(), type, raw);
+                case TAG_MAP:
+                    return readMap(in, in.readCount(), type, raw);
+                case TAG_OBJECT_DEF:
+                    return readObject(in, in.readClassDef(), raw);
+                case TAG_OBJECT:
+                    return readObject(in, in.getClassDef(in.readCount()), raw);
+                default:
+                    throw new IllegalArgumentException("Unknown tag " + tag + " at " + (in.pos - 1));
+            }
+        }
+
+        private static Object toNumber(final long value, final Class<?> raw, final boolean isLong) {
+            if (raw == int.class || raw == Integer.class) return (int) value;
+            if (raw == long.class || raw == Long.class) return value;
+            if (raw == short.class || raw == Short.class) return (short) value;
+            if (raw == byte.class || raw == Byte.class) return (byte) value;
+            if (raw == char.class || raw == Character.class) return (char) value;
+            if (raw == float.class || raw == Float.class) return (float) value;
+            if (raw == double.class || raw == Double.class) return (double) value;
+            return isLong ? (Object) value : (Object) (int) value;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Object toString(final String value, final Class<?> raw) {
+            if (raw.isEnum()) return Enum.valueOf((Class<Enum>) raw, value);
+            if (raw == BigInteger.class) return new BigInteger(value);
+            if (raw == BigDecimal.class) return new BigDecimal(value);
+            return value;
+        }
+
+        private static Object readArray(final Input in, final int count, final Type type, final Class<?> raw)
+                throws Exception {
+            if (raw.isArray()) {
+                Class<?> component = raw.getComponentType();
+                Type componentType = type instanceof GenericArrayType
+                        ? ((GenericArrayType) type).getGenericComponentType() : component;
+                Object array = Array.newInstance(component, count);
+                for (int i = 0; i < count; i++) {
+                    Object element = readValue(in, componentType);
+                    if (element != null) Array.set(array, i, element);
+                }
+                return array;
+            }
+            Collection<Object> collection = newCollection(raw);
+            Type elementType = getTypeArgument(type, 0);
+            for (int i = 0; i < count; i++) {
+                collection.add(readValue(in, elementType));
+            }
+            return collection;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Collection<Object> newCollection(final Class<?> raw) throws Exception {
+            if (isConcrete(raw)) return (Collection<Object>) ClassInfo.of(raw).newInstance();
+            if (SortedSet.class.isAssignableFrom(raw)) return new TreeSet<>();
+            if (Set.class.isAssignableFrom(raw)) return new LinkedHashSet<>();
+            if (Queue.class.isAssignableFrom(raw)) return new LinkedList<>();
+            return new ArrayList<>();
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Object readMap(final Input in, final int count, final Type type, final Class<?> raw)
+                throws Exception {
+            Map<Object, Object> map;
+            if (isConcrete(raw)) {
+                map = (Map<Object, Object>) ClassInfo.of(raw).newInstance();
+            } else if (SortedMap.class.isAssignableFrom(raw)) {
+                map = new TreeMap<>();
+            } else if (ConcurrentMap.class.isAssignableFrom(raw)) {
+                map = new ConcurrentHashMap<>();
+            } else {
+                map = new LinkedHashMap<>();
+            }
+            Type keyType = getTypeArgument(type, 0);
+            Type valueType = getTypeArgument(type, 1);
+            for (int i = 0; i < count; i++) {
+                Object key = readValue(in, keyType);
+                map.put(key, readValue(in, valueType));
+            }
+            return map;
+        }
+
+        private static Object readObject(final Input in, final ClassDef def, final Class<?> raw) throws Exception {
+            Class<?> clazz = raw;
+            if (!raw.getName().equals(def.name)) {
+                Class<?> named = TYPES.get(def.name);
+                if (named != null && raw.isAssignableFrom(named)) {
+                    clazz = named;
+                } else if (!isConcrete(raw)) {
+                    throw new IllegalArgumentException("Can't decode " + def.name + " as " + raw.getName()
+                            + ", register it by ConvertUtils#registerBinaryTypes.");
+                }
+            }
+            ClassInfo info = ClassInfo.of(clazz);
+            Object object = info.newInstance();
+            for (String name : def.names) {
+                Field field = info.fieldMap.get(name);
+                if (field == null) {
+                    skipValue(in);
+                } else if (!readPrimitive(in, field, object)) {
+                    Object value = readValue(in, field.getGenericType());
+                    if (value != null || !field.getType().isPrimitive()) {
+                        field.set(object, value);
+                    }
+                }
+            }
+            return object;
+        }
+
+        /**
+         * Read the primitive field without boxing if the tag matches its type.
+         */
+        private static boolean readPrimitive(final Input in, final Field field, final Object object)
+                throws Exception {
+            Class<?> type = field.getType();
+            if (!type.isPrimitive() || in.pos >= in.buf.length) return false;
+            int tag = in.buf[in.pos];
+            if (tag == TAG_INT && type == int.class) {
+                in.pos++;
+                field.setInt(object, (int) in.readZigzag());
+            } else if (tag == TAG_LONG && type == long.class) {
+                in.pos++;
+                field.setLong(object, in.readZigzag());
+            } else if ((tag == TAG_TRUE || tag == TAG_FALSE) && type == boolean.class) {
+                in.pos++;
+                field.setBoolean(object, tag == TAG_TRUE);
+            } else if (tag == TAG_DOUBLE && type == double.class) {
+                in.pos++;
+                field.setDouble(object, Double.longBitsToDouble(in.readFixed(8)));
+            } else if (tag == TAG_FLOAT && type == float.class) {
+                in.pos++;
+                field.setFloat(object, Float.intBitsToFloat((int) in.readFixed(4)));
+            } else {
+                return false;
+            }
+            return true;
+        }
+
+        private static void skipValue(final Input in) throws Exception {
+            int tag = in.readByte();
+            switch (tag) {
+                case TAG_NULL:
+                case TAG_FALSE:
+                case TAG_TRUE:
+                    return;
+                case TAG_INT:
+                case TAG_LONG:
+                    in.readZigzag();
+                    return;
+                case TAG_FLOAT:
+                    in.readFixed(4);
+                    return;
+                case TAG_DOUBLE:
+                    in.readFixed(8);
+                    return;
+                case TAG_STRING:
+                case TAG_BYTES:
+                    in.skip(in.readCount());
+                    return;
+                case TAG_ARRAY:
+                    for (int i = in.readCount(); i > 0; i--) {
+                        skipValue(in);
+                    }
+                    return;
+                case TAG_MAP:
+                    for (int i = in.readCount(); i > 0; i--) {
+                        skipValue(in);
+                        skipValue(in);
+                    }
+                    return;
+                case TAG_OBJECT_DEF:
+                case TAG_OBJECT:
+                    ClassDef def = tag == TAG_OBJECT_DEF ? in.readClassDef() : in.getClassDef(in.readCount());
+                    for (int i = def.names.length; i > 0; i--) {
+                        skipValue(in);
+                    }
+                    return;
+                default:
+                    throw new IllegalArgumentException("Unknown tag " + tag + " at " + (in.pos - 1));
+            }
+        }
+
+        private static boolean isConcrete(final Class<?> clazz) {
+            return clazz != Object.class
+                    && !clazz.isInterface()
+                    && !Modifier.isAbstract(clazz.getModifiers());
+        }
+
+        static Class<?> getRawType(final Type type) {
+            if (type instanceof Class) return (Class<?>) type;
+            if (type instanceof ParameterizedType) return (Class<?>) ((ParameterizedType) type).getRawType();
+            if (type instanceof GenericArrayType) {
+                Class<?> component = getRawType(((GenericArrayType) type).getGenericComponentType());
+                return Array.newInstance(component, 0).getClass();
+            }
+            if (type instanceof WildcardType) return getRawType(((WildcardType) type).getUpperBounds()[0]);
+            return Object.class;
+        }
+
+        private static Type getTypeArgument(final Type type, final int index) {
+            if (type instanceof ParameterizedType) {
+                Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+                if (index < arguments.length) return arguments[index];
+            }
+            return Object.class;
+        }
+
+        private static final class ClassInfo {
+            private final Class<?>           clazz;
+            private final Field[]            fields;
+            private final Map<String, Field> fieldMap = new HashMap<>();
+            private final Constructor<?>     constructor;
+
+            private ClassInfo(final Class<?> clazz) {
+                this.clazz = clazz;
+                List<Field> fieldList = new ArrayList<>();
+                for (Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+                    for (Field field : c.getDeclaredFields()) {
+                        int modifiers = field.getModifiers();
+                        if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers)) continue;
+                        if (field.isSynthetic() || fieldMap.containsKey(field.getName())) continue;
+                        field.setAccessible(true);
+                        fieldList.add(field);
+                        fieldMap.put(field.getName(), field);
+                    }
+                }
+                fields = fieldList.toArray(new Field[0]);
+                Constructor<?> noArgs = null;
+                try {
+                    noArgs = clazz.getDeclaredConstructor();
+                    noArgs.setAccessible(true);
+                } catch (NoSuchMethodException ignore) {
+                }
+                constructor = noArgs;
+            }
+
+            static ClassInfo of(final Class<?> clazz) {
+                ClassInfo info = CLASS_INFOS.get(clazz);
+                if (info == null) {
+                    info = new ClassInfo(clazz);
+                    CLASS_INFOS.put(clazz, info);
+                }
+                return info;
+            }
+
+            Object newInstance() throws Exception {
+                if (constructor != null) return constructor.newInstance();
+                // allocate the object without constructor like Gson
+                Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                return unsafeClass.getMethod("allocateInstance", Class.class)
+                        .invoke(theUnsafe.get(null), clazz);
+            }
+        }
+
+        private static final class ClassDef {
+            private final String   name;
+            private final String[] names;
+
+            ClassDef(final String name, final String[] names) {
+                this.name = name;
+                this.names = names;
+            }
+        }
+
+        private static final class Output {
+            private       byte[]                 buf      = new byte[256];
+            private       int                    count;
+            private final Map<Class<?>, Integer> classes  = new HashMap<>();
+            private final Set<Object>            visiting = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+
+            void ensure(final int len) {
+                if (count + len > buf.length) {
+                    buf = Arrays.copyOf(buf, Math.max(buf.length << 1, count + len));
+                }
+            }
+
+            void writeByte(final int b) {
+                ensure(1);
+                buf[count++] = (byte) b;
+            }
+
+            void write(final byte[] b, final int off, final int len) {
+                ensure(len);
+                System.arraycopy(b, off, buf, count, len);
+                count += len;
+            }
+
+            void writeVarint(long value) {
+                ensure(10);
+                while ((value & ~0x7FL) != 0) {
+                    buf[count++] = (byte) ((value & 0x7F) | 0x80);
+                    value >>>= 7;
+                }
+                buf[count++] = (byte) value;
+            }
+
+            void writeZigzag(final long value) {
+                writeVarint((value << 1) ^ (value >> 63));
+            }
+
+            void writeFixed(final long value, final int len) {
+                ensure(len);
+                for (int i = 0; i < len; i++) {
+                    buf[count++] = (byte) (value >>> (i << 3));
+                }
+            }
+
+            void writeString(final String value) {
+                int len = value.length();
+                for (int i = 0; i < len; i++) {
+                    if (value.charAt(i) >= 0x80) {
+                        byte[] bytes = value.getBytes(UTF_8);
+                        writeVarint(bytes.length);
+                        write(bytes, 0, bytes.length);
+                        return;
+                    }
+                }
+                // the ascii is written without encoding
+                writeVarint(len);
+                ensure(len);
+                for (int i = 0; i < len; i++) {
+                    buf[count++] = (byte) value.charAt(i);
+                }
+            }
+        }
+
+        private static final class Input {
+            private final byte[]         buf;
+            private       int            pos;
+            private final List<ClassDef> classes = new ArrayList<>();
+
+            Input(final byte[] buf) {
+                this.buf = buf;
+            }
+
+            int readByte() {
+                if (pos >= buf.length) throw new IllegalArgumentException("Unexpected end.");
+                return buf[pos++] & 0xff;
+            }
+
+            long readVarint() {
+                long value = 0;
+                for (int shift = 0; shift < 64; shift += 7) {
+                    int b = readByte();
+                    value |= (long) (b & 0x7F) << shift;
+                    if ((b & 0x80) == 0) return value;
+                }
+                throw new IllegalArgumentException("Malformed varint at " + pos);
+            }
+
+            long readZigzag() {
+                long value = readVarint();
+                return (value >>> 1) ^ -(value & 1);
+            }
+
+            /**
+             * Read the count which is no more than the remaining bytes, so the malformed one
+             * won't allocate too much.
+             */
+            int readCount() {
+                long count = readVarint();
+                if (count > buf.length - pos) throw new IllegalArgumentException("Malformed count at " + pos);
+                return (int) count;
+            }
+
+            long readFixed(final int len) {
+                skip(len);
+                long value = 0;
+                for (int i = 0; i < len; i++) {
+                    value |= (buf[pos - len + i] & 0xffL) << (i << 3);
+                }
+                return value;
+            }
+
+            void skip(final int len) {
+                if (len > buf.length - pos) throw new IllegalArgumentException("Unexpected end.");
+                pos += len;
+            }
+
+            byte[] readBytes(final int len) {
+                skip(len);
+                return Arrays.copyOfRange(buf, pos - len, pos);
+            }
+
+            String readString() {
+                int len = readCount();
+                skip(len);
+                return new String(buf, pos - len, len, UTF_8);
+            }
+
+            ClassDef readClassDef() {
+                String name = readString();
+                String[] names = new String[readCount()];
+                for (int i = 0; i < names.length; i++) {
+                    names[i] = readString();
+                }
+                ClassDef def = new ClassDef(name, names);
+                classes.add(def);
+                return def;
+            }
+
+            ClassDef getClassDef(final int index) {
+                if (index >= classes.size()) throw new IllegalArgumentException("Unknown class " + index);
+                return classes.get(index);
+            }
+        }
+    }
 }
@@ -98,6 +98,7 @@ public final class CrashUtils {
         return new UncaughtExceptionHandler() {
             @Override
             public void uncaughtException(@NonNull final Thread t, @NonNull final Throwable e) {
+                UtilsBridge.flushLogOnCrash();// make sure the logs before crash have been written to file
                 final String time = new SimpleDateFormat("yyyy_MM_dd-HH_mm_ss").format(new Date());
                 final StringBuilder sb = new StringBuilder();
                 final String head = "************* Log Head ****************" +
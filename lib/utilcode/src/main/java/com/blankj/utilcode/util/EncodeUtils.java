@@ -4,9 +4,20 @@ import android.os.Build;
 import android.text.Html;
 import android.util.Base64;
 
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
 import java.io.UnsupportedEncodingException;
+import java.io.Writer;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
 
 /**
  * <pre>
@@ -18,6 +29,43 @@ import java.net.URLEncoder;
  */
 public final class EncodeUtils {
 
+    private static final byte[] BASE64_ENCODE_TABLE          = new byte[64];
+    private static final byte[] BASE64_URL_SAFE_ENCODE_TABLE = new byte[64];
+    private static final byte[] BASE64_DECODE_TABLE          = new byte[256];
+    private static final byte[] HEX_UPPER_ENCODE_TABLE       = "0123456789ABCDEF".getBytes();
+    private static final byte[] HEX_LOWER_ENCODE_TABLE       = "0123456789abcdef".getBytes();
+    private static final byte[] HEX_DECODE_TABLE             = new byte[256];
+    private static final byte   DECODE_INVALID               = -1;
+    private static final byte   DECODE_SKIP                  = -2;// the whitespace
+    private static final byte   BASE64_PAD                   = -3;
+    private static final int    BASE64_CHUNK_SIZE            = 3 * 1024;
+    private static final int    STREAM_CHUNK_SIZE            = 8192;
+
+    static {
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        Arrays.fill(BASE64_DECODE_TABLE, DECODE_INVALID);
+        Arrays.fill(HEX_DECODE_TABLE, DECODE_INVALID);
+        for (int i = 0; i < 64; i++) {
+            BASE64_ENCODE_TABLE[i] = (byte) alphabet.charAt(i);
+            BASE64_URL_SAFE_ENCODE_TABLE[i] = (byte) alphabet.charAt(i);
+            BASE64_DECODE_TABLE[alphabet.charAt(i)] = (byte) i;
+        }
+        // the url-safe alphabet is decoded as well
+        BASE64_URL_SAFE_ENCODE_TABLE[62] = '-';
+        BASE64_URL_SAFE_ENCODE_TABLE[63] = '_';
+        BASE64_DECODE_TABLE['-'] = 62;
+        BASE64_DECODE_TABLE['_'] = 63;
+        BASE64_DECODE_TABLE['='] = BASE64_PAD;
+        for (int i = 0; i < 16; i++) {
+            HEX_DECODE_TABLE[HEX_UPPER_ENCODE_TABLE[i]] = (byte) i;
+            HEX_DECODE_TABLE[HEX_LOWER_ENCODE_TABLE[i]] = (byte) i;
+        }
+        for (char c : new char[]{' ', '\t', '\r', '\n'}) {
+            BASE64_DECODE_TABLE[c] = DECODE_SKIP;
+            HEX_DECODE_TABLE[c] = DECODE_SKIP;
+        }
+    }
+
     private EncodeUtils() {
         throw new UnsupportedOperationException("u can't instantiate me...");
     }
@@ -82,7 +130,7 @@ public final class EncodeUtils {
      * @return Base64-encode bytes
      */
     public static byte[] base64Encode(final String input) {
-        return base64Encode(input.getBytes());
+        return base64Encode(input.getBytes(Charset.forName("UTF-8")));
     }
 
     /**
@@ -129,6 +177,231 @@ public final class EncodeUtils {
         return Base64.decode(input, Base64.NO_WRAP);
     }
 
+    /**
+     * Return the length of Base64-encode bytes with padding.
+     *
+     * @param len The length of input.
+     * @return the length of Base64-encode bytes
+     */
+    public static int getBase64EncodeLength(final int len) {
+        return (len + 2) / 3 * 4;
+    }
+
+    /**
+     * Return the max length of Base64-decode bytes, which is exact if the input has no whitespace
+     * and padding.
+     *
+     * @param len The length of input.
+     * @return the max length of Base64-decode bytes
+     */
+    public static int getBase64DecodeMaxLength(final int len) {
+        return (int) (len * 3L / 4);
+    }
+
+    /**
+     * Base64-encode into the destination with padding, which allocates nothing.
+     * <p>The large input can be encoded in chunks whose lengths are multiple of 3 but the last.</p>
+     *
+     * @param src     The source bytes.
+     * @param srcOff  The offset of source.
+     * @param len     The length of source to encode.
+     * @param dest    The destination bytes, whose remaining is at least
+     *                {@link #getBase64EncodeLength(int)}.
+     * @param destOff The offset of destination.
+     * @return the count of bytes written
+     */
+    public static int base64Encode(final byte[] src,
+                                   final int srcOff,
+                                   final int len,
+                                   final byte[] dest,
+                                   final int destOff) {
+        return base64EncodeInner(src, srcOff, len, dest, destOff, BASE64_ENCODE_TABLE, true);
+    }
+
+    /**
+     * Base64-encode the remaining of source into the destination with padding, the positions of
+     * both buffers are advanced.
+     *
+     * @param src  The source buffer.
+     * @param dest The destination buffer.
+     * @return the count of bytes written
+     * @throws BufferOverflowException if the remaining of destination is not enough
+     */
+    public static int base64Encode(final ByteBuffer src, final ByteBuffer dest) {
+        int len = src.remaining();
+        int outLen = getBase64EncodeLength(len);
+        if (dest.remaining() < outLen) throw new BufferOverflowException();
+        if (src.hasArray() && dest.hasArray()) {
+            base64Encode(src.array(), src.arrayOffset() + src.position(), len,
+                    dest.array(), dest.arrayOffset() + dest.position());
+            src.position(src.limit());
+            dest.position(dest.position() + outLen);
+            return outLen;
+        }
+        byte[] in = new byte[Math.min(len, BASE64_CHUNK_SIZE)];
+        byte[] out = new byte[getBase64EncodeLength(in.length)];
+        while (src.hasRemaining()) {
+            int count = Math.min(src.remaining(), in.length);
+            src.get(in, 0, count);
+            dest.put(out, 0, base64Encode(in, 0, count, out, 0));
+        }
+        return outLen;
+    }
+
+    /**
+     * Base64-decode into the destination in one pass, which allocates nothing, the whitespace is
+     * skipped and the padding is optional.
+     * <p>The large input can be decoded in chunks whose counts of Base64 chars are multiple of 4
+     * but the last.</p>
+     *
+     * @param src     The source bytes.
+     * @param srcOff  The offset of source.
+     * @param len     The length of source to decode.
+     * @param dest    The destination bytes, whose remaining is at least
+     *                {@link #getBase64DecodeMaxLength(int)}.
+     * @param destOff The offset of destination.
+     * @return the count of bytes written
+     * @throws IllegalArgumentException if the input is not Base64
+     */
+    public static int base64Decode(final byte[] src,
+                                   final int srcOff,
+                                   final int len,
+                                   final byte[] dest,
+                                   final int destOff) {
+        int bits = 0, count = 0, j = destOff, i = srcOff;
+        final int end = srcOff + len;
+        for (; i < end; i++) {
+            if (count == 0) {
+                // decode the quantum of 4 valid chars at once
+                while (i + 3 < end) {
+                    int dec0 = BASE64_DECODE_TABLE[src[i] & 0xff];
+                    int dec1 = BASE64_DECODE_TABLE[src[i + 1] & 0xff];
+                    int dec2 = BASE64_DECODE_TABLE[src[i + 2] & 0xff];
+                    int dec3 = BASE64_DECODE_TABLE[src[i + 3] & 0xff];
+                    if ((dec0 | dec1 | dec2 | dec3) < 0) break;
+                    int quantum = dec0 << 18 | dec1 << 12 | dec2 << 6 | dec3;
+                    dest[j++] = (byte) (quantum >> 16);
+                    dest[j++] = (byte) (quantum >> 8);
+                    dest[j++] = (byte) quantum;
+                    i += 4;
+                }
+                if (i >= end) break;
+            }
+            int dec = BASE64_DECODE_TABLE[src[i] & 0xff];
+            if (dec >= 0) {
+                bits = bits << 6 | dec;
+                if (++count == 4) {
+                    dest[j++] = (byte) (bits >> 16);
+                    dest[j++] = (byte) (bits >> 8);
+                    dest[j++] = (byte) bits;
+                    bits = 0;
+                    count = 0;
+                }
+            } else if (dec == BASE64_PAD) {
+                break;
+            } else if (dec != DECODE_SKIP) {
+                throw new IllegalArgumentException("Invalid Base64 char at " + i);
+            }
+        }
+        if (count == 1) {
+            throw new IllegalArgumentException("Invalid Base64 length.");
+        } else if (count == 2) {
+            dest[j++] = (byte) (bits >> 4);
+        } else if (count == 3) {
+            dest[j++] = (byte) (bits >> 10);
+            dest[j++] = (byte) (bits >> 2);
+        }
+        // only the padding and whitespace are allowed after padding
+        for (; i < end; i++) {
+            int dec = BASE64_DECODE_TABLE[src[i] & 0xff];
+            if (dec != BASE64_PAD && dec != DECODE_SKIP) {
+                throw new IllegalArgumentException("Invalid Base64 char at " + i);
+            }
+        }
+        return j - destOff;
+    }
+
+    /**
+     * Base64-decode the remaining of source into the destination, the positions of both buffers
+     * are advanced.
+     *
+     * @param src  The source buffer.
+     * @param dest The destination buffer.
+     * @return the count of bytes written
+     * @throws BufferOverflowException  if the remaining of destination is not enough
+     * @throws IllegalArgumentException if the input is not Base64
+     */
+    public static int base64Decode(final ByteBuffer src, final ByteBuffer dest) {
+        int len = src.remaining();
+        if (src.hasArray() && dest.hasArray()) {
+            if (dest.remaining() < getBase64DecodeMaxLength(len)) throw new BufferOverflowException();
+            int outLen = base64Decode(src.array(), src.arrayOffset() + src.position(), len,
+                    dest.array(), dest.arrayOffset() + dest.position());
+            src.position(src.limit());
+            dest.position(dest.position() + outLen);
+            return outLen;
+        }
+        byte[] in = new byte[BASE64_CHUNK_SIZE];
+        byte[] out = new byte[getBase64DecodeMaxLength(in.length)];
+        int kept = 0, total = 0;
+        while (true) {
+            int count = kept + Math.min(src.remaining(), in.length - kept);
+            src.get(in, kept, count - kept);
+            boolean isLast = !src.hasRemaining();
+            int cut = count;
+            if (!isLast) {
+                // decode the complete quanta only, so the rest is not taken as the end
+                cut = 0;
+                for (int i = 0, chars = 0; i < count; i++) {
+                    if (BASE64_DECODE_TABLE[in[i] & 0xff] >= 0 && ++chars % 4 == 0) cut = i + 1;
+                }
+            }
+            int outLen = base64Decode(in, 0, cut, out, 0);
+            if (dest.remaining() < outLen) throw new BufferOverflowException();
+            dest.put(out, 0, outLen);
+            total += outLen;
+            if (isLast) return total;
+            kept = 0;
+            for (int i = cut; i < count; i++) {
+                if (BASE64_DECODE_TABLE[in[i] & 0xff] != DECODE_SKIP) in[kept++] = in[i];
+            }
+            if (kept == in.length) throw new IllegalArgumentException("Invalid Base64 input.");
+        }
+    }
+
+    private static int base64EncodeInner(final byte[] src,
+                                         final int srcOff,
+                                         final int len,
+                                         final byte[] dest,
+                                         final int destOff,
+                                         final byte[] table,
+                                         final boolean isPadding) {
+        int j = destOff;
+        int end = srcOff + len - len % 3;
+        for (int i = srcOff; i < end; i += 3) {
+            int bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8 | (src[i + 2] & 0xff);
+            dest[j++] = table[bits >>> 18];
+            dest[j++] = table[bits >>> 12 & 0x3f];
+            dest[j++] = table[bits >>> 6 & 0x3f];
+            dest[j++] = table[bits & 0x3f];
+        }
+        int rest = len % 3;
+        if (rest != 0) {
+            int bits = (src[end] & 0xff) << 16 | (rest == 2 ? (src[end + 1] & 0xff) << 8 : 0);
+            dest[j++] = table[bits >>> 18];
+            dest[j++] = table[bits >>> 12 & 0x3f];
+            if (rest == 2) {
+                dest[j++] = table[bits >>> 6 & 0x3f];
+            } else if (isPadding) {
+                dest[j++] = '=';
+            }
+            if (isPadding) {
+                dest[j++] = '=';
+            }
+        }
+        return j - destOff;
+    }
+
     /**
      * Return html-encode string.
      *
@@ -214,4 +487,558 @@ public final class EncodeUtils {
         }
         return sb.toString();
     }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // streams
+    ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * The input stream which Base64-encodes or decodes the bytes read from the wrapped one chunk by
+     * chunk with fixed buffers, so it can be passed to
+     * {@link FileIOUtils#writeFileFromIS(java.io.File, InputStream)} or used as the body of request.
+     * <p>The decoder skips the whitespace, accepts both standard and url-safe alphabets and the
+     * padding is optional.</p>
+     */
+    public static final class Base64InputStream extends CodecInputStream {
+
+        /**
+         * Decode the Base64 bytes read from the input stream.
+         *
+         * @param in The input stream.
+         */
+        public Base64InputStream(final InputStream in) {
+            this(in, false, false);
+        }
+
+        /**
+         * @param in        The input stream.
+         * @param isEncode  True to encode, false to decode.
+         * @param isUrlSafe True to encode with the url-safe alphabet and without padding.
+         */
+        public Base64InputStream(final InputStream in, final boolean isEncode, final boolean isUrlSafe) {
+            super(in, isEncode ? new Base64Encoder(isUrlSafe) : new Base64Decoder());
+        }
+
+        /**
+         * Decode the Base64 chars read from the reader.
+         *
+         * @param in The reader.
+         */
+        public Base64InputStream(final Reader in) {
+            super(new ReaderInputStream(in), new Base64Decoder());
+        }
+    }
+
+    /**
+     * The output stream which Base64-encodes or decodes the bytes written to it chunk by chunk with
+     * fixed buffers, the rest is flushed on {@link #close()}.
+     * <p>The decoder skips the whitespace, accepts both standard and url-safe alphabets and the
+     * padding is optional.</p>
+     */
+    public static final class Base64OutputStream extends CodecOutputStream {
+
+        /**
+         * Encode the bytes into the output stream with padding.
+         *
+         * @param out The output stream.
+         */
+        public Base64OutputStream(final OutputStream out) {
+            this(out, true, false);
+        }
+
+        /**
+         * @param out       The output stream.
+         * @param isEncode  True to encode, false to decode.
+         * @param isUrlSafe True to encode with the url-safe alphabet and without padding.
+         */
+        public Base64OutputStream(final OutputStream out, final boolean isEncode, final boolean isUrlSafe) {
+            super(out, isEncode ? new Base64Encoder(isUrlSafe) : new Base64Decoder());
+        }
+
+        /**
+         * Encode the bytes into the writer as Base64 chars.
+         *
+         * @param out       The writer.
+         * @param isUrlSafe True to encode with the url-safe alphabet and without padding.
+         */
+        public Base64OutputStream(final Writer out, final boolean isUrlSafe) {
+            super(new WriterOutputStream(out), new Base64Encoder(isUrlSafe));
+        }
+    }
+
+    /**
+     * The input stream which hex-encodes or decodes the bytes read from the wrapped one chunk by
+     * chunk with fixed buffers, the decoder skips the whitespace and ignores the case.
+     */
+    public static final class HexInputStream extends CodecInputStream {
+
+        /**
+         * Decode the hex bytes read from the input stream.
+         *
+         * @param in The input stream.
+         */
+        public HexInputStream(final InputStream in) {
+            this(in, false, true);
+        }
+
+        /**
+         * @param in          The input stream.
+         * @param isEncode    True to encode, false to decode.
+         * @param isUpperCase True to encode in upper case.
+         */
+        public HexInputStream(final InputStream in, final boolean isEncode, final boolean isUpperCase) {
+            super(in, isEncode ? new HexEncoder(isUpperCase) : new HexDecoder());
+        }
+
+        /**
+         * Decode the hex chars read from the reader.
+         *
+         * @param in The reader.
+         */
+        public HexInputStream(final Reader in) {
+            super(new ReaderInputStream(in), new HexDecoder());
+        }
+    }
+
+    /**
+     * The output stream which hex-encodes or decodes the bytes written to it chunk by chunk with
+     * fixed buffers, the decoder skips the whitespace and ignores the case.
+     */
+    public static final class HexOutputStream extends CodecOutputStream {
+
+        /**
+         * Encode the bytes into the output stream in upper case.
+         *
+         * @param out The output stream.
+         */
+        public HexOutputStream(final OutputStream out) {
+            this(out, true, true);
+        }
+
+        /**
+         * @param out         The output stream.
+         * @param isEncode    True to encode, false to decode.
+         * @param isUpperCase True to encode in upper case.
+         */
+        public HexOutputStream(final OutputStream out, final boolean isEncode, final boolean isUpperCase) {
+            super(out, isEncode ? new HexEncoder(isUpperCase) : new HexDecoder());
+        }
+
+        /**
+         * Encode the bytes into the writer as hex chars.
+         *
+         * @param out         The writer.
+         * @param isUpperCase True to encode in upper case.
+         */
+        public HexOutputStream(final Writer out, final boolean isUpperCase) {
+            super(new WriterOutputStream(out), new HexEncoder(isUpperCase));
+        }
+    }
+
+    private abstract static class CodecInputStream extends FilterInputStream {
+
+        private final StreamCodec mCodec;
+        private final byte[]      mIn  = new byte[STREAM_CHUNK_SIZE];
+        private final byte[]      mOut;
+        private final byte[]      mOne = new byte[1];
+        private       int         mPos;
+        private       int         mLimit;
+        private       boolean     mIsEnd;
+
+        CodecInputStream(final InputStream in, final StreamCodec codec) {
+            super(in);
+            mCodec = codec;
+            mOut = new byte[codec.getMaxOutputLength(STREAM_CHUNK_SIZE)];
+        }
+
+        @Override
+        public int read() throws IOException {
+            return read(mOne, 0, 1) == -1 ? -1 : mOne[0] & 0xff;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (len == 0) return 0;
+            if (mPos == mLimit && !fill()) return -1;
+            int count = Math.min(len, mLimit - mPos);
+            System.arraycopy(mOut, mPos, b, off, count);
+            mPos += count;
+            return count;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            long remaining = n;
+            while (remaining > 0 && (mPos < mLimit || fill())) {
+                int count = (int) Math.min(remaining, mLimit - mPos);
+                mPos += count;
+                remaining -= count;
+            }
+            return n - remaining;
+        }
+
+        @Override
+        public int available() {
+            return mLimit - mPos;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void mark(final int readLimit) {
+        }
+
+        @Override
+        public void reset() throws IOException {
+            throw new IOException("mark/reset not supported");
+        }
+
+        private boolean fill() throws IOException {
+            while (!mIsEnd) {
+                int len = in.read(mIn, 0, mIn.length);
+                mPos = 0;
+                if (len == -1) {
+                    mIsEnd = true;
+                    mLimit = mCodec.doFinal(mOut, 0);
+                } else {
+                    mLimit = mCodec.update(mIn, 0, len, mOut, 0);
+                }
+                if (mLimit > 0) return true;
+            }
+            return false;
+        }
+    }
+
+    private abstract static class CodecOutputStream extends FilterOutputStream {
+
+        private final StreamCodec mCodec;
+        private final byte[]      mOut;
+        private final byte[]      mOne = new byte[1];
+        private       boolean     mIsClosed;
+
+        CodecOutputStream(final OutputStream out, final StreamCodec codec) {
+            super(out);
+            mCodec = codec;
+            mOut = new byte[codec.getMaxOutputLength(STREAM_CHUNK_SIZE)];
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            mOne[0] = (byte) b;
+            write(mOne, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] b, int off, int len) throws IOException {
+            if (mIsClosed) throw new IOException("Stream closed.");
+            while (len > 0) {
+                int count = Math.min(len, STREAM_CHUNK_SIZE);
+                out.write(mOut, 0, mCodec.update(b, off, count, mOut, 0));
+                off += count;
+                len -= count;
+            }
+        }
+
+        /**
+         * Write the rest, flush and close the wrapped stream.
+         */
+        @Override
+        public void close() throws IOException {
+            if (mIsClosed) return;
+            mIsClosed = true;
+            try {
+                out.write(mOut, 0, mCodec.doFinal(mOut, 0));
+            } finally {
+                super.close();
+            }
+        }
+    }
+
+    /**
+     * The codec which keeps the incomplete quantum between chunks.
+     */
+    private abstract static class StreamCodec {
+
+        /**
+         * @return the count of bytes written, the destination is at least
+         * {@link #getMaxOutputLength(int)}
+         */
+        abstract int update(byte[] src, int srcOff, int len, byte[] dest, int destOff) throws IOException;
+
+        abstract int doFinal(byte[] dest, int destOff) throws IOException;
+
+        abstract int getMaxOutputLength(int len);
+    }
+
+    private static final class Base64Encoder extends StreamCodec {
+
+        private final byte[]  mTable;
+        private final boolean mIsPadding;
+        private final byte[]  mRest = new byte[3];
+        private       int     mRestLen;
+
+        Base64Encoder(final boolean isUrlSafe) {
+            mTable = isUrlSafe ? BASE64_URL_SAFE_ENCODE_TABLE : BASE64_ENCODE_TABLE;
+            mIsPadding = !isUrlSafe;
+        }
+
+        @Override
+        int update(final byte[] src, int srcOff, int len, final byte[] dest, final int destOff) {
+            int j = destOff;
+            if (mRestLen > 0) {
+                while (mRestLen < 3 && len > 0) {
+                    mRest[mRestLen++] = src[srcOff++];
+                    len--;
+                }
+                if (mRestLen < 3) return 0;
+                j += base64EncodeInner(mRest, 0, 3, dest, j, mTable, mIsPadding);
+                mRestLen = 0;
+            }
+            int full = len - len % 3;
+            j += base64EncodeInner(src, srcOff, full, dest, j, mTable, mIsPadding);
+            for (int i = srcOff + full, end = srcOff + len; i < end; i++) {
+                mRest[mRestLen++] = src[i];
+            }
+            return j - destOff;
+        }
+
+        @Override
+        int doFinal(final byte[] dest, final int destOff) {
+            int count = base64EncodeInner(mRest, 0, mRestLen, dest, destOff, mTable, mIsPadding);
+            mRestLen = 0;
+            return count;
+        }
+
+        @Override
+        int getMaxOutputLength(final int len) {
+            return (len + 2) / 3 * 4 + 4;
+        }
+    }
+
+    private static final class Base64Decoder extends StreamCodec {
+
+        private int     mBits;
+        private int     mCount;
+        private boolean mIsPadded;
+        private long    mIndex;
+
+        @Override
+        int update(final byte[] src, final int srcOff, final int len, final byte[] dest, final int destOff)
+                throws IOException {
+            int j = destOff, i = srcOff;
+            final int end = srcOff + len;
+            for (; i < end; i++) {
+                if (mCount == 0 && !mIsPadded) {
+                    // decode the quantum of 4 valid chars at once
+                    while (i + 3 < end) {
+                        int dec0 = BASE64_DECODE_TABLE[src[i] & 0xff];
+                        int dec1 = BASE64_DECODE_TABLE[src[i + 1] & 0xff];
+                        int dec2 = BASE64_DECODE_TABLE[src[i + 2] & 0xff];
+                        int dec3 = BASE64_DECODE_TABLE[src[i + 3] & 0xff];
+                        if ((dec0 | dec1 | dec2 | dec3) < 0) break;
+                        int quantum = dec0 << 18 | dec1 << 12 | dec2 << 6 | dec3;
+                        dest[j++] = (byte) (quantum >> 16);
+                        dest[j++] = (byte) (quantum >> 8);
+                        dest[j++] = (byte) quantum;
+                        i += 4;
+                    }
+                    if (i >= end) break;
+                }
+                int dec = BASE64_DECODE_TABLE[src[i] & 0xff];
+                if (dec == DECODE_SKIP) continue;
+                if (mIsPadded && dec != BASE64_PAD) {
+                    throw new IOException("Invalid Base64 char at " + (mIndex + i - srcOff));
+                }
+                if (dec >= 0) {
+                    mBits = mBits << 6 | dec;
+                    if (++mCount == 4) {
+                        dest[j++] = (byte) (mBits >> 16);
+                        dest[j++] = (byte) (mBits >> 8);
+                        dest[j++] = (byte) mBits;
+                        mBits = 0;
+                        mCount = 0;
+                    }
+                } else if (dec == BASE64_PAD) {
+                    if (!mIsPadded) {
+                        j += decodeRest(dest, j);
+                        mIsPadded = true;
+                    }
+                } else {
+                    throw new IOException("Invalid Base64 char at " + (mIndex + i - srcOff));
+                }
+            }
+            mIndex += len;
+            return j - destOff;
+        }
+
+        @Override
+        int doFinal(final byte[] dest, final int destOff) throws IOException {
+            return decodeRest(dest, destOff);
+        }
+
+        @Override
+        int getMaxOutputLength(final int len) {
+            return len / 4 * 3 + 3;
+        }
+
+        private int decodeRest(final byte[] dest, int destOff) throws IOException {
+            int count = mCount;
+            if (count == 1) {
+                throw new IOException("Invalid Base64 length.");
+            } else if (count == 2) {
+                dest[destOff] = (byte) (mBits >> 4);
+            } else if (count == 3) {
+                dest[destOff] = (byte) (mBits >> 10);
+                dest[destOff + 1] = (byte) (mBits >> 2);
+            }
+            mBits = 0;
+            mCount = 0;
+            return count == 0 ? 0 : count - 1;
+        }
+    }
+
+    private static final class HexEncoder extends StreamCodec {
+
+        private final byte[] mTable;
+
+        HexEncoder(final boolean isUpperCase) {
+            mTable = isUpperCase ? HEX_UPPER_ENCODE_TABLE : HEX_LOWER_ENCODE_TABLE;
+        }
+
+        @Override
+        int update(final byte[] src, final int srcOff, final int len, final byte[] dest, final int destOff) {
+            for (int i = srcOff, j = destOff, end = srcOff + len; i < end; i++) {
+                dest[j++] = mTable[src[i] >> 4 & 0x0f];
+                dest[j++] = mTable[src[i] & 0x0f];
+            }
+            return len << 1;
+        }
+
+        @Override
+        int doFinal(final byte[] dest, final int destOff) {
+            return 0;
+        }
+
+        @Override
+        int getMaxOutputLength(final int len) {
+            return len << 1;
+        }
+    }
+
+    private static final class HexDecoder extends StreamCodec {
+
+        private int  mHigh = -1;
+        private long mIndex;
+
+        @Override
+        int update(final byte[] src, final int srcOff, final int len, final byte[] dest, final int destOff)
+                throws IOException {
+            int j = destOff;
+            for (int i = srcOff, end = srcOff + len; i < end; i++) {
+                int dec = HEX_DECODE_TABLE[src[i] & 0xff];
+                if (dec >= 0) {
+                    if (mHigh < 0) {
+                        mHigh = dec;
+                    } else {
+                        dest[j++] = (byte) (mHigh << 4 | dec);
+                        mHigh = -1;
+                    }
+                } else if (dec != DECODE_SKIP) {
+                    throw new IOException("Invalid hex char at " + (mIndex + i - srcOff));
+                }
+            }
+            mIndex += len;
+            return j - destOff;
+        }
+
+        @Override
+        int doFinal(final byte[] dest, final int destOff) throws IOException {
+            if (mHigh >= 0) throw new IOException("Invalid hex length.");
+            return 0;
+        }
+
+        @Override
+        int getMaxOutputLength(final int len) {
+            return (len + 1) / 2;
+        }
+    }
+
+    /**
+     * Write the bytes as chars, which is only for the ASCII output of encoders.
+     */
+    private static final class WriterOutputStream extends OutputStream {
+
+        private final Writer mWriter;
+        private final char[] mChars = new char[STREAM_CHUNK_SIZE];
+
+        WriterOutputStream(final Writer writer) {
+            mWriter = writer;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            mWriter.write(b & 0xff);
+        }
+
+        @Override
+        public void write(final byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                int count = Math.min(len, mChars.length);
+                for (int i = 0; i < count; i++) {
+                    mChars[i] = (char) (b[off + i] & 0xff);
+                }
+                mWriter.write(mChars, 0, count);
+                off += count;
+                len -= count;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            mWriter.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            mWriter.close();
+        }
+    }
+
+    /**
+     * Read the chars as bytes, which is only for the ASCII input of decoders, the char out of
+     * latin-1 is turned into 0xff which is invalid for them.
+     */
+    private static final class ReaderInputStream extends InputStream {
+
+        private final Reader mReader;
+        private final char[] mChars = new char[STREAM_CHUNK_SIZE];
+
+        ReaderInputStream(final Reader reader) {
+            mReader = reader;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int c = mReader.read();
+            return c == -1 ? -1 : Math.min(c, 0xff);
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (len == 0) return 0;
+            int count = mReader.read(mChars, 0, Math.min(len, mChars.length));
+            for (int i = 0; i < count; i++) {
+                b[off + i] = (byte) Math.min(mChars[i], 0xff);
+            }
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            mReader.close();
+        }
+    }
 }
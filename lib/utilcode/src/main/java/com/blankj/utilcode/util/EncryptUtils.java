@@ -1,27 +1,50 @@
 package com.blankj.utilcode.util;
 
+import android.os.Build;
+import android.support.annotation.IntRange;
+import android.support.annotation.NonNull;
+import android.support.annotation.RequiresApi;
+
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.security.DigestInputStream;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.Key;
 import java.security.KeyFactory;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.security.interfaces.RSAKey;
 import java.security.spec.AlgorithmParameterSpec;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.Mac;
 import javax.crypto.NoSuchPaddingException;
-import javax.crypto.SecretKey;
 import javax.crypto.SecretKeyFactory;
+import javax.crypto.ShortBufferException;
 import javax.crypto.spec.DESKeySpec;
+import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 
@@ -35,6 +58,32 @@ import javax.crypto.spec.SecretKeySpec;
  */
 public final class EncryptUtils {
 
+    private static final int FILE_BUFFER_SIZE  = 256 * 1024;
+    private static final int ENGINE_CACHE_SIZE = 16;
+    private static final int KEY_CACHE_SIZE    = 32;
+    private static final int RSA_TASK_BLOCKS   = 4;
+
+    // The engines are confined to thread, since they are not thread-safe.
+    private static final ThreadLocal<Map<String, Object>> ENGINES = new ThreadLocal<Map<String, Object>>() {
+        @Override
+        protected Map<String, Object> initialValue() {
+            return new LinkedHashMap<String, Object>(ENGINE_CACHE_SIZE, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+                    return size() > ENGINE_CACHE_SIZE;
+                }
+            };
+        }
+    };
+
+    // The parsed keys are keyed by the digest of key's bytes rather than the bytes.
+    private static final Map<String, Key> KEYS = new LinkedHashMap<String, Key>(KEY_CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Key> eldest) {
+            return size() > KEY_CACHE_SIZE;
+        }
+    };
+
     private EncryptUtils() {
         throw new UnsupportedOperationException("u can't instantiate me...");
     }
@@ -175,26 +224,301 @@ public final class EncryptUtils {
      * @return the bytes of file's MD5 encryption
      */
     public static byte[] encryptMD5File(final File file) {
-        if (file == null) return null;
-        FileInputStream fis = null;
-        DigestInputStream digestInputStream;
+        byte[][] result = encryptFile(file, "MD5");
+        return result == null ? null : result[0];
+    }
+
+    /**
+     * Return the bytes of file's encryptions by the algorithms.
+     * <p>The file is read only once for all algorithms, and the large file is hashed on the
+     * threads of io pool while reading the next chunk.</p>
+     *
+     * @param file       The file.
+     * @param algorithms The names of algorithm, such as "MD5", "SHA-256".
+     * @return the bytes of file's encryptions in order of algorithms
+     */
+    public static byte[][] encryptFile(final File file, final String... algorithms) {
+        if (file == null || algorithms == null || algorithms.length == 0) return null;
+        FileChannel fc = null;
         try {
-            fis = new FileInputStream(file);
-            MessageDigest md = MessageDigest.getInstance("MD5");
-            digestInputStream = new DigestInputStream(fis, md);
-            byte[] buffer = new byte[256 * 1024];
-            while (true) {
-                if (!(digestInputStream.read(buffer) > 0)) break;
+            MessageDigest[] mds = new MessageDigest[algorithms.length];
+            for (int i = 0; i < algorithms.length; i++) {
+                mds[i] = MessageDigest.getInstance(algorithms[i]);
             }
-            md = digestInputStream.getMessageDigest();
-            return md.digest();
+            fc = new FileInputStream(file).getChannel();
+            if (fc.size() > FILE_BUFFER_SIZE * 2 && Runtime.getRuntime().availableProcessors() > 1) {
+                digestFileConcurrently(fc, mds);
+            } else {
+                digestFile(fc, mds);
+            }
+            byte[][] result = new byte[mds.length][];
+            for (int i = 0; i < mds.length; i++) {
+                result[i] = mds[i].digest();
+            }
+            return result;
         } catch (NoSuchAlgorithmException | IOException e) {
             e.printStackTrace();
             return null;
         } finally {
             try {
-                if (fis != null) {
-                    fis.close();
+                if (fc != null) {
+                    fc.close();
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Return the bytes of file's encryptions by the algorithms asynchronously.
+     *
+     * @param file       The file.
+     * @param consumer   The consumer of result.
+     * @param algorithms The names of algorithm, such as "MD5", "SHA-256".
+     * @return the task
+     */
+    public static Utils.Task<byte[][]> encryptFileAsync(final File file,
+                                                        @NonNull final Utils.Consumer<byte[][]> consumer,
+                                                        final String... algorithms) {
+        return UtilsBridge.doAsync(new Utils.Task<byte[][]>(consumer) {
+            @Override
+            public byte[][] doInBackground() {
+                return encryptFile(file, algorithms);
+            }
+        });
+    }
+
+    private static void digestFile(final FileChannel fc, final MessageDigest[] mds) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(FILE_BUFFER_SIZE);
+        while (fc.read(buffer) > 0) {
+            buffer.flip();
+            for (MessageDigest md : mds) {
+                buffer.mark();
+                md.update(buffer);
+                buffer.reset();
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Digest the chunk of file on the threads of io pool while reading the next chunk into
+     * another buffer, each algorithm digests in its own task.
+     */
+    private static void digestFileConcurrently(final FileChannel fc, final MessageDigest[] mds) throws IOException {
+        ByteBuffer readBuffer = ByteBuffer.allocateDirect(FILE_BUFFER_SIZE);
+        ByteBuffer digestBuffer = ByteBuffer.allocateDirect(FILE_BUFFER_SIZE);
+        List<FutureTask<Void>> tasks = new ArrayList<>(mds.length);
+        while (fc.read(readBuffer) > 0) {
+            awaitTasks(tasks);
+            ByteBuffer temp = digestBuffer;
+            digestBuffer = readBuffer;
+            readBuffer = temp;
+            digestBuffer.flip();
+            for (final MessageDigest md : mds) {
+                final ByteBuffer chunk = digestBuffer.duplicate();
+                FutureTask<Void> task = new FutureTask<>(new Runnable() {
+                    @Override
+                    public void run() {
+                        md.update(chunk);
+                    }
+                }, null);
+                tasks.add(task);
+                UtilsBridge.executeByIo(task);
+            }
+            readBuffer.clear();
+        }
+        awaitTasks(tasks);
+    }
+
+    private static void awaitTasks(final List<FutureTask<Void>> tasks) throws IOException {
+        for (FutureTask<Void> task : tasks) {
+            // run it on current thread if it's not started, so it never waits for the busy pool
+            task.run();
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            } catch (ExecutionException e) {
+                throw new IOException(e.getCause());
+            }
+        }
+        tasks.clear();
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // tree hash
+    ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Return the bytes of file's chunks' encryptions, the chunks are digested in parallel on the
+     * threads of cpu pool.
+     *
+     * @param file      The file.
+     * @param algorithm The name of algorithm, such as "SHA-256".
+     * @param chunkSize The size of chunk, the last one may be shorter.
+     * @return the bytes of file's chunks' encryptions in order
+     */
+    public static byte[][] encryptFileChunks(final File file,
+                                             final String algorithm,
+                                             @IntRange(from = 1) final int chunkSize) {
+        if (file == null || !file.isFile() || chunkSize <= 0) return null;
+        long count = (file.length() + chunkSize - 1) / chunkSize;
+        if (count > Integer.MAX_VALUE) return null;
+        // the empty file has one empty chunk
+        return digestChunks(file, algorithm, chunkSize, 0, (int) Math.max(1, count));
+    }
+
+    /**
+     * Return the root of file's tree hash, the digests of chunks are combined in pairs level by
+     * level and the odd one is promoted to the next level, which is the same as the tree hash of
+     * Amazon Glacier with "SHA-256" and 1MB chunks.
+     *
+     * @param file      The file.
+     * @param algorithm The name of algorithm, such as "SHA-256".
+     * @param chunkSize The size of chunk, the last one may be shorter.
+     * @return the root of file's tree hash
+     */
+    public static byte[] encryptFileTree(final File file,
+                                         final String algorithm,
+                                         @IntRange(from = 1) final int chunkSize) {
+        return encryptTreeRoot(encryptFileChunks(file, algorithm, chunkSize), algorithm);
+    }
+
+    /**
+     * Return the root of tree hash which is combined from the digests of chunks.
+     *
+     * @param chunkDigests The digests of chunks in order.
+     * @param algorithm    The name of algorithm, such as "SHA-256".
+     * @return the root of tree hash
+     */
+    public static byte[] encryptTreeRoot(final byte[][] chunkDigests, final String algorithm) {
+        if (chunkDigests == null || chunkDigests.length == 0) return null;
+        try {
+            MessageDigest md = getMessageDigest(algorithm);
+            byte[][] level = chunkDigests;
+            while (level.length > 1) {
+                byte[][] next = new byte[(level.length + 1) / 2][];
+                for (int i = 0; i < next.length; i++) {
+                    if (2 * i + 1 < level.length) {
+                        md.update(level[2 * i]);
+                        md.update(level[2 * i + 1]);
+                        next[i] = md.digest();
+                    } else {
+                        next[i] = level[2 * i];
+                    }
+                }
+                level = next;
+            }
+            return level[0];
+        } catch (NoSuchAlgorithmException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Verify the chunks of file from the index in parallel, the chunks which are not downloaded
+     * completely yet are skipped, so the returned index can be passed as {@code fromIndex} to
+     * resume the verification when more of the file is downloaded.
+     *
+     * @param file         The file.
+     * @param fileLength   The expected length of the whole file.
+     * @param algorithm    The name of algorithm, such as "SHA-256".
+     * @param chunkSize    The size of chunk, the last one may be shorter.
+     * @param chunkDigests The expected digests of chunks in order.
+     * @param fromIndex    The index of chunk to start with.
+     * @return the index of first chunk which is not downloaded completely, the count of chunks if
+     * all are verified, {@code -(index + 2)} if the chunk of index is corrupt, -1 if the params are
+     * invalid or failed to read the file
+     */
+    public static int verifyFileChunks(final File file,
+                                       @IntRange(from = 0) final long fileLength,
+                                       final String algorithm,
+                                       @IntRange(from = 1) final int chunkSize,
+                                       final byte[][] chunkDigests,
+                                       @IntRange(from = 0) final int fromIndex) {
+        if (file == null || !file.isFile() || fileLength < 0 || chunkSize <= 0 || chunkDigests == null || fromIndex < 0) {
+            return -1;
+        }
+        int count = chunkDigests.length;
+        if (count != Math.max(1, (fileLength + chunkSize - 1) / chunkSize)) return -1;
+        if (fromIndex >= count) return count;
+        long len = file.length();
+        // the last chunk is corrupt if the file is longer than expected
+        if (len > fileLength) return -(count + 1);
+        // the chunks before the last one are complete if they are full, the last one is complete
+        // if the file reaches the expected length
+        int to = len == fileLength ? count : (int) (len / chunkSize);
+        if (to <= fromIndex) return fromIndex;
+        byte[][] digests = digestChunks(file, algorithm, chunkSize, fromIndex, to);
+        if (digests == null) return -1;
+        for (int i = 0; i < digests.length; i++) {
+            if (!MessageDigest.isEqual(digests[i], chunkDigests[fromIndex + i])) {
+                return -(fromIndex + i + 2);
+            }
+        }
+        return to;
+    }
+
+    /**
+     * Digest the chunks in [from, to) of file, each task of cpu pool digests a range of them by
+     * positional reads on the shared channel.
+     */
+    private static byte[][] digestChunks(final File file,
+                                         final String algorithm,
+                                         final int chunkSize,
+                                         final int from,
+                                         final int to) {
+        FileChannel fc = null;
+        try {
+            MessageDigest.getInstance(algorithm);
+            fc = new FileInputStream(file).getChannel();
+            final FileChannel channel = fc;
+            final long size = fc.size();
+            final byte[][] digests = new byte[to - from][];
+            int taskCount = Math.min(Runtime.getRuntime().availableProcessors(), to - from);
+            int chunksPerTask = (to - from + taskCount - 1) / taskCount;
+            List<FutureTask<Void>> tasks = new ArrayList<>(taskCount);
+            for (int start = from; start < to; start += chunksPerTask) {
+                final int taskFrom = start;
+                final int taskTo = Math.min(to, start + chunksPerTask);
+                FutureTask<Void> task = new FutureTask<>(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        MessageDigest md = MessageDigest.getInstance(algorithm);
+                        ByteBuffer buffer = ByteBuffer.allocateDirect(Math.min(FILE_BUFFER_SIZE, chunkSize));
+                        for (int i = taskFrom; i < taskTo; i++) {
+                            long position = (long) i * chunkSize;
+                            long end = Math.min(size, position + chunkSize);
+                            while (position < end) {
+                                buffer.clear();
+                                buffer.limit((int) Math.min(buffer.capacity(), end - position));
+                                int read = channel.read(buffer, position);
+                                if (read < 0) throw new EOFException();
+                                position += read;
+                                buffer.flip();
+                                md.update(buffer);
+                            }
+                            digests[i - from] = md.digest();
+                        }
+                        return null;
+                    }
+                });
+                tasks.add(task);
+                UtilsBridge.executeByCpu(task);
+            }
+            awaitTasks(tasks);
+            return digests;
+        } catch (NoSuchAlgorithmException | IOException e) {
+            e.printStackTrace();
+            return null;
+        } finally {
+            try {
+                if (fc != null) {
+                    fc.close();
                 }
             } catch (IOException e) {
                 e.printStackTrace();
@@ -367,7 +691,7 @@ public final class EncryptUtils {
     static byte[] hashTemplate(final byte[] data, final String algorithm) {
         if (data == null || data.length <= 0) return null;
         try {
-            MessageDigest md = MessageDigest.getInstance(algorithm);
+            MessageDigest md = getMessageDigest(algorithm);
             md.update(data);
             return md.digest();
         } catch (NoSuchAlgorithmException e) {
@@ -597,10 +921,7 @@ public final class EncryptUtils {
                                        final String algorithm) {
         if (data == null || data.length == 0 || key == null || key.length == 0) return null;
         try {
-            SecretKeySpec secretKey = new SecretKeySpec(key, algorithm);
-            Mac mac = Mac.getInstance(algorithm);
-            mac.init(secretKey);
-            return mac.doFinal(data);
+            return getMac(algorithm, key).doFinal(data);
         } catch (InvalidKeyException | NoSuchAlgorithmException e) {
             e.printStackTrace();
             return null;
@@ -713,6 +1034,86 @@ public final class EncryptUtils {
         return symmetricTemplate(data, key, "DES", transformation, iv, false);
     }
 
+    /**
+     * Encrypt the input stream to the output stream by DES in constant memory, the streams are
+     * not closed.
+     *
+     * @param is             The input stream.
+     * @param os             The output stream.
+     * @param key            The key.
+     * @param transformation The name of the transformation, e.g., <i>DES/CBC/PKCS5Padding</i>.
+     * @param iv             The buffer with the IV. The contents of the
+     *                       buffer are copied to protect against subsequent modification.
+     * @return {@code true}: success<br>{@code false}: fail
+     */
+    public static boolean encryptDES(final InputStream is,
+                                     final OutputStream os,
+                                     final byte[] key,
+                                     final String transformation,
+                                     final byte[] iv) {
+        return symmetricStreamTemplate(is, os, key, "DES", transformation, iv, true);
+    }
+
+    /**
+     * Encrypt the source file to the destination file by DES in constant memory, the
+     * destination file is deleted if failed.
+     *
+     * @param srcFile        The source file.
+     * @param destFile       The destination file.
+     * @param key            The key.
+     * @param transformation The name of the transformation, e.g., <i>DES/CBC/PKCS5Padding</i>.
+     * @param iv             The buffer with the IV. The contents of the
+     *                       buffer are copied to protect against subsequent modification.
+     * @return {@code true}: success<br>{@code false}: fail
+     */
+    public static boolean encryptDES(final File srcFile,
+                                     final File destFile,
+                                     final byte[] key,
+                                     final String transformation,
+                                     final byte[] iv) {
+        return symmetricFileTemplate(srcFile, destFile, key, "DES", transformation, iv, true);
+    }
+
+    /**
+     * Decrypt the input stream to the output stream by DES in constant memory, the streams are
+     * not closed.
+     *
+     * @param is             The input stream.
+     * @param os             The output stream.
+     * @param key            The key.
+     * @param transformation The name of the transformation, e.g., <i>DES/CBC/PKCS5Padding</i>.
+     * @param iv             The buffer with the IV. The contents of the
+     *                       buffer are copied to protect against subsequent modification.
+     * @return {@code true}: success<br>{@code false}: fail
+     */
+    public static boolean decryptDES(final InputStream is,
+                                     final OutputStream os,
+                                     final byte[] key,
+                                     final String transformation,
+                                     final byte[] iv) {
+        return symmetricStreamTemplate(is, os, key, "DES", transformation, iv, false);
+    }
+
+    /**
+     * Decrypt the source file to the destination file by DES in constant memory, the
+     * destination file is deleted if failed.
+     *
+     * @param srcFile        The source file.
+     * @param destFile       The destination file.
+     * @param key            The key.
+     * @param transformation The name of the transformation, e.g., <i>DES/CBC/PKCS5Padding</i>.
+     * @param iv             The buffer with the IV. The contents of the
+     *                       buffer are copied to protect against subsequent modification.
+     * @return {@code true}: success<br>{@code false}: fail
+     */
+    public static boolean decryptDES(final File srcFile,
+                                     final File destFile,
+                                     final byte[] key,
+                                     final String transformation,
+                                     final byte[] iv) {
+        return symmetricFileTemplate(srcFile, destFile, key, "DES", transformation, iv, false);
+    }
+
     ///////////////////////////////////////////////////////////////////////////
     // 3DES encryption
     ///////////////////////////////////////////////////////////////////////////
@@ -819,6 +1220,86 @@ public final class EncryptUtils {
         return symmetricTemplate(data, key, "DESede", transformation, iv, false);
     }
 
+    /**
+     * Encrypt the input stream to the output stream by 3DES in constant memory, the streams are
+     * not closed.
+     *
+     * @param is             The input stream.
+     * @param os             The output stream.
+     * @param key            The key.
+     * @param transformation The name of the transformation, e.g., <i>DESede/CBC/PKCS5Padding</i>.
+     * @param iv             The buffer with the IV. The contents of the
+     *                       buffer are copied to protect against subsequent modification.
+     * @return {@code true}: success<br>{@code false}: fail
+     */
+    public static boolean encrypt3DES(final InputStream is,
+                                      final OutputStream os,
+                                      final byte[] key,
+                                      final String transformation,
+                                      final byte[] iv) {
+        return symmetricStreamTemplate(is, os, key, "DESede", transformation, iv, true);
+    }
+
+    /**
+     * Encrypt the source file to the destination file by 3DES in constant memory, the
+     * destination file is deleted if failed.
+     *
+     * @param srcFile        The source file.
+     * @param destFile       The destination file.
+     * @param key            The key.
+     * @param transformation The name of the transformation, e.g., <i>DESede/CBC/PKCS5Padding</i>.
+     * @param iv             The buffer with the IV. The contents of the
+     *                       buffer are copied to protect against subsequent modification.
+     * @return {@code true}: success<br>{@code false}: fail
+     */
+    public static boolean encrypt3DES(final File srcFile,
+                                      final File destFile,
+                                      final byte[] key,
+                                      final String transformation,
+                                      final byte[] iv) {
+        return symmetricFileTemplate(srcFile, destFile, key, "DESede", transformation, iv, true);
+    }
+
+    /**
+     * Decrypt the input stream to the output stream by 3DES in constant memory, the streams are
+     * not closed.
+     *
+     * @param is             The input stream.
+     * @param os             The output stream.
+     * @param key            The key.
+     * @param transformation The name of the transformation, e.g., <i>DESede/CBC/PKCS5Padding</i>.
+     * @param iv             The buffer with the IV. The contents of the
+     *                       buffer are copied to protect against subsequent modification.
+     * @return {@code true}: success<br>{@code false}: fail
+     */
+    public static boolean decrypt3DES(final InputStream is,
+                                      final OutputStream os,
+                                      final byte[] key,
+                                      final String transformation,
+                                      final byte[] iv) {
+        return symmetricStreamTemplate(is, os, key, "DESede", transformation, iv, false);
+    }
+
+    /**
+     * Decrypt the source file to the destination file by 3DES in constant memory, the
+     * destination file is deleted if failed.
+     *
+     * @param srcFile        The source file.
+     * @param destFile       The destination file.
+     * @param key            The key.
+     * @param transformation The name of the transformation, e.g., <i>DESede/CBC/PKCS5Padding</i>.
+     * @param iv             The buffer with the IV. The contents of the
+     *                       buffer are copied to protect against subsequent modification.
+     * @return {@code true}: success<br>{@code false}: fail
+     */
+    public static boolean decrypt3DES(final File srcFile,
+                                      final File destFile,
+                                      final byte[] key,
+                                      final String transformation,
+                                      final byte[] iv) {
+        return symmetricFileTemplate(srcFile, destFile, key, "DESede", transformation, iv, false);
+    }
+
     ///////////////////////////////////////////////////////////////////////////
     // AES encryption
     ///////////////////////////////////////////////////////////////////////////
@@ -925,6 +1406,86 @@ public final class EncryptUtils {
         return symmetricTemplate(data, key, "AES", transformation, iv, false);
     }
 
+    /**
+     * Encrypt the input stream to the output stream by AES in constant memory, the streams are
+     * not closed.
+     *
+     * @param is             The input stream.
+     * @param os             The output stream.
+     * @param key            The key.
+     * @param transformation The name of the transformation, e.g., <i>AES/CBC/PKCS5Padding</i>.
+     * @param iv             The buffer with the IV. The contents of the
+     *                       buffer are copied to protect against subsequent modification.
+     * @return {@code true}: success<br>{@code false}: fail
+     */
+    public static boolean encryptAES(final InputStream is,
+                                     final OutputStream os,
+                                     final byte[] key,
+                                     final String transformation,
+                                     final byte[] iv) {
+        return symmetricStreamTemplate(is, os, key, "AES", transformation, iv, true);
+    }
+
+    /**
+     * Encrypt the source file to the destination file by AES in constant memory, the
+     * destination file is deleted if failed.
+     *
+     * @param srcFile        The source file.
+     * @param destFile       The destination file.
+     * @param key            The key.
+     * @param transformation The name of the transformation, e.g., <i>AES/CBC/PKCS5Padding</i>.
+     * @param iv             The buffer with the IV. The contents of the
+     *                       buffer are copied to protect against subsequent modification.
+     * @return {@code true}: success<br>{@code false}: fail
+     */
+    public static boolean encryptAES(final File srcFile,
+                                     final File destFile,
+                                     final byte[] key,
+                                     final String transformation,
+                                     final byte[] iv) {
+        return symmetricFileTemplate(srcFile, destFile, key, "AES", transformation, iv, true);
+    }
+
+    /**
+     * Decrypt the input stream to the output stream by AES in constant memory, the streams are
+     * not closed.
+     *
+     * @param is             The input stream.
+     * @param os             The output stream.
+     * @param key            The key.
+     * @param transformation The name of the transformation, e.g., <i>AES/CBC/PKCS5Padding</i>.
+     * @param iv             The buffer with the IV. The contents of the
+     *                       buffer are copied to protect against subsequent modification.
+     * @return {@code true}: success<br>{@code false}: fail
+     */
+    public static boolean decryptAES(final InputStream is,
+                                     final OutputStream os,
+                                     final byte[] key,
+                                     final String transformation,
+                                     final byte[] iv) {
+        return symmetricStreamTemplate(is, os, key, "AES", transformation, iv, false);
+    }
+
+    /**
+     * Decrypt the source file to the destination file by AES in constant memory, the
+     * destination file is deleted if failed.
+     *
+     * @param srcFile        The source file.
+     * @param destFile       The destination file.
+     * @param key            The key.
+     * @param transformation The name of the transformation, e.g., <i>AES/CBC/PKCS5Padding</i>.
+     * @param iv             The buffer with the IV. The contents of the
+     *                       buffer are copied to protect against subsequent modification.
+     * @return {@code true}: success<br>{@code false}: fail
+     */
+    public static boolean decryptAES(final File srcFile,
+                                     final File destFile,
+                                     final byte[] key,
+                                     final String transformation,
+                                     final byte[] iv) {
+        return symmetricFileTemplate(srcFile, destFile, key, "AES", transformation, iv, false);
+    }
+
     /**
      * Return the bytes of symmetric encryption or decryption.
      *
@@ -943,26 +1504,345 @@ public final class EncryptUtils {
                                             final boolean isEncrypt) {
         if (data == null || data.length == 0 || key == null || key.length == 0) return null;
         try {
-            SecretKey secretKey;
-            if ("DES".equals(algorithm)) {
-                DESKeySpec desKey = new DESKeySpec(key);
-                SecretKeyFactory keyFactory = SecretKeyFactory.getInstance(algorithm);
-                secretKey = keyFactory.generateSecret(desKey);
-            } else {
-                secretKey = new SecretKeySpec(key, algorithm);
+            Cipher cipher = getCipher(transformation, isEncrypt ? Cipher.ENCRYPT_MODE : Cipher.DECRYPT_MODE,
+                    getSecretKey(key, algorithm), iv);
+            return cipher.doFinal(data);
+        } catch (Throwable e) {
+            e.printStackTrace();
+            removeCipher(transformation);
+            return null;
+        }
+    }
+
+    private static boolean symmetricStreamTemplate(final InputStream is,
+                                                   final OutputStream os,
+                                                   final byte[] key,
+                                                   final String algorithm,
+                                                   final String transformation,
+                                                   final byte[] iv,
+                                                   final boolean isEncrypt) {
+        if (is == null || os == null || key == null || key.length == 0) return false;
+        try {
+            Cipher cipher = getCipher(transformation, isEncrypt ? Cipher.ENCRYPT_MODE : Cipher.DECRYPT_MODE,
+                    getSecretKey(key, algorithm), iv);
+            // The buffered bytes of last block may be output with the next update.
+            int outSize = cipher.getOutputSize(FILE_BUFFER_SIZE) + cipher.getBlockSize();
+            byte[] in = new byte[FILE_BUFFER_SIZE];
+            byte[] out = new byte[outSize];
+            int len;
+            while ((len = is.read(in)) != -1) {
+                os.write(out, 0, cipher.update(in, 0, len, out, 0));
             }
-            Cipher cipher = Cipher.getInstance(transformation);
-            if (iv == null || iv.length == 0) {
-                cipher.init(isEncrypt ? Cipher.ENCRYPT_MODE : Cipher.DECRYPT_MODE, secretKey);
+            os.write(out, 0, cipher.doFinal(out, 0));
+            os.flush();
+            return true;
+        } catch (Throwable e) {
+            e.printStackTrace();
+            removeCipher(transformation);
+            return false;
+        }
+    }
+
+    private static boolean symmetricFileTemplate(final File srcFile,
+                                                 final File destFile,
+                                                 final byte[] key,
+                                                 final String algorithm,
+                                                 final String transformation,
+                                                 final byte[] iv,
+                                                 final boolean isEncrypt) {
+        if (srcFile == null || destFile == null || key == null || key.length == 0) return false;
+        if (!srcFile.isFile() || srcFile.equals(destFile)) return false;
+        if (!UtilsBridge.createOrExistsFile(destFile)) return false;
+        FileChannel in = null;
+        FileChannel out = null;
+        boolean isSuccess = false;
+        try {
+            Cipher cipher = getCipher(transformation, isEncrypt ? Cipher.ENCRYPT_MODE : Cipher.DECRYPT_MODE,
+                    getSecretKey(key, algorithm), iv);
+            in = new FileInputStream(srcFile).getChannel();
+            out = new FileOutputStream(destFile).getChannel();
+            ByteBuffer inBuffer = ByteBuffer.allocate(FILE_BUFFER_SIZE);
+            ByteBuffer outBuffer = ByteBuffer.allocate(cipher.getOutputSize(FILE_BUFFER_SIZE) + cipher.getBlockSize());
+            while (in.read(inBuffer) != -1) {
+                inBuffer.flip();
+                cipher.update(inBuffer, outBuffer);
+                writeFully(out, outBuffer);
+                inBuffer.clear();
+            }
+            inBuffer.flip();
+            cipher.doFinal(inBuffer, outBuffer);
+            writeFully(out, outBuffer);
+            isSuccess = true;
+        } catch (Throwable e) {
+            e.printStackTrace();
+            removeCipher(transformation);
+        } finally {
+            try {
+                if (in != null) {
+                    in.close();
+                }
+                if (out != null) {
+                    out.close();
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            if (!isSuccess) {
+                destFile.delete();
+            }
+        }
+        return isSuccess;
+    }
+
+    private static void writeFully(final FileChannel fc, final ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            fc.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static Key getSecretKey(final byte[] key, final String algorithm)
+            throws NoSuchAlgorithmException, InvalidKeyException, InvalidKeySpecException {
+        if ("DES".equals(algorithm)) {
+            return getKey(KEY_TYPE_DES, key);
+        }
+        return new SecretKeySpec(key, algorithm);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // AES-GCM encryption
+    ///////////////////////////////////////////////////////////////////////////
+
+    // The stream is framed as "[version][chunk size][salt]" followed by the chunks. Each stream is
+    // sealed with its own key derived from the key and the random salt by HKDF-SHA256, and each
+    // chunk with its own nonce of "[zeros][index][is last]", so the nonces never repeat under a
+    // key, and the chunks can be verified one by one and neither reordered nor truncated.
+    private static final int    GCM_VERSION        = 1;
+    private static final int    GCM_CHUNK_SIZE     = 64 * 1024;
+    private static final int    GCM_CHUNK_SIZE_MAX = 16 * 1024 * 1024;
+    private static final int    GCM_SALT_SIZE      = 32;
+    private static final int    GCM_HEADER_SIZE    = 5 + GCM_SALT_SIZE;
+    private static final int    GCM_NONCE_SIZE     = 12;
+    private static final int    GCM_TAG_SIZE       = 16;
+    private static final byte[] GCM_KEY_INFO       = "EncryptUtils AES-GCM stream key".getBytes();
+
+    /**
+     * Encrypt the input stream to the output stream by AES-GCM in chunks, the memory is constant
+     * and the streams are not closed.
+     * <p>Each stream is encrypted by its own key derived from the key and a random salt of 256
+     * bits, so the same key can be used for any count of streams safely.</p>
+     *
+     * @param is  The input stream.
+     * @param os  The output stream.
+     * @param key The key of AES.
+     * @param aad The additional authenticated data, it can be null.
+     * @return {@code true}: success<br>{@code false}: fail
+     */
+    @RequiresApi(Build.VERSION_CODES.KITKAT)
+    public static boolean encryptAESGCM(final InputStream is,
+                                        final OutputStream os,
+                                        final byte[] key,
+                                        final byte[] aad) {
+        return gcmTemplate(is, os, key, aad, true);
+    }
+
+    /**
+     * Decrypt the input stream to the output stream by AES-GCM in chunks, the memory is constant
+     * and the streams are not closed.
+     * <p>Each chunk is written only after it's verified, but the output should be discarded if
+     * it returns false, since the rest of chunks may be forged or truncated.</p>
+     *
+     * @param is  The input stream.
+     * @param os  The output stream.
+     * @param key The key of AES.
+     * @param aad The additional authenticated data, it can be null.
+     * @return {@code true}: success<br>{@code false}: fail
+     */
+    @RequiresApi(Build.VERSION_CODES.KITKAT)
+    public static boolean decryptAESGCM(final InputStream is,
+                                        final OutputStream os,
+                                        final byte[] key,
+                                        final byte[] aad) {
+        return gcmTemplate(is, os, key, aad, false);
+    }
+
+    /**
+     * Encrypt the source file to the destination file by AES-GCM in chunks, the destination
+     * file is deleted if failed.
+     *
+     * @param srcFile  The source file.
+     * @param destFile The destination file.
+     * @param key      The key of AES.
+     * @param aad      The additional authenticated data, it can be null.
+     * @return {@code true}: success<br>{@code false}: fail
+     */
+    @RequiresApi(Build.VERSION_CODES.KITKAT)
+    public static boolean encryptAESGCM(final File srcFile,
+                                        final File destFile,
+                                        final byte[] key,
+                                        final byte[] aad) {
+        return gcmFileTemplate(srcFile, destFile, key, aad, true);
+    }
+
+    /**
+     * Decrypt the source file to the destination file by AES-GCM in chunks, the destination
+     * file is deleted if failed, so it's verified entirely if exists.
+     *
+     * @param srcFile  The source file.
+     * @param destFile The destination file.
+     * @param key      The key of AES.
+     * @param aad      The additional authenticated data, it can be null.
+     * @return {@code true}: success<br>{@code false}: fail
+     */
+    @RequiresApi(Build.VERSION_CODES.KITKAT)
+    public static boolean decryptAESGCM(final File srcFile,
+                                        final File destFile,
+                                        final byte[] key,
+                                        final byte[] aad) {
+        return gcmFileTemplate(srcFile, destFile, key, aad, false);
+    }
+
+    @RequiresApi(Build.VERSION_CODES.KITKAT)
+    private static boolean gcmFileTemplate(final File srcFile,
+                                           final File destFile,
+                                           final byte[] key,
+                                           final byte[] aad,
+                                           final boolean isEncrypt) {
+        if (srcFile == null || destFile == null) return false;
+        if (!srcFile.isFile() || srcFile.equals(destFile)) return false;
+        if (!UtilsBridge.createOrExistsFile(destFile)) return false;
+        InputStream is = null;
+        OutputStream os = null;
+        boolean isSuccess = false;
+        try {
+            is = new FileInputStream(srcFile);
+            os = new FileOutputStream(destFile);
+            isSuccess = gcmTemplate(is, os, key, aad, isEncrypt);
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            try {
+                if (is != null) {
+                    is.close();
+                }
+                if (os != null) {
+                    os.close();
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+                isSuccess = false;
+            }
+            if (!isSuccess) {
+                destFile.delete();
+            }
+        }
+        return isSuccess;
+    }
+
+    @RequiresApi(Build.VERSION_CODES.KITKAT)
+    private static boolean gcmTemplate(final InputStream is,
+                                       final OutputStream os,
+                                       final byte[] key,
+                                       final byte[] aad,
+                                       final boolean isEncrypt) {
+        if (is == null || os == null || key == null || key.length == 0) return false;
+        try {
+            byte[] header = new byte[GCM_HEADER_SIZE];
+            int chunkSize;
+            if (isEncrypt) {
+                chunkSize = GCM_CHUNK_SIZE;
+                header[0] = GCM_VERSION;
+                putInt(header, 1, chunkSize);
+                byte[] salt = new byte[GCM_SALT_SIZE];
+                new SecureRandom().nextBytes(salt);
+                System.arraycopy(salt, 0, header, 5, GCM_SALT_SIZE);
+                os.write(header);
             } else {
-                AlgorithmParameterSpec params = new IvParameterSpec(iv);
-                cipher.init(isEncrypt ? Cipher.ENCRYPT_MODE : Cipher.DECRYPT_MODE, secretKey, params);
+                if (readFully(is, header, 0, GCM_HEADER_SIZE) != GCM_HEADER_SIZE) return false;
+                chunkSize = getInt(header, 1);
+                if (header[0] != GCM_VERSION || chunkSize <= 0 || chunkSize > GCM_CHUNK_SIZE_MAX) {
+                    return false;
+                }
             }
-            return cipher.doFinal(data);
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            byte[] salt = Arrays.copyOfRange(header, 5, GCM_HEADER_SIZE);
+            SecretKeySpec secretKey = new SecretKeySpec(hkdfSHA256(key, salt, GCM_KEY_INFO, key.length), "AES");
+            byte[] nonce = new byte[GCM_NONCE_SIZE];
+            int inSize = isEncrypt ? chunkSize : chunkSize + GCM_TAG_SIZE;
+            byte[] in = new byte[inSize];
+            byte[] out = new byte[chunkSize + GCM_TAG_SIZE];
+            int len = readFully(is, in, 0, inSize);
+            int next = len == inSize ? is.read() : -1;
+            for (int index = 0; ; index++) {
+                boolean isLast = next == -1;
+                if (!isEncrypt && len < GCM_TAG_SIZE) return false;
+                putInt(nonce, GCM_NONCE_SIZE - 5, index);
+                nonce[nonce.length - 1] = (byte) (isLast ? 1 : 0);
+                cipher.init(isEncrypt ? Cipher.ENCRYPT_MODE : Cipher.DECRYPT_MODE,
+                        secretKey, new GCMParameterSpec(GCM_TAG_SIZE * 8, nonce));
+                cipher.updateAAD(header);
+                if (aad != null && aad.length > 0) {
+                    cipher.updateAAD(aad);
+                }
+                os.write(out, 0, cipher.doFinal(in, 0, len, out, 0));
+                if (isLast) break;
+                if (index == -1) throw new IOException("Too many chunks.");
+                in[0] = (byte) next;
+                len = 1 + readFully(is, in, 1, inSize - 1);
+                next = len == inSize ? is.read() : -1;
+            }
+            os.flush();
+            return true;
         } catch (Throwable e) {
             e.printStackTrace();
-            return null;
+            return false;
+        }
+    }
+
+    /**
+     * Derive the key of length from the input key material by HKDF-SHA256 of RFC 5869.
+     */
+    private static byte[] hkdfSHA256(final byte[] ikm, final byte[] salt, final byte[] info, final int length)
+            throws NoSuchAlgorithmException, InvalidKeyException {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(salt, "HmacSHA256"));
+        byte[] prk = mac.doFinal(ikm);
+        mac.init(new SecretKeySpec(prk, "HmacSHA256"));
+        byte[] okm = new byte[length];
+        byte[] block = new byte[0];
+        for (int off = 0, i = 1; off < length; off += block.length, i++) {
+            mac.update(block);
+            mac.update(info);
+            mac.update((byte) i);
+            block = mac.doFinal();
+            System.arraycopy(block, 0, okm, off, Math.min(block.length, length - off));
+        }
+        Arrays.fill(prk, (byte) 0);
+        return okm;
+    }
+
+    private static int readFully(final InputStream is, final byte[] buffer, final int off, final int len)
+            throws IOException {
+        int count = 0;
+        while (count < len) {
+            int read = is.read(buffer, off + count, len - count);
+            if (read == -1) break;
+            count += read;
         }
+        return count;
+    }
+
+    private static void putInt(final byte[] bytes, final int off, final int value) {
+        bytes[off] = (byte) (value >>> 24);
+        bytes[off + 1] = (byte) (value >>> 16);
+        bytes[off + 2] = (byte) (value >>> 8);
+        bytes[off + 3] = (byte) value;
+    }
+
+    private static int getInt(final byte[] bytes, final int off) {
+        return (bytes[off] & 0xFF) << 24 | (bytes[off + 1] & 0xFF) << 16
+                | (bytes[off + 2] & 0xFF) << 8 | (bytes[off + 3] & 0xFF);
     }
 
     ///////////////////////////////////////////////////////////////////////////
@@ -1084,45 +1964,27 @@ public final class EncryptUtils {
             return null;
         }
         try {
-            Key rsaKey;
-            if (isEncrypt) {
-                X509EncodedKeySpec keySpec = new X509EncodedKeySpec(key);
-                rsaKey = KeyFactory.getInstance("RSA").generatePublic(keySpec);
-            } else {
-                PKCS8EncodedKeySpec keySpec = new PKCS8EncodedKeySpec(key);
-                rsaKey = KeyFactory.getInstance("RSA").generatePrivate(keySpec);
-            }
+            Key rsaKey = getKey(isEncrypt ? KEY_TYPE_RSA_PUBLIC : KEY_TYPE_RSA_PRIVATE, key);
             if (rsaKey == null) return null;
-            Cipher cipher = Cipher.getInstance(transformation);
-            cipher.init(isEncrypt ? Cipher.ENCRYPT_MODE : Cipher.DECRYPT_MODE, rsaKey);
+            Cipher cipher = getCipher(transformation, isEncrypt ? Cipher.ENCRYPT_MODE : Cipher.DECRYPT_MODE, rsaKey, null);
             int len = data.length;
-            int maxLen = keySize / 8;
-            if (isEncrypt) {
-                String lowerTrans = transformation.toLowerCase();
-                if (lowerTrans.endsWith("pkcs1padding")) {
-                    maxLen -= 11;
-                }
+            int blockLen = rsaKey instanceof RSAKey
+                    ? (((RSAKey) rsaKey).getModulus().bitLength() + 7) / 8
+                    : keySize / 8;
+            int maxLen = isEncrypt ? blockLen - getRsaPaddingLength(transformation) : blockLen;
+            if (maxLen <= 0) return null;
+            int count = (len + maxLen - 1) / maxLen;
+            if (count == 1) return cipher.doFinal(data);
+            // Each block outputs at most blockLen bytes, so the result is written in place.
+            byte[] ret = new byte[count * blockLen];
+            if (!isEncrypt && count >= RSA_TASK_BLOCKS * 2 && Runtime.getRuntime().availableProcessors() > 1) {
+                return rsaDecryptConcurrently(data, rsaKey, blockLen, transformation, ret);
             }
-            int count = len / maxLen;
-            if (count > 0) {
-                byte[] ret = new byte[0];
-                byte[] buff = new byte[maxLen];
-                int index = 0;
-                for (int i = 0; i < count; i++) {
-                    System.arraycopy(data, index, buff, 0, maxLen);
-                    ret = joins(ret, cipher.doFinal(buff));
-                    index += maxLen;
-                }
-                if (index != len) {
-                    int restLen = len - index;
-                    buff = new byte[restLen];
-                    System.arraycopy(data, index, buff, 0, restLen);
-                    ret = joins(ret, cipher.doFinal(buff));
-                }
-                return ret;
-            } else {
-                return cipher.doFinal(data);
+            int outLen = 0;
+            for (int index = 0; index < len; index += maxLen) {
+                outLen += cipher.doFinal(data, index, Math.min(maxLen, len - index), ret, outLen);
             }
+            return outLen == ret.length ? ret : Arrays.copyOf(ret, outLen);
         } catch (NoSuchAlgorithmException e) {
             e.printStackTrace();
         } catch (NoSuchPaddingException e) {
@@ -1135,10 +1997,84 @@ public final class EncryptUtils {
             e.printStackTrace();
         } catch (InvalidKeySpecException e) {
             e.printStackTrace();
+        } catch (InvalidAlgorithmParameterException e) {
+            e.printStackTrace();
+        } catch (ShortBufferException e) {
+            e.printStackTrace();
+        } catch (IOException e) {
+            e.printStackTrace();
         }
+        removeCipher(transformation);
         return null;
     }
 
+    /**
+     * Return the length of RSA padding, the OAEP padding takes 2 * hLen + 2 bytes, whose digest
+     * is SHA-1 by default.
+     */
+    private static int getRsaPaddingLength(final String transformation) {
+        String lowerTrans = transformation.toLowerCase().replace("-", "");
+        if (lowerTrans.endsWith("pkcs1padding")) return 11;
+        if (!lowerTrans.contains("oaep")) return 0;
+        int hLen = 20;
+        if (lowerTrans.contains("sha224")) {
+            hLen = 28;
+        } else if (lowerTrans.contains("sha256")) {
+            hLen = 32;
+        } else if (lowerTrans.contains("sha384")) {
+            hLen = 48;
+        } else if (lowerTrans.contains("sha512")) {
+            hLen = 64;
+        }
+        return 2 * hLen + 2;
+    }
+
+    /**
+     * Decrypt the blocks in ranges on the threads of cpu pool, the output of each block is written
+     * at the offset of its input, then they are compacted in order.
+     */
+    private static byte[] rsaDecryptConcurrently(final byte[] data,
+                                                 final Key key,
+                                                 final int blockLen,
+                                                 final String transformation,
+                                                 final byte[] ret) throws IOException {
+        final int count = ret.length / blockLen;
+        final int[] outLens = new int[count];
+        int taskCount = Math.min(Runtime.getRuntime().availableProcessors(), count / RSA_TASK_BLOCKS);
+        int blocksPerTask = (count + taskCount - 1) / taskCount;
+        List<FutureTask<Void>> tasks = new ArrayList<>(taskCount);
+        for (int start = 0; start < count; start += blocksPerTask) {
+            final int from = start;
+            final int to = Math.min(count, start + blocksPerTask);
+            FutureTask<Void> task = new FutureTask<>(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    try {
+                        // the cipher is cached for the thread of pool
+                        Cipher cipher = getCipher(transformation, Cipher.DECRYPT_MODE, key, null);
+                        for (int i = from; i < to; i++) {
+                            int offset = i * blockLen;
+                            outLens[i] = cipher.doFinal(data, offset, Math.min(blockLen, data.length - offset), ret, offset);
+                        }
+                        return null;
+                    } catch (Exception e) {
+                        removeCipher(transformation);
+                        throw e;
+                    }
+                }
+            });
+            tasks.add(task);
+            UtilsBridge.executeByCpu(task);
+        }
+        awaitTasks(tasks);
+        int outLen = 0;
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(ret, i * blockLen, ret, outLen, outLens[i]);
+            outLen += outLens[i];
+        }
+        return Arrays.copyOf(ret, outLen);
+    }
+
     /**
      * Return the bytes of RC4 encryption/decryption.
      *
@@ -1181,10 +2117,141 @@ public final class EncryptUtils {
         return ret;
     }
 
-    private static byte[] joins(final byte[] prefix, final byte[] suffix) {
-        byte[] ret = new byte[prefix.length + suffix.length];
-        System.arraycopy(prefix, 0, ret, 0, prefix.length);
-        System.arraycopy(suffix, 0, ret, prefix.length, suffix.length);
-        return ret;
+    ///////////////////////////////////////////////////////////////////////////
+    // engines and keys
+    ///////////////////////////////////////////////////////////////////////////
+
+    private static final String KEY_TYPE_DES         = "DES";
+    private static final String KEY_TYPE_RSA_PUBLIC  = "RSA-public";
+    private static final String KEY_TYPE_RSA_PRIVATE = "RSA-private";
+
+    private static MessageDigest getMessageDigest(final String algorithm) throws NoSuchAlgorithmException {
+        Map<String, Object> engines = ENGINES.get();
+        String name = "MessageDigest:" + algorithm;
+        MessageDigest md = (MessageDigest) engines.get(name);
+        if (md == null) {
+            md = MessageDigest.getInstance(algorithm);
+            engines.put(name, md);
+        } else {
+            md.reset();
+        }
+        return md;
+    }
+
+    /**
+     * Return the mac of current thread, it's initialized again only if the key is changed, since
+     * {@link Mac#doFinal()} resets it to the initialized state.
+     */
+    private static Mac getMac(final String algorithm, final byte[] key)
+            throws NoSuchAlgorithmException, InvalidKeyException {
+        Map<String, Object> engines = ENGINES.get();
+        String name = "Mac:" + algorithm;
+        MacHolder holder = (MacHolder) engines.get(name);
+        if (holder == null) {
+            holder = new MacHolder(Mac.getInstance(algorithm));
+            engines.put(name, holder);
+        }
+        if (holder.key == null || !MessageDigest.isEqual(holder.key, key)) {
+            holder.key = null;
+            holder.mac.init(new SecretKeySpec(key, algorithm));
+            holder.key = key.clone();
+        } else {
+            holder.mac.reset();
+        }
+        return holder.mac;
+    }
+
+    /**
+     * Return the cipher of current thread, it's initialized again only if the mode, key or iv is
+     * changed, since {@link Cipher#doFinal(byte[])} resets it to the initialized state.
+     */
+    private static Cipher getCipher(final String transformation,
+                                    final int mode,
+                                    final Key key,
+                                    final byte[] iv)
+            throws NoSuchAlgorithmException, NoSuchPaddingException,
+            InvalidKeyException, InvalidAlgorithmParameterException {
+        // GCM forbids encrypting with the same key and iv again, so don't reuse it.
+        if (transformation.toUpperCase().contains("GCM")) {
+            Cipher cipher = Cipher.getInstance(transformation);
+            initCipher(cipher, mode, key, iv);
+            return cipher;
+        }
+        Map<String, Object> engines = ENGINES.get();
+        String name = "Cipher:" + transformation;
+        CipherHolder holder = (CipherHolder) engines.get(name);
+        if (holder == null) {
+            holder = new CipherHolder(Cipher.getInstance(transformation));
+            engines.put(name, holder);
+        }
+        byte[] ivBytes = iv == null || iv.length == 0 ? null : iv;
+        if (holder.mode != mode || !key.equals(holder.key) || !Arrays.equals(ivBytes, holder.iv)) {
+            holder.key = null;
+            initCipher(holder.cipher, mode, key, ivBytes);
+            holder.mode = mode;
+            holder.key = key;
+            holder.iv = ivBytes == null ? null : ivBytes.clone();
+        }
+        return holder.cipher;
+    }
+
+    private static void initCipher(final Cipher cipher, final int mode, final Key key, final byte[] iv)
+            throws InvalidKeyException, InvalidAlgorithmParameterException {
+        if (iv == null || iv.length == 0) {
+            cipher.init(mode, key);
+        } else {
+            AlgorithmParameterSpec params = new IvParameterSpec(iv);
+            cipher.init(mode, key, params);
+        }
+    }
+
+    /**
+     * Remove the cipher of current thread whose state is unknown after failure.
+     */
+    private static void removeCipher(final String transformation) {
+        if (transformation != null) {
+            ENGINES.get().remove("Cipher:" + transformation);
+        }
+    }
+
+    private static Key getKey(final String type, final byte[] key)
+            throws NoSuchAlgorithmException, InvalidKeyException, InvalidKeySpecException {
+        String name = type + ":" + UtilsBridge.bytes2HexString(getMessageDigest("SHA-256").digest(key));
+        synchronized (KEYS) {
+            Key cached = KEYS.get(name);
+            if (cached != null) return cached;
+        }
+        Key parsed;
+        if (KEY_TYPE_RSA_PUBLIC.equals(type)) {
+            parsed = KeyFactory.getInstance("RSA").generatePublic(new X509EncodedKeySpec(key));
+        } else if (KEY_TYPE_RSA_PRIVATE.equals(type)) {
+            parsed = KeyFactory.getInstance("RSA").generatePrivate(new PKCS8EncodedKeySpec(key));
+        } else {
+            parsed = SecretKeyFactory.getInstance(type).generateSecret(new DESKeySpec(key));
+        }
+        synchronized (KEYS) {
+            KEYS.put(name, parsed);
+        }
+        return parsed;
+    }
+
+    private static final class MacHolder {
+        private final Mac    mac;
+        private       byte[] key;
+
+        MacHolder(final Mac mac) {
+            this.mac = mac;
+        }
+    }
+
+    private static final class CipherHolder {
+        private final Cipher cipher;
+        private       int    mode;
+        private       Key    key;
+        private       byte[] iv;
+
+        CipherHolder(final Cipher cipher) {
+            this.cipher = cipher;
+        }
     }
 }
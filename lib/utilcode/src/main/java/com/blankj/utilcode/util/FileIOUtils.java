@@ -8,6 +8,7 @@ import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -18,12 +19,21 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.RandomAccessFile;
-import java.io.UnsupportedEncodingException;
 import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 
 /**
  * <pre>
@@ -37,6 +47,19 @@ public final class FileIOUtils {
 
     private static int sBufferSize = 524288;
 
+    private static final int LINE_INDEX_STEP       = 1024;             // Record the offset of every 1024th line.
+    private static final int LINE_INDEX_CACHE_SIZE = 8;
+    private static final int MAP_SIZE              = 8 * 1024 * 1024;  // Map 8MB of file each time.
+    private static final int MAP_SEGMENT_SIZE      = 1024 * 1024 * 1024;// The max size of one mapped segment.
+
+    private static final Map<String, LineIndex> LINE_INDEX_CACHE =
+            new LinkedHashMap<String, LineIndex>(LINE_INDEX_CACHE_SIZE, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, LineIndex> eldest) {
+                    return size() > LINE_INDEX_CACHE_SIZE;
+                }
+            };
+
     private FileIOUtils() {
         throw new UnsupportedOperationException("u can't instantiate me...");
     }
@@ -654,6 +677,8 @@ public final class FileIOUtils {
 
     /**
      * Return the lines in file.
+     * <p>The offsets of lines are indexed and cached for the file, so the later reading of lines
+     * far from the start will seek to the nearest indexed line directly.</p>
      *
      * @param file        The file.
      * @param st          The line's index of start.
@@ -667,17 +692,23 @@ public final class FileIOUtils {
                                              final String charsetName) {
         if (!UtilsBridge.isFileExists(file)) return null;
         if (st > end) return null;
+        FileInputStream fis = null;
         BufferedReader reader = null;
         try {
             String line;
             int curLine = 1;
             List<String> list = new ArrayList<>();
+            fis = new FileInputStream(file);
+            if (st > LINE_INDEX_STEP && isLineIndexable(charsetName)) {
+                LineIndex lineIndex = getLineIndex(file);
+                int checkpoint = lineIndex.seek(fis.getChannel(), st);
+                fis.getChannel().position(lineIndex.getOffset(checkpoint));
+                curLine = checkpoint * LINE_INDEX_STEP + 1;
+            }
             if (UtilsBridge.isSpace(charsetName)) {
-                reader = new BufferedReader(new InputStreamReader(new FileInputStream(file)));
+                reader = new BufferedReader(new InputStreamReader(fis));
             } else {
-                reader = new BufferedReader(
-                        new InputStreamReader(new FileInputStream(file), charsetName)
-                );
+                reader = new BufferedReader(new InputStreamReader(fis, charsetName));
             }
             while ((line = reader.readLine()) != null) {
                 if (curLine > end) break;
@@ -692,6 +723,9 @@ public final class FileIOUtils {
             try {
                 if (reader != null) {
                     reader.close();
+                } else if (fis != null) {
+                    // the reader isn't built if seeking failed or the charset isn't supported
+                    fis.close();
                 }
             } catch (IOException e) {
                 e.printStackTrace();
@@ -738,17 +772,158 @@ public final class FileIOUtils {
      * @return the string in file
      */
     public static String readFile2String(final File file, final String charsetName) {
-        byte[] bytes = readFile2BytesByStream(file);
-        if (bytes == null) return null;
-        if (UtilsBridge.isSpace(charsetName)) {
-            return new String(bytes);
-        } else {
-            try {
-                return new String(bytes, charsetName);
-            } catch (UnsupportedEncodingException e) {
-                e.printStackTrace();
-                return "";
+        if (!UtilsBridge.isFileExists(file)) return null;
+        final Charset charset = getCharset(charsetName);
+        if (charset == null) return "";
+        // Decode into one array which is large enough, so the string is built by copying it once.
+        long maxLen = (long) Math.ceil(file.length() * (double) charset.newDecoder().maxCharsPerByte());
+        if (maxLen > Integer.MAX_VALUE - 8) return null;
+        final char[][] array = {new char[(int) maxLen]};
+        final int[] len = {0};
+        boolean isSuccess = readFileByMap(file, charset, new OnCharsReadListener() {
+            @Override
+            public void onCharsRead(CharBuffer chars) {
+                int remaining = chars.remaining();
+                if (len[0] + remaining > array[0].length) {
+                    // the file is growing while reading
+                    array[0] = Arrays.copyOf(array[0], Math.max(len[0] + remaining, array[0].length * 2));
+                }
+                chars.get(array[0], len[0], remaining);
+                len[0] += remaining;
+            }
+        });
+        return isSuccess ? new String(array[0], 0, len[0]) : null;
+    }
+
+    /**
+     * Read the lines in file one by one.
+     *
+     * @param filePath The path of file.
+     * @param consumer The consumer of line.
+     * @return {@code true}: success<br>{@code false}: fail
+     */
+    public static boolean forEachLine(final String filePath, final Utils.Consumer<String> consumer) {
+        return forEachLine(UtilsBridge.getFileByPath(filePath), null, consumer);
+    }
+
+    /**
+     * Read the lines in file one by one.
+     *
+     * @param filePath    The path of file.
+     * @param charsetName The name of charset.
+     * @param consumer    The consumer of line.
+     * @return {@code true}: success<br>{@code false}: fail
+     */
+    public static boolean forEachLine(final String filePath,
+                                      final String charsetName,
+                                      final Utils.Consumer<String> consumer) {
+        return forEachLine(UtilsBridge.getFileByPath(filePath), charsetName, consumer);
+    }
+
+    /**
+     * Read the lines in file one by one.
+     *
+     * @param file     The file.
+     * @param consumer The consumer of line.
+     * @return {@code true}: success<br>{@code false}: fail
+     */
+    public static boolean forEachLine(final File file, final Utils.Consumer<String> consumer) {
+        return forEachLine(file, null, consumer);
+    }
+
+    /**
+     * Read the lines in file one by one.
+     * <p>The file is mapped and decoded piece by piece, so it never loads the whole file into
+     * memory, the line is split as {@link BufferedReader#readLine()}.</p>
+     *
+     * @param file        The file.
+     * @param charsetName The name of charset.
+     * @param consumer    The consumer of line.
+     * @return {@code true}: success<br>{@code false}: fail
+     */
+    public static boolean forEachLine(final File file,
+                                      final String charsetName,
+                                      final Utils.Consumer<String> consumer) {
+        if (!UtilsBridge.isFileExists(file) || consumer == null) return false;
+        final Charset charset = getCharset(charsetName);
+        if (charset == null) return false;
+        final StringBuilder line = new StringBuilder();
+        final boolean[] lastCR = {false};
+        boolean isSuccess = readFileByMap(file, charset, new OnCharsReadListener() {
+            @Override
+            public void onCharsRead(CharBuffer chars) {
+                while (chars.hasRemaining()) {
+                    char c = chars.get();
+                    if (lastCR[0]) {
+                        lastCR[0] = false;
+                        if (c == '\n') continue;
+                    }
+                    if (c == '\n' || c == '\r') {
+                        consumer.accept(line.toString());
+                        line.setLength(0);
+                        lastCR[0] = c == '\r';
+                    } else {
+                        line.append(c);
+                    }
+                }
             }
+        });
+        if (!isSuccess) return false;
+        if (line.length() > 0) {
+            consumer.accept(line.toString());
+        }
+        return true;
+    }
+
+    /**
+     * Return the iterator of lines in file.
+     *
+     * @param filePath The path of file.
+     * @return the iterator of lines in file, it should be closed after used
+     */
+    public static LineIterator lines(final String filePath) {
+        return lines(UtilsBridge.getFileByPath(filePath), null);
+    }
+
+    /**
+     * Return the iterator of lines in file.
+     *
+     * @param filePath    The path of file.
+     * @param charsetName The name of charset.
+     * @return the iterator of lines in file, it should be closed after used
+     */
+    public static LineIterator lines(final String filePath, final String charsetName) {
+        return lines(UtilsBridge.getFileByPath(filePath), charsetName);
+    }
+
+    /**
+     * Return the iterator of lines in file.
+     *
+     * @param file The file.
+     * @return the iterator of lines in file, it should be closed after used
+     */
+    public static LineIterator lines(final File file) {
+        return lines(file, null);
+    }
+
+    /**
+     * Return the iterator of lines in file.
+     * <p>The lines are read one by one while iterating, so the caller can stop at any line
+     * without loading the whole file, the line is split as {@link BufferedReader#readLine()}.</p>
+     *
+     * @param file        The file.
+     * @param charsetName The name of charset.
+     * @return the iterator of lines in file, it should be closed after used
+     */
+    public static LineIterator lines(final File file, final String charsetName) {
+        if (!UtilsBridge.isFileExists(file)) return null;
+        final Charset charset = getCharset(charsetName);
+        if (charset == null) return null;
+        try {
+            return new LineIterator(new BufferedReader(new InputStreamReader(new FileInputStream(file), charset)));
+        } catch (FileNotFoundException e) {
+            e.printStackTrace();
+            return null;
         }
     }
 
@@ -916,10 +1091,18 @@ public final class FileIOUtils {
                 Log.e("FileIOUtils", "fc is null.");
                 return new byte[0];
             }
-            int size = (int) fc.size();
-            MappedByteBuffer mbb = fc.map(FileChannel.MapMode.READ_ONLY, 0, size).load();
-            byte[] result = new byte[size];
-            mbb.get(result, 0, size);
+            long size = fc.size();
+            if (size > Integer.MAX_VALUE - 8) {
+                Log.e("FileIOUtils", "file is too large to read into bytes: " + size);
+                return null;
+            }
+            byte[] result = new byte[(int) size];
+            // Map piece by piece, so the pages of whole file won't be pinned at the same time.
+            for (int offset = 0; offset < size; ) {
+                int len = (int) Math.min(MAP_SIZE, size - offset);
+                fc.map(FileChannel.MapMode.READ_ONLY, offset, len).get(result, offset, len);
+                offset += len;
+            }
             return result;
         } catch (IOException e) {
             e.printStackTrace();
@@ -935,6 +1118,50 @@ public final class FileIOUtils {
         }
     }
 
+    /**
+     * Return the read-only buffers mapped from file.
+     *
+     * @param filePath The path of file.
+     * @return the read-only buffers mapped from file
+     */
+    public static ByteBuffer[] mapFile(final String filePath) {
+        return mapFile(UtilsBridge.getFileByPath(filePath));
+    }
+
+    /**
+     * Return the read-only buffers mapped from file.
+     * <p>Each buffer maps 1GB of file at most in order, so the file larger than 2GB can be mapped
+     * too, and it can be parsed without copying into bytes.</p>
+     *
+     * @param file The file.
+     * @return the read-only buffers mapped from file
+     */
+    public static ByteBuffer[] mapFile(final File file) {
+        if (!UtilsBridge.isFileExists(file)) return null;
+        FileChannel fc = null;
+        try {
+            fc = new RandomAccessFile(file, "r").getChannel();
+            final long size = fc.size();
+            ByteBuffer[] buffers = new ByteBuffer[(int) Math.max(1, (size + MAP_SEGMENT_SIZE - 1) / MAP_SEGMENT_SIZE)];
+            for (int i = 0; i < buffers.length; i++) {
+                long position = (long) i * MAP_SEGMENT_SIZE;
+                buffers[i] = fc.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_SEGMENT_SIZE, size - position));
+            }
+            return buffers;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        } finally {
+            try {
+                if (fc != null) {
+                    fc.close();
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
     /**
      * Set the buffer's size.
      * <p>Default size equals 8192 bytes.</p>
@@ -945,6 +1172,226 @@ public final class FileIOUtils {
         sBufferSize = bufferSize;
     }
 
+    private static Charset getCharset(final String charsetName) {
+        if (UtilsBridge.isSpace(charsetName)) return Charset.defaultCharset();
+        try {
+            return Charset.forName(charsetName);
+        } catch (IllegalArgumentException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Decode the file which is mapped every {@link #MAP_SIZE} bytes, the bytes of char which is
+     * split by the end of map will be mapped again in next time.
+     */
+    private static boolean readFileByMap(final File file,
+                                         final Charset charset,
+                                         final OnCharsReadListener listener) {
+        FileChannel fc = null;
+        try {
+            fc = new RandomAccessFile(file, "r").getChannel();
+            CharsetDecoder decoder = charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            CharBuffer chars = CharBuffer.allocate(8192);
+            final long size = fc.size();
+            long position = 0;
+            while (true) {
+                long mapSize = Math.min(MAP_SIZE, size - position);
+                boolean isEnd = position + mapSize >= size;
+                MappedByteBuffer mbb = fc.map(FileChannel.MapMode.READ_ONLY, position, mapSize);
+                CoderResult result;
+                do {
+                    result = decoder.decode(mbb, chars, isEnd);
+                    chars.flip();
+                    listener.onCharsRead(chars);
+                    chars.clear();
+                } while (result.isOverflow());
+                if (isEnd) break;
+                position += mbb.position();
+            }
+            CoderResult result;
+            do {
+                result = decoder.flush(chars);
+                chars.flip();
+                listener.onCharsRead(chars);
+                chars.clear();
+            } while (result.isOverflow());
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        } finally {
+            try {
+                if (fc != null) {
+                    fc.close();
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * The bytes of lines can be indexed only if the line separators are encoded as single byte,
+     * such as UTF-8, GBK and ISO-8859-1.
+     */
+    private static boolean isLineIndexable(final String charsetName) {
+        Charset charset = getCharset(charsetName);
+        if (charset == null) return false;
+        byte[] lf = "\n".getBytes(charset);
+        byte[] cr = "\r".getBytes(charset);
+        return lf.length == 1 && lf[0] == '\n' && cr.length == 1 && cr[0] == '\r';
+    }
+
+    private static LineIndex getLineIndex(final File file) {
+        final String path = file.getAbsolutePath();
+        synchronized (LINE_INDEX_CACHE) {
+            LineIndex lineIndex = LINE_INDEX_CACHE.get(path);
+            if (lineIndex == null || !lineIndex.isValid(file)) {
+                lineIndex = new LineIndex(file);
+                LINE_INDEX_CACHE.put(path, lineIndex);
+            }
+            return lineIndex;
+        }
+    }
+
+    /**
+     * The offsets of the line whose index is {@code i * LINE_INDEX_STEP + 1}, it's built
+     * incrementally as far as the lines have been sought.
+     */
+    private static final class LineIndex {
+        private final long    mLastModified;
+        private final long    mLength;
+        private       long[]  mOffsets = new long[16];
+        private       int     mCount   = 1;
+        private       boolean mIsComplete;
+
+        LineIndex(final File file) {
+            mLastModified = file.lastModified();
+            mLength = file.length();
+        }
+
+        boolean isValid(final File file) {
+            return mLastModified == file.lastModified() && mLength == file.length();
+        }
+
+        synchronized long getOffset(final int checkpoint) {
+            return mOffsets[checkpoint];
+        }
+
+        /**
+         * Return the nearest checkpoint before the line, the offset of line {@code st} is
+         * {@code getOffset(checkpoint)} and its index is {@code checkpoint * LINE_INDEX_STEP + 1}.
+         */
+        synchronized int seek(final FileChannel fc, final int line) throws IOException {
+            final int target = (line - 1) / LINE_INDEX_STEP;
+            if (target >= mCount && !mIsComplete) {
+                scan(fc, target);
+            }
+            return Math.min(target, mCount - 1);
+        }
+
+        private void scan(final FileChannel fc, final int target) throws IOException {
+            long pos = mOffsets[mCount - 1];
+            int curLine = (mCount - 1) * LINE_INDEX_STEP + 1;
+            boolean isLineStart = true, lastCR = false;
+            ByteBuffer buffer = ByteBuffer.allocate(8192);
+            fc.position(pos);
+            while (fc.read(buffer) > 0) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    byte b = buffer.get();
+                    if (lastCR) {
+                        lastCR = false;
+                        if (b == '\n') {
+                            pos++;
+                            continue;
+                        }
+                    }
+                    if (isLineStart) {
+                        isLineStart = false;
+                        if ((curLine - 1) % LINE_INDEX_STEP == 0 && (curLine - 1) / LINE_INDEX_STEP == mCount) {
+                            if (mCount == mOffsets.length) {
+                                mOffsets = Arrays.copyOf(mOffsets, mCount * 2);
+                            }
+                            mOffsets[mCount++] = pos;
+                            if (mCount > target) return;
+                        }
+                    }
+                    if (b == '\n' || b == '\r') {
+                        curLine++;
+                        isLineStart = true;
+                        lastCR = b == '\r';
+                    }
+                    pos++;
+                }
+                buffer.clear();
+            }
+            mIsComplete = true;
+        }
+    }
+
+    /**
+     * The iterator of lines in file, the file is closed when all lines have been read or it's closed.
+     */
+    public static final class LineIterator implements Iterator<String>, Closeable {
+        private final BufferedReader mReader;
+        private       String         mNextLine;
+        private       boolean        isFinished;
+
+        LineIterator(final BufferedReader reader) {
+            mReader = reader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (mNextLine != null) return true;
+            if (isFinished) return false;
+            try {
+                mNextLine = mReader.readLine();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            if (mNextLine == null) {
+                close();
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            String line = mNextLine;
+            mNextLine = null;
+            return line;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("remove");
+        }
+
+        @Override
+        public void close() {
+            if (isFinished) return;
+            isFinished = true;
+            mNextLine = null;
+            try {
+                mReader.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private interface OnCharsReadListener {
+        void onCharsRead(CharBuffer chars);
+    }
+
     public interface OnProgressUpdateListener {
         void onProgressUpdate(double progress);
     }
@@ -5,7 +5,9 @@ import android.content.Intent;
 import android.content.res.AssetFileDescriptor;
 import android.net.Uri;
 import android.os.Build;
+import android.os.FileObserver;
 import android.os.StatFs;
+import android.support.annotation.IntRange;
 import android.text.TextUtils;
 
 import java.io.BufferedInputStream;
@@ -13,16 +15,28 @@ import java.io.File;
 import java.io.FileFilter;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
-import java.security.DigestInputStream;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.net.ssl.HttpsURLConnection;
 
@@ -38,6 +52,8 @@ public final class FileUtils {
 
     private static final String LINE_SEP = System.getProperty("line.separator");
 
+    private static final long COPY_CHUNK_SIZE = 8 * 1024 * 1024;// Transfer 8MB of file each time.
+
     private FileUtils() {
         throw new UnsupportedOperationException("u can't instantiate me...");
     }
@@ -428,6 +444,11 @@ public final class FileUtils {
         String destPath = destDir.getPath() + File.separator;
         if (destPath.contains(srcPath)) return false;
         if (!srcDir.exists() || !srcDir.isDirectory()) return false;
+        // rename directly if in the same file system
+        if (isMove && !destDir.exists()
+                && createOrExistsDir(destDir.getParentFile()) && srcDir.renameTo(destDir)) {
+            return true;
+        }
         if (!createOrExistsDir(destDir)) return false;
         File[] files = srcDir.listFiles();
         if (files != null && files.length > 0) {
@@ -462,12 +483,47 @@ public final class FileUtils {
             }
         }
         if (!createOrExistsDir(destFile.getParentFile())) return false;
+        // rename directly if in the same file system
+        if (isMove && srcFile.renameTo(destFile)) return true;
+        return transferFile(srcFile, destFile) && !(isMove && !deleteFile(srcFile));
+    }
+
+    /**
+     * Copy the file by {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}
+     * in chunks, which copies in kernel without buffer of user space if supported.
+     */
+    private static boolean transferFile(final File srcFile, final File destFile) {
+        FileChannel in = null;
+        FileChannel out = null;
         try {
-            return UtilsBridge.writeFileFromIS(destFile.getAbsolutePath(), new FileInputStream(srcFile))
-                    && !(isMove && !deleteFile(srcFile));
-        } catch (FileNotFoundException e) {
+            in = new FileInputStream(srcFile).getChannel();
+            out = new FileOutputStream(destFile).getChannel();
+            final long size = in.size();
+            long position = 0;
+            while (position < size) {
+                long count = in.transferTo(position, Math.min(COPY_CHUNK_SIZE, size - position), out);
+                if (count <= 0) break;
+                position += count;
+            }
+            return position == size;
+        } catch (IOException e) {
             e.printStackTrace();
             return false;
+        } finally {
+            try {
+                if (in != null) {
+                    in.close();
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            try {
+                if (out != null) {
+                    out.close();
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
         }
     }
 
@@ -507,17 +563,47 @@ public final class FileUtils {
         if (!dir.exists()) return true;
         // dir isn't a directory then return false
         if (!dir.isDirectory()) return false;
-        File[] files = dir.listFiles();
-        if (files != null && files.length > 0) {
-            for (File file : files) {
-                if (file.isFile()) {
-                    if (!file.delete()) return false;
-                } else if (file.isDirectory()) {
-                    if (!deleteDir(file)) return false;
+        return deleteInDir(dir, null) && dir.delete();
+    }
+
+    /**
+     * Delete the entries that satisfy the filter in directory, the files are deleted by
+     * {@link DirWalker} in parallel, and the subdirectories are deleted from the deepest after
+     * walking.
+     *
+     * @param dir    The directory.
+     * @param filter The filter of entries in directory, null to delete all.
+     * @return {@code true}: success<br>{@code false}: fail
+     */
+    private static boolean deleteInDir(final File dir, final FileFilter filter) {
+        final List<File> dirs = Collections.synchronizedList(new ArrayList<File>());
+        final DirWalker walker = new DirWalker(dir);
+        boolean isWalked = walker.walk(new OnWalkListener() {
+            @Override
+            public boolean onVisit(File file, boolean isDir, int depth) {
+                if (depth == 0 && filter != null && !filter.accept(file)) return false;
+                if (isDir) {
+                    dirs.add(file);
+                    return true;
+                }
+                if (!file.delete()) {
+                    walker.cancel();
                 }
+                return false;
+            }
+        });
+        if (!isWalked) return false;
+        // the path of subdirectory is longer than its parent's
+        Collections.sort(dirs, new Comparator<File>() {
+            @Override
+            public int compare(File o1, File o2) {
+                return o2.getPath().length() - o1.getPath().length();
             }
+        });
+        for (File subDir : dirs) {
+            if (!subDir.delete()) return false;
         }
-        return dir.delete();
+        return true;
     }
 
     /**
@@ -605,19 +691,7 @@ public final class FileUtils {
         if (!dir.exists()) return true;
         // dir isn't a directory then return false
         if (!dir.isDirectory()) return false;
-        File[] files = dir.listFiles();
-        if (files != null && files.length != 0) {
-            for (File file : files) {
-                if (filter.accept(file)) {
-                    if (file.isFile()) {
-                        if (!file.delete()) return false;
-                    } else if (file.isDirectory()) {
-                        if (!deleteDir(file)) return false;
-                    }
-                }
-            }
-        }
-        return true;
+        return deleteInDir(dir, filter);
     }
 
     /**
@@ -845,22 +919,55 @@ public final class FileUtils {
     private static List<File> listFilesInDirWithFilterInner(final File dir,
                                                             final FileFilter filter,
                                                             final boolean isRecursive) {
-        List<File> list = new ArrayList<>();
+        final List<File> list = new ArrayList<>();
         if (!isDir(dir)) return list;
+        if (isRecursive) {
+            // The directories are listed in parallel, but the filter is called on the calling
+            // thread in the order of walking them one by one.
+            final Map<File, List<File>> entriesMap = new ConcurrentHashMap<>();
+            new DirWalker(dir).walk(new OnWalkListener() {
+                @Override
+                public boolean onVisit(File file, boolean isDir, int depth) {
+                    // the entries of one directory are visited by one thread in order
+                    File parent = file.getParentFile();
+                    List<File> entries = entriesMap.get(parent);
+                    if (entries == null) {
+                        entries = new ArrayList<>();
+                        entriesMap.put(parent, entries);
+                    }
+                    entries.add(file);
+                    return true;
+                }
+            });
+            addFilesInDir(list, dir, entriesMap, filter);
+            return list;
+        }
         File[] files = dir.listFiles();
         if (files != null && files.length > 0) {
             for (File file : files) {
                 if (filter.accept(file)) {
                     list.add(file);
                 }
-                if (isRecursive && file.isDirectory()) {
-                    list.addAll(listFilesInDirWithFilterInner(file, filter, true));
-                }
             }
         }
         return list;
     }
 
+    private static void addFilesInDir(final List<File> list,
+                                      final File dir,
+                                      final Map<File, List<File>> entriesMap,
+                                      final FileFilter filter) {
+        List<File> entries = entriesMap.get(dir);
+        if (entries == null) return;
+        for (File file : entries) {
+            if (filter.accept(file)) {
+                list.add(file);
+            }
+            // the file and empty directory have no entries
+            addFilesInDir(list, file, entriesMap, filter);
+        }
+    }
+
     /**
      * Return the time that the file was last modified.
      *
@@ -1102,7 +1209,7 @@ public final class FileUtils {
     }
 
     /**
-     * Return the size.
+     * Return the size, the size of directory is got from {@link DirLengthTracker} if it's tracked.
      *
      * @param file The directory.
      * @return the size
@@ -1148,7 +1255,8 @@ public final class FileUtils {
     }
 
     /**
-     * Return the length.
+     * Return the length, the length of directory is got from {@link DirLengthTracker} if it's
+     * tracked, otherwise the directory is walked.
      *
      * @param file The file.
      * @return the length
@@ -1169,18 +1277,23 @@ public final class FileUtils {
      */
     private static long getDirLength(final File dir) {
         if (!isDir(dir)) return -1;
-        long len = 0;
-        File[] files = dir.listFiles();
-        if (files != null && files.length > 0) {
-            for (File file : files) {
-                if (file.isDirectory()) {
-                    len += getDirLength(file);
-                } else {
-                    len += file.length();
+        DirLengthTracker tracker = DirLengthTracker.getTracker(dir);
+        if (tracker != null) {
+            // Walk it if the tracker is used by another thread rather than wait.
+            long len = tracker.tryGetLength(dir);
+            if (len != -1) return len;
+        }
+        final AtomicLong len = new AtomicLong();
+        new DirWalker(dir).walk(new OnWalkListener() {
+            @Override
+            public boolean onVisit(File file, boolean isDir, int depth) {
+                if (!isDir) {
+                    len.addAndGet(file.length());
                 }
+                return true;
             }
-        }
-        return len;
+        });
+        return len.get();
     }
 
     /**
@@ -1256,30 +1369,7 @@ public final class FileUtils {
      * @return the md5 of file
      */
     public static byte[] getFileMD5(final File file) {
-        if (file == null) return null;
-        DigestInputStream dis = null;
-        try {
-            FileInputStream fis = new FileInputStream(file);
-            MessageDigest md = MessageDigest.getInstance("MD5");
-            dis = new DigestInputStream(fis, md);
-            byte[] buffer = new byte[1024 * 256];
-            while (true) {
-                if (!(dis.read(buffer) > 0)) break;
-            }
-            md = dis.getMessageDigest();
-            return md.digest();
-        } catch (NoSuchAlgorithmException | IOException e) {
-            e.printStackTrace();
-        } finally {
-            try {
-                if (dis != null) {
-                    dis.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }
-        return null;
+        return UtilsBridge.encryptMD5File(file);
     }
 
     /**
@@ -1446,6 +1536,503 @@ public final class FileUtils {
         return blockSize * availableSize;
     }
 
+    /**
+     * Walk the directory in parallel, the calling thread walks with the threads of io pool
+     * together until all directories are walked, so {@link #walk(OnWalkListener)} blocks.
+     * <p>The entries of directory are listed by name rather than {@link File#listFiles()}.</p>
+     */
+    public static final class DirWalker {
+
+        private static final int PROGRESS_STEP = 256;
+
+        private final File                      mDir;
+        private final BlockingQueue<PendingDir> mQueue       = new LinkedBlockingQueue<>();
+        private final AtomicInteger             mPending     = new AtomicInteger();
+        private final AtomicInteger             mDirCount    = new AtomicInteger();
+        private final AtomicInteger             mFileCount   = new AtomicInteger();
+        private final AtomicBoolean             mIsCancelled = new AtomicBoolean();
+        private       boolean                   mIsRecursive = true;
+        private       int                       mParallelism = Math.min(4, Runtime.getRuntime().availableProcessors());
+
+        public DirWalker(final File dir) {
+            mDir = dir;
+        }
+
+        /**
+         * Set whether to walk the subdirectories, true by default.
+         */
+        public DirWalker setRecursive(final boolean isRecursive) {
+            mIsRecursive = isRecursive;
+            return this;
+        }
+
+        /**
+         * Set the count of threads to walk, including the calling thread.
+         */
+        public DirWalker setParallelism(@IntRange(from = 1) final int parallelism) {
+            mParallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Cancel walking, it can be called on any thread.
+         */
+        public void cancel() {
+            mIsCancelled.set(true);
+        }
+
+        public boolean isCancelled() {
+            return mIsCancelled.get();
+        }
+
+        public int getDirCount() {
+            return mDirCount.get();
+        }
+
+        public int getFileCount() {
+            return mFileCount.get();
+        }
+
+        /**
+         * Walk the directory, the listener is called on the threads of walking.
+         *
+         * @param listener The listener.
+         * @return {@code true}: all entries are walked<br>{@code false}: fail or cancelled
+         */
+        public boolean walk(final OnWalkListener listener) {
+            if (!isDir(mDir) || listener == null) return false;
+            mPending.incrementAndGet();
+            mQueue.offer(new PendingDir(mDir, 0));
+            for (int i = 1; i < mParallelism; i++) {
+                UtilsBridge.executeByIo(new Runnable() {
+                    @Override
+                    public void run() {
+                        work(listener);
+                    }
+                });
+            }
+            work(listener);
+            listener.onProgress(mDirCount.get(), mFileCount.get());
+            return !mIsCancelled.get();
+        }
+
+        private void work(final OnWalkListener listener) {
+            while (!mIsCancelled.get() && mPending.get() > 0) {
+                PendingDir pendingDir;
+                try {
+                    pendingDir = mQueue.poll(10, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    cancel();
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (pendingDir == null) continue;
+                try {
+                    walkDir(pendingDir, listener);
+                } catch (RuntimeException e) {
+                    cancel();
+                    throw e;
+                } finally {
+                    mPending.decrementAndGet();
+                }
+            }
+        }
+
+        private void walkDir(final PendingDir pendingDir, final OnWalkListener listener) {
+            String[] names = pendingDir.dir.list();
+            if (names == null) return;
+            for (String name : names) {
+                if (mIsCancelled.get()) return;
+                File file = new File(pendingDir.dir, name);
+                boolean isDir = file.isDirectory();
+                boolean isWalkInto = listener.onVisit(file, isDir, pendingDir.depth);
+                int count = isDir ? mDirCount.incrementAndGet() : mFileCount.incrementAndGet();
+                if (count % PROGRESS_STEP == 0) {
+                    listener.onProgress(mDirCount.get(), mFileCount.get());
+                }
+                if (isDir && isWalkInto && mIsRecursive) {
+                    mPending.incrementAndGet();
+                    mQueue.offer(new PendingDir(file, pendingDir.depth + 1));
+                }
+            }
+        }
+
+        private static final class PendingDir {
+            final File dir;
+            final int  depth;
+
+            PendingDir(final File dir, final int depth) {
+                this.dir = dir;
+                this.depth = depth;
+            }
+        }
+    }
+
+    /**
+     * Track the length of directory, the directory is walked once when it's tracked, then the
+     * events of {@link FileObserver} mark the changed directories, which are refreshed when the
+     * length is queried, so it doesn't walk the whole directory again.
+     * <p>Each directory holds a watch of inotify which is limited by system, so don't track the
+     * tree with huge count of directories.</p>
+     */
+    public static final class DirLengthTracker {
+
+        private static final Map<String, DirLengthTracker> TRACKERS = new HashMap<>();
+
+        private static final int EVENT_MASK = FileObserver.CREATE | FileObserver.DELETE
+                | FileObserver.MODIFY | FileObserver.CLOSE_WRITE
+                | FileObserver.MOVED_FROM | FileObserver.MOVED_TO;
+
+        private final File                 mDir;
+        private final Map<String, DirNode> mNodes      = new HashMap<>();
+        private final Set<DirNode>         mDirtyNodes = Collections.newSetFromMap(new ConcurrentHashMap<DirNode, Boolean>());
+        private final ReentrantLock        mLock       = new ReentrantLock();
+        private       DirNode              mRoot;
+
+        private DirLengthTracker(final File dir) {
+            mDir = dir;
+        }
+
+        /**
+         * Return the tracker of directory, the directory is walked when it's tracked first time.
+         *
+         * @param dirPath The path of directory.
+         * @return the tracker of directory, null if it isn't a directory
+         */
+        public static DirLengthTracker track(final String dirPath) {
+            return track(getFileByPath(dirPath));
+        }
+
+        /**
+         * Return the tracker of directory, the directory is walked when it's tracked first time.
+         *
+         * @param dir The directory.
+         * @return the tracker of directory, null if it isn't a directory
+         */
+        public static DirLengthTracker track(final File dir) {
+            if (!isDir(dir)) return null;
+            final File absDir = dir.getAbsoluteFile();
+            DirLengthTracker tracker;
+            synchronized (TRACKERS) {
+                tracker = TRACKERS.get(absDir.getPath());
+            }
+            if (tracker != null) return tracker;
+            // It's published after walked, so the others never get a tracker which is walking.
+            final DirLengthTracker newTracker = new DirLengthTracker(absDir);
+            newTracker.init();
+            synchronized (TRACKERS) {
+                tracker = TRACKERS.get(absDir.getPath());
+                if (tracker == null) {
+                    TRACKERS.put(absDir.getPath(), newTracker);
+                    return newTracker;
+                }
+            }
+            // Another thread tracked it at the same time.
+            newTracker.stop();
+            return tracker;
+        }
+
+        /**
+         * Return the tracker whose directory contains the file, it never walks the directory.
+         *
+         * @param file The file or directory.
+         * @return the tracker, null if the file isn't tracked
+         */
+        public static DirLengthTracker getTracker(final File file) {
+            if (file == null) return null;
+            synchronized (TRACKERS) {
+                if (TRACKERS.isEmpty()) return null;
+                for (File f = file.getAbsoluteFile(); f != null; f = f.getParentFile()) {
+                    DirLengthTracker tracker = TRACKERS.get(f.getPath());
+                    if (tracker != null) return tracker;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Return the length of tracked directory, the changed directories are refreshed on the
+         * caller thread, so don't call it on the main thread, use {@link #peekLength(File)}.
+         *
+         * @return the length of tracked directory
+         */
+        public long getLength() {
+            mLock.lock();
+            try {
+                if (mRoot == null) return 0;
+                refreshDirtyNodes();
+                return mRoot.length;
+            } finally {
+                mLock.unlock();
+            }
+        }
+
+        /**
+         * Return the length of file or directory in tracked directory, the changed directories are
+         * refreshed on the caller thread, so don't call it on the main thread, use
+         * {@link #peekLength(File)}.
+         *
+         * @param file The file or directory.
+         * @return the length, -1 if it isn't in tracked directory
+         */
+        public long getLength(final File file) {
+            if (file == null) return -1;
+            mLock.lock();
+            try {
+                if (mRoot == null) return -1;
+                refreshDirtyNodes();
+                return getLengthInner(file);
+            } finally {
+                mLock.unlock();
+            }
+        }
+
+        /**
+         * Return the length of file or directory in tracked directory without blocking, it can be
+         * called on the main thread.
+         *
+         * @param file The file or directory.
+         * @return the length, -1 if it isn't in tracked directory, or the tracker is busy or has
+         * changes to refresh
+         */
+        public long peekLength(final File file) {
+            if (file == null || !mLock.tryLock()) return -1;
+            try {
+                if (mRoot == null || !mDirtyNodes.isEmpty()) return -1;
+                return getLengthInner(file);
+            } finally {
+                mLock.unlock();
+            }
+        }
+
+        /**
+         * Return the length like {@link #getLength(File)}, but -1 if the tracker is used by
+         * another thread, instead of waiting for it.
+         */
+        private long tryGetLength(final File file) {
+            if (!mLock.tryLock()) return -1;
+            try {
+                if (mRoot == null) return -1;
+                refreshDirtyNodes();
+                return getLengthInner(file);
+            } finally {
+                mLock.unlock();
+            }
+        }
+
+        private long getLengthInner(final File file) {
+            final File absFile = file.getAbsoluteFile();
+            DirNode node = mNodes.get(absFile.getPath());
+            if (node != null) return node.length;
+            if (mNodes.containsKey(absFile.getParent()) && absFile.isFile()) return absFile.length();
+            return -1;
+        }
+
+        /**
+         * Notify the file or directory is changed, the changes are tracked automatically by the
+         * events, call it if the events may be missed, such as the tracked directory was replaced.
+         *
+         * @param file The changed file or directory.
+         */
+        public void notifyChanged(final File file) {
+            if (file == null) return;
+            mLock.lock();
+            try {
+                if (mRoot == null) return;
+                final File absFile = file.getAbsoluteFile();
+                DirNode node = mNodes.get(absFile.getPath());
+                if (node == null) {
+                    node = mNodes.get(absFile.getParent());
+                    if (node != null) {
+                        mDirtyNodes.add(node);
+                    }
+                } else if (node == mRoot) {
+                    removeTree(mRoot);
+                    mRoot = buildTree(mDir, null);
+                } else {
+                    // rebuild the tree of directory when refreshing its parent
+                    node.parent.children.remove(absFile.getName());
+                    removeTree(node);
+                    addLength(node.parent, -node.length);
+                    mDirtyNodes.add(node.parent);
+                }
+            } finally {
+                mLock.unlock();
+            }
+        }
+
+        /**
+         * Stop tracking, the next {@link #track(File)} walks the directory again.
+         */
+        public void stop() {
+            synchronized (TRACKERS) {
+                if (TRACKERS.get(mDir.getPath()) == this) {
+                    TRACKERS.remove(mDir.getPath());
+                }
+            }
+            mLock.lock();
+            try {
+                if (mRoot != null) {
+                    removeTree(mRoot);
+                    mRoot = null;
+                }
+            } finally {
+                mLock.unlock();
+            }
+        }
+
+        /**
+         * Deliver the event of {@link FileObserver} to the directory as it's watched.
+         */
+        void onEvent4Test(final File dir, final int event, final String path) {
+            DirNode node;
+            mLock.lock();
+            try {
+                node = mNodes.get(dir.getAbsolutePath());
+            } finally {
+                mLock.unlock();
+            }
+            if (node != null) {
+                node.onEvent(event, path);
+            }
+        }
+
+        private void init() {
+            mLock.lock();
+            try {
+                mRoot = buildTree(mDir, null);
+            } finally {
+                mLock.unlock();
+            }
+        }
+
+        /**
+         * Build the tree of directory by {@link DirWalker}, the nodes start watching once they're
+         * created, so the changes while walking will be refreshed later.
+         */
+        private DirNode buildTree(final File dir, final DirNode parent) {
+            final DirNode root = new DirNode(dir, parent);
+            final Map<String, DirNode> nodes = new ConcurrentHashMap<>();
+            nodes.put(dir.getPath(), root);
+            root.startWatching();
+            new DirWalker(dir).walk(new OnWalkListener() {
+                @Override
+                public boolean onVisit(File file, boolean isDir, int depth) {
+                    // the entries of one directory are visited on the same thread
+                    DirNode parentNode = nodes.get(file.getParent());
+                    if (isDir) {
+                        DirNode node = new DirNode(file, parentNode);
+                        parentNode.children.put(file.getName(), node);
+                        nodes.put(file.getPath(), node);
+                        node.startWatching();
+                    } else {
+                        parentNode.filesLength += file.length();
+                    }
+                    return true;
+                }
+            });
+            List<DirNode> sortedNodes = new ArrayList<>(nodes.values());
+            // the path of subdirectory is longer than its parent's
+            Collections.sort(sortedNodes, new Comparator<DirNode>() {
+                @Override
+                public int compare(DirNode o1, DirNode o2) {
+                    return o2.dir.getPath().length() - o1.dir.getPath().length();
+                }
+            });
+            for (DirNode node : sortedNodes) {
+                node.length += node.filesLength;
+                if (node != root) {
+                    node.parent.length += node.length;
+                }
+            }
+            mNodes.putAll(nodes);
+            return root;
+        }
+
+        private void removeTree(final DirNode node) {
+            node.stopWatching();
+            node.isRemoved = true;
+            mNodes.remove(node.dir.getPath());
+            mDirtyNodes.remove(node);
+            for (DirNode child : node.children.values()) {
+                removeTree(child);
+            }
+        }
+
+        private void refreshDirtyNodes() {
+            if (mDirtyNodes.isEmpty()) return;
+            List<DirNode> dirtyNodes = new ArrayList<>(mDirtyNodes);
+            mDirtyNodes.removeAll(dirtyNodes);
+            for (DirNode node : dirtyNodes) {
+                if (!node.isRemoved) {
+                    refreshNode(node);
+                }
+            }
+        }
+
+        /**
+         * Refresh the length of files in directory and the subdirectories which are added or
+         * deleted.
+         */
+        private void refreshNode(final DirNode node) {
+            long filesLength = 0;
+            Set<String> dirNames = new HashSet<>();
+            String[] names = node.dir.list();
+            if (names != null) {
+                for (String name : names) {
+                    File file = new File(node.dir, name);
+                    if (file.isDirectory()) {
+                        dirNames.add(name);
+                        if (!node.children.containsKey(name)) {
+                            DirNode child = buildTree(file, node);
+                            node.children.put(name, child);
+                            addLength(node, child.length);
+                        }
+                    } else {
+                        filesLength += file.length();
+                    }
+                }
+            }
+            Iterator<Map.Entry<String, DirNode>> iterator = node.children.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, DirNode> entry = iterator.next();
+                if (!dirNames.contains(entry.getKey())) {
+                    iterator.remove();
+                    removeTree(entry.getValue());
+                    addLength(node, -entry.getValue().length);
+                }
+            }
+            addLength(node, filesLength - node.filesLength);
+            node.filesLength = filesLength;
+        }
+
+        private static void addLength(final DirNode node, final long delta) {
+            for (DirNode n = node; n != null; n = n.parent) {
+                n.length += delta;
+            }
+        }
+
+        private final class DirNode extends FileObserver {
+            private final File                 dir;
+            private final DirNode              parent;
+            private final Map<String, DirNode> children = new HashMap<>();
+            private       long                 filesLength;// The length of files in directory.
+            private       long                 length;     // The length of directory.
+            private       boolean              isRemoved;
+
+            DirNode(final File dir, final DirNode parent) {
+                super(dir.getPath(), EVENT_MASK);
+                this.dir = dir;
+                this.parent = parent;
+            }
+
+            @Override
+            public void onEvent(int event, String path) {
+                mDirtyNodes.add(this);
+            }
+        }
+    }
+
     ///////////////////////////////////////////////////////////////////////////
     // interface
     ///////////////////////////////////////////////////////////////////////////
@@ -1453,4 +2040,27 @@ public final class FileUtils {
     public interface OnReplaceListener {
         boolean onReplace(File srcFile, File destFile);
     }
+
+    public abstract static class OnWalkListener {
+
+        /**
+         * Called when the file or directory is visited, it may be called on different threads at
+         * the same time.
+         *
+         * @param file  The file or directory.
+         * @param isDir True if it's a directory.
+         * @param depth The depth, 0 for the entries of the walked directory.
+         * @return true to walk into the directory, it's ignored for file
+         */
+        public abstract boolean onVisit(File file, boolean isDir, int depth);
+
+        /**
+         * Called every 256 directories or files are visited and at the end.
+         *
+         * @param dirCount  The count of visited directories.
+         * @param fileCount The count of visited files.
+         */
+        public void onProgress(int dirCount, int fileCount) {
+        }
+    }
 }
@@ -17,30 +17,66 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
 import java.io.FilenameFilter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
-import java.util.Formatter;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Source;
@@ -97,12 +133,55 @@ public final class LogUtils {
     private static final String PLACEHOLDER    = " ";
     private static final Config CONFIG         = new Config();
 
-    private static SimpleDateFormat simpleDateFormat;
+    private static final long    FLUSH_TIMEOUT         = 3000;
+    private static final long    CRASH_FLUSH_TIMEOUT   = 1000;
+    private static final String  BINARY_FILE_EXTENSION = ".blog";
+    private static final String  INDEX_FILE_EXTENSION  = ".idx";
+    private static final Pattern DATE_PATTERN          = Pattern.compile("[0-9]{4}_[0-9]{2}_[0-9]{2}");
+    private static final Charset UTF_8                 = Charset.forName("UTF-8");
+
+    private static volatile Thread                   sExecutorThread;
+    private static final    ScheduledExecutorService EXECUTOR =
+            Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    // The thread is replaced if a task threw, so record the latest one.
+                    Thread thread = Executors.defaultThreadFactory().newThread(r);
+                    sExecutorThread = thread;
+                    return thread;
+                }
+            });
+
+    static {
+        InitState.isInitialized = true;
+    }
 
-    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor();
+    // Only accessed in the thread of EXECUTOR.
+    private static final FileDateFormat     FILE_DATE_FORMAT = new FileDateFormat();
+    private static final BufferedFileWriter FILE_WRITER      = new BufferedFileWriter();
+    private static final BinaryFileWriter   BINARY_WRITER    = new BinaryFileWriter();
+    private static       String             sLastFilePath;
+    private static       String             sLastIndexFilePath;
+    private static       int                sLastFileIndex;
+    private static       long               sLastFileSize;
 
     private static final SimpleArrayMap<Class, IFormatter> I_FORMATTER_MAP = new SimpleArrayMap<>();
 
+    private static final Queue<LogRecord> SINK_QUEUE           = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger    SINK_QUEUE_SIZE      = new AtomicInteger();
+    private static final AtomicLong       SINK_DROP_COUNT      = new AtomicLong();
+    private static final AtomicBoolean    SINK_DRAIN_SCHEDULED = new AtomicBoolean();
+    private static final Runnable         SINK_DRAIN_RUNNABLE  = new Runnable() {
+        @Override
+        public void run() {
+            drainSinks();
+        }
+    };
+    private static final ISink            FILE_SINK            = new FileSink();
+
+    private static final int                                          CALL_SITE_CACHE_SIZE = 512;
+    private static final ConcurrentHashMap<StackTraceElement, CallSite> CALL_SITE_CACHE      = new ConcurrentHashMap<>();
+
     private LogUtils() {
         throw new UnsupportedOperationException("u can't instantiate me...");
     }
@@ -159,6 +238,34 @@ public final class LogUtils {
         log(A, tag, contents);
     }
 
+    /**
+     * Log the template whose "{}" will be replaced by the args in order, the args are formatted
+     * only if the log is loggable.
+     */
+    public static void vFormat(final String tag, final String template, final Object... args) {
+        logFormat(V, tag, template, args);
+    }
+
+    public static void dFormat(final String tag, final String template, final Object... args) {
+        logFormat(D, tag, template, args);
+    }
+
+    public static void iFormat(final String tag, final String template, final Object... args) {
+        logFormat(I, tag, template, args);
+    }
+
+    public static void wFormat(final String tag, final String template, final Object... args) {
+        logFormat(W, tag, template, args);
+    }
+
+    public static void eFormat(final String tag, final String template, final Object... args) {
+        logFormat(E, tag, template, args);
+    }
+
+    public static void aFormat(final String tag, final String template, final Object... args) {
+        logFormat(A, tag, template, args);
+    }
+
     public static void file(final Object content) {
         log(FILE | D, CONFIG.getGlobalTag(), content);
     }
@@ -208,24 +315,207 @@ public final class LogUtils {
     }
 
     public static void log(final int type, final String tag, final Object... contents) {
+        logInner(type, tag, null, contents);
+    }
+
+    public static void logFormat(final int type, final String tag, final String template, final Object... args) {
+        logInner(type, tag, template, args);
+    }
+
+    private static void logInner(final int type, final String tag, final String template, final Object[] contents) {
         if (!CONFIG.isLogSwitch()) return;
         final int type_low = type & 0x0f, type_high = type & 0xf0;
-        if (CONFIG.isLog2ConsoleSwitch() || CONFIG.isLog2FileSwitch() || type_high == FILE) {
-            if (type_low < CONFIG.mConsoleFilter && type_low < CONFIG.mFileFilter) return;
-            final TagHead tagHead = processTagAndHead(tag);
-            final String body = processBody(type_high, contents);
-            if (CONFIG.isLog2ConsoleSwitch() && type_high != FILE && type_low >= CONFIG.mConsoleFilter) {
-                print2Console(type_low, tagHead.tag, tagHead.consoleHead, body);
-            }
-            if ((CONFIG.isLog2FileSwitch() || type_high == FILE) && type_low >= CONFIG.mFileFilter) {
-                EXECUTOR.execute(new Runnable() {
-                    @Override
-                    public void run() {
-                        print2File(type_low, tagHead.tag, tagHead.fileHead + body);
+        final boolean isLog2Console = CONFIG.isLog2ConsoleSwitch()
+                && type_high != FILE && type_low >= CONFIG.mConsoleFilter;
+        int targets = 0;
+        if ((CONFIG.isLog2FileSwitch() || type_high == FILE) && type_low >= CONFIG.mFileFilter) {
+            targets |= LogRecord.TARGET_FILE;
+        }
+        if (!CONFIG.mSinks.isEmpty()) {
+            targets |= LogRecord.TARGET_SINK;
+        }
+        if (!isLog2Console && targets == 0) return;
+        if (!UtilsBridge.isSpace(tag) && !isTagLoggable(tag, type_low)) return;
+        final TagHead tagHead = processTagAndHead(tag);
+        if (!isTagLoggable(tagHead.tag, type_low)) return;
+        if ((targets & LogRecord.TARGET_SINK) != 0 && !isSinkLoggable(type_low, tagHead.tag)) {
+            targets &= ~LogRecord.TARGET_SINK;
+            if (!isLog2Console && targets == 0) return;
+        }
+        // The body is formatted only if the log will be written somewhere.
+        final String body = template == null ? processBody(type_high, contents) : processTemplate(template, contents);
+        // The console and mmap buffer are written on the caller thread, so the logs just before
+        // the death of process are not lost in the queue.
+        if (isLog2Console) {
+            print2Console(type_low, tagHead.tag, tagHead.consoleHead, body);
+        }
+        final long millis = System.currentTimeMillis();
+        if ((targets & LogRecord.TARGET_FILE) != 0 && !CONFIG.isBinaryFileSwitch()
+                && CONFIG.isMmapSwitch() && CONFIG.mFileWriter == null
+                && MmapBuffer.getInstance().append(millis, type_low, tagHead.tag, tagHead.fileHead + body)) {
+            targets &= ~LogRecord.TARGET_FILE;
+        }
+        if (targets == 0) return;
+        offer2Sinks(new LogRecord(millis, type_low, tagHead, Thread.currentThread().getName(), body, targets));
+    }
+
+    private static boolean isSinkLoggable(final int type, final String tag) {
+        for (ISink sink : CONFIG.mSinks) {
+            if (sink.isLoggable(type, tag)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Offer the log to the queue of sinks, which is drained by the thread of {@link #EXECUTOR},
+     * the file is the first sink of it if the log isn't in mmap buffer. If the queue is full, the
+     * log will be dropped by the added sinks, but still be written to file.
+     */
+    private static void offer2Sinks(final LogRecord record) {
+        if (SINK_QUEUE_SIZE.incrementAndGet() > CONFIG.getSinkQueueCapacity()) {
+            SINK_DROP_COUNT.incrementAndGet();
+            record.targets &= ~LogRecord.TARGET_SINK;
+            if (record.targets == 0) {
+                SINK_QUEUE_SIZE.decrementAndGet();
+                return;
+            }
+        }
+        SINK_QUEUE.offer(record);
+        if (SINK_DRAIN_SCHEDULED.compareAndSet(false, true)) {
+            EXECUTOR.execute(SINK_DRAIN_RUNNABLE);
+        }
+    }
+
+    private static void drainSinks() {
+        while (true) {
+            LogRecord record;
+            while ((record = SINK_QUEUE.poll()) != null) {
+                SINK_QUEUE_SIZE.decrementAndGet();
+                if ((record.targets & LogRecord.TARGET_FILE) != 0) {
+                    write2Sink(FILE_SINK, record);
+                }
+                if ((record.targets & LogRecord.TARGET_SINK) == 0) continue;
+                for (ISink sink : CONFIG.mSinks) {
+                    if (!sink.isLoggable(record.getType(), record.getTag())) continue;
+                    write2Sink(sink, record);
+                }
+            }
+            SINK_DRAIN_SCHEDULED.set(false);
+            // The logs offered after polling but before reset will be drained here.
+            if (SINK_QUEUE.isEmpty() || !SINK_DRAIN_SCHEDULED.compareAndSet(false, true)) return;
+        }
+    }
+
+    private static void write2Sink(final ISink sink, final LogRecord record) {
+        try {
+            sink.write(record);
+        } catch (Exception e) {
+            Log.e("LogUtils", "write " + sink + " failed!", e);
+        }
+    }
+
+    /**
+     * Return the count of logs dropped by the added sinks since the queue of sinks is full.
+     *
+     * @return the count of dropped logs
+     */
+    public static long getSinkDropCount() {
+        return SINK_DROP_COUNT.get();
+    }
+
+    /**
+     * Return the count of logs in the queue which are not written to file or sinks.
+     *
+     * @return the count of pending logs
+     */
+    public static int getSinkPendingCount() {
+        return SINK_QUEUE_SIZE.get();
+    }
+
+    private static boolean isTagLoggable(final String tag, final int type) {
+        if (tag == null || CONFIG.mTagFilters.isEmpty()) return true;
+        Integer filter = CONFIG.mTagFilters.get(tag);
+        return filter == null || type >= filter;
+    }
+
+    /**
+     * Write the buffered logs to file, it'll block until finished or timeout.
+     */
+    public static void flush() {
+        // The mmap buffer is written by the task submitted when it's flushed, so wait twice.
+        submitAndWait(new Runnable() {
+            @Override
+            public void run() {
+                drainSinks();
+                if (CONFIG.isMmapSwitch()) {
+                    MmapBuffer.getInstance().flush();
+                }
+            }
+        });
+        submitAndWait(new Runnable() {
+            @Override
+            public void run() {
+                FILE_WRITER.flush();
+                BINARY_WRITER.flush();
+                for (ISink sink : CONFIG.mSinks) {
+                    sink.flush();
+                }
+            }
+        });
+    }
+
+    private static void submitAndWait(final Runnable runnable) {
+        Future<?> future = EXECUTOR.submit(runnable);
+        try {
+            future.get(FLUSH_TIMEOUT, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            Log.e("LogUtils", "flush failed: " + e);
+        }
+    }
+
+    /**
+     * Flush the logs and dump the {@link RingBufferSink} which dump on crash, it waits
+     * {@link #CRASH_FLUSH_TIMEOUT} at most.
+     * <p>The mmap buffer is left as it is, cause it survives the crash and will be recovered on
+     * next start.</p>
+     */
+    static void flushOnCrash() {
+        Runnable runnable = new Runnable() {
+            @Override
+            public void run() {
+                drainSinks();
+                FILE_WRITER.flush();
+                BINARY_WRITER.flush();
+                for (ISink sink : CONFIG.mSinks) {
+                    sink.flush();
+                    if (sink instanceof RingBufferSink && ((RingBufferSink) sink).isDumpOnCrash()) {
+                        ((RingBufferSink) sink).dumpInner(RingBufferSink.getDumpFile());
                     }
-                });
+                }
+            }
+        };
+        if (Thread.currentThread() == sExecutorThread) {
+            // The crash is in the thread of EXECUTOR, the task submitted will never run.
+            try {
+                runnable.run();
+            } catch (Exception e) {
+                Log.e("LogUtils", "flush on crash failed: " + e);
             }
+            return;
         }
+        Future<?> future = EXECUTOR.submit(runnable);
+        try {
+            future.get(CRASH_FLUSH_TIMEOUT, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            Log.e("LogUtils", "flush on crash failed: " + e);
+        }
+    }
+
+    /**
+     * Restart the mmap buffer as the process was killed before flushing.
+     */
+    static void restartMmapBuffer4Test() {
+        MmapBuffer.restart4Test();
     }
 
     public static List<File> getLogFiles() {
@@ -243,40 +533,75 @@ public final class LogUtils {
         return list;
     }
 
+    /**
+     * Return the logs of binary file which is written when {@link Config#setBinaryFileSwitch(boolean)}.
+     *
+     * @param file The binary log file.
+     * @return the logs
+     */
+    public static List<LogRecord> readBinaryLogs(final File file) {
+        return readBinaryLogs(file, 0, Long.MAX_VALUE, V, null);
+    }
+
+    /**
+     * Return the logs of binary file which match the filters, the blocks which can't match will
+     * be skipped by its index without decompressing.
+     *
+     * @param file        The binary log file.
+     * @param startMillis The start milliseconds of logs, inclusive.
+     * @param endMillis   The end milliseconds of logs, inclusive.
+     * @param minType     The min type of logs.
+     * @param tag         The tag of logs, null for all tags.
+     * @return the logs
+     */
+    public static List<LogRecord> readBinaryLogs(final File file,
+                                                 final long startMillis,
+                                                 final long endMillis,
+                                                 @TYPE final int minType,
+                                                 final String tag) {
+        List<LogRecord> records = new ArrayList<>();
+        if (file == null || !file.isFile()) return records;
+        RandomAccessFile raf = null;
+        try {
+            raf = new RandomAccessFile(file, "r");
+            for (BlockHeader header : BlockHeader.readAll(file, raf)) {
+                if (!header.isMatch(startMillis, endMillis, minType, tag)) continue;
+                byte[] data = new byte[header.dataLen];
+                raf.seek(header.dataOffset);
+                raf.readFully(data);
+                BinaryFileWriter.decodeBlock(data, startMillis, endMillis, minType, tag, records);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            CloseUtils.closeIOQuietly(raf);
+        }
+        return records;
+    }
+
     private static TagHead processTagAndHead(String tag) {
         if (!CONFIG.mTagIsSpace && !CONFIG.isLogHeadSwitch()) {
             tag = CONFIG.getGlobalTag();
         } else {
             final StackTraceElement[] stackTrace = new Throwable().getStackTrace();
-            final int stackIndex = 3 + CONFIG.getStackOffset();
+            final int stackIndex = 4 + CONFIG.getStackOffset();
             if (stackIndex >= stackTrace.length) {
-                StackTraceElement targetElement = stackTrace[3];
-                final String fileName = getFileName(targetElement);
+                CallSite callSite = getCallSite(stackTrace[4]);
                 if (CONFIG.mTagIsSpace && UtilsBridge.isSpace(tag)) {
-                    int index = fileName.indexOf('.');// Use proguard may not find '.'.
-                    tag = index == -1 ? fileName : fileName.substring(0, index);
+                    tag = callSite.tag;
                 }
                 return new TagHead(tag, null, ": ");
             }
-            StackTraceElement targetElement = stackTrace[stackIndex];
-            final String fileName = getFileName(targetElement);
+            CallSite callSite = getCallSite(stackTrace[stackIndex]);
             if (CONFIG.mTagIsSpace && UtilsBridge.isSpace(tag)) {
-                int index = fileName.indexOf('.');// Use proguard may not find '.'.
-                tag = index == -1 ? fileName : fileName.substring(0, index);
+                tag = callSite.tag;
             }
             if (CONFIG.isLogHeadSwitch()) {
                 String tName = Thread.currentThread().getName();
-                final String head = new Formatter()
-                        .format("%s, %s.%s(%s:%d)",
-                                tName,
-                                targetElement.getClassName(),
-                                targetElement.getMethodName(),
-                                fileName,
-                                targetElement.getLineNumber())
-                        .toString();
+                final String head = tName + ", " + callSite.location;
                 final String fileHead = " [" + head + "]: ";
                 if (CONFIG.getStackDeep() <= 1) {
-                    return new TagHead(tag, new String[]{head}, fileHead);
+                    return new TagHead(tag, new String[]{head}, fileHead, callSite.location);
                 } else {
                     final String[] consoleHead =
                             new String[Math.min(
@@ -284,26 +609,44 @@ public final class LogUtils {
                                     stackTrace.length - stackIndex
                             )];
                     consoleHead[0] = head;
-                    int spaceLen = tName.length() + 2;
-                    String space = new Formatter().format("%" + spaceLen + "s", "").toString();
+                    char[] spaces = new char[tName.length() + 2];
+                    Arrays.fill(spaces, ' ');
+                    String space = new String(spaces);
                     for (int i = 1, len = consoleHead.length; i < len; ++i) {
-                        targetElement = stackTrace[i + stackIndex];
-                        consoleHead[i] = new Formatter()
-                                .format("%s%s.%s(%s:%d)",
-                                        space,
-                                        targetElement.getClassName(),
-                                        targetElement.getMethodName(),
-                                        getFileName(targetElement),
-                                        targetElement.getLineNumber())
-                                .toString();
+                        consoleHead[i] = space + getCallSite(stackTrace[i + stackIndex]).location;
                     }
-                    return new TagHead(tag, consoleHead, fileHead);
+                    return new TagHead(tag, consoleHead, fileHead, callSite.location);
                 }
             }
         }
         return new TagHead(tag, null, ": ");
     }
 
+    /**
+     * The tag and location of a call site are cached, so the same line only formats once.
+     */
+    private static CallSite getCallSite(final StackTraceElement element) {
+        CallSite callSite = CALL_SITE_CACHE.get(element);
+        if (callSite != null) return callSite;
+        final String fileName = getFileName(element);
+        int index = fileName.indexOf('.');// Use proguard may not find '.'.
+        final String tag = index == -1 ? fileName : fileName.substring(0, index);
+        final String location = element.getClassName() +
+                "." +
+                element.getMethodName() +
+                "(" +
+                fileName +
+                ":" +
+                element.getLineNumber() +
+                ")";
+        callSite = new CallSite(tag, location);
+        if (CALL_SITE_CACHE.size() >= CALL_SITE_CACHE_SIZE) {
+            CALL_SITE_CACHE.clear();
+        }
+        CALL_SITE_CACHE.put(element, callSite);
+        return callSite;
+    }
+
     private static String getFileName(final StackTraceElement targetElement) {
         String fileName = targetElement.getFileName();
         if (fileName != null) return fileName;
@@ -344,7 +687,23 @@ public final class LogUtils {
         return body.length() == 0 ? NOTHING : body;
     }
 
+    private static String processTemplate(final String template, final Object... args) {
+        if (template == null) return NULL;
+        if (args == null || args.length == 0) return template.length() == 0 ? NOTHING : template;
+        StringBuilder sb = new StringBuilder(template.length() + 16 * args.length);
+        int start = 0, argIndex = 0, index;
+        while (argIndex < args.length && (index = template.indexOf("{}", start)) != -1) {
+            sb.append(template, start, index).append(formatObject(args[argIndex++]));
+            start = index + 2;
+        }
+        sb.append(template, start, template.length());
+        return sb.length() == 0 ? NOTHING : sb.toString();
+    }
+
     private static String formatObject(int type, Object object) {
+        if (object instanceof Utils.Supplier) {
+            object = ((Utils.Supplier) object).get();
+        }
         if (object == null) return NULL;
         if (type == JSON) return LogFormatter.object2String(object, JSON);
         if (type == XML) return LogFormatter.object2String(object, XML);
@@ -352,6 +711,9 @@ public final class LogUtils {
     }
 
     private static String formatObject(Object object) {
+        if (object instanceof Utils.Supplier) {
+            object = ((Utils.Supplier) object).get();
+        }
         if (object == null) return NULL;
         if (!I_FORMATTER_MAP.isEmpty()) {
             IFormatter iFormatter = I_FORMATTER_MAP.get(getClassFromObject(object));
@@ -485,32 +847,107 @@ public final class LogUtils {
         }
     }
 
-    private static void print2File(final int type, final String tag, final String msg) {
-        String format = getSdf().format(new Date());
+    private static void print2File(final long millis, final int type, final String tag, final String msg) {
+        String format = FILE_DATE_FORMAT.format(millis);
         String date = format.substring(0, 10);
         String time = format.substring(11);
-        final String fullPath =
-                CONFIG.getDir() + CONFIG.getFilePrefix() + "_"
-                        + date + "_" +
-                        CONFIG.getProcessName() + CONFIG.getFileExtension();
-        if (!createOrExistsFile(fullPath, date)) {
-            Log.e("LogUtils", "create " + fullPath + " failed!");
-            return;
-        }
-        final String content = time +
+        final String content = formatFileLog(time, type, tag, msg);
+        final String fullPath = getWriteFilePath(getLogFilePath(date), date, getUtf8Length(content));
+        if (fullPath == null) return;
+        input2File(fullPath, content);
+    }
+
+    private static void print2BinaryFile(final long millis, final int type, final String tag,
+                                         final String thread, final String msg) {
+        String date = FILE_DATE_FORMAT.format(millis).substring(0, 10);
+        // The compressed size is unknown here, so binary file is only rotated by day.
+        final String fullPath = getWriteFilePath(getLogFilePath(date, BINARY_FILE_EXTENSION), date, 0);
+        if (fullPath == null) return;
+        BINARY_WRITER.write(fullPath, millis, type, tag, thread, msg);
+    }
+
+    private static String getLogFilePath(final String date) {
+        return getLogFilePath(date, CONFIG.getFileExtension());
+    }
+
+    private static String getLogFilePath(final String date, final String extension) {
+        return CONFIG.getDir() + CONFIG.getFilePrefix() + "_"
+                + date + "_" +
+                CONFIG.getProcessName() + extension;
+    }
+
+    private static String formatFileLog(final String time, final int type, final String tag, final String msg) {
+        return time +
                 T[type - V] +
                 "/" +
                 tag +
                 msg +
                 LINE_SEP;
-        input2File(fullPath, content);
     }
 
-    private static SimpleDateFormat getSdf() {
-        if (simpleDateFormat == null) {
-            simpleDateFormat = new SimpleDateFormat("yyyy_MM_dd HH:mm:ss.SSS ", Locale.getDefault());
+    /**
+     * Return the path of file to write the log of date, the index of file increases when the size
+     * of current file reaches {@link Config#getFileMaxSize()}, such as "util_2020_06_01_1.txt".
+     *
+     * @param filePath The path of log file without index.
+     * @param date     The date of log.
+     * @param len      The length of log in bytes.
+     * @return the path of file, null if failed to create it
+     */
+    private static String getWriteFilePath(final String filePath, final String date, final int len) {
+        final long maxSize = CONFIG.getFileMaxSize();
+        if (filePath.equals(sLastFilePath)) {
+            if (maxSize <= 0 || sLastFileSize == 0 || sLastFileSize + len <= maxSize) {
+                sLastFileSize += len;
+                return sLastIndexFilePath;
+            }
+            sLastFileIndex++;
+        } else {
+            sLastFileIndex = 0;
+            while (new File(getIndexFilePath(filePath, sLastFileIndex + 1)).exists()) {
+                sLastFileIndex++;
+            }
+        }
+        final String indexFilePath = getIndexFilePath(filePath, sLastFileIndex);
+        if (!createOrExistsFile(indexFilePath, date)) {
+            Log.e("LogUtils", "create " + indexFilePath + " failed!");
+            sLastFilePath = null;
+            return null;
+        }
+        sLastFilePath = filePath;
+        sLastIndexFilePath = indexFilePath;
+        sLastFileSize = new File(indexFilePath).length() + len;
+        return indexFilePath;
+    }
+
+    /**
+     * Return the length of string encoded in UTF-8 which the log file is written in, without
+     * encoding it.
+     */
+    private static int getUtf8Length(final String str) {
+        int len = 0;
+        for (int i = 0, size = str.length(); i < size; i++) {
+            char c = str.charAt(i);
+            if (c < 0x80) {
+                len++;
+            } else if (c < 0x800) {
+                len += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < size
+                    && Character.isLowSurrogate(str.charAt(i + 1))) {
+                len += 4;
+                i++;
+            } else {
+                len += 3;
+            }
         }
-        return simpleDateFormat;
+        return len;
+    }
+
+    private static String getIndexFilePath(final String filePath, final int index) {
+        if (index == 0) return filePath;
+        String extension = filePath.endsWith(BINARY_FILE_EXTENSION) ? BINARY_FILE_EXTENSION : CONFIG.getFileExtension();
+        int end = filePath.length() - extension.length();
+        return filePath.substring(0, end) + "_" + index + extension;
     }
 
     private static boolean createOrExistsFile(final String filePath, final String date) {
@@ -518,10 +955,10 @@ public final class LogUtils {
         if (file.exists()) return file.isFile();
         if (!UtilsBridge.createOrExistsDir(file.getParentFile())) return false;
         try {
-            deleteDueLogs(filePath, date);
             boolean isCreate = file.createNewFile();
             if (isCreate) {
                 printDeviceInfo(filePath, date);
+                sweepLogs(filePath, date);
             }
             return isCreate;
         } catch (IOException e) {
@@ -530,48 +967,79 @@ public final class LogUtils {
         }
     }
 
-    private static void deleteDueLogs(final String filePath, final String date) {
-        if (CONFIG.getSaveDays() <= 0) return;
-        File file = new File(filePath);
-        File parentFile = file.getParentFile();
-        File[] files = parentFile.listFiles(new FilenameFilter() {
+    /**
+     * Delete the logs which are due or exceed the total size in io thread, the oldest will be
+     * deleted first but the current one.
+     */
+    private static void sweepLogs(final String filePath, final String date) {
+        if (CONFIG.getSaveDays() <= 0 && CONFIG.getSaveTotalSize() <= 0) return;
+        final File parentFile = new File(filePath).getParentFile();
+        final int saveDays = CONFIG.getSaveDays();
+        final long saveTotalSize = CONFIG.getSaveTotalSize();
+        UtilsBridge.executeByIo(new Runnable() {
             @Override
-            public boolean accept(File dir, String name) {
-                return isMatchLogFileName(name);
-            }
-        });
-        if (files == null || files.length <= 0) return;
-        final SimpleDateFormat sdf = new SimpleDateFormat("yyyy_MM_dd", Locale.getDefault());
-        try {
-            long dueMillis = sdf.parse(date).getTime() - CONFIG.getSaveDays() * 86400000L;
-            for (final File aFile : files) {
-                String name = aFile.getName();
-                int l = name.length();
-                String logDay = findDate(name);
-                if (sdf.parse(logDay).getTime() <= dueMillis) {
-                    EXECUTOR.execute(new Runnable() {
-                        @Override
-                        public void run() {
-                            boolean delete = aFile.delete();
-                            if (!delete) {
-                                Log.e("LogUtils", "delete " + aFile + " failed!");
-                            }
-                        }
-                    });
+            public void run() {
+                File[] files = parentFile.listFiles(new FilenameFilter() {
+                    @Override
+                    public boolean accept(File dir, String name) {
+                        return isMatchLogFileName(name);
+                    }
+                });
+                if (files == null || files.length <= 0) return;
+                String dueDate = null;
+                if (saveDays > 0) {
+                    SimpleDateFormat sdf = new SimpleDateFormat("yyyy_MM_dd", Locale.getDefault());
+                    try {
+                        dueDate = sdf.format(new Date(sdf.parse(date).getTime() - saveDays * 86400000L));
+                    } catch (ParseException e) {
+                        e.printStackTrace();
+                    }
+                }
+                List<File> remains = new ArrayList<>();
+                long totalSize = 0;
+                for (File file : files) {
+                    if (dueDate != null && findDate(file.getName()).compareTo(dueDate) <= 0) {
+                        deleteLog(file);
+                    } else {
+                        remains.add(file);
+                        totalSize += file.length();
+                    }
+                }
+                if (saveTotalSize <= 0 || totalSize <= saveTotalSize) return;
+                Collections.sort(remains, new Comparator<File>() {
+                    @Override
+                    public int compare(File f0, File f1) {
+                        long diff = f0.lastModified() - f1.lastModified();
+                        return diff < 0 ? -1 : (diff == 0 ? 0 : 1);
+                    }
+                });
+                for (File file : remains) {
+                    if (totalSize <= saveTotalSize) break;
+                    if (file.getPath().equals(filePath)) continue;
+                    long len = file.length();
+                    if (deleteLog(file)) {
+                        totalSize -= len;
+                    }
                 }
             }
-        } catch (ParseException e) {
-            e.printStackTrace();
+        });
+    }
+
+    private static boolean deleteLog(final File file) {
+        boolean delete = file.delete();
+        // It may be deleted by another sweep.
+        if (!delete && file.exists()) {
+            Log.e("LogUtils", "delete " + file + " failed!");
         }
+        return delete;
     }
 
     private static boolean isMatchLogFileName(String name) {
-        return name.matches("^" + CONFIG.getFilePrefix() + "_[0-9]{4}_[0-9]{2}_[0-9]{2}_.*$");
+        return CONFIG.mFilePattern.matcher(name).matches();
     }
 
     private static String findDate(String str) {
-        Pattern pattern = Pattern.compile("[0-9]{4}_[0-9]{2}_[0-9]{2}");
-        Matcher matcher = pattern.matcher(str);
+        Matcher matcher = DATE_PATTERN.matcher(str);
         if (matcher.find()) {
             return matcher.group();
         }
@@ -588,12 +1056,16 @@ public final class LogUtils {
                 "\nApp VersionName    : " + UtilsBridge.getAppVersionName() +
                 "\nApp VersionCode    : " + UtilsBridge.getAppVersionCode() +
                 "\n************* Log Head ****************\n\n";
-        input2File(filePath, head);
+        if (filePath.endsWith(BINARY_FILE_EXTENSION)) {
+            BINARY_WRITER.write(filePath, System.currentTimeMillis(), I, "LogHead", "", head);
+        } else {
+            input2File(filePath, head);
+        }
     }
 
     private static void input2File(final String filePath, final String input) {
         if (CONFIG.mFileWriter == null) {
-            UtilsBridge.writeFileFromString(filePath, input, true);
+            FILE_WRITER.write(filePath, input);
         } else {
             CONFIG.mFileWriter.write(filePath, input);
         }
@@ -603,6 +1075,7 @@ public final class LogUtils {
         private String      mDefaultDir;// The default storage directory of log.
         private String      mDir;       // The storage directory of log.
         private String      mFilePrefix        = "util";// The file prefix of log.
+        private Pattern     mFilePattern       = getFilePattern(mFilePrefix);// The pattern of log file's name.
         private String      mFileExtension     = ".txt";// The file extension of log.
         private boolean     mLogSwitch         = true;  // The switch of log.
         private boolean     mLog2ConsoleSwitch = true;  // The logcat's switch of log.
@@ -617,9 +1090,19 @@ public final class LogUtils {
         private int         mStackDeep         = 1;     // The stack's deep of log.
         private int         mStackOffset       = 0;     // The stack's offset of log.
         private int         mSaveDays          = -1;    // The save days of log.
+        private long        mSaveTotalSize     = -1;    // The save total size of log.
+        private long        mFileMaxSize       = -1;    // The max size of log file.
+        private int         mSinkQueueCapacity = 4096;  // The capacity of sinks' queue.
+        private int         mFileFlushSize     = 8192;  // The buffered chars of file to flush.
+        private long        mFileFlushInterval = 1000;  // The max millis of buffered file to flush.
+        private boolean     mMmapSwitch        = false; // The mmap buffer's switch of file log.
+        private boolean     mBinaryFileSwitch  = false; // The binary format's switch of file log.
         private String      mProcessName       = UtilsBridge.getCurrentProcessName();
         private IFileWriter mFileWriter;
 
+        private final Map<String, Integer> mTagFilters = new ConcurrentHashMap<>();// The filters of tags.
+        private final List<ISink>          mSinks      = new CopyOnWriteArrayList<>();// The sinks of log.
+
         private Config() {
             if (UtilsBridge.isSDCardEnableByEnvironment()
                     && Utils.getApp().getExternalFilesDir(null) != null)
@@ -666,11 +1149,13 @@ public final class LogUtils {
             } else {
                 mDir = dir.endsWith(FILE_SEP) ? dir : dir + FILE_SEP;
             }
+            resetLogFile();
             return this;
         }
 
         public final Config setDir(final File dir) {
             mDir = dir == null ? null : (dir.getAbsolutePath() + FILE_SEP);
+            resetLogFile();
             return this;
         }
 
@@ -680,6 +1165,7 @@ public final class LogUtils {
             } else {
                 mFilePrefix = filePrefix;
             }
+            mFilePattern = getFilePattern(mFilePrefix);
             return this;
         }
 
@@ -726,11 +1212,141 @@ public final class LogUtils {
             return this;
         }
 
-        public final Config setSaveDays(@IntRange(from = 1) final int saveDays) {
+        /**
+         * Set the days of logs to save, the due logs will be deleted in io thread when a new log
+         * file is created.
+         *
+         * @param saveDays The days, -1 to save forever.
+         * @return the config
+         */
+        public final Config setSaveDays(@IntRange(from = -1) final int saveDays) {
             mSaveDays = saveDays;
             return this;
         }
 
+        /**
+         * Set the total size of logs to save, the oldest logs will be deleted in io thread when
+         * exceeded, which is checked when a new log file is created.
+         *
+         * @param saveTotalSize The total size in bytes, -1 to disable it.
+         * @return the config
+         */
+        public final Config setSaveTotalSize(@IntRange(from = -1) final long saveTotalSize) {
+            mSaveTotalSize = saveTotalSize;
+            return this;
+        }
+
+        /**
+         * Set the max size of log file, the logs will be written into a new file with increasing
+         * index when exceeded, it doesn't work in binary format. The size is counted in bytes of
+         * UTF-8 which the log file is written in.
+         *
+         * @param fileMaxSize The max size in bytes, -1 to disable it.
+         * @return the config
+         */
+        public final Config setFileMaxSize(@IntRange(from = -1) final long fileMaxSize) {
+            mFileMaxSize = fileMaxSize;
+            return this;
+        }
+
+        /**
+         * Set the size of buffered chars, the file will be flushed when reach it.
+         *
+         * @param fileFlushSize The size of buffered chars.
+         * @return the config
+         */
+        public final Config setFileFlushSize(@IntRange(from = 1) final int fileFlushSize) {
+            mFileFlushSize = fileFlushSize;
+            return this;
+        }
+
+        /**
+         * Set the max interval of flushing file after the first buffered log.
+         *
+         * @param fileFlushInterval The interval in milliseconds, 0 to flush every log.
+         * @return the config
+         */
+        public final Config setFileFlushInterval(@IntRange(from = 0) final long fileFlushInterval) {
+            mFileFlushInterval = fileFlushInterval;
+            return this;
+        }
+
+        /**
+         * Set the switch of mmap buffer, the file logs will be written into a memory-mapped file
+         * synchronously, so they survive the death of process and will be moved to the log file
+         * later, or on the next start if the process was killed.
+         * <p>It doesn't work if {@link #setFileWriter(IFileWriter)} is set.</p>
+         *
+         * @param mmapSwitch True to use mmap buffer, false otherwise.
+         * @return the config
+         */
+        public final Config setMmapSwitch(final boolean mmapSwitch) {
+            mMmapSwitch = mmapSwitch;
+            return this;
+        }
+
+        /**
+         * Set the switch of binary file, the file logs will be written as compressed blocks with
+         * an index into "*.blog" file, which can be read by {@link LogUtils#readBinaryLogs}.
+         * <p>The mmap buffer and {@link #setFileWriter(IFileWriter)} don't work in binary format.</p>
+         *
+         * @param binaryFileSwitch True to use binary format, false otherwise.
+         * @return the config
+         */
+        public final Config setBinaryFileSwitch(final boolean binaryFileSwitch) {
+            mBinaryFileSwitch = binaryFileSwitch;
+            return this;
+        }
+
+        /**
+         * Set the filter of tag, the logs of tag whose type is less than filter will be ignored
+         * before processing its contents.
+         *
+         * @param tag    The tag of log.
+         * @param filter The filter of tag, null to remove it.
+         * @return the config
+         */
+        public final Config setTagFilter(final String tag, @TYPE final Integer filter) {
+            if (tag == null) return this;
+            if (filter == null) {
+                mTagFilters.remove(tag);
+            } else {
+                mTagFilters.put(tag, filter);
+            }
+            return this;
+        }
+
+        /**
+         * Add the sink of log, all sinks are written in order on one thread of log after file.
+         *
+         * @param sink The sink of log.
+         * @return the config
+         */
+        public final Config addSink(final ISink sink) {
+            if (sink != null && !mSinks.contains(sink)) {
+                mSinks.add(sink);
+            }
+            return this;
+        }
+
+        public final Config removeSink(final ISink sink) {
+            mSinks.remove(sink);
+            return this;
+        }
+
+        /**
+         * Set the capacity of sinks' queue, the logs will be dropped by the added sinks when the
+         * queue is full, the count of them can be got by {@link LogUtils#getSinkDropCount()}.
+         * The logs to console and file are never dropped.
+         *
+         * @param sinkQueueCapacity The capacity of queue.
+         * @return the config
+         */
+        public final Config setSinkQueueCapacity(@IntRange(from = 1) final int sinkQueueCapacity) {
+            mSinkQueueCapacity = sinkQueueCapacity;
+            return this;
+        }
+
         public final <T> Config addFormatter(final IFormatter<T> iFormatter) {
             if (iFormatter != null) {
                 I_FORMATTER_MAP.put(getTypeClassFromParadigm(iFormatter), iFormatter);
@@ -813,6 +1429,34 @@ public final class LogUtils {
             return mSaveDays;
         }
 
+        public final long getSaveTotalSize() {
+            return mSaveTotalSize;
+        }
+
+        public final long getFileMaxSize() {
+            return mFileMaxSize;
+        }
+
+        public final int getSinkQueueCapacity() {
+            return mSinkQueueCapacity;
+        }
+
+        public final int getFileFlushSize() {
+            return mFileFlushSize;
+        }
+
+        public final long getFileFlushInterval() {
+            return mFileFlushInterval;
+        }
+
+        public final boolean isMmapSwitch() {
+            return mMmapSwitch;
+        }
+
+        public final boolean isBinaryFileSwitch() {
+            return mBinaryFileSwitch;
+        }
+
         @Override
         public String toString() {
             return "process: " + getProcessName()
@@ -830,10 +1474,37 @@ public final class LogUtils {
                     + LINE_SEP + "stackDeep: " + getStackDeep()
                     + LINE_SEP + "stackOffset: " + getStackOffset()
                     + LINE_SEP + "saveDays: " + getSaveDays()
+                    + LINE_SEP + "saveTotalSize: " + getSaveTotalSize()
+                    + LINE_SEP + "fileMaxSize: " + getFileMaxSize()
+                    + LINE_SEP + "fileFlushSize: " + getFileFlushSize()
+                    + LINE_SEP + "fileFlushInterval: " + getFileFlushInterval()
+                    + LINE_SEP + "mmap: " + isMmapSwitch()
+                    + LINE_SEP + "binaryFile: " + isBinaryFileSwitch()
+                    + LINE_SEP + "tagFilters: " + mTagFilters
+                    + LINE_SEP + "sinks: " + mSinks
+                    + LINE_SEP + "sinkQueueCapacity: " + getSinkQueueCapacity()
                     + LINE_SEP + "formatter: " + I_FORMATTER_MAP;
         }
     }
 
+    /**
+     * Close the current log file, so the next log will check the file again.
+     */
+    private static void resetLogFile() {
+        EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                FILE_WRITER.close();
+                BINARY_WRITER.flush();
+                sLastFilePath = null;
+            }
+        });
+    }
+
+    private static Pattern getFilePattern(final String filePrefix) {
+        return Pattern.compile("^" + Pattern.quote(filePrefix) + "_[0-9]{4}_[0-9]{2}_[0-9]{2}_.*$");
+    }
+
     public abstract static class IFormatter<T> {
         public abstract String format(T t);
     }
@@ -842,15 +1513,885 @@ public final class LogUtils {
         void write(String file, String content);
     }
 
+    /**
+     * The sink of log, it's written on the thread of log after file, so it should not be blocked
+     * for long.
+     */
+    public abstract static class ISink {
+
+        /**
+         * Return whether the log should be written to this sink.
+         *
+         * @param type The type of log.
+         * @param tag  The tag of log.
+         * @return true to write, false otherwise
+         */
+        public boolean isLoggable(@TYPE final int type, final String tag) {
+            return true;
+        }
+
+        public abstract void write(LogRecord record);
+
+        /**
+         * Called when {@link LogUtils#flush()}.
+         */
+        public void flush() {
+        }
+    }
+
+    /**
+     * Keep the latest logs in memory which can be dumped to file on demand or on crash, the slots
+     * are preallocated and the chars of message are copied into its own buffer, so the memory of
+     * it is bounded and it keeps no record alive. It's the write of sink which allocates nothing,
+     * the log call still creates the record, its node of queue and the body, and captures the
+     * stack if tag or head needs it.
+     */
+    public static final class RingBufferSink extends ISink {
+        private final long[]   mMillis;
+        private final byte[]   mTypes;
+        private final String[] mTags;
+        private final String[] mThreads;
+        private final char[][] mMsgs;
+        private final int[]    mMsgLens;
+        private final boolean  mDumpOnCrash;
+        private       int      mNext;
+        private       int      mSize;
+
+        /**
+         * @param capacity  The count of latest logs to keep.
+         * @param maxMsgLen The max length of message, the longer one will be truncated.
+         */
+        public RingBufferSink(@IntRange(from = 1) final int capacity, @IntRange(from = 1) final int maxMsgLen) {
+            this(capacity, maxMsgLen, true);
+        }
+
+        /**
+         * @param capacity    The count of latest logs to keep.
+         * @param maxMsgLen   The max length of message, the longer one will be truncated.
+         * @param dumpOnCrash True to dump when {@link CrashUtils} catches crash.
+         */
+        public RingBufferSink(@IntRange(from = 1) final int capacity,
+                              @IntRange(from = 1) final int maxMsgLen,
+                              final boolean dumpOnCrash) {
+            mMillis = new long[capacity];
+            mTypes = new byte[capacity];
+            mTags = new String[capacity];
+            mThreads = new String[capacity];
+            mMsgs = new char[capacity][maxMsgLen];
+            mMsgLens = new int[capacity];
+            mDumpOnCrash = dumpOnCrash;
+        }
+
+        public boolean isDumpOnCrash() {
+            return mDumpOnCrash;
+        }
+
+        @Override
+        public void write(final LogRecord record) {
+            final int slot = mNext;
+            mMillis[slot] = record.getMillis();
+            mTypes[slot] = (byte) record.getType();
+            mTags[slot] = record.getTag();
+            mThreads[slot] = record.getThread();
+            // Copy the location and body apart, so the message of record isn't created.
+            final String location = record.tagHead == null ? null : record.tagHead.location;
+            int len = 0;
+            if (location != null) {
+                len = copyChars(location, mMsgs[slot], len);
+                len = copyChars(": ", mMsgs[slot], len);
+            }
+            mMsgLens[slot] = copyChars(record.body, mMsgs[slot], len);
+            mNext = (slot + 1) % mMillis.length;
+            if (mSize < mMillis.length) mSize++;
+        }
+
+        private static int copyChars(final String src, final char[] dst, final int offset) {
+            int len = Math.min(src.length(), dst.length - offset);
+            src.getChars(0, len, dst, offset);
+            return offset + len;
+        }
+
+        /**
+         * Dump the logs to "[prefix]_[date]_[process]_ring[extension]" in the log directory.
+         *
+         * @return the file of dumped, null if failed
+         */
+        public File dump() {
+            File file = getDumpFile();
+            return dump(file) ? file : null;
+        }
+
+        private static File getDumpFile() {
+            String date = new SimpleDateFormat("yyyy_MM_dd", Locale.getDefault()).format(new Date());
+            return new File(getLogFilePath(date, "_ring" + CONFIG.getFileExtension()));
+        }
+
+        /**
+         * Dump the logs to file from oldest to latest and clear them, it'll block until finished or
+         * timeout.
+         *
+         * @param file The file to append logs.
+         * @return true if success, false otherwise
+         */
+        public boolean dump(final File file) {
+            Future<Boolean> future = EXECUTOR.submit(new Callable<Boolean>() {
+                @Override
+                public Boolean call() {
+                    drainSinks();
+                    return dumpInner(file);
+                }
+            });
+            try {
+                return future.get(FLUSH_TIMEOUT, TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                Log.e("LogUtils", "dump failed: " + e);
+                return false;
+            }
+        }
+
+        private boolean dumpInner(final File file) {
+            if (!UtilsBridge.createOrExistsDir(file.getParentFile())) return false;
+            FileDateFormat dateFormat = new FileDateFormat();
+            BufferedWriter bw = null;
+            try {
+                bw = new BufferedWriter(new FileWriter(file, true));
+                bw.write("************* Ring Buffer Dump ****************" + LINE_SEP);
+                int capacity = mMillis.length;
+                for (int i = 0; i < mSize; i++) {
+                    int slot = (mNext - mSize + i + capacity) % capacity;
+                    bw.write(dateFormat.format(mMillis[slot]));
+                    bw.write(T[mTypes[slot] - V]);
+                    bw.write("/" + mTags[slot] + " [" + mThreads[slot] + "]: ");
+                    bw.write(mMsgs[slot], 0, mMsgLens[slot]);
+                    bw.write(LINE_SEP);
+                }
+                mSize = 0;
+                return true;
+            } catch (IOException e) {
+                e.printStackTrace();
+                return false;
+            } finally {
+                CloseUtils.closeIOQuietly(bw);
+            }
+        }
+    }
+
+    /**
+     * The file is the built-in sink which is written before the added ones, the logs in mmap
+     * buffer don't come here.
+     */
+    private static final class FileSink extends ISink {
+        @Override
+        public void write(final LogRecord record) {
+            if (CONFIG.isBinaryFileSwitch()) {
+                print2BinaryFile(record.millis, record.type, record.tag, record.thread, record.getMsg());
+                return;
+            }
+            print2File(record.millis, record.type, record.tag, record.tagHead.fileHead + record.body);
+        }
+    }
+
+    public static final class LogRecord {
+        static final int TARGET_FILE = 1;
+        static final int TARGET_SINK = 1 << 1;
+
+        private final long    millis;
+        private final int     type;
+        private final String  tag;
+        private final String  thread;
+        private final TagHead tagHead;
+        private final String  body;
+        private       String  msg;
+        int                   targets;// Where the log will be written, only changed before queued.
+
+        LogRecord(long millis, int type, String tag, String thread, String msg) {
+            this.millis = millis;
+            this.type = type;
+            this.tag = tag;
+            this.thread = thread;
+            this.tagHead = null;
+            this.body = msg;
+            this.msg = msg;
+        }
+
+        LogRecord(long millis, int type, TagHead tagHead, String thread, String body, int targets) {
+            this.millis = millis;
+            this.type = type;
+            this.tag = tagHead.tag;
+            this.thread = thread;
+            this.tagHead = tagHead;
+            this.body = body;
+            this.targets = targets;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        public int getType() {
+            return type;
+        }
+
+        public String getTag() {
+            return tag;
+        }
+
+        public String getThread() {
+            return thread;
+        }
+
+        /**
+         * Return the message which starts with the location of log if head is on, it's created
+         * on the first call.
+         */
+        public String getMsg() {
+            if (msg == null) {
+                msg = tagHead.location == null ? body : tagHead.location + ": " + body;
+            }
+            return msg;
+        }
+
+        @Override
+        public String toString() {
+            return new SimpleDateFormat("yyyy_MM_dd HH:mm:ss.SSS ", Locale.getDefault()).format(new Date(millis))
+                    + T[type - V] + "/" + tag + " [" + thread + "]: " + getMsg();
+        }
+    }
+
+    /**
+     * Format the time of file log, the {@link SimpleDateFormat} only works once per second.
+     */
+    private final static class FileDateFormat {
+        private final SimpleDateFormat mSdf = new SimpleDateFormat("yyyy_MM_dd HH:mm:ss.", Locale.getDefault());
+        private       long             mLastSecond = Long.MIN_VALUE;
+        private       String           mLastSecondFormat;
+
+        String format(final long millis) {
+            long second = millis / 1000;
+            if (second != mLastSecond) {
+                mLastSecond = second;
+                mLastSecondFormat = mSdf.format(new Date(second * 1000));
+            }
+            int ms = (int) (millis % 1000);
+            return mLastSecondFormat + (ms < 10 ? "00" : (ms < 100 ? "0" : "")) + ms + " ";
+        }
+    }
+
+    /**
+     * Keep the file open and write logs in batches, it'll be flushed when buffered chars reach
+     * {@link Config#getFileFlushSize()} or {@link Config#getFileFlushInterval()} passed.
+     */
+    private final static class BufferedFileWriter {
+        private String             mFilePath;
+        private Writer             mWriter;
+        private int                mBufferedLen;
+        private ScheduledFuture<?> mFlushFuture;
+
+        private final Runnable mFlushRunnable = new Runnable() {
+            @Override
+            public void run() {
+                mFlushFuture = null;
+                flush();
+            }
+        };
+
+        void write(final String filePath, final String content) {
+            if (!filePath.equals(mFilePath)) {
+                close();
+                try {
+                    mWriter = new BufferedWriter(
+                            new OutputStreamWriter(new FileOutputStream(filePath, true), UTF_8),
+                            CONFIG.getFileFlushSize()
+                    );
+                    mFilePath = filePath;
+                } catch (IOException e) {
+                    Log.e("LogUtils", "open " + filePath + " failed!", e);
+                    return;
+                }
+            }
+            try {
+                mWriter.write(content);
+            } catch (IOException e) {
+                Log.e("LogUtils", "write " + filePath + " failed!", e);
+                release();
+                return;
+            }
+            mBufferedLen += content.length();
+            if (mBufferedLen >= CONFIG.getFileFlushSize() || CONFIG.getFileFlushInterval() <= 0) {
+                flush();
+            } else if (mFlushFuture == null) {
+                mFlushFuture = EXECUTOR.schedule(mFlushRunnable, CONFIG.getFileFlushInterval(), TimeUnit.MILLISECONDS);
+            }
+        }
+
+        void flush() {
+            if (mFlushFuture != null) {
+                mFlushFuture.cancel(false);
+                mFlushFuture = null;
+            }
+            mBufferedLen = 0;
+            if (mWriter == null) return;
+            try {
+                mWriter.flush();
+            } catch (IOException e) {
+                Log.e("LogUtils", "flush " + mFilePath + " failed!", e);
+                release();
+            }
+        }
+
+        void close() {
+            flush();
+            release();
+        }
+
+        private void release() {
+            CloseUtils.closeIOQuietly(mWriter);
+            mWriter = null;
+            mFilePath = null;
+        }
+    }
+
+    /**
+     * The header of block in binary log file, it's also appended to the index file with the offset
+     * of block, so the blocks can be filtered without decompressing.
+     * <p>The layout is [int magic][long start millis][long end millis][int type mask]
+     * [int tag count][int tag hash]...[int data length].</p>
+     */
+    private final static class BlockHeader {
+        private static final int MAGIC = 0x4C4F4742;
+
+        long  startMillis;
+        long  endMillis;
+        int   typeMask;
+        int[] tagHashes;
+        int   dataLen;
+        long  dataOffset;
+
+        int size() {
+            return 32 + 4 * tagHashes.length;
+        }
+
+        void writeTo(final DataOutput out) throws IOException {
+            out.writeInt(MAGIC);
+            out.writeLong(startMillis);
+            out.writeLong(endMillis);
+            out.writeInt(typeMask);
+            out.writeInt(tagHashes.length);
+            for (int tagHash : tagHashes) {
+                out.writeInt(tagHash);
+            }
+            out.writeInt(dataLen);
+        }
+
+        boolean isMatch(final long start, final long end, final int minType, final String tag) {
+            if (endMillis < start || startMillis > end) return false;
+            if ((typeMask >>> minType) == 0) return false;
+            if (tag == null) return true;
+            int hash = tag.hashCode();
+            for (int tagHash : tagHashes) {
+                if (tagHash == hash) return true;
+            }
+            return false;
+        }
+
+        static BlockHeader readFrom(final DataInput in) throws IOException {
+            if (in.readInt() != MAGIC) throw new IOException("not a block of binary log");
+            BlockHeader header = new BlockHeader();
+            header.startMillis = in.readLong();
+            header.endMillis = in.readLong();
+            header.typeMask = in.readInt();
+            int tagCount = in.readInt();
+            if (tagCount < 0 || tagCount > 0xFFFF) throw new IOException("wrong count of tags: " + tagCount);
+            header.tagHashes = new int[tagCount];
+            for (int i = 0; i < tagCount; i++) {
+                header.tagHashes[i] = in.readInt();
+            }
+            header.dataLen = in.readInt();
+            return header;
+        }
+
+        /**
+         * Read the headers from index file, and scan the blocks of log file which are not indexed,
+         * such as the index file is missing or the process died before writing it.
+         */
+        static List<BlockHeader> readAll(final File file, final RandomAccessFile raf) throws IOException {
+            List<BlockHeader> headers = new ArrayList<>();
+            final long fileLen = raf.length();
+            long offset = 0;
+            File indexFile = new File(file.getPath() + INDEX_FILE_EXTENSION);
+            if (indexFile.isFile()) {
+                DataInputStream in = null;
+                try {
+                    in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)));
+                    while (true) {
+                        long blockOffset = in.readLong();
+                        BlockHeader header = readFrom(in);
+                        header.dataOffset = blockOffset + header.size();
+                        if (blockOffset != offset || header.dataOffset + header.dataLen > fileLen) break;
+                        headers.add(header);
+                        offset = header.dataOffset + header.dataLen;
+                    }
+                } catch (EOFException ignore) {
+                } catch (IOException e) {
+                    Log.e("LogUtils", "read " + indexFile + " failed!", e);
+                } finally {
+                    CloseUtils.closeIOQuietly(in);
+                }
+            }
+            while (offset < fileLen) {
+                raf.seek(offset);
+                BlockHeader header;
+                try {
+                    header = readFrom(raf);
+                } catch (IOException e) {
+                    break;
+                }
+                header.dataOffset = offset + header.size();
+                if (header.dataOffset + header.dataLen > fileLen) break;
+                headers.add(header);
+                offset = header.dataOffset + header.dataLen;
+            }
+            return headers;
+        }
+    }
+
+    /**
+     * Write logs as blocks into binary file, the records of block are compressed together with the
+     * tags and threads it used, and the block will be written when its raw size reaches
+     * {@link #BLOCK_SIZE} or {@link Config#getFileFlushInterval()} passed.
+     * <p>The layout of record is [long millis][byte type][int tag id][int thread id][string msg].</p>
+     */
+    private final static class BinaryFileWriter {
+        private static final int BLOCK_SIZE = 64 * 1024;
+
+        private final ByteArrayOutputStream mRecords   = new ByteArrayOutputStream(BLOCK_SIZE);
+        private final DataOutputStream      mRecordOut = new DataOutputStream(mRecords);
+        private final List<String>          mTags      = new ArrayList<>();
+        private final Map<String, Integer>  mTagIds    = new HashMap<>();
+        private final List<String>          mThreads   = new ArrayList<>();
+        private final Map<String, Integer>  mThreadIds = new HashMap<>();
+        private       String                mFilePath;
+        private       long                  mStartMillis;
+        private       long                  mEndMillis;
+        private       int                   mTypeMask;
+        private       int                   mCount;
+        private       ScheduledFuture<?>    mFlushFuture;
+
+        private final Runnable mFlushRunnable = new Runnable() {
+            @Override
+            public void run() {
+                mFlushFuture = null;
+                flush();
+            }
+        };
+
+        void write(final String filePath, final long millis, final int type,
+                   final String tag, final String thread, final String msg) {
+            if (!filePath.equals(mFilePath)) {
+                flush();
+                mFilePath = filePath;
+            }
+            if (mCount == 0) {
+                mStartMillis = millis;
+                mEndMillis = millis;
+            } else {
+                mStartMillis = Math.min(mStartMillis, millis);
+                mEndMillis = Math.max(mEndMillis, millis);
+            }
+            mTypeMask |= 1 << type;
+            try {
+                mRecordOut.writeLong(millis);
+                mRecordOut.writeByte(type);
+                mRecordOut.writeInt(getId(mTags, mTagIds, tag));
+                mRecordOut.writeInt(getId(mThreads, mThreadIds, thread));
+                writeString(mRecordOut, msg);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            mCount++;
+            if (mRecords.size() >= BLOCK_SIZE || CONFIG.getFileFlushInterval() <= 0) {
+                flush();
+            } else if (mFlushFuture == null) {
+                mFlushFuture = EXECUTOR.schedule(mFlushRunnable, CONFIG.getFileFlushInterval(), TimeUnit.MILLISECONDS);
+            }
+        }
+
+        void flush() {
+            if (mFlushFuture != null) {
+                mFlushFuture.cancel(false);
+                mFlushFuture = null;
+            }
+            if (mCount == 0) return;
+            try {
+                writeBlock();
+            } catch (IOException e) {
+                Log.e("LogUtils", "write " + mFilePath + " failed!", e);
+            } finally {
+                mRecords.reset();
+                mTags.clear();
+                mTagIds.clear();
+                mThreads.clear();
+                mThreadIds.clear();
+                mTypeMask = 0;
+                mCount = 0;
+            }
+        }
+
+        private void writeBlock() throws IOException {
+            ByteArrayOutputStream data = new ByteArrayOutputStream(mRecords.size() / 4);
+            Deflater deflater = new Deflater();
+            DataOutputStream dataOut = new DataOutputStream(new DeflaterOutputStream(data, deflater));
+            try {
+                writeStrings(dataOut, mTags);
+                writeStrings(dataOut, mThreads);
+                dataOut.writeInt(mCount);
+                mRecords.writeTo(dataOut);
+                dataOut.close();
+            } finally {
+                deflater.end();
+            }
+
+            BlockHeader header = new BlockHeader();
+            header.startMillis = mStartMillis;
+            header.endMillis = mEndMillis;
+            header.typeMask = mTypeMask;
+            header.tagHashes = new int[mTags.size()];
+            for (int i = 0; i < header.tagHashes.length; i++) {
+                header.tagHashes[i] = mTags.get(i).hashCode();
+            }
+            header.dataLen = data.size();
+
+            File file = new File(mFilePath);
+            long offset = file.length();
+            DataOutputStream fileOut = null;
+            try {
+                fileOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+                header.writeTo(fileOut);
+                data.writeTo(fileOut);
+            } finally {
+                CloseUtils.closeIOQuietly(fileOut);
+            }
+            DataOutputStream indexOut = null;
+            try {
+                indexOut = new DataOutputStream(new BufferedOutputStream(
+                        new FileOutputStream(mFilePath + INDEX_FILE_EXTENSION, true)));
+                indexOut.writeLong(offset);
+                header.writeTo(indexOut);
+            } finally {
+                CloseUtils.closeIOQuietly(indexOut);
+            }
+        }
+
+        static void decodeBlock(final byte[] data, final long start, final long end,
+                                final int minType, final String tag,
+                                final List<LogRecord> records) throws IOException {
+            DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(data)));
+            try {
+                String[] tags = readStrings(in);
+                String[] threads = readStrings(in);
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    long millis = in.readLong();
+                    int type = in.readByte();
+                    String recordTag = tags[in.readInt()];
+                    String thread = threads[in.readInt()];
+                    String msg = readString(in);
+                    if (millis < start || millis > end || type < minType) continue;
+                    if (tag != null && !tag.equals(recordTag)) continue;
+                    records.add(new LogRecord(millis, type, recordTag, thread, msg));
+                }
+            } finally {
+                CloseUtils.closeIOQuietly(in);
+            }
+        }
+
+        private static int getId(final List<String> values, final Map<String, Integer> ids, final String value) {
+            Integer id = ids.get(value);
+            if (id == null) {
+                id = values.size();
+                values.add(value);
+                ids.put(value, id);
+            }
+            return id;
+        }
+
+        private static void writeStrings(final DataOutputStream out, final List<String> values) throws IOException {
+            out.writeInt(values.size());
+            for (String value : values) {
+                writeString(out, value);
+            }
+        }
+
+        private static String[] readStrings(final DataInputStream in) throws IOException {
+            String[] values = new String[in.readInt()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = readString(in);
+            }
+            return values;
+        }
+
+        private static void writeString(final DataOutputStream out, final String value) throws IOException {
+            byte[] bytes = value.getBytes(UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        private static String readString(final DataInputStream in) throws IOException {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            return new String(bytes, UTF_8);
+        }
+    }
+
+    /**
+     * Append file logs into a memory-mapped file on the caller thread, it costs a memory copy
+     * only and the logs still exist in the file after the process was killed. The logs will be
+     * moved to the log file by {@link #EXECUTOR} when the size reaches a third of buffer,
+     * {@link Config#getFileFlushInterval()} passed, the date changed or the next start, and they
+     * are removed from the buffer only after the log file was written.
+     * <p>The layout of file is [int magic][short path length][path]...[long data start][long data end][data],
+     * the data is a ring whose start and end are counted from the beginning, the start is updated
+     * after written to file and the end is updated after appended, so a log which is half-written to
+     * file or buffer will be recovered or not recovered as a whole.</p>
+     */
+    private final static class MmapBuffer {
+        private static final int MAGIC             = 0x4C4F4756;
+        private static final int PATH_LEN_OFFSET   = 4;
+        private static final int PATH_OFFSET       = 6;
+        private static final int HEADER_SIZE       = 1024;
+        private static final int DATA_START_OFFSET = HEADER_SIZE - 16;
+        private static final int DATA_END_OFFSET   = HEADER_SIZE - 8;
+        private static final int BUFFER_SIZE       = 150 * 1024;
+        private static final int FLUSH_SIZE        = BUFFER_SIZE / 3;
+
+        private static volatile MmapBuffer sInstance;
+
+        private final String             mDir;
+        private final FileDateFormat     mDateFormat = new FileDateFormat();
+        private       MappedByteBuffer   mBuffer;
+        private       String             mFilePath;
+        private       long               mDataStart;  // The data before it has been written to file.
+        private       long               mFlushedEnd; // The data before it has been sent to EXECUTOR.
+        private       long               mDataEnd;
+        private       ScheduledFuture<?> mFlushFuture;
+
+        private final Runnable mFlushRunnable = new Runnable() {
+            @Override
+            public void run() {
+                flush();
+            }
+        };
+
+        /**
+         * Return the buffer of {@link Config#getDir()}, it'll be recreated if the dir changed.
+         */
+        static MmapBuffer getInstance() {
+            String dir = CONFIG.getDir();
+            MmapBuffer buffer = sInstance;
+            if (buffer != null && buffer.mDir.equals(dir)) return buffer;
+            synchronized (MmapBuffer.class) {
+                buffer = sInstance;
+                if (buffer != null && buffer.mDir.equals(dir)) return buffer;
+                if (buffer != null) {
+                    buffer.flush();
+                }
+                sInstance = buffer = new MmapBuffer(dir);
+                return buffer;
+            }
+        }
+
+        private MmapBuffer(final String dir) {
+            mDir = dir;
+            if (!UtilsBridge.createOrExistsDir(new File(dir))) {
+                Log.e("LogUtils", "create " + dir + " failed!");
+                return;
+            }
+            String path = dir + "." + CONFIG.getFilePrefix() + "_" + CONFIG.getProcessName() + ".mmap";
+            RandomAccessFile raf = null;
+            try {
+                raf = new RandomAccessFile(path, "rw");
+                mBuffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + BUFFER_SIZE);
+            } catch (IOException e) {
+                Log.e("LogUtils", "map " + path + " failed!", e);
+                return;
+            } finally {
+                CloseUtils.closeIOQuietly(raf);
+            }
+            recover();
+        }
+
+        /**
+         * Move the logs left by the last process to its log file.
+         */
+        private synchronized void recover() {
+            long dataStart = mBuffer.getLong(DATA_START_OFFSET);
+            long dataEnd = mBuffer.getLong(DATA_END_OFFSET);
+            int pathLen = mBuffer.getShort(PATH_LEN_OFFSET);
+            if (mBuffer.getInt(0) == MAGIC
+                    && dataStart >= 0 && dataEnd > dataStart && dataEnd - dataStart <= BUFFER_SIZE
+                    && pathLen > 0 && pathLen <= DATA_START_OFFSET - PATH_OFFSET) {
+                byte[] path = new byte[pathLen];
+                mBuffer.position(PATH_OFFSET);
+                mBuffer.get(path);
+                mFilePath = new String(path, UTF_8);
+                mDataStart = mFlushedEnd = dataStart;
+                mDataEnd = dataEnd;
+                // They are removed after written like the logs of this process.
+                flush();
+                return;
+            }
+            // Clear the end first, so the start after it means nothing to recover.
+            mBuffer.putLong(DATA_END_OFFSET, 0);
+            mBuffer.putLong(DATA_START_OFFSET, 0);
+            mBuffer.putInt(0, MAGIC);
+        }
+
+        synchronized boolean append(final long millis, final int type, final String tag, final String msg) {
+            if (mBuffer == null) return false;
+            String format = mDateFormat.format(millis);
+            String date = format.substring(0, 10);
+            String filePath = getLogFilePath(date);
+            byte[] data = formatFileLog(format.substring(11), type, tag, msg).getBytes(UTF_8);
+            if (!filePath.equals(mFilePath)) {
+                flush();
+                byte[] path = filePath.getBytes(UTF_8);
+                if (mDataEnd != mDataStart || path.length > DATA_START_OFFSET - PATH_OFFSET) {
+                    // The buffer is used by the logs of last file until they're written.
+                    write2File(filePath, data);
+                    return true;
+                }
+                mBuffer.position(PATH_OFFSET);
+                mBuffer.put(path);
+                mBuffer.putShort(PATH_LEN_OFFSET, (short) path.length);
+                mFilePath = filePath;
+            }
+            if (data.length > BUFFER_SIZE - (mDataEnd - mDataStart)) {
+                flush();
+                // The buffer is full of the logs which are being written.
+                write2File(filePath, data);
+                return true;
+            }
+            int offset = (int) (mDataEnd % BUFFER_SIZE);
+            int len = Math.min(data.length, BUFFER_SIZE - offset);
+            mBuffer.position(HEADER_SIZE + offset);
+            mBuffer.put(data, 0, len);
+            if (len < data.length) {
+                mBuffer.position(HEADER_SIZE);
+                mBuffer.put(data, len, data.length - len);
+            }
+            mDataEnd += data.length;
+            // Update the end after data, so a half-written log will never be recovered.
+            mBuffer.putLong(DATA_END_OFFSET, mDataEnd);
+            if (mDataEnd - mFlushedEnd >= FLUSH_SIZE || CONFIG.getFileFlushInterval() <= 0) {
+                flush();
+            } else if (mFlushFuture == null) {
+                mFlushFuture = EXECUTOR.schedule(mFlushRunnable, CONFIG.getFileFlushInterval(), TimeUnit.MILLISECONDS);
+            }
+            return true;
+        }
+
+        synchronized void flush() {
+            if (mFlushFuture != null) {
+                mFlushFuture.cancel(false);
+                mFlushFuture = null;
+            }
+            if (mBuffer == null || mFlushedEnd == mDataEnd) return;
+            byte[] data = new byte[(int) (mDataEnd - mFlushedEnd)];
+            int offset = (int) (mFlushedEnd % BUFFER_SIZE);
+            int len = Math.min(data.length, BUFFER_SIZE - offset);
+            mBuffer.position(HEADER_SIZE + offset);
+            mBuffer.get(data, 0, len);
+            if (len < data.length) {
+                mBuffer.position(HEADER_SIZE);
+                mBuffer.get(data, len, data.length - len);
+            }
+            mFlushedEnd = mDataEnd;
+            final String filePath = mFilePath;
+            final long dataEnd = mDataEnd;
+            EXECUTOR.execute(new Runnable() {
+                @Override
+                public void run() {
+                    writeData2File(filePath, data);
+                    onWritten(dataEnd);
+                }
+            });
+        }
+
+        private synchronized void onWritten(final long dataEnd) {
+            mDataStart = dataEnd;
+            mBuffer.putLong(DATA_START_OFFSET, dataEnd);
+        }
+
+        /**
+         * Abandon the buffer without flushing as the process was killed, and map it again.
+         */
+        static void restart4Test() {
+            synchronized (MmapBuffer.class) {
+                MmapBuffer buffer = sInstance;
+                if (buffer != null) {
+                    synchronized (buffer) {
+                        if (buffer.mFlushFuture != null) {
+                            buffer.mFlushFuture.cancel(false);
+                            buffer.mFlushFuture = null;
+                        }
+                    }
+                }
+                sInstance = null;
+            }
+            getInstance();
+        }
+
+        private static void write2File(final String filePath, final byte[] data) {
+            EXECUTOR.execute(new Runnable() {
+                @Override
+                public void run() {
+                    writeData2File(filePath, data);
+                }
+            });
+        }
+
+        private static void writeData2File(final String filePath, final byte[] data) {
+            String date = findDate(new File(filePath).getName());
+            String fullPath = getWriteFilePath(filePath, date, data.length);
+            if (fullPath == null) return;
+            FILE_WRITER.write(fullPath, new String(data, UTF_8));
+            FILE_WRITER.flush();
+        }
+    }
+
+    /**
+     * It's set when LogUtils is initialized, so the crash handler can check it without
+     * initializing LogUtils.
+     */
+    static final class InitState {
+        static volatile boolean isInitialized;
+    }
+
+    private final static class CallSite {
+        final String tag;
+        final String location;
+
+        CallSite(String tag, String location) {
+            this.tag = tag;
+            this.location = location;
+        }
+    }
+
     private final static class TagHead {
         String   tag;
         String[] consoleHead;
         String   fileHead;
+        String   location;
 
         TagHead(String tag, String[] consoleHead, String fileHead) {
+            this(tag, consoleHead, fileHead, null);
+        }
+
+        TagHead(String tag, String[] consoleHead, String fileHead, String location) {
             this.tag = tag;
             this.consoleHead = consoleHead;
             this.fileHead = fileHead;
+            this.location = location;
         }
     }
 
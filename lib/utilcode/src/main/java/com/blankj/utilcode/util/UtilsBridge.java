@@ -243,6 +243,10 @@ class UtilsBridge {
         return EncryptUtils.hashTemplate(data, algorithm);
     }
 
+    static byte[] encryptMD5File(final File file) {
+        return EncryptUtils.encryptMD5File(file);
+    }
+
     ///////////////////////////////////////////////////////////////////////////
     // FileIOUtils
     ///////////////////////////////////////////////////////////////////////////
@@ -309,6 +313,10 @@ class UtilsBridge {
         return GsonUtils.toJson(object);
     }
 
+    static String toJson(final Object src, final Type typeOfSrc) {
+        return GsonUtils.toJson(src, typeOfSrc);
+    }
+
     static <T> T fromJson(final String json, final Type type) {
         return GsonUtils.fromJson(json, type);
     }
@@ -418,6 +426,15 @@ class UtilsBridge {
         LanguageUtils.applyLanguage(activity);
     }
 
+    ///////////////////////////////////////////////////////////////////////////
+    // LogUtils
+    ///////////////////////////////////////////////////////////////////////////
+    static void flushLogOnCrash() {
+        // Nothing to flush if LogUtils is never used, and initializing it on crash costs time.
+        if (!LogUtils.InitState.isInitialized) return;
+        LogUtils.flushOnCrash();
+    }
+
     ///////////////////////////////////////////////////////////////////////////
     // PermissionUtils
     ///////////////////////////////////////////////////////////////////////////
@@ -524,6 +541,14 @@ class UtilsBridge {
         ThreadUtils.runOnUiThreadDelayed(runnable, delayMillis);
     }
 
+    static void executeByIo(final Runnable runnable) {
+        ThreadUtils.getIoPool().execute(runnable);
+    }
+
+    static void executeByCpu(final Runnable runnable) {
+        ThreadUtils.getCpuPool().execute(runnable);
+    }
+
     ///////////////////////////////////////////////////////////////////////////
     // ThrowableUtils
     ///////////////////////////////////////////////////////////////////////////
@@ -1,20 +1,44 @@
 package com.blankj.utilcode.util;
 
+import android.os.Build;
 import android.util.Log;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
 import java.util.zip.ZipFile;
 import java.util.zip.ZipOutputStream;
 
@@ -30,6 +54,21 @@ public final class ZipUtils {
 
     private static final int BUFFER_LEN = 8192;
 
+    private static final int  PARALLEL_BUFFER_LEN = 64 * 1024;
+    private static final int  CHUNK_SIZE          = 1024 * 1024;
+    private static final int  DICTIONARY_SIZE     = 32 * 1024;
+    private static final long ZIP_MAX_VALUE       = 0xFFFFFFFFL;
+    private static final int  ZIP_MAX_ENTRIES     = 0xFFFF;
+    private static final int  INDEX_CACHE_SIZE    = 16;
+
+    // The indexes of central directory are keyed by the absolute path of ZIP file.
+    private static final Map<String, ZipIndex> INDEXES = new LinkedHashMap<String, ZipIndex>(INDEX_CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ZipIndex> eldest) {
+            return size() > INDEX_CACHE_SIZE;
+        }
+    };
+
     private ZipUtils() {
         throw new UnsupportedOperationException("u can't instantiate me...");
     }
@@ -228,6 +267,497 @@ public final class ZipUtils {
         return true;
     }
 
+    /**
+     * Zip the files on the threads of cpu pool.
+     *
+     * @param srcFilePaths The paths of source files.
+     * @param zipFilePath  The path of ZIP file.
+     * @return {@code true}: success<br>{@code false}: fail
+     * @throws IOException if an I/O error has occurred
+     */
+    public static boolean zipFilesParallel(final Collection<String> srcFilePaths,
+                                           final String zipFilePath)
+            throws IOException {
+        return zipFilesParallel(srcFilePaths, zipFilePath, null, null);
+    }
+
+    /**
+     * Zip the files on the threads of cpu pool.
+     *
+     * @param srcFilePaths The paths of source files.
+     * @param zipFilePath  The path of ZIP file.
+     * @param comment      The comment.
+     * @param listener     The listener of progress.
+     * @return {@code true}: success<br>{@code false}: fail
+     * @throws IOException if an I/O error has occurred
+     */
+    public static boolean zipFilesParallel(final Collection<String> srcFilePaths,
+                                           final String zipFilePath,
+                                           final String comment,
+                                           final OnProgressListener listener)
+            throws IOException {
+        if (srcFilePaths == null || zipFilePath == null) return false;
+        List<File> srcFiles = new ArrayList<>(srcFilePaths.size());
+        for (String srcFilePath : srcFilePaths) {
+            srcFiles.add(UtilsBridge.getFileByPath(srcFilePath));
+        }
+        return zipFilesParallel(srcFiles, UtilsBridge.getFileByPath(zipFilePath), comment, listener);
+    }
+
+    /**
+     * Zip the files on the threads of cpu pool.
+     *
+     * @param srcFiles The source of files.
+     * @param zipFile  The ZIP file.
+     * @return {@code true}: success<br>{@code false}: fail
+     * @throws IOException if an I/O error has occurred
+     */
+    public static boolean zipFilesParallel(final Collection<File> srcFiles, final File zipFile)
+            throws IOException {
+        return zipFilesParallel(srcFiles, zipFile, null, null);
+    }
+
+    /**
+     * Zip the files on the threads of cpu pool.
+     * <p>The files are split into chunks of 1MB which are deflated concurrently, each chunk is
+     * primed with the last 32KB of previous one, so the ratio is nearly the same as
+     * {@link #zipFiles(Collection, File, String)}. The chunks are written in order and the
+     * chunks in flight are limited by the count of cpu, so the memory is bounded.</p>
+     * <p>The big file isn't split before {@link Build.VERSION_CODES#KITKAT}.</p>
+     *
+     * @param srcFiles The source of files.
+     * @param zipFile  The ZIP file.
+     * @param comment  The comment.
+     * @param listener The listener of progress, it's called on current thread.
+     * @return {@code true}: success<br>{@code false}: fail
+     * @throws IOException if an I/O error has occurred
+     */
+    public static boolean zipFilesParallel(final Collection<File> srcFiles,
+                                           final File zipFile,
+                                           final String comment,
+                                           final OnProgressListener listener)
+            throws IOException {
+        if (srcFiles == null || zipFile == null) return false;
+        List<ZipItem> items = collectZipItems(srcFiles);
+        if (items == null) return false;
+        return zipItemsParallel(items, zipFile, comment, listener, null);
+    }
+
+    /**
+     * Update the ZIP file with the files.
+     *
+     * @param srcFilePaths The paths of source files.
+     * @param zipFilePath  The path of ZIP file.
+     * @return {@code true}: success<br>{@code false}: fail
+     * @throws IOException if an I/O error has occurred
+     */
+    public static boolean updateZipFiles(final Collection<String> srcFilePaths,
+                                         final String zipFilePath)
+            throws IOException {
+        return updateZipFiles(srcFilePaths, zipFilePath, null, null);
+    }
+
+    /**
+     * Update the ZIP file with the files.
+     *
+     * @param srcFilePaths The paths of source files.
+     * @param zipFilePath  The path of ZIP file.
+     * @param comment      The comment.
+     * @param listener     The listener of progress.
+     * @return {@code true}: success<br>{@code false}: fail
+     * @throws IOException if an I/O error has occurred
+     */
+    public static boolean updateZipFiles(final Collection<String> srcFilePaths,
+                                         final String zipFilePath,
+                                         final String comment,
+                                         final OnProgressListener listener)
+            throws IOException {
+        if (srcFilePaths == null || zipFilePath == null) return false;
+        List<File> srcFiles = new ArrayList<>(srcFilePaths.size());
+        for (String srcFilePath : srcFilePaths) {
+            srcFiles.add(UtilsBridge.getFileByPath(srcFilePath));
+        }
+        return updateZipFiles(srcFiles, UtilsBridge.getFileByPath(zipFilePath), comment, listener);
+    }
+
+    /**
+     * Update the ZIP file with the files.
+     *
+     * @param srcFiles The source of files.
+     * @param zipFile  The ZIP file.
+     * @return {@code true}: success<br>{@code false}: fail
+     * @throws IOException if an I/O error has occurred
+     */
+    public static boolean updateZipFiles(final Collection<File> srcFiles, final File zipFile)
+            throws IOException {
+        return updateZipFiles(srcFiles, zipFile, null, null);
+    }
+
+    /**
+     * Update the ZIP file with the files, the result is the same as
+     * {@link #zipFilesParallel(Collection, File, String, OnProgressListener)}.
+     * <p>The file whose size and last modified time are the same as its entry in the existing ZIP
+     * file is unchanged, so is the file whose crc is the same if only the time is changed. The
+     * compressed data of unchanged entries is copied raw, only the changed files are deflated,
+     * and the entries of deleted files are dropped.</p>
+     * <p>The new ZIP file is written to "[zipFile].tmp" and renamed to the ZIP file, it's kept if
+     * renaming fails, so the original one is never lost.</p>
+     *
+     * @param srcFiles The source of files.
+     * @param zipFile  The ZIP file, it'll be created if not exists.
+     * @param comment  The comment.
+     * @param listener The listener of progress, it's called on current thread.
+     * @return {@code true}: success<br>{@code false}: fail
+     * @throws IOException if an I/O error has occurred
+     */
+    public static boolean updateZipFiles(final Collection<File> srcFiles,
+                                         final File zipFile,
+                                         final String comment,
+                                         final OnProgressListener listener)
+            throws IOException {
+        if (srcFiles == null || zipFile == null) return false;
+        List<ZipItem> items = collectZipItems(srcFiles);
+        if (items == null) return false;
+        if (!zipFile.isFile()) return zipItemsParallel(items, zipFile, comment, listener, null);
+        ZipArchive archive;
+        try {
+            archive = open(zipFile);
+        } catch (ZipException e) {
+            Log.e("ZipUtils", zipFile + " is invalid, zip it again.", e);
+            return zipItemsParallel(items, zipFile, comment, listener, null);
+        }
+        File tmpFile = new File(zipFile.getPath() + ".tmp");
+        boolean isSuccess = false;
+        try {
+            isSuccess = zipItemsParallel(items, tmpFile, comment, listener, archive);
+        } finally {
+            archive.close();
+            if (!isSuccess) tmpFile.delete();
+        }
+        if (!isSuccess) return false;
+        // the original is never deleted before the new one is in place
+        if (!tmpFile.renameTo(zipFile)) {
+            Log.e("ZipUtils", "rename " + tmpFile + " to " + zipFile + " failed, the updated file is kept.");
+            return false;
+        }
+        removeIndex(zipFile);
+        return true;
+    }
+
+    private static List<ZipItem> collectZipItems(final Collection<File> srcFiles) {
+        List<ZipItem> items = new ArrayList<>();
+        for (File srcFile : srcFiles) {
+            if (srcFile == null) return null;
+            collectZipItems(srcFile, "", items);
+        }
+        return items;
+    }
+
+    /**
+     * Zip the items in order, the unchanged entries of archive are copied raw if it isn't null.
+     */
+    private static boolean zipItemsParallel(final List<ZipItem> items,
+                                            final File zipFile,
+                                            final String comment,
+                                            final OnProgressListener listener,
+                                            final ZipArchive archive)
+            throws IOException {
+        long totalSize = 0;
+        for (ZipItem item : items) {
+            totalSize += item.length;
+        }
+        final int maxInFlight = 2 * Runtime.getRuntime().availableProcessors();
+        final boolean canSplit = Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT;
+        byte[] commentBytes = comment == null ? null : comment.getBytes("UTF-8");
+        LinkedList<FutureTask<ZipChunk>> tasks = new LinkedList<>();
+        ZipWriter writer = new ZipWriter(new FileOutputStream(zipFile));
+        long doneSize = 0;
+        try {
+            for (ZipItem item : items) {
+                ZipRecord record = new ZipRecord(item.name, commentBytes, item.file.lastModified());
+                final ZipChunk readyChunk;
+                if (item.isDir) {
+                    record.method = ZipEntry.STORED;
+                    readyChunk = new ZipChunk(item, record, 0, 0, true);
+                } else {
+                    readyChunk = getUnchangedChunk(archive, item, record);
+                }
+                if (readyChunk != null) {
+                    // it's queued after the chunks in flight and written on current thread
+                    tasks.addLast(new FutureTask<>(new Callable<ZipChunk>() {
+                        @Override
+                        public ZipChunk call() {
+                            return readyChunk;
+                        }
+                    }));
+                    if (tasks.size() >= maxInFlight) {
+                        doneSize += writeChunk(writer, awaitTask(tasks.removeFirst()));
+                        notifyProgress(listener, doneSize, totalSize);
+                    }
+                    continue;
+                }
+                record.method = ZipEntry.DEFLATED;
+                record.flag |= ZipRecord.FLAG_DATA_DESCRIPTOR;
+                item.channel = new FileInputStream(item.file).getChannel();
+                if (!canSplit && item.length > CHUNK_SIZE) {
+                    while (!tasks.isEmpty()) {
+                        doneSize += writeChunk(writer, awaitTask(tasks.removeFirst()));
+                        notifyProgress(listener, doneSize, totalSize);
+                    }
+                    doneSize += writeDeflatedItem(writer, item, record);
+                    notifyProgress(listener, doneSize, totalSize);
+                    continue;
+                }
+                long offset = 0;
+                do {
+                    int length = (int) Math.min(CHUNK_SIZE, item.length - offset);
+                    final ZipChunk chunk = new ZipChunk(item, record, offset, length, offset + length >= item.length);
+                    FutureTask<ZipChunk> task = new FutureTask<>(new Callable<ZipChunk>() {
+                        @Override
+                        public ZipChunk call() throws Exception {
+                            return deflateChunk(chunk);
+                        }
+                    });
+                    tasks.addLast(task);
+                    UtilsBridge.executeByCpu(task);
+                    if (tasks.size() >= maxInFlight) {
+                        doneSize += writeChunk(writer, awaitTask(tasks.removeFirst()));
+                        notifyProgress(listener, doneSize, totalSize);
+                    }
+                    offset += length;
+                } while (offset < item.length);
+            }
+            while (!tasks.isEmpty()) {
+                doneSize += writeChunk(writer, awaitTask(tasks.removeFirst()));
+                notifyProgress(listener, doneSize, totalSize);
+            }
+            writer.finish();
+            return true;
+        } finally {
+            for (FutureTask<ZipChunk> task : tasks) {
+                task.cancel(false);
+            }
+            for (ZipItem item : items) {
+                closeQuietly(item.channel);
+            }
+            writer.close();
+            removeIndex(zipFile);
+        }
+    }
+
+    /**
+     * Return the chunk to copy the entry of archive raw if the file is unchanged, it's checked by
+     * size and last modified time, or by crc if only the time is changed.
+     */
+    private static ZipChunk getUnchangedChunk(final ZipArchive archive,
+                                              final ZipItem item,
+                                              final ZipRecord record) throws IOException {
+        if (archive == null) return null;
+        int i = archive.find(item.name);
+        if (i < 0) return null;
+        ZipIndex index = archive.index;
+        ZipEntry entry = index.entries[i];
+        if (entry.isDirectory() || entry.getMethod() == -1 || (index.flags[i] & 1) != 0) return null;
+        if (entry.getSize() != item.length) return null;
+        if (index.dosTimes[i] != record.dosTime && getFileCrc(item.file) != entry.getCrc()) return null;
+        record.method = entry.getMethod();
+        record.crc = entry.getCrc();
+        record.compressedSize = entry.getCompressedSize();
+        record.size = entry.getSize();
+        ZipChunk chunk = new ZipChunk(item, record, 0, 0, true);
+        chunk.rawArchive = archive;
+        chunk.rawOffset = archive.getDataOffset(i);
+        return chunk;
+    }
+
+    private static long getFileCrc(final File file) throws IOException {
+        CRC32 crc32 = new CRC32();
+        InputStream is = new FileInputStream(file);
+        try {
+            byte[] buffer = new byte[PARALLEL_BUFFER_LEN];
+            int len;
+            while ((len = is.read(buffer)) != -1) {
+                crc32.update(buffer, 0, len);
+            }
+        } finally {
+            is.close();
+        }
+        return crc32.getValue();
+    }
+
+    private static void collectZipItems(final File srcFile,
+                                        String rootPath,
+                                        final List<ZipItem> items) {
+        rootPath = rootPath + (UtilsBridge.isSpace(rootPath) ? "" : File.separator) + srcFile.getName();
+        if (srcFile.isDirectory()) {
+            File[] fileList = srcFile.listFiles();
+            if (fileList == null || fileList.length <= 0) {
+                items.add(new ZipItem(srcFile, rootPath + '/', true));
+            } else {
+                for (File file : fileList) {
+                    collectZipItems(file, rootPath, items);
+                }
+            }
+        } else {
+            items.add(new ZipItem(srcFile, rootPath, false));
+        }
+    }
+
+    /**
+     * Deflate the chunk in raw, it's ended with sync flush if it's not the last one of file, so
+     * the chunks can be concatenated into one deflate stream.
+     */
+    private static ZipChunk deflateChunk(final ZipChunk chunk) throws IOException {
+        int dictLen = (int) Math.min(DICTIONARY_SIZE, chunk.offset);
+        byte[] input = new byte[dictLen + chunk.length];
+        ByteBuffer buffer = ByteBuffer.wrap(input);
+        long position = chunk.offset - dictLen;
+        while (buffer.hasRemaining()) {
+            int len = chunk.item.channel.read(buffer, position);
+            if (len < 0) throw new EOFException(chunk.item.file + " is truncated");
+            position += len;
+        }
+        CRC32 crc32 = new CRC32();
+        crc32.update(input, dictLen, chunk.length);
+        chunk.crc = crc32.getValue();
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            if (dictLen > 0) {
+                deflater.setDictionary(input, 0, dictLen);
+            }
+            deflater.setInput(input, dictLen, chunk.length);
+            byte[] output = new byte[chunk.length + (chunk.length >> 8) + 64];
+            int outLen = 0;
+            if (chunk.isLast) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    if (outLen == output.length) output = Arrays.copyOf(output, output.length * 2);
+                    outLen += deflater.deflate(output, outLen, output.length - outLen);
+                }
+            } else {
+                // flushing is done once the output isn't full
+                while (true) {
+                    if (outLen == output.length) output = Arrays.copyOf(output, output.length * 2);
+                    int len = deflater.deflate(output, outLen, output.length - outLen, Deflater.SYNC_FLUSH);
+                    outLen += len;
+                    if (outLen < output.length) break;
+                }
+            }
+            chunk.data = output;
+            chunk.dataLen = outLen;
+            return chunk;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static long writeChunk(final ZipWriter writer, final ZipChunk chunk) throws IOException {
+        ZipRecord record = chunk.record;
+        if (chunk.rawArchive != null) {
+            writer.putRecord(record);
+            writer.transferFrom(chunk.rawArchive.channel, chunk.rawOffset, record.compressedSize);
+            writer.closeRecord(record);
+            return record.size;
+        }
+        if (chunk.offset == 0) {
+            writer.putRecord(record);
+        }
+        if (chunk.dataLen > 0) {
+            writer.write(chunk.data, 0, chunk.dataLen);
+        }
+        record.crc = chunk.offset == 0 ? chunk.crc : crc32Combine(record.crc, chunk.crc, chunk.length);
+        record.compressedSize += chunk.dataLen;
+        record.size += chunk.length;
+        chunk.data = null;
+        if (chunk.isLast) {
+            writer.closeRecord(record);
+            closeQuietly(chunk.item.channel);
+            chunk.item.channel = null;
+        }
+        return chunk.length;
+    }
+
+    private static long writeDeflatedItem(final ZipWriter writer,
+                                          final ZipItem item,
+                                          final ZipRecord record) throws IOException {
+        writer.putRecord(record);
+        CRC32 crc32 = new CRC32();
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        InputStream is = Channels.newInputStream(item.channel);
+        try {
+            byte[] input = new byte[PARALLEL_BUFFER_LEN];
+            byte[] output = new byte[PARALLEL_BUFFER_LEN];
+            int len;
+            while ((len = is.read(input)) != -1) {
+                crc32.update(input, 0, len);
+                record.size += len;
+                deflater.setInput(input, 0, len);
+                while (!deflater.needsInput()) {
+                    int outLen = deflater.deflate(output);
+                    writer.write(output, 0, outLen);
+                    record.compressedSize += outLen;
+                }
+            }
+            deflater.finish();
+            while (!deflater.finished()) {
+                int outLen = deflater.deflate(output);
+                writer.write(output, 0, outLen);
+                record.compressedSize += outLen;
+            }
+        } finally {
+            deflater.end();
+            is.close();
+            item.channel = null;
+        }
+        record.crc = crc32.getValue();
+        writer.closeRecord(record);
+        return record.size;
+    }
+
+    /**
+     * Return the crc of concatenated data whose crcs are crc1 and crc2, which is the same as
+     * crc32_combine of zlib.
+     */
+    private static long crc32Combine(long crc1, final long crc2, long len2) {
+        if (len2 <= 0) return crc1;
+        long[] even = new long[32];
+        long[] odd = new long[32];
+        // the operator of one zero bit
+        odd[0] = 0xEDB88320L;
+        long row = 1;
+        for (int n = 1; n < 32; n++) {
+            odd[n] = row;
+            row <<= 1;
+        }
+        // the operators of two and four zero bits
+        gf2MatrixSquare(even, odd);
+        gf2MatrixSquare(odd, even);
+        do {
+            gf2MatrixSquare(even, odd);
+            if ((len2 & 1) != 0) crc1 = gf2MatrixTimes(even, crc1);
+            len2 >>= 1;
+            if (len2 == 0) break;
+            gf2MatrixSquare(odd, even);
+            if ((len2 & 1) != 0) crc1 = gf2MatrixTimes(odd, crc1);
+            len2 >>= 1;
+        } while (len2 != 0);
+        return crc1 ^ crc2;
+    }
+
+    private static long gf2MatrixTimes(final long[] mat, long vec) {
+        long sum = 0;
+        for (int i = 0; vec != 0; i++, vec >>>= 1) {
+            if ((vec & 1) != 0) sum ^= mat[i];
+        }
+        return sum;
+    }
+
+    private static void gf2MatrixSquare(final long[] square, final long[] mat) {
+        for (int n = 0; n < 32; n++) {
+            square[n] = gf2MatrixTimes(mat, mat[n]);
+        }
+    }
+
     /**
      * Unzip the file.
      *
@@ -352,6 +882,183 @@ public final class ZipUtils {
         return true;
     }
 
+    /**
+     * Unzip the file on the threads of cpu pool.
+     *
+     * @param zipFilePath The path of ZIP file.
+     * @param destDirPath The path of destination directory.
+     * @return the unzipped files
+     * @throws IOException if unzip unsuccessfully
+     */
+    public static List<File> unzipFileParallel(final String zipFilePath,
+                                               final String destDirPath)
+            throws IOException {
+        return unzipFileByKeywordParallel(UtilsBridge.getFileByPath(zipFilePath), UtilsBridge.getFileByPath(destDirPath), null, null);
+    }
+
+    /**
+     * Unzip the file on the threads of cpu pool.
+     *
+     * @param zipFile The ZIP file.
+     * @param destDir The destination directory.
+     * @return the unzipped files
+     * @throws IOException if unzip unsuccessfully
+     */
+    public static List<File> unzipFileParallel(final File zipFile,
+                                               final File destDir)
+            throws IOException {
+        return unzipFileByKeywordParallel(zipFile, destDir, null, null);
+    }
+
+    /**
+     * Unzip the file by keyword on the threads of cpu pool.
+     *
+     * @param zipFilePath The path of ZIP file.
+     * @param destDirPath The path of destination directory.
+     * @param keyword     The keyboard.
+     * @param listener    The listener of progress.
+     * @return the unzipped files
+     * @throws IOException if unzip unsuccessfully
+     */
+    public static List<File> unzipFileByKeywordParallel(final String zipFilePath,
+                                                        final String destDirPath,
+                                                        final String keyword,
+                                                        final OnProgressListener listener)
+            throws IOException {
+        return unzipFileByKeywordParallel(UtilsBridge.getFileByPath(zipFilePath), UtilsBridge.getFileByPath(destDirPath), keyword, listener);
+    }
+
+    /**
+     * Unzip the file by keyword on the threads of cpu pool.
+     * <p>The ZIP file is opened once, the directories and files are created on current thread
+     * in order, then the entries are inflated concurrently.</p>
+     *
+     * @param zipFile  The ZIP file.
+     * @param destDir  The destination directory.
+     * @param keyword  The keyboard.
+     * @param listener The listener of progress, it's called on current thread.
+     * @return the unzipped files
+     * @throws IOException if unzip unsuccessfully
+     */
+    public static List<File> unzipFileByKeywordParallel(final File zipFile,
+                                                        final File destDir,
+                                                        final String keyword,
+                                                        final OnProgressListener listener)
+            throws IOException {
+        if (zipFile == null || destDir == null) return null;
+        List<File> files = new ArrayList<>();
+        final ZipFile zip = new ZipFile(zipFile);
+        final int maxInFlight = 2 * Runtime.getRuntime().availableProcessors();
+        LinkedList<FutureTask<Long>> tasks = new LinkedList<>();
+        try {
+            List<ZipEntry> fileEntries = new ArrayList<>();
+            long totalSize = 0;
+            Enumeration<?> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = ((ZipEntry) entries.nextElement());
+                String entryName = entry.getName().replace("\\", "/");
+                if (entryName.contains("../")) {
+                    Log.e("ZipUtils", "entryName: " + entryName + " is dangerous!");
+                    continue;
+                }
+                if (!UtilsBridge.isSpace(keyword) && !entryName.contains(keyword)) continue;
+                File file = new File(destDir, entryName);
+                files.add(file);
+                if (entry.isDirectory()) {
+                    if (!UtilsBridge.createOrExistsDir(file)) return files;
+                } else {
+                    if (!UtilsBridge.createOrExistsFile(file)) return files;
+                    fileEntries.add(entry);
+                    totalSize += Math.max(0, entry.getSize());
+                }
+            }
+            long doneSize = 0;
+            for (final ZipEntry entry : fileEntries) {
+                final File file = new File(destDir, entry.getName().replace("\\", "/"));
+                FutureTask<Long> task = new FutureTask<>(new Callable<Long>() {
+                    @Override
+                    public Long call() throws Exception {
+                        return unzipEntry(zip, entry, file);
+                    }
+                });
+                tasks.addLast(task);
+                UtilsBridge.executeByCpu(task);
+                if (tasks.size() >= maxInFlight) {
+                    doneSize += awaitTask(tasks.removeFirst());
+                    notifyProgress(listener, doneSize, totalSize);
+                }
+            }
+            while (!tasks.isEmpty()) {
+                doneSize += awaitTask(tasks.removeFirst());
+                notifyProgress(listener, doneSize, totalSize);
+            }
+        } finally {
+            for (FutureTask<Long> task : tasks) {
+                task.cancel(false);
+            }
+            zip.close();
+        }
+        return files;
+    }
+
+    private static long unzipEntry(final ZipFile zip,
+                                   final ZipEntry entry,
+                                   final File file) throws IOException {
+        InputStream in = null;
+        OutputStream out = null;
+        try {
+            in = zip.getInputStream(entry);
+            out = new FileOutputStream(file);
+            byte[] buffer = new byte[PARALLEL_BUFFER_LEN];
+            long size = 0;
+            int len;
+            while ((len = in.read(buffer)) != -1) {
+                out.write(buffer, 0, len);
+                size += len;
+            }
+            return size;
+        } finally {
+            if (in != null) {
+                in.close();
+            }
+            if (out != null) {
+                out.close();
+            }
+        }
+    }
+
+    private static <T> T awaitTask(final FutureTask<T> task) throws IOException {
+        // run it on current thread if it's not started, so it never waits for the busy pool
+        task.run();
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            throw new IOException(cause);
+        }
+    }
+
+    private static void notifyProgress(final OnProgressListener listener,
+                                       final long doneSize,
+                                       final long totalSize) {
+        if (listener != null) {
+            listener.onProgress(doneSize, totalSize);
+        }
+    }
+
+    private static void closeQuietly(final Closeable closeable) {
+        if (closeable == null) return;
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
     /**
      * Return the files' path in ZIP file.
      *
@@ -374,11 +1081,10 @@ public final class ZipUtils {
     public static List<String> getFilesPath(final File zipFile)
             throws IOException {
         if (zipFile == null) return null;
-        List<String> paths = new ArrayList<>();
-        ZipFile zip = new ZipFile(zipFile);
-        Enumeration<?> entries = zip.entries();
-        while (entries.hasMoreElements()) {
-            String entryName = ((ZipEntry) entries.nextElement()).getName().replace("\\", "/");
+        ZipEntry[] entries = getEntries(zipFile);
+        List<String> paths = new ArrayList<>(entries.length);
+        for (ZipEntry entry : entries) {
+            String entryName = entry.getName().replace("\\", "/");
             if (entryName.contains("../")) {
                 Log.e("ZipUtils", "entryName: " + entryName + " is dangerous!");
                 paths.add(entryName);
@@ -386,7 +1092,6 @@ public final class ZipUtils {
                 paths.add(entryName);
             }
         }
-        zip.close();
         return paths;
     }
 
@@ -412,14 +1117,756 @@ public final class ZipUtils {
     public static List<String> getComments(final File zipFile)
             throws IOException {
         if (zipFile == null) return null;
-        List<String> comments = new ArrayList<>();
-        ZipFile zip = new ZipFile(zipFile);
-        Enumeration<?> entries = zip.entries();
-        while (entries.hasMoreElements()) {
-            ZipEntry entry = ((ZipEntry) entries.nextElement());
+        ZipEntry[] entries = getEntries(zipFile);
+        List<String> comments = new ArrayList<>(entries.length);
+        for (ZipEntry entry : entries) {
             comments.add(entry.getComment());
         }
-        zip.close();
         return comments;
     }
+
+    /**
+     * Open the ZIP file to read its entries without extracting.
+     *
+     * @param zipFilePath The path of ZIP file.
+     * @return the archive, it should be closed after reading
+     * @throws IOException if an I/O error has occurred
+     */
+    public static ZipArchive open(final String zipFilePath) throws IOException {
+        return open(UtilsBridge.getFileByPath(zipFilePath));
+    }
+
+    /**
+     * Open the ZIP file to read its entries without extracting.
+     * <p>The central directory is indexed once and cached by the path, last modified time and
+     * length of file, so opening the same file again costs nothing but a file descriptor.</p>
+     *
+     * @param zipFile The ZIP file.
+     * @return the archive, it should be closed after reading
+     * @throws IOException if an I/O error has occurred
+     */
+    public static ZipArchive open(final File zipFile) throws IOException {
+        if (zipFile == null) return null;
+        FileChannel channel = new FileInputStream(zipFile).getChannel();
+        boolean isOpened = false;
+        try {
+            ZipArchive archive = new ZipArchive(zipFile, getIndex(zipFile, channel), channel);
+            isOpened = true;
+            return archive;
+        } finally {
+            if (!isOpened) channel.close();
+        }
+    }
+
+    /**
+     * Return the entries in the order of central directory, the zip64 file which can't be
+     * indexed is read by {@link ZipFile}.
+     */
+    private static ZipEntry[] getEntries(final File zipFile) throws IOException {
+        try {
+            return getIndex(zipFile).entries;
+        } catch (ZipException e) {
+            List<ZipEntry> entries = new ArrayList<>();
+            ZipFile zip = new ZipFile(zipFile);
+            try {
+                Enumeration<?> enumeration = zip.entries();
+                while (enumeration.hasMoreElements()) {
+                    entries.add((ZipEntry) enumeration.nextElement());
+                }
+            } finally {
+                zip.close();
+            }
+            return entries.toArray(new ZipEntry[entries.size()]);
+        }
+    }
+
+    private static void removeIndex(final File zipFile) {
+        synchronized (INDEXES) {
+            INDEXES.remove(zipFile.getAbsolutePath());
+        }
+    }
+
+    private static ZipIndex getIndex(final File zipFile) throws IOException {
+        FileChannel channel = new FileInputStream(zipFile).getChannel();
+        try {
+            return getIndex(zipFile, channel);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Return the cached index if the last modified time, length and end record of the channel
+     * are the same as it, otherwise read the index from the channel.
+     */
+    private static ZipIndex getIndex(final File zipFile, final FileChannel channel) throws IOException {
+        String key = zipFile.getAbsolutePath();
+        long lastModified = zipFile.lastModified();
+        long length = channel.size();
+        ByteBuffer endRecord = readEndRecord(channel, length);
+        synchronized (INDEXES) {
+            ZipIndex index = INDEXES.get(key);
+            if (index != null
+                    && index.lastModified == lastModified
+                    && index.length == length
+                    && index.endRecord.equals(endRecord)) {
+                return index;
+            }
+        }
+        ZipIndex index = readIndex(channel, lastModified, length, endRecord);
+        synchronized (INDEXES) {
+            INDEXES.put(key, index);
+        }
+        return index;
+    }
+
+    /**
+     * Return the end record of central directory without the comment of ZIP file.
+     */
+    private static ByteBuffer readEndRecord(final FileChannel channel, final long length) throws IOException {
+        if (length < 22) throw new ZipException("end of central directory not found");
+        // most ZIP files have no comment, so the end record is the last 22 bytes
+        ByteBuffer tail = readBuffer(channel, length - 22, 22);
+        if (tail.getInt(0) == 0x06054b50 && tail.getShort(20) == 0) return tail;
+        int tailLen = (int) Math.min(length, 22 + 0xFFFF);
+        tail = readBuffer(channel, length - tailLen, tailLen);
+        for (int i = tailLen - 22; i >= 0; i--) {
+            if (tail.getInt(i) == 0x06054b50 && i + 22 + (tail.getShort(i + 20) & 0xFFFF) <= tailLen) {
+                tail.position(i);
+                tail.limit(i + 22);
+                return tail.slice().order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+        throw new ZipException("end of central directory not found");
+    }
+
+    /**
+     * Read the central directory which is located by the end record, zip64 isn't supported.
+     */
+    private static ZipIndex readIndex(final FileChannel channel,
+                                      final long lastModified,
+                                      final long length,
+                                      final ByteBuffer endRecord) throws IOException {
+        int count = endRecord.getShort(10) & 0xFFFF;
+        long cdSize = endRecord.getInt(12) & ZIP_MAX_VALUE;
+        long cdOffset = endRecord.getInt(16) & ZIP_MAX_VALUE;
+        if (count == ZIP_MAX_ENTRIES || cdOffset == ZIP_MAX_VALUE) {
+            throw new ZipException("zip64 is not supported");
+        }
+        if (cdOffset + cdSize > length) throw new ZipException("central directory is truncated");
+        ByteBuffer cd = readBuffer(channel, cdOffset, (int) cdSize);
+        ZipEntry[] entries = new ZipEntry[count];
+        int[] flags = new int[count];
+        int[] dosTimes = new int[count];
+        long[] headerOffsets = new long[count];
+        Calendar c = Calendar.getInstance();
+        int pos = 0;
+        for (int i = 0; i < count; i++) {
+            if (pos + 46 > cdSize || cd.getInt(pos) != 0x02014b50) {
+                throw new ZipException("invalid central directory");
+            }
+            int nameLen = cd.getShort(pos + 28) & 0xFFFF;
+            int extraLen = cd.getShort(pos + 30) & 0xFFFF;
+            int commentLen = cd.getShort(pos + 32) & 0xFFFF;
+            if (pos + 46 + nameLen + extraLen + commentLen > cdSize) {
+                throw new ZipException("invalid central directory");
+            }
+            ZipEntry entry = new ZipEntry(new String(cd.array(), pos + 46, nameLen, "UTF-8"));
+            int method = cd.getShort(pos + 10) & 0xFFFF;
+            if (method == ZipEntry.STORED || method == ZipEntry.DEFLATED) {
+                entry.setMethod(method);
+            }
+            entry.setTime(dosToJavaTime(c, cd.getInt(pos + 12)));
+            entry.setCrc(cd.getInt(pos + 16) & ZIP_MAX_VALUE);
+            entry.setCompressedSize(cd.getInt(pos + 20) & ZIP_MAX_VALUE);
+            entry.setSize(cd.getInt(pos + 24) & ZIP_MAX_VALUE);
+            if (commentLen > 0) {
+                entry.setComment(new String(cd.array(), pos + 46 + nameLen + extraLen, commentLen, "UTF-8"));
+            }
+            entries[i] = entry;
+            flags[i] = cd.getShort(pos + 8) & 0xFFFF;
+            dosTimes[i] = cd.getInt(pos + 12);
+            headerOffsets[i] = cd.getInt(pos + 42) & ZIP_MAX_VALUE;
+            pos += 46 + nameLen + extraLen + commentLen;
+        }
+        return new ZipIndex(lastModified, length, endRecord, entries, flags, dosTimes, headerOffsets);
+    }
+
+    private static ByteBuffer readBuffer(final FileChannel channel,
+                                         long position,
+                                         final int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            int len = channel.read(buffer, position);
+            if (len < 0) throw new EOFException();
+            position += len;
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static long dosToJavaTime(final Calendar c, final int dosTime) {
+        c.clear();
+        c.set(((dosTime >> 25) & 0x7f) + 1980,
+                ((dosTime >> 21) & 0x0f) - 1,
+                (dosTime >> 16) & 0x1f,
+                (dosTime >> 11) & 0x1f,
+                (dosTime >> 5) & 0x3f,
+                (dosTime << 1) & 0x3e);
+        return c.getTimeInMillis();
+    }
+
+    /**
+     * Convert the glob to regex, "*" and "?" don't match "/" but "**" does.
+     */
+    private static Pattern globToPattern(final String glob) {
+        StringBuilder sb = new StringBuilder(glob.length() + 16);
+        int literalStart = 0;
+        for (int i = 0; i < glob.length(); i++) {
+            char ch = glob.charAt(i);
+            if (ch != '*' && ch != '?') continue;
+            if (literalStart < i) sb.append(Pattern.quote(glob.substring(literalStart, i)));
+            if (ch == '?') {
+                sb.append("[^/]");
+            } else if (i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                sb.append(".*");
+                i++;
+            } else {
+                sb.append("[^/]*");
+            }
+            literalStart = i + 1;
+        }
+        if (literalStart < glob.length()) sb.append(Pattern.quote(glob.substring(literalStart)));
+        return Pattern.compile(sb.toString(), Pattern.DOTALL);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // interface
+    ///////////////////////////////////////////////////////////////////////////
+
+    public interface OnProgressListener {
+
+        /**
+         * Called when a chunk or an entry is done.
+         *
+         * @param doneSize  The size of done data in bytes.
+         * @param totalSize The total size of data in bytes.
+         */
+        void onProgress(long doneSize, long totalSize);
+    }
+
+    /**
+     * The opened ZIP file whose entries are sorted by name, it's safe to read the entries on
+     * multiple threads.
+     */
+    public static final class ZipArchive implements Closeable {
+        private final File        file;
+        private final ZipIndex    index;
+        private final FileChannel channel;
+
+        private ZipArchive(final File file, final ZipIndex index, final FileChannel channel) {
+            this.file = file;
+            this.index = index;
+            this.channel = channel;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        public int size() {
+            return index.entries.length;
+        }
+
+        /**
+         * Return the entries sorted by name.
+         *
+         * @return the entries
+         */
+        public List<ZipEntry> getEntries() {
+            List<ZipEntry> entries = new ArrayList<>(index.sorted.length);
+            for (int i : index.sorted) {
+                entries.add((ZipEntry) index.entries[i].clone());
+            }
+            return entries;
+        }
+
+        /**
+         * Return the entry of name.
+         *
+         * @param name The name of entry.
+         * @return the entry, null if not found
+         */
+        public ZipEntry getEntry(final String name) {
+            int i = find(name);
+            return i < 0 ? null : (ZipEntry) index.entries[i].clone();
+        }
+
+        /**
+         * Return the entries whose names start with prefix in O(log n).
+         *
+         * @param prefix The prefix of name, such as "assets/".
+         * @return the entries sorted by name
+         */
+        public List<ZipEntry> getEntriesByPrefix(final String prefix) {
+            return getEntriesByPrefix(prefix, null);
+        }
+
+        /**
+         * Return the entries whose names match the glob, such as "assets/*.png" or
+         * "assets/**.png", the literal prefix of glob is located in O(log n).
+         *
+         * @param glob The glob, "*" and "?" don't match "/" but "**" does.
+         * @return the entries sorted by name
+         */
+        public List<ZipEntry> getEntriesByGlob(final String glob) {
+            int wildcard = glob.length();
+            for (int i = 0; i < glob.length(); i++) {
+                char ch = glob.charAt(i);
+                if (ch == '*' || ch == '?') {
+                    wildcard = i;
+                    break;
+                }
+            }
+            return getEntriesByPrefix(glob.substring(0, wildcard), globToPattern(glob));
+        }
+
+        private List<ZipEntry> getEntriesByPrefix(final String prefix, final Pattern pattern) {
+            List<ZipEntry> entries = new ArrayList<>();
+            String[] names = index.sortedNames;
+            int low = lowerBound(prefix);
+            for (int i = low; i < names.length && names[i].startsWith(prefix); i++) {
+                if (pattern == null || pattern.matcher(names[i]).matches()) {
+                    entries.add((ZipEntry) index.entries[index.sorted[i]].clone());
+                }
+            }
+            return entries;
+        }
+
+        /**
+         * Return the stream of entry's data which is inflated if it's deflated.
+         *
+         * @param entry The entry.
+         * @return the stream, null if entry is not found
+         * @throws IOException if an I/O error has occurred
+         */
+        public InputStream getInputStream(final ZipEntry entry) throws IOException {
+            int i = find(entry.getName());
+            if (i < 0) return null;
+            ZipEntry e = index.entries[i];
+            InputStream is = new ChannelInputStream(channel, getDataOffset(i), e.getCompressedSize());
+            if (e.getMethod() == ZipEntry.STORED) return is;
+            return new ZipInflaterInputStream(is, e.getSize());
+        }
+
+        /**
+         * Return the buffer of entry's data, the stored entry is mapped from the file directly,
+         * the deflated entry is inflated into the heap.
+         *
+         * @param entry The entry.
+         * @return the read-only buffer, null if entry is not found
+         * @throws IOException if an I/O error has occurred
+         */
+        public ByteBuffer getByteBuffer(final ZipEntry entry) throws IOException {
+            int i = find(entry.getName());
+            if (i < 0) return null;
+            ZipEntry e = index.entries[i];
+            if (e.getSize() > Integer.MAX_VALUE) throw new ZipException(e.getName() + " is too large");
+            if (e.getMethod() == ZipEntry.STORED) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, getDataOffset(i), e.getSize());
+            }
+            byte[] data = new byte[(int) e.getSize()];
+            InputStream is = getInputStream(e);
+            try {
+                int off = 0;
+                while (off < data.length) {
+                    int len = is.read(data, off, data.length - off);
+                    if (len < 0) throw new EOFException(e.getName() + " is truncated");
+                    off += len;
+                }
+            } finally {
+                is.close();
+            }
+            return ByteBuffer.wrap(data).asReadOnlyBuffer();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        private int find(final String name) {
+            int i = lowerBound(name);
+            if (i < index.sortedNames.length && index.sortedNames[i].equals(name)) {
+                return index.sorted[i];
+            }
+            return -1;
+        }
+
+        private int lowerBound(final String name) {
+            String[] names = index.sortedNames;
+            int low = 0, high = names.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (names[mid].compareTo(name) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private long getDataOffset(final int i) throws IOException {
+            long dataOffset = index.dataOffsets.get(i);
+            if (dataOffset >= 0) return dataOffset;
+            if ((index.flags[i] & 1) != 0) {
+                throw new ZipException(index.entries[i].getName() + " is encrypted");
+            }
+            if (index.entries[i].getMethod() == -1) {
+                throw new ZipException(index.entries[i].getName() + " is compressed by unsupported method");
+            }
+            long headerOffset = index.headerOffsets[i];
+            ByteBuffer header = readBuffer(channel, headerOffset, 30);
+            if (header.getInt(0) != 0x04034b50) throw new ZipException("invalid local header");
+            dataOffset = headerOffset + 30 + (header.getShort(26) & 0xFFFF) + (header.getShort(28) & 0xFFFF);
+            index.dataOffsets.set(i, dataOffset);
+            return dataOffset;
+        }
+    }
+
+    private static final class ZipIndex {
+        private final long            lastModified;
+        private final long            length;
+        private final ByteBuffer      endRecord;
+        private final ZipEntry[]      entries;
+        private final int[]           flags;
+        private final int[]           dosTimes;
+        private final long[]          headerOffsets;
+        private final AtomicLongArray dataOffsets;
+        private final int[]           sorted;
+        private final String[]        sortedNames;
+
+        ZipIndex(final long lastModified,
+                 final long length,
+                 final ByteBuffer endRecord,
+                 final ZipEntry[] entries,
+                 final int[] flags,
+                 final int[] dosTimes,
+                 final long[] headerOffsets) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.endRecord = endRecord;
+            this.entries = entries;
+            this.flags = flags;
+            this.dosTimes = dosTimes;
+            this.headerOffsets = headerOffsets;
+            this.dataOffsets = new AtomicLongArray(entries.length);
+            for (int i = 0; i < entries.length; i++) {
+                dataOffsets.set(i, -1);
+            }
+            Integer[] order = new Integer[entries.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, new Comparator<Integer>() {
+                @Override
+                public int compare(Integer o1, Integer o2) {
+                    return entries[o1].getName().compareTo(entries[o2].getName());
+                }
+            });
+            this.sorted = new int[order.length];
+            this.sortedNames = new String[order.length];
+            for (int i = 0; i < order.length; i++) {
+                sorted[i] = order[i];
+                sortedNames[i] = entries[order[i]].getName();
+            }
+        }
+    }
+
+    /**
+     * Read the range of file by positional reads, so the streams on the same channel are
+     * independent.
+     */
+    private static final class ChannelInputStream extends InputStream {
+        private final FileChannel channel;
+        private       long        position;
+        private       long        remaining;
+
+        ChannelInputStream(final FileChannel channel, final long position, final long length) {
+            this.channel = channel;
+            this.position = position;
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (len == 0) return 0;
+            if (remaining <= 0) return -1;
+            int n = channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, remaining)), position);
+            if (n < 0) throw new EOFException();
+            position += n;
+            remaining -= n;
+            return n;
+        }
+
+        @Override
+        public long skip(final long n) {
+            long skipped = Math.max(0, Math.min(n, remaining));
+            position += skipped;
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(remaining, Integer.MAX_VALUE);
+        }
+    }
+
+    private static final class ZipInflaterInputStream extends InflaterInputStream {
+        private       boolean eof;
+        private final long    size;
+        private       long    read;
+
+        ZipInflaterInputStream(final InputStream in, final long size) {
+            super(in, new Inflater(true), (int) Math.max(512, Math.min(size, PARALLEL_BUFFER_LEN)));
+            this.size = size;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) read += n;
+            return n;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return read >= size ? 0 : (int) Math.min(size - read, Integer.MAX_VALUE);
+        }
+
+        @Override
+        protected void fill() throws IOException {
+            if (eof) throw new EOFException("Unexpected end of ZLIB input stream");
+            len = in.read(buf, 0, buf.length);
+            if (len == -1) {
+                // the raw inflater may need a dummy byte to finish
+                buf[0] = 0;
+                len = 1;
+                eof = true;
+            }
+            inf.setInput(buf, 0, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            inf.end();
+            super.close();
+        }
+    }
+
+    private static final class ZipItem {
+        private final File        file;
+        private final String      name;
+        private final boolean     isDir;
+        private final long        length;
+        private       FileChannel channel;
+
+        ZipItem(final File file, final String name, final boolean isDir) {
+            this.file = file;
+            this.name = name;
+            this.isDir = isDir;
+            this.length = isDir ? 0 : file.length();
+        }
+    }
+
+    private static final class ZipChunk {
+        private final ZipItem    item;
+        private final ZipRecord  record;
+        private final long       offset;
+        private final int        length;
+        private final boolean    isLast;
+        private       long       crc;
+        private       byte[]     data;
+        private       int        dataLen;
+        private       ZipArchive rawArchive;
+        private       long       rawOffset;
+
+        ZipChunk(final ZipItem item,
+                 final ZipRecord record,
+                 final long offset,
+                 final int length,
+                 final boolean isLast) {
+            this.item = item;
+            this.record = record;
+            this.offset = offset;
+            this.length = length;
+            this.isLast = isLast;
+        }
+    }
+
+    /**
+     * The record of entry in central directory.
+     */
+    private static final class ZipRecord {
+        static final int FLAG_DATA_DESCRIPTOR = 1 << 3;
+        static final int FLAG_UTF8            = 1 << 11;
+
+        private final byte[] name;
+        private final byte[] comment;
+        private final int    dosTime;
+        private       int    flag = FLAG_UTF8;
+        private       int    method;
+        private       long   crc;
+        private       long   compressedSize;
+        private       long   size;
+        private       long   offset;
+
+        ZipRecord(final String name, final byte[] comment, final long time) throws IOException {
+            this.name = name.getBytes("UTF-8");
+            this.comment = comment;
+            this.dosTime = javaToDosTime(time);
+        }
+
+        private static int javaToDosTime(final long time) {
+            Calendar c = Calendar.getInstance();
+            c.setTimeInMillis(time);
+            int year = c.get(Calendar.YEAR);
+            if (year < 1980) return (1 << 21) | (1 << 16);
+            return (year - 1980) << 25
+                    | (c.get(Calendar.MONTH) + 1) << 21
+                    | c.get(Calendar.DAY_OF_MONTH) << 16
+                    | c.get(Calendar.HOUR_OF_DAY) << 11
+                    | c.get(Calendar.MINUTE) << 5
+                    | c.get(Calendar.SECOND) >> 1;
+        }
+    }
+
+    /**
+     * Write the local headers, data and the central directory of ZIP file, zip64 isn't supported.
+     */
+    private static final class ZipWriter implements Closeable {
+        private final OutputStream    os;
+        private final List<ZipRecord> records = new ArrayList<>();
+        private final byte[]          header  = new byte[46];
+        private       ByteBuffer      buffer;
+        private       long            written;
+
+        ZipWriter(final OutputStream os) {
+            this.os = new BufferedOutputStream(os, PARALLEL_BUFFER_LEN);
+        }
+
+        void putRecord(final ZipRecord record) throws IOException {
+            if (records.size() >= ZIP_MAX_ENTRIES || written > ZIP_MAX_VALUE) {
+                throw new ZipException("zip64 is not supported");
+            }
+            record.offset = written;
+            records.add(record);
+            boolean hasDescriptor = (record.flag & ZipRecord.FLAG_DATA_DESCRIPTOR) != 0;
+            putInt(0, 0x04034b50);
+            putShort(4, 20);
+            putShort(6, record.flag);
+            putShort(8, record.method);
+            putInt(10, record.dosTime);
+            putInt(14, hasDescriptor ? 0 : record.crc);
+            putInt(18, hasDescriptor ? 0 : record.compressedSize);
+            putInt(22, hasDescriptor ? 0 : record.size);
+            putShort(26, record.name.length);
+            putShort(28, 0);
+            write(header, 0, 30);
+            write(record.name, 0, record.name.length);
+        }
+
+        void closeRecord(final ZipRecord record) throws IOException {
+            if (record.compressedSize > ZIP_MAX_VALUE || record.size > ZIP_MAX_VALUE) {
+                throw new ZipException("zip64 is not supported");
+            }
+            if ((record.flag & ZipRecord.FLAG_DATA_DESCRIPTOR) == 0) return;
+            putInt(0, 0x08074b50);
+            putInt(4, record.crc);
+            putInt(8, record.compressedSize);
+            putInt(12, record.size);
+            write(header, 0, 16);
+        }
+
+        void write(final byte[] b, final int off, final int len) throws IOException {
+            os.write(b, off, len);
+            written += len;
+        }
+
+        void transferFrom(final FileChannel channel, long position, long count) throws IOException {
+            if (buffer == null) buffer = ByteBuffer.allocate(PARALLEL_BUFFER_LEN);
+            while (count > 0) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), count));
+                int len = channel.read(buffer, position);
+                if (len < 0) throw new EOFException();
+                write(buffer.array(), 0, len);
+                position += len;
+                count -= len;
+            }
+        }
+
+        void finish() throws IOException {
+            long cdOffset = written;
+            if (cdOffset > ZIP_MAX_VALUE) throw new ZipException("zip64 is not supported");
+            for (ZipRecord record : records) {
+                int commentLen = record.comment == null ? 0 : record.comment.length;
+                putInt(0, 0x02014b50);
+                putShort(4, 20);
+                putShort(6, 20);
+                putShort(8, record.flag);
+                putShort(10, record.method);
+                putInt(12, record.dosTime);
+                putInt(16, record.crc);
+                putInt(20, record.compressedSize);
+                putInt(24, record.size);
+                putShort(28, record.name.length);
+                putShort(30, 0);
+                putShort(32, commentLen);
+                putShort(34, 0);
+                putShort(36, 0);
+                putInt(38, 0);
+                putInt(42, record.offset);
+                write(header, 0, 46);
+                write(record.name, 0, record.name.length);
+                if (commentLen > 0) write(record.comment, 0, commentLen);
+            }
+            long cdSize = written - cdOffset;
+            putInt(0, 0x06054b50);
+            putShort(4, 0);
+            putShort(6, 0);
+            putShort(8, records.size());
+            putShort(10, records.size());
+            putInt(12, cdSize);
+            putInt(16, cdOffset);
+            putShort(20, 0);
+            write(header, 0, 22);
+            os.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            os.close();
+        }
+
+        private void putShort(final int index, final int value) {
+            header[index] = (byte) value;
+            header[index + 1] = (byte) (value >>> 8);
+        }
+
+        private void putInt(final int index, final long value) {
+            header[index] = (byte) value;
+            header[index + 1] = (byte) (value >>> 8);
+            header[index + 2] = (byte) (value >>> 16);
+            header[index + 3] = (byte) (value >>> 24);
+        }
+    }
 }
@@ -3,7 +3,16 @@ package com.blankj.utilcode.util;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * <pre>
@@ -20,6 +29,13 @@ public class BusUtilsTest extends BaseTest {
     private static final String TAG_NO_PARAM_STICKY  = "TagNoParamSticky";
     private static final String TAG_ONE_PARAM_STICKY = "TagOneParamSticky";
 
+    private static final String TAG_NO_PARAM_STICKY_CROSS_PROCESS  = "TagNoParamStickyCrossProcess";
+    private static final String TAG_ONE_PARAM_STICKY_CROSS_PROCESS = "TagOneParamStickyCrossProcess";
+
+    private static final AtomicInteger NO_PARAM_STICKY_CROSS_PROCESS_COUNT = new AtomicInteger();
+
+    private static final List<String> EVENT_FUNS = new CopyOnWriteArrayList<>();
+
     private static final String TAG_IO     = "TAG_IO";
     private static final String TAG_CPU    = "TAG_CPU";
     private static final String TAG_CACHED = "TAG_CACHED";
@@ -57,6 +73,17 @@ public class BusUtilsTest extends BaseTest {
         }
     }
 
+    @BusUtils.Bus(tag = TAG_NO_PARAM_STICKY_CROSS_PROCESS, sticky = true)
+    public void noParamStickyCrossProcessFun() {
+        System.out.println("noParamStickyCrossProcess");
+        NO_PARAM_STICKY_CROSS_PROCESS_COUNT.incrementAndGet();
+    }
+
+    @BusUtils.Bus(tag = TAG_ONE_PARAM_STICKY_CROSS_PROCESS, sticky = true)
+    public void oneParamStickyCrossProcessFun(String param) {
+        System.out.println(param);
+    }
+
     @BusUtils.Bus(tag = TAG_IO, threadMode = BusUtils.ThreadMode.IO)
     public void ioFun(CountDownLatch latch) {
         System.out.println("Thread.currentThread() = " + Thread.currentThread());
@@ -88,6 +115,8 @@ public class BusUtilsTest extends BaseTest {
         BusUtils.registerBus4Test(TAG_NO_PARAM_STICKY, BusUtilsTest.class.getName(), "noParamStickyFun", "", "", true, "POSTING", 0);
         BusUtils.registerBus4Test(TAG_NO_PARAM_STICKY, BusUtilsTest.class.getName(), "foo", "", "", false, "POSTING", 0);
         BusUtils.registerBus4Test(TAG_ONE_PARAM_STICKY, BusUtilsTest.class.getName(), "oneParamStickyFun", Callback.class.getName(), "callback", true, "POSTING", 0);
+        BusUtils.registerBus4Test(TAG_NO_PARAM_STICKY_CROSS_PROCESS, BusUtilsTest.class.getName(), "noParamStickyCrossProcessFun", "", "", true, "POSTING", 0);
+        BusUtils.registerBus4Test(TAG_ONE_PARAM_STICKY_CROSS_PROCESS, BusUtilsTest.class.getName(), "oneParamStickyCrossProcessFun", String.class.getName(), "param", true, "POSTING", 0);
 
         BusUtils.registerBus4Test(TAG_IO, BusUtilsTest.class.getName(), "ioFun", CountDownLatch.class.getName(), "latch", false, "IO", 0);
         BusUtils.registerBus4Test(TAG_CPU, BusUtilsTest.class.getName(), "cpuFun", CountDownLatch.class.getName(), "latch", false, "CPU", 0);
@@ -286,7 +315,147 @@ public class BusUtilsTest extends BaseTest {
         BusUtils.unregister(test);
     }
 
+    @Test
+    public void postStickyCrossProcess() {
+        System.out.println("-----sticky bus postStickyCrossProcess will be successful.-----");
+        BusUtils.postStickyCrossProcess(TAG_ONE_PARAM_STICKY_CROSS_PROCESS, "post to one param cross process sticky fun.");
+        BusUtilsTest test = new BusUtilsTest();
+        System.out.println("\n-----register.-----");
+        BusUtils.register(test);
+
+        System.out.println("\n-----only the new bus will receive the latest sticky.-----");
+        BusUtils.postStickyCrossProcess(TAG_ONE_PARAM_STICKY_CROSS_PROCESS, "the latest cross process sticky.");
+        BusUtilsTest test1 = new BusUtilsTest();
+        BusUtils.register(test1);
+
+        BusUtils.removeStickyCrossProcess(TAG_ONE_PARAM_STICKY_CROSS_PROCESS);
+        BusUtils.unregister(test);
+        BusUtils.unregister(test1);
+    }
+
+    @Test
+    public void removeStickyCrossProcess() throws Exception {
+        // The sticky is posted by other process and not loaded by this process.
+        String tag = "TagRemoveStickyCrossProcess";
+        BusUtils.registerBus4Test(tag, BusUtilsTest.class.getName(), "oneParamStickyCrossProcessFun", String.class.getName(), "param", true, "POSTING", 0);
+
+        System.out.println("-----the removal will be saved and sent to other processes.-----");
+        BusUtils.removeStickyCrossProcess(tag);
+        for (int i = 0; i < 100 && !BusUtils.isStickyCrossProcessRemoved4Test(tag); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(BusUtils.isStickyCrossProcessRemoved4Test(tag));
+    }
+
+    @Test
+    public void receiveNoParamStickyCrossProcess() {
+        NO_PARAM_STICKY_CROSS_PROCESS_COUNT.set(0);
+        BusUtilsTest test = new BusUtilsTest();
+        BusUtils.register(test);
+
+        System.out.println("-----no param sticky from other process will be received.-----");
+        BusUtils.receiveStickyCrossProcess4Test(TAG_NO_PARAM_STICKY_CROSS_PROCESS);
+        assertEquals(1, NO_PARAM_STICKY_CROSS_PROCESS_COUNT.get());
+
+        System.out.println("\n-----the new bus will receive it too.-----");
+        BusUtilsTest test1 = new BusUtilsTest();
+        BusUtils.register(test1);
+        assertEquals(2, NO_PARAM_STICKY_CROSS_PROCESS_COUNT.get());
+
+        BusUtils.removeSticky(TAG_NO_PARAM_STICKY_CROSS_PROCESS);
+        BusUtils.unregister(test);
+        BusUtils.unregister(test1);
+    }
+
+    @Test
+    public void testEventType() {
+        // The plugin will inject the flattened table of each event type which has been scanned.
+        BusUtils.registerEventTypeBus4Test(Callback.class.getName(), EventTypeBus.class.getName(), "callbackEventFun", Callback.class.getName(), "callback", "POSTING", 0);
+        BusUtils.registerEventTypeBus4Test(StringCallback.class.getName(), EventTypeBus.class.getName(), "stringCallbackEventFun", StringCallback.class.getName(), "callback", "POSTING", 1);
+        BusUtils.registerEventTypeBus4Test(StringCallback.class.getName(), EventTypeBus.class.getName(), "callbackEventFun", Callback.class.getName(), "callback", "POSTING", 0);
+        // The super types of ListEvent are not scanned, so they are left to runtime.
+        BusUtils.registerEventTypeBus4Test(ListEvent.class.getName(), EventTypeBus.class.getName(), "listEventFun", ListEvent.class.getName(), "event", "POSTING", 1);
+        BusUtils.registerUnresolvedEventType4Test(ListEvent.class.getName(), ArrayList.class.getName());
+        BusUtils.registerEventTypeBus4Test(List.class.getName(), EventTypeBus.class.getName(), "listFun", List.class.getName(), "list", "POSTING", 0);
+        BusUtils.registerUnresolvedEventType4Test(List.class.getName(), List.class.getName());
+
+        EventTypeBus test = new EventTypeBus();
+        BusUtils.register(test);
+
+        System.out.println("-----post callback event.-----");
+        EVENT_FUNS.clear();
+        BusUtils.postEvent(new Callback() {
+            @Override
+            public String call() {
+                return "callback";
+            }
+        });
+        assertEquals(Collections.singletonList("callbackEventFun"), EVENT_FUNS);
+
+        System.out.println("\n-----post string callback event, stringCallbackEventFun comes first.-----");
+        EVENT_FUNS.clear();
+        BusUtils.postEvent(new StringCallback() {
+            @Override
+            public String call() {
+                return "string callback";
+            }
+        });
+        assertEquals(Arrays.asList("stringCallbackEventFun", "callbackEventFun"), EVENT_FUNS);
+
+        System.out.println("\n-----post list event, listFun of unscanned super type is merged.-----");
+        EVENT_FUNS.clear();
+        BusUtils.postEvent(new ListEvent());
+        assertEquals(Arrays.asList("listEventFun", "listFun"), EVENT_FUNS);
+
+        System.out.println("\n-----post array list which is not scanned at all.-----");
+        EVENT_FUNS.clear();
+        BusUtils.postEvent(new ArrayList<String>());
+        assertEquals(Collections.singletonList("listFun"), EVENT_FUNS);
+
+        System.out.println("\n-----post event without bus will be failed.-----");
+        EVENT_FUNS.clear();
+        BusUtils.postEvent("no bus");
+        assertTrue(EVENT_FUNS.isEmpty());
+        BusUtils.unregister(test);
+    }
+
     public interface Callback {
         String call();
     }
+
+    public interface StringCallback extends Callback {
+    }
+
+    public static class ListEvent extends ArrayList<String> {
+    }
+
+    /**
+     * The buses of event type, which is registered only in {@link #testEventType()}.
+     */
+    public static class EventTypeBus {
+
+        @BusUtils.Bus
+        public void callbackEventFun(Callback callback) {
+            System.out.println("callbackEvent: " + callback.call());
+            EVENT_FUNS.add("callbackEventFun");
+        }
+
+        @BusUtils.Bus(priority = 1)
+        public void stringCallbackEventFun(StringCallback callback) {
+            System.out.println("stringCallbackEvent: " + callback.call());
+            EVENT_FUNS.add("stringCallbackEventFun");
+        }
+
+        @BusUtils.Bus(priority = 1)
+        public void listEventFun(ListEvent event) {
+            System.out.println("listEvent: " + event);
+            EVENT_FUNS.add("listEventFun");
+        }
+
+        @BusUtils.Bus
+        public void listFun(List list) {
+            System.out.println("list: " + list);
+            EVENT_FUNS.add("listFun");
+        }
+    }
 }
\ No newline at end of file
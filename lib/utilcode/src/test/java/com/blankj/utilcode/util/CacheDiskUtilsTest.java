@@ -193,6 +193,27 @@ public class CacheDiskUtilsTest extends BaseTest {
         assertNull(CACHE_DISK_UTILS2.getSerializable("parcelable1", null));
     }
 
+    @Test
+    public void putObject_getObject() {
+        ConvertUtils.ObjectCodec[] codecs = {
+                ConvertUtils.BINARY_CODEC, ConvertUtils.GSON_CODEC, ConvertUtils.SERIALIZABLE_CODEC
+        };
+        for (ConvertUtils.ObjectCodec codec : codecs) {
+            CACHE_DISK_UTILS1.setObjectCodec(codec);
+            CACHE_DISK_UTILS1.putObject("object1", SERIALIZABLE_TEST);
+            assertEquals(SERIALIZABLE_TEST, CACHE_DISK_UTILS1.getObject("object1", SerializableTest.class));
+        }
+        CACHE_DISK_UTILS1.setObjectCodec(ConvertUtils.PARCELABLE_CODEC);
+        CACHE_DISK_UTILS1.putObject("object1", PARCELABLE_TEST, 60 * CacheDiskUtils.SEC);
+        assertEquals(PARCELABLE_TEST, CACHE_DISK_UTILS1.getObject("object1", ParcelableTest.class));
+        CACHE_DISK_UTILS1.setObjectCodec(ConvertUtils.BINARY_CODEC);
+
+        assertNull(CACHE_DISK_UTILS1.getObject("object2", SerializableTest.class));
+        assertEquals(SERIALIZABLE_TEST, CACHE_DISK_UTILS1.getObject("object2", SerializableTest.class, SERIALIZABLE_TEST));
+        assertTrue(CACHE_DISK_UTILS1.remove("object1"));
+        assertNull(CACHE_DISK_UTILS1.getObject("object1", ParcelableTest.class));
+    }
+
     @Test
     public void getCacheSize() {
         System.out.println(FileUtils.getLength(DISK1_FILE));
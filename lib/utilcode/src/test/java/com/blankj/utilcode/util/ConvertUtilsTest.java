@@ -4,12 +4,28 @@ package com.blankj.utilcode.util;
 import com.blankj.utilcode.constant.MemoryConstants;
 import com.blankj.utilcode.constant.TimeConstants;
 
+import android.os.Parcel;
+import android.os.Parcelable;
+
 import org.junit.Test;
 
+import java.io.Serializable;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 
 /**
@@ -46,6 +62,68 @@ public class ConvertUtilsTest extends BaseTest {
         );
     }
 
+    @Test
+    public void bytes2HexChars_hexChars2Bytes() {
+        char[] chars = new char[2 + mBytes.length * 2];
+        assertEquals(mBytes.length * 2, ConvertUtils.bytes2HexChars(mBytes, 0, mBytes.length, chars, 2, false));
+        assertEquals(hexString.toLowerCase(), new String(chars, 2, mBytes.length * 2));
+
+        byte[] bytes = new byte[1 + mBytes.length];
+        assertEquals(mBytes.length, ConvertUtils.hexChars2Bytes("xx" + hexString.toLowerCase(), 2, hexString.length(), bytes, 1));
+        assertArrayEquals(mBytes, Arrays.copyOfRange(bytes, 1, bytes.length));
+        assertArrayEquals(new byte[]{0x0A, (byte) 0x8C}, ConvertUtils.hexString2Bytes("a8C"));
+
+        try {
+            ConvertUtils.hexString2Bytes("00G8");
+            fail();
+        } catch (IllegalArgumentException ignore) {
+        }
+        try {
+            ConvertUtils.hexChars2Bytes("008", 0, 3, bytes, 0);
+            fail();
+        } catch (IllegalArgumentException ignore) {
+        }
+    }
+
+    @Test
+    public void hexThroughput() {
+        byte[] bytes = new byte[1024 * 1024];
+        new Random(45).nextBytes(bytes);
+        String hex = ConvertUtils.bytes2HexString(bytes);
+        char[] chars = new char[bytes.length * 2];
+        byte[] out = new byte[bytes.length];
+        for (int i = 0; i < 5; i++) {
+            hexString2BytesLegacy(hex);
+            ConvertUtils.hexString2Bytes(hex);
+            ConvertUtils.hexChars2Bytes(hex, 0, hex.length(), out, 0);
+            ConvertUtils.bytes2HexChars(bytes, 0, bytes.length, chars, 0, true);
+        }
+        int times = 20;
+        long st = System.nanoTime();
+        for (int i = 0; i < times; i++) {
+            hexString2BytesLegacy(hex);
+        }
+        long legacy = System.nanoTime() - st;
+        st = System.nanoTime();
+        for (int i = 0; i < times; i++) {
+            ConvertUtils.hexChars2Bytes(hex, 0, hex.length(), out, 0);
+        }
+        long table = System.nanoTime() - st;
+        System.out.println(String.format("hex decode 1MB: legacy %.1fms, table %.1fms",
+                legacy / 1e6 / times, table / 1e6 / times));
+        assertArrayEquals(bytes, out);
+    }
+
+    private static byte[] hexString2BytesLegacy(String hexString) {
+        int len = hexString.length();
+        char[] hexBytes = hexString.toUpperCase().toCharArray();
+        byte[] ret = new byte[len >> 1];
+        for (int i = 0; i < len; i += 2) {
+            ret[i >> 1] = (byte) (Character.digit(hexBytes[i], 16) << 4 | Character.digit(hexBytes[i + 1], 16));
+        }
+        return ret;
+    }
+
     @Test
     public void chars2Bytes() {
         assertTrue(
@@ -139,4 +217,216 @@ public class ConvertUtilsTest extends BaseTest {
                 ConvertUtils.inputStream2String(ConvertUtils.string2InputStream(string, "UTF-8"), "UTF-8")
         );
     }
+
+    @Test
+    public void object2Bytes_bytes2Object() {
+        Model model = Model.create(3);
+        String json = GsonUtils.toJson(model);
+        for (ConvertUtils.ObjectCodec codec : CODECS) {
+            byte[] bytes = ConvertUtils.object2Bytes(model, codec);
+            Model result = ConvertUtils.bytes2Object(bytes, Model.class, codec);
+            assertEquals(json, GsonUtils.toJson(result));
+        }
+
+        // the generic type
+        Type listType = GsonUtils.getListType(Item.class);
+        byte[] bytes = ConvertUtils.object2Bytes(model.items, listType, ConvertUtils.BINARY_CODEC);
+        List<Item> items = ConvertUtils.bytes2Object(bytes, listType, ConvertUtils.BINARY_CODEC);
+        assertEquals(GsonUtils.toJson(model.items), GsonUtils.toJson(items));
+        // the declared type is abstract, the class in bytes should be registered
+        byte[] modelBytes = ConvertUtils.object2Bytes(model, ConvertUtils.BINARY_CODEC);
+        assertNull(ConvertUtils.bytes2Object(modelBytes, Object.class, ConvertUtils.BINARY_CODEC));
+        ConvertUtils.registerBinaryTypes(Model.class);
+        Object object = ConvertUtils.bytes2Object(modelBytes, Object.class, ConvertUtils.BINARY_CODEC);
+        assertEquals(json, GsonUtils.toJson(object));
+        // the model evolves
+        ItemV2 item = ConvertUtils.bytes2Object(ConvertUtils.object2Bytes(model.items.get(1), ConvertUtils.BINARY_CODEC),
+                ItemV2.class, ConvertUtils.BINARY_CODEC);
+        assertEquals(model.items.get(1).title, item.title);
+        assertEquals(-1, item.stock);
+        // the malformed bytes
+        assertNull(ConvertUtils.bytes2Object(Arrays.copyOf(bytes, bytes.length - 1), listType, ConvertUtils.BINARY_CODEC));
+        assertNull(ConvertUtils.bytes2Object(Arrays.copyOf(bytes, bytes.length + 1), listType, ConvertUtils.BINARY_CODEC));
+    }
+
+    @Test
+    public void object2Bytes_cycle() {
+        List<Object> list = new ArrayList<>();
+        list.add(list);
+        assertNull(ConvertUtils.object2Bytes(list, ConvertUtils.BINARY_CODEC));
+
+        Map<String, Object> map = new HashMap<>();
+        map.put("self", Collections.singletonList(map));
+        assertNull(ConvertUtils.object2Bytes(map, ConvertUtils.BINARY_CODEC));
+
+        // the shared one isn't cycle
+        List<Integer> shared = Arrays.asList(1, 2);
+        List<List<Integer>> lists = Arrays.asList(shared, shared);
+        Type type = GsonUtils.getListType(GsonUtils.getListType(Integer.class));
+        byte[] bytes = ConvertUtils.object2Bytes(lists, type, ConvertUtils.BINARY_CODEC);
+        assertEquals(lists, ConvertUtils.bytes2Object(bytes, type, ConvertUtils.BINARY_CODEC));
+    }
+
+    @Test
+    public void objectCodecBenchmark() {
+        Model model = Model.create(200);
+        String[] names = {"serializable", "parcelable", "gson", "binary"};
+        int[] sizes = new int[CODECS.length];
+        int times = 1000;
+        for (int i = 0; i < CODECS.length; i++) {
+            ConvertUtils.ObjectCodec codec = CODECS[i];
+            byte[] bytes = null;
+            for (int j = 0; j < times; j++) {
+                bytes = ConvertUtils.object2Bytes(model, codec);
+                ConvertUtils.bytes2Object(bytes, Model.class, codec);
+            }
+            long st = System.nanoTime();
+            for (int j = 0; j < times; j++) {
+                bytes = ConvertUtils.object2Bytes(model, codec);
+            }
+            long encode = System.nanoTime() - st;
+            st = System.nanoTime();
+            for (int j = 0; j < times; j++) {
+                ConvertUtils.bytes2Object(bytes, Model.class, codec);
+            }
+            long decode = System.nanoTime() - st;
+            sizes[i] = bytes.length;
+            System.out.println(String.format("%12s: %6dB, encode %.3fms, decode %.3fms",
+                    names[i], bytes.length, encode / 1e6 / times, decode / 1e6 / times));
+        }
+        assertTrue(sizes[3] < sizes[0]);
+        assertTrue(sizes[3] < sizes[2]);
+    }
+
+    private static final ConvertUtils.ObjectCodec[] CODECS = {
+            ConvertUtils.SERIALIZABLE_CODEC,
+            ConvertUtils.PARCELABLE_CODEC,
+            ConvertUtils.GSON_CODEC,
+            ConvertUtils.BINARY_CODEC
+    };
+
+    enum Level {
+        NORMAL, VIP
+    }
+
+    static class Model implements Serializable, Parcelable {
+        int                  id;
+        long                 time;
+        double               score;
+        boolean              enabled;
+        String               name;
+        Level                level;
+        Date                 date;
+        int[]                tags;
+        List<Item>           items;
+        Map<String, Integer> counts;
+
+        Model() {
+        }
+
+        static Model create(int count) {
+            Random random = new Random(47);
+            Model model = new Model();
+            model.id = 47;
+            model.time = 1577836800000L;
+            model.score = 4.5;
+            model.enabled = true;
+            model.name = "blankj";
+            model.level = Level.VIP;
+            model.date = new Date(model.time);
+            model.tags = new int[]{1, -2, 300000};
+            model.items = new ArrayList<>();
+            model.counts = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                Item item = new Item();
+                item.id = random.nextInt();
+                item.title = "item 商品 " + i;
+                item.price = random.nextInt(10000) / 100f;
+                model.items.add(item);
+                model.counts.put("key" + i, i);
+            }
+            return model;
+        }
+
+        Model(Parcel in) {
+            id = in.readInt();
+            time = in.readLong();
+            score = in.readDouble();
+            enabled = in.readInt() != 0;
+            name = in.readString();
+            level = Level.valueOf(in.readString());
+            date = new Date(in.readLong());
+            tags = new int[in.readInt()];
+            for (int i = 0; i < tags.length; i++) {
+                tags[i] = in.readInt();
+            }
+            items = new ArrayList<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                Item item = new Item();
+                item.id = in.readInt();
+                item.title = in.readString();
+                item.price = in.readFloat();
+                items.add(item);
+            }
+            counts = new LinkedHashMap<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                counts.put(in.readString(), in.readInt());
+            }
+        }
+
+        @Override
+        public void writeToParcel(Parcel dest, int flags) {
+            dest.writeInt(id);
+            dest.writeLong(time);
+            dest.writeDouble(score);
+            dest.writeInt(enabled ? 1 : 0);
+            dest.writeString(name);
+            dest.writeString(level.name());
+            dest.writeLong(date.getTime());
+            dest.writeInt(tags.length);
+            for (int tag : tags) {
+                dest.writeInt(tag);
+            }
+            dest.writeInt(items.size());
+            for (Item item : items) {
+                dest.writeInt(item.id);
+                dest.writeString(item.title);
+                dest.writeFloat(item.price);
+            }
+            dest.writeInt(counts.size());
+            for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+                dest.writeString(entry.getKey());
+                dest.writeInt(entry.getValue());
+            }
+        }
+
+        @Override
+        public int describeContents() {
+            return 0;
+        }
+
+        public static final Creator<Model> CREATOR = new Creator<Model>() {
+            @Override
+            public Model createFromParcel(Parcel in) {
+                return new Model(in);
+            }
+
+            @Override
+            public Model[] newArray(int size) {
+                return new Model[size];
+            }
+        };
+    }
+
+    static class Item implements Serializable {
+        int    id;
+        String title;
+        float  price;
+    }
+
+    static class ItemV2 {
+        int    id;
+        String title;
+        int    stock = -1;
+    }
 }
\ No newline at end of file
@@ -2,8 +2,23 @@ package com.blankj.utilcode.util;
 
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static com.blankj.utilcode.util.TestConfig.PATH_TEMP;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * <pre>
@@ -36,6 +51,169 @@ public class EncodeUtilsTest extends BaseTest {
         assertArrayEquals("Ymxhbmtq".getBytes(), EncodeUtils.base64Encode("blankj".getBytes()));
     }
 
+    @Test
+    public void base64Encode_base64Decode_buffer() {
+        Random random = new Random(45);
+        for (int len = 0; len < 64; len++) {
+            byte[] data = new byte[len];
+            random.nextBytes(data);
+            byte[] expected = EncodeUtils.base64Encode(data);
+
+            byte[] encoded = new byte[1 + EncodeUtils.getBase64EncodeLength(len)];
+            assertEquals(expected.length, EncodeUtils.base64Encode(data, 0, len, encoded, 1));
+            assertArrayEquals(expected, Arrays.copyOfRange(encoded, 1, encoded.length));
+            byte[] decoded = new byte[EncodeUtils.getBase64DecodeMaxLength(expected.length)];
+            assertEquals(len, EncodeUtils.base64Decode(expected, 0, expected.length, decoded, 0));
+            assertArrayEquals(data, Arrays.copyOf(decoded, len));
+
+            ByteBuffer dest = ByteBuffer.allocateDirect(expected.length);
+            EncodeUtils.base64Encode(ByteBuffer.wrap(data), dest);
+            dest.flip();
+            ByteBuffer result = ByteBuffer.allocateDirect(len);
+            assertEquals(len, EncodeUtils.base64Decode(dest, result));
+            assertEquals(ByteBuffer.wrap(data), (ByteBuffer) result.flip());
+        }
+
+        // the whitespace is skipped and the padding is optional
+        byte[] blankj = "Ym xh\r\nbm\ttq".getBytes();
+        byte[] out = new byte[6];
+        assertEquals(6, EncodeUtils.base64Decode(blankj, 0, blankj.length, out, 0));
+        assertArrayEquals("blankj".getBytes(), out);
+        byte[] unpadded = "YmxhbmtqYg".getBytes();
+        out = new byte[7];
+        assertEquals(7, EncodeUtils.base64Decode(unpadded, 0, unpadded.length, out, 0));
+        assertArrayEquals("blankjb".getBytes(), out);
+        try {
+            byte[] invalid = "Ymxh*mtq".getBytes();
+            EncodeUtils.base64Decode(invalid, 0, invalid.length, out, 0);
+            fail();
+        } catch (IllegalArgumentException ignore) {
+        }
+
+        // the direct buffer is decoded in chunks which may cut the quantum
+        byte[] large = new byte[10000];
+        random.nextBytes(large);
+        String wrapped = EncodeUtils.base64Encode2String(large).replaceAll("(.{76})", "$1\r\n");
+        ByteBuffer src = ByteBuffer.allocateDirect(wrapped.length());
+        src.put(wrapped.getBytes()).flip();
+        ByteBuffer dest = ByteBuffer.allocate(large.length);
+        assertEquals(large.length, EncodeUtils.base64Decode(src, dest));
+        assertArrayEquals(large, dest.array());
+    }
+
+    @Test
+    public void base64Throughput() {
+        for (int size : new int[]{1024, 1024 * 1024}) {
+            byte[] data = new byte[size];
+            new Random(45).nextBytes(data);
+            byte[] encoded = new byte[EncodeUtils.getBase64EncodeLength(size)];
+            byte[] decoded = new byte[size];
+            int times = Math.max(20, 32 * 1024 * 1024 / size);
+            for (int i = 0; i < times; i++) {
+                EncodeUtils.base64Decode(EncodeUtils.base64Encode(data));
+                EncodeUtils.base64Encode(data, 0, size, encoded, 0);
+                EncodeUtils.base64Decode(encoded, 0, encoded.length, decoded, 0);
+            }
+            long st = System.nanoTime();
+            for (int i = 0; i < times; i++) {
+                EncodeUtils.base64Decode(EncodeUtils.base64Encode(data));
+            }
+            long current = System.nanoTime() - st;
+            st = System.nanoTime();
+            for (int i = 0; i < times; i++) {
+                EncodeUtils.base64Encode(data, 0, size, encoded, 0);
+                EncodeUtils.base64Decode(encoded, 0, encoded.length, decoded, 0);
+            }
+            long table = System.nanoTime() - st;
+            System.out.println(String.format("%7dB Base64 encode + decode: current %.0fMB/s, buffer %.0fMB/s",
+                    size, times * (size / 1e6) / (current / 1e9), times * (size / 1e6) / (table / 1e9)));
+            assertArrayEquals(data, decoded);
+        }
+    }
+
+    @Test
+    public void base64Stream_hexStream() throws Exception {
+        byte[] data = new byte[100000];
+        new Random(46).nextBytes(data);
+        String base64 = EncodeUtils.base64Encode2String(data);
+        String urlSafe = base64.replace('+', '-').replace('/', '_').replace("=", "");
+        String hex = ConvertUtils.bytes2HexString(data);
+
+        // write in odd slices, so the quantum is cut between chunks
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        OutputStream os = new EncodeUtils.Base64OutputStream(baos);
+        for (int i = 0; i < data.length; i += 1001) {
+            os.write(data, i, Math.min(1001, data.length - i));
+        }
+        os.write(new byte[0]);
+        os.close();
+        assertEquals(base64, baos.toString());
+
+        StringWriter writer = new StringWriter();
+        os = new EncodeUtils.Base64OutputStream(writer, true);
+        os.write(data);
+        os.close();
+        assertEquals(urlSafe, writer.toString());
+
+        baos.reset();
+        os = new EncodeUtils.Base64OutputStream(baos, false, false);
+        byte[] wrapped = base64.replaceAll("(.{76})", "$1\r\n").getBytes();
+        for (byte b : wrapped) {
+            os.write(b);
+        }
+        os.close();
+        assertArrayEquals(data, baos.toByteArray());
+
+        assertArrayEquals(base64.getBytes(),
+                readFully(new EncodeUtils.Base64InputStream(new ByteArrayInputStream(data), true, false)));
+        assertArrayEquals(data, readFully(new EncodeUtils.Base64InputStream(new ByteArrayInputStream(wrapped))));
+        assertArrayEquals(data, readFully(new EncodeUtils.Base64InputStream(new StringReader(urlSafe))));
+
+        baos.reset();
+        os = new EncodeUtils.HexOutputStream(baos);
+        os.write(data);
+        os.close();
+        assertEquals(hex, baos.toString());
+        writer = new StringWriter();
+        os = new EncodeUtils.HexOutputStream(writer, false);
+        os.write(data);
+        os.close();
+        assertEquals(hex.toLowerCase(), writer.toString());
+        assertArrayEquals(data, readFully(new EncodeUtils.HexInputStream(new StringReader(hex.toLowerCase()))));
+        assertArrayEquals(hex.getBytes(),
+                readFully(new EncodeUtils.HexInputStream(new ByteArrayInputStream(data), true, true)));
+
+        // decode into file chunk by chunk
+        File file = new File(PATH_TEMP + "base64.bin");
+        assertTrue(FileIOUtils.writeFileFromIS(file,
+                new EncodeUtils.Base64InputStream(new ByteArrayInputStream(wrapped))));
+        assertArrayEquals(data, FileIOUtils.readFile2BytesByStream(file));
+        assertTrue(FileUtils.delete(PATH_TEMP));
+
+        for (String invalid : new String[]{"Ymxh*mtq", "Ym=xh", "Y", "ABCDE"}) {
+            try {
+                readFully(new EncodeUtils.Base64InputStream(new StringReader(invalid)));
+                fail(invalid);
+            } catch (IOException ignore) {
+            }
+            try {
+                readFully(new EncodeUtils.HexInputStream(new StringReader(invalid)));
+                fail(invalid);
+            } catch (IOException ignore) {
+            }
+        }
+    }
+
+    private static byte[] readFully(final InputStream is) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        byte[] buffer = new byte[777];
+        for (int len; (len = is.read(buffer)) != -1; ) {
+            baos.write(buffer, 0, len);
+        }
+        is.close();
+        return baos.toByteArray();
+    }
+
     @Test
     public void htmlEncode_htmlDecode() {
         String html = "<html>" +
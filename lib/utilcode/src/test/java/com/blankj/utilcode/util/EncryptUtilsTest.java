@@ -5,16 +5,30 @@ import android.util.Pair;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.security.Key;
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Random;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
 
 import static com.blankj.utilcode.util.TestConfig.PATH_ENCRYPT;
+import static com.blankj.utilcode.util.TestConfig.PATH_TEMP;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 
 /**
@@ -69,6 +83,116 @@ public class EncryptUtilsTest extends BaseTest {
         );
     }
 
+    @Test
+    public void encryptFile() {
+        byte[] bytes = new byte[3 * 1024 * 1024 + 7];
+        new Random(40).nextBytes(bytes);
+        File file = new File(PATH_TEMP + "encryptFile.bin");
+        FileIOUtils.writeFileFromBytesByChannel(file, bytes, true);
+
+        byte[][] result = EncryptUtils.encryptFile(file, "MD5", "SHA-256");
+        assertNotNull(result);
+        assertArrayEquals(EncryptUtils.encryptMD5(bytes), result[0]);
+        assertArrayEquals(EncryptUtils.encryptSHA256(bytes), result[1]);
+        assertArrayEquals(
+                UtilsBridge.hexString2Bytes("7f138a09169b250e9dcb378140907378"),
+                EncryptUtils.encryptFile(new File(PATH_ENCRYPT + "MD5.txt"), "MD5")[0]
+        );
+        assertNull(EncryptUtils.encryptFile(file, "NotExists"));
+        assertTrue(FileUtils.delete(PATH_TEMP));
+    }
+
+    @Test
+    public void encryptFileThroughput() {
+        byte[] bytes = new byte[64 * 1024 * 1024];
+        new Random(40).nextBytes(bytes);
+        File file = new File(PATH_TEMP + "encryptFileThroughput.bin");
+        FileIOUtils.writeFileFromBytesByChannel(file, bytes, true);
+
+        long st = System.nanoTime();
+        EncryptUtils.encryptMD5File(file);
+        EncryptUtils.encryptFile(file, "SHA-256");
+        long twoPasses = System.nanoTime() - st;
+        st = System.nanoTime();
+        EncryptUtils.encryptFile(file, "MD5", "SHA-256");
+        long onePass = System.nanoTime() - st;
+        System.out.println(String.format("MD5 + SHA-256 of 64MB: two passes %dms, one pass %dms (%.1fMB/s)",
+                twoPasses / 1000000, onePass / 1000000, 64 * 1e9 / onePass));
+        assertTrue(FileUtils.delete(PATH_TEMP));
+    }
+
+    @Test
+    public void encryptFileTree() {
+        int chunkSize = 1024 * 1024;
+        byte[] bytes = new byte[3 * chunkSize + 5];
+        new Random(44).nextBytes(bytes);
+        File file = new File(PATH_TEMP + "encryptFileTree.bin");
+        FileIOUtils.writeFileFromBytesByChannel(file, bytes, true);
+
+        byte[][] chunks = EncryptUtils.encryptFileChunks(file, "SHA-256", chunkSize);
+        assertNotNull(chunks);
+        assertEquals(4, chunks.length);
+        for (int i = 0; i < chunks.length; i++) {
+            byte[] chunk = Arrays.copyOfRange(bytes, i * chunkSize, Math.min(bytes.length, (i + 1) * chunkSize));
+            assertArrayEquals(EncryptUtils.encryptSHA256(chunk), chunks[i]);
+        }
+        byte[] root = EncryptUtils.encryptSHA256(joins(
+                EncryptUtils.encryptSHA256(joins(chunks[0], chunks[1])),
+                EncryptUtils.encryptSHA256(joins(chunks[2], chunks[3]))
+        ));
+        assertArrayEquals(root, EncryptUtils.encryptFileTree(file, "SHA-256", chunkSize));
+        assertArrayEquals(chunks[0], EncryptUtils.encryptTreeRoot(new byte[][]{chunks[0]}, "SHA-256"));
+
+        // verify the file being downloaded and resume it
+        File partial = new File(PATH_TEMP + "partial.bin");
+        FileIOUtils.writeFileFromBytesByChannel(partial, Arrays.copyOf(bytes, 2 * chunkSize + 100), true);
+        long length = bytes.length;
+        assertEquals(2, EncryptUtils.verifyFileChunks(partial, length, "SHA-256", chunkSize, chunks, 0));
+        FileIOUtils.writeFileFromBytesByChannel(partial, Arrays.copyOfRange(bytes, 2 * chunkSize + 100, bytes.length - 1), true, true);
+        // the last chunk isn't downloaded completely, so it's not verified
+        assertEquals(3, EncryptUtils.verifyFileChunks(partial, length, "SHA-256", chunkSize, chunks, 2));
+        FileIOUtils.writeFileFromBytesByChannel(partial, Arrays.copyOfRange(bytes, bytes.length - 1, bytes.length), true, true);
+        assertEquals(4, EncryptUtils.verifyFileChunks(partial, length, "SHA-256", chunkSize, chunks, 3));
+        assertEquals(-1, EncryptUtils.verifyFileChunks(partial, length + chunkSize, "SHA-256", chunkSize, chunks, 0));
+
+        // the corrupt chunks are distinct from the incomplete ones
+        FileIOUtils.writeFileFromBytesByChannel(partial, new byte[]{0}, true, true);
+        assertEquals(-5, EncryptUtils.verifyFileChunks(partial, length, "SHA-256", chunkSize, chunks, 0));
+        bytes[chunkSize + 1] ^= 1;
+        FileIOUtils.writeFileFromBytesByChannel(partial, bytes, true);
+        assertEquals(-3, EncryptUtils.verifyFileChunks(partial, length, "SHA-256", chunkSize, chunks, 0));
+        assertEquals(4, EncryptUtils.verifyFileChunks(partial, length, "SHA-256", chunkSize, chunks, 2));
+        // the incomplete last chunk isn't verified even if it's corrupt
+        bytes[3 * chunkSize + 1] ^= 1;
+        FileIOUtils.writeFileFromBytesByChannel(partial, Arrays.copyOf(bytes, 3 * chunkSize + 2), true);
+        assertEquals(3, EncryptUtils.verifyFileChunks(partial, length, "SHA-256", chunkSize, chunks, 3));
+        assertTrue(FileUtils.delete(PATH_TEMP));
+    }
+
+    @Test
+    public void encryptFileTreeThroughput() {
+        byte[] bytes = new byte[64 * 1024 * 1024];
+        new Random(44).nextBytes(bytes);
+        File file = new File(PATH_TEMP + "encryptFileTreeThroughput.bin");
+        FileIOUtils.writeFileFromBytesByChannel(file, bytes, true);
+
+        long st = System.nanoTime();
+        EncryptUtils.encryptFile(file, "SHA-256");
+        long serial = System.nanoTime() - st;
+        st = System.nanoTime();
+        EncryptUtils.encryptFileTree(file, "SHA-256", 1024 * 1024);
+        long tree = System.nanoTime() - st;
+        System.out.println(String.format("SHA-256 of 64MB: serial %dms, tree %dms on %d cpus",
+                serial / 1000000, tree / 1000000, Runtime.getRuntime().availableProcessors()));
+        assertTrue(FileUtils.delete(PATH_TEMP));
+    }
+
+    private static byte[] joins(final byte[] prefix, final byte[] suffix) {
+        byte[] ret = Arrays.copyOf(prefix, prefix.length + suffix.length);
+        System.arraycopy(suffix, 0, ret, prefix.length, suffix.length);
+        return ret;
+    }
+
     @Test
     public void encryptSHA1() {
         String blankjSHA1 = "C606ACCB1FEB669E19D080ADDDDBB8E6CDA5F43C";
@@ -376,6 +500,139 @@ public class EncryptUtilsTest extends BaseTest {
         );
     }
 
+    @Test
+    public void cachedEngines() throws Exception {
+        byte[] key0 = UtilsBridge.hexString2Bytes("000102030405060708090A0B0C0D0E0F");
+        byte[] key1 = UtilsBridge.hexString2Bytes("0F0E0D0C0B0A09080706050403020100");
+        byte[] iv0 = new byte[16];
+        byte[] iv1 = UtilsBridge.hexString2Bytes("0102030405060708090A0B0C0D0E0F10");
+        byte[] data = "BlankjBlankjBlankjBlankjBlankjBlankj".getBytes();
+        for (int i = 0; i < 3; i++) {
+            byte[] key = i % 2 == 0 ? key0 : key1;
+            byte[] iv = i % 2 == 0 ? iv0 : iv1;
+            Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
+            cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "AES"), new IvParameterSpec(iv));
+            byte[] expected = cipher.doFinal(data);
+            byte[] encrypted = EncryptUtils.encryptAES(data, key, "AES/CBC/PKCS5Padding", iv);
+            assertArrayEquals(expected, encrypted);
+            assertArrayEquals(data, EncryptUtils.decryptAES(encrypted, key, "AES/CBC/PKCS5Padding", iv));
+
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            assertArrayEquals(mac.doFinal(data), EncryptUtils.encryptHmacSHA256(data, key));
+        }
+        // the cipher of wrong key fails, and the next one should not be affected
+        byte[] encrypted = EncryptUtils.encryptAES(data, key0, "AES/CBC/PKCS5Padding", iv0);
+        byte[] decrypted = EncryptUtils.decryptAES(encrypted, key1, "AES/CBC/PKCS5Padding", iv0);
+        assertTrue(decrypted == null || !Arrays.equals(data, decrypted));
+        assertArrayEquals(data, EncryptUtils.decryptAES(encrypted, key0, "AES/CBC/PKCS5Padding", iv0));
+
+        for (int i = 0; i < 2; i++) {
+            assertArrayEquals(bytesResDES, EncryptUtils.encryptDES(bytesDataDES, bytesKeyDES, "DES/ECB/NoPadding", null));
+            assertArrayEquals(bytesDataDES, EncryptUtils.decryptDES(bytesResDES, bytesKeyDES, "DES/ECB/NoPadding", null));
+        }
+    }
+
+    @Test
+    public void cachedEnginesThroughput() {
+        byte[] key = UtilsBridge.hexString2Bytes(keyAES);
+        for (int size : new int[]{64, 1024, 64 * 1024, 1024 * 1024}) {
+            byte[] data = new byte[size];
+            new Random(41).nextBytes(data);
+            int times = Math.max(16, 4 * 1024 * 1024 / size);
+            for (int i = 0; i < times; i++) {
+                EncryptUtils.encryptAES(data, key, "AES/ECB/PKCS5Padding", null);
+                EncryptUtils.encryptHmacSHA256(data, key);
+            }
+            long st = System.nanoTime();
+            for (int i = 0; i < times; i++) {
+                EncryptUtils.encryptAES(data, key, "AES/ECB/PKCS5Padding", null);
+            }
+            long aes = System.nanoTime() - st;
+            st = System.nanoTime();
+            for (int i = 0; i < times; i++) {
+                EncryptUtils.encryptHmacSHA256(data, key);
+            }
+            long hmac = System.nanoTime() - st;
+            System.out.println(String.format("%7dB: AES %.0f ops/s, HmacSHA256 %.0f ops/s",
+                    size, times * 1e9 / aes, times * 1e9 / hmac));
+        }
+    }
+
+    @Test
+    public void encryptDecryptStream() {
+        byte[] data = new byte[1024 * 1024 + 3];
+        new Random(42).nextBytes(data);
+        byte[] iv = new byte[16];
+        ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+        assertTrue(EncryptUtils.encryptAES(new ByteArrayInputStream(data), encrypted, bytesKeyAES, "AES/CBC/PKCS5Padding", iv));
+        assertArrayEquals(EncryptUtils.encryptAES(data, bytesKeyAES, "AES/CBC/PKCS5Padding", iv), encrypted.toByteArray());
+        ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+        assertTrue(EncryptUtils.decryptAES(new ByteArrayInputStream(encrypted.toByteArray()), decrypted, bytesKeyAES, "AES/CBC/PKCS5Padding", iv));
+        assertArrayEquals(data, decrypted.toByteArray());
+
+        File src = new File(PATH_TEMP + "src.bin");
+        File encryptedFile = new File(PATH_TEMP + "encrypted.bin");
+        File decryptedFile = new File(PATH_TEMP + "decrypted.bin");
+        FileIOUtils.writeFileFromBytesByChannel(src, data, true);
+        assertTrue(EncryptUtils.encryptDES(src, encryptedFile, bytesKeyDES, "DES/CBC/PKCS5Padding", new byte[8]));
+        assertTrue(EncryptUtils.decryptDES(encryptedFile, decryptedFile, bytesKeyDES, "DES/CBC/PKCS5Padding", new byte[8]));
+        assertArrayEquals(data, FileIOUtils.readFile2BytesByChannel(decryptedFile));
+        assertTrue(EncryptUtils.encrypt3DES(src, encryptedFile, bytesKeyDES3, "DESede/ECB/PKCS5Padding", null));
+        assertTrue(EncryptUtils.decrypt3DES(encryptedFile, decryptedFile, bytesKeyDES3, "DESede/ECB/PKCS5Padding", null));
+        assertArrayEquals(data, FileIOUtils.readFile2BytesByChannel(decryptedFile));
+        assertTrue(EncryptUtils.encryptAES(src, encryptedFile, bytesKeyAES, "AES/CBC/PKCS5Padding", iv));
+        assertArrayEquals(encrypted.toByteArray(), FileIOUtils.readFile2BytesByChannel(encryptedFile));
+        assertFalse(EncryptUtils.decryptAES(src, decryptedFile, bytesKeyAES, "AES/CBC/PKCS5Padding", iv));
+        assertFalse(decryptedFile.exists());
+        assertTrue(FileUtils.delete(PATH_TEMP));
+    }
+
+    @Test
+    public void encryptDecryptAESGCM() {
+        byte[] aad = "blankj".getBytes();
+        for (int size : new int[]{0, 1, 64 * 1024, 200 * 1024 + 5}) {
+            byte[] data = new byte[size];
+            new Random(size).nextBytes(data);
+            ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+            assertTrue(EncryptUtils.encryptAESGCM(new ByteArrayInputStream(data), encrypted, bytesKeyAES, aad));
+            byte[] sealed = encrypted.toByteArray();
+            ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+            assertTrue(EncryptUtils.decryptAESGCM(new ByteArrayInputStream(sealed), decrypted, bytesKeyAES, aad));
+            assertArrayEquals(data, decrypted.toByteArray());
+
+            assertFalse(EncryptUtils.decryptAESGCM(new ByteArrayInputStream(sealed), new ByteArrayOutputStream(), bytesKeyAES, null));
+            byte[] tampered = sealed.clone();
+            tampered[tampered.length - 1] ^= 1;
+            assertFalse(EncryptUtils.decryptAESGCM(new ByteArrayInputStream(tampered), new ByteArrayOutputStream(), bytesKeyAES, aad));
+            // the key of stream is derived from the salt in header
+            byte[] saltTampered = sealed.clone();
+            saltTampered[5] ^= 1;
+            assertFalse(EncryptUtils.decryptAESGCM(new ByteArrayInputStream(saltTampered), new ByteArrayOutputStream(), bytesKeyAES, aad));
+            ByteArrayOutputStream encryptedAgain = new ByteArrayOutputStream();
+            assertTrue(EncryptUtils.encryptAESGCM(new ByteArrayInputStream(data), encryptedAgain, bytesKeyAES, aad));
+            assertFalse(Arrays.equals(sealed, encryptedAgain.toByteArray()));
+            if (size > 64 * 1024) {
+                // drop the last chunk
+                byte[] truncated = Arrays.copyOf(sealed, 37 + 64 * 1024 + 16);
+                assertFalse(EncryptUtils.decryptAESGCM(new ByteArrayInputStream(truncated), new ByteArrayOutputStream(), bytesKeyAES, aad));
+            }
+        }
+
+        byte[] data = new byte[300 * 1024];
+        new Random(42).nextBytes(data);
+        File src = new File(PATH_TEMP + "src.bin");
+        File encryptedFile = new File(PATH_TEMP + "encrypted.bin");
+        File decryptedFile = new File(PATH_TEMP + "decrypted.bin");
+        FileIOUtils.writeFileFromBytesByChannel(src, data, true);
+        assertTrue(EncryptUtils.encryptAESGCM(src, encryptedFile, bytesKeyAES, null));
+        assertTrue(EncryptUtils.decryptAESGCM(encryptedFile, decryptedFile, bytesKeyAES, null));
+        assertArrayEquals(data, FileIOUtils.readFile2BytesByChannel(decryptedFile));
+        assertFalse(EncryptUtils.decryptAESGCM(encryptedFile, decryptedFile, bytesKeyDES3, null));
+        assertFalse(decryptedFile.exists());
+        assertTrue(FileUtils.delete(PATH_TEMP));
+    }
+
     @Test
     public void encryptDecryptRSA() throws Exception {
         int keySize = 1024;
@@ -407,6 +664,30 @@ public class EncryptUtilsTest extends BaseTest {
         ), dataRSA.getBytes());
     }
 
+    @Test
+    public void encryptDecryptRSALarge() throws Exception {
+        int keySize = 1024;
+        Pair<String, String> publicPrivateKey = genKeyPair(keySize);
+        byte[] publicKey = UtilsBridge.base64Decode(publicPrivateKey.first.getBytes());
+        byte[] privateKey = UtilsBridge.base64Decode(publicPrivateKey.second.getBytes());
+        byte[] data = new byte[10 * 1024 + 7];
+        new Random(43).nextBytes(data);
+        String[] transformations = {"RSA/ECB/PKCS1Padding", "RSA/ECB/OAEPWithSHA-256AndMGF1Padding"};
+        int[] maxLens = {128 - 11, 128 - 2 * 32 - 2};
+        for (int i = 0; i < transformations.length; i++) {
+            byte[] encrypted = EncryptUtils.encryptRSA(data, publicKey, keySize, transformations[i]);
+            assertNotNull(encrypted);
+            assertEquals((data.length + maxLens[i] - 1) / maxLens[i] * 128, encrypted.length);
+            long st = System.nanoTime();
+            assertArrayEquals(data, EncryptUtils.decryptRSA(encrypted, privateKey, keySize, transformations[i]));
+            System.out.println(String.format("%s decrypt %dB: %dms",
+                    transformations[i], data.length, (System.nanoTime() - st) / 1000000));
+        }
+        byte[] encrypted = EncryptUtils.encryptRSA(data, publicKey, keySize, transformations[0]);
+        encrypted[encrypted.length / 2] ^= 1;
+        assertNull(EncryptUtils.decryptRSA(encrypted, privateKey, keySize, transformations[0]));
+    }
+
     private String dataRc4 = "111111111111111111111";
     private String keyRc4  = "111111111111";
 
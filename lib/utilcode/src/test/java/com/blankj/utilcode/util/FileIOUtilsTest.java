@@ -3,10 +3,22 @@ package com.blankj.utilcode.util;
 import org.junit.After;
 import org.junit.Test;
 
+import java.io.File;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
 
 import static com.blankj.utilcode.util.TestConfig.PATH_TEMP;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 /**
  * <pre>
@@ -84,6 +96,128 @@ public class FileIOUtilsTest extends BaseTest {
         });
     }
 
+    @Test
+    public void readFile2ListByLineIndex() throws Exception {
+        String[] seps = {"\n", "\r\n", "\r", "\n\n"};
+        StringBuilder sb = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            String sep = seps[i % seps.length];
+            sb.append("行").append(i).append(sep);
+            expected.add("行" + i);
+            if (sep.equals("\n\n")) expected.add("");
+        }
+        String path = PATH_TEMP + "readFile2ListByLineIndex.txt";
+        FileIOUtils.writeFileFromBytesByStream(path, sb.toString().getBytes(StandardCharsets.UTF_8));
+
+        int[][] ranges = {{5000, 5010}, {1, 3}, {1025, 1025}, {2048, 4097}, {12499, 20000}, {20000, 30000}};
+        for (int time = 0; time < 2; time++) {
+            for (int[] range : ranges) {
+                int to = Math.min(range[1], expected.size());
+                List<String> subList = range[0] > to ? new ArrayList<String>() : expected.subList(range[0] - 1, to);
+                assertEquals(subList, FileIOUtils.readFile2List(path, range[0], range[1], "UTF-8"));
+            }
+        }
+
+        FileIOUtils.writeFileFromBytesByStream(path, "changed\n".getBytes(StandardCharsets.UTF_8), true);
+        assertEquals(Collections.singletonList("changed"),
+                FileIOUtils.readFile2List(path, expected.size() + 1, expected.size() + 1, "UTF-8"));
+    }
+
+    @Test
+    public void readFile2List_unsupportedCharset() {
+        String path = PATH_TEMP + "readFile2ListUnsupportedCharset.txt";
+        FileIOUtils.writeFileFromString(path, "line");
+        // the open file descriptors can be counted on linux only
+        File fdDir = new File("/proc/self/fd");
+        int fdCount = fdDir.isDirectory() ? fdDir.list().length : 0;
+        for (int i = 0; i < 100; i++) {
+            assertNull(FileIOUtils.readFile2List(path, 1, 1, "unsupported"));
+            assertNull(FileIOUtils.readFile2List(path, 2000, 2000, "unsupported"));
+        }
+        if (fdDir.isDirectory()) {
+            assertTrue(fdDir.list().length < fdCount + 10);
+        }
+    }
+
+    @Test
+    public void forEachLine() {
+        String content = "first\r\nsecond\r\rfourth\n中文\nlast";
+        String path = PATH_TEMP + "forEachLine.txt";
+        FileIOUtils.writeFileFromBytesByStream(path, content.getBytes(StandardCharsets.UTF_8));
+
+        final List<String> lines = new ArrayList<>();
+        assertTrue(FileIOUtils.forEachLine(path, "UTF-8", new Utils.Consumer<String>() {
+            @Override
+            public void accept(String line) {
+                lines.add(line);
+            }
+        }));
+        assertEquals(FileIOUtils.readFile2List(path, "UTF-8"), lines);
+        assertEquals(content, FileIOUtils.readFile2String(path, "UTF-8"));
+        assertFalse(FileIOUtils.forEachLine(PATH_TEMP + "notExists.txt", new Utils.Consumer<String>() {
+            @Override
+            public void accept(String line) {
+            }
+        }));
+    }
+
+    @Test
+    public void lines() {
+        String content = "first\r\nsecond\r\rfourth\n中文\nlast";
+        String path = PATH_TEMP + "lines.txt";
+        FileIOUtils.writeFileFromBytesByStream(path, content.getBytes(StandardCharsets.UTF_8));
+
+        List<String> lines = new ArrayList<>();
+        FileIOUtils.LineIterator iterator = FileIOUtils.lines(path, "UTF-8");
+        assertNotNull(iterator);
+        while (iterator.hasNext()) {
+            lines.add(iterator.next());
+        }
+        assertEquals(FileIOUtils.readFile2List(path, "UTF-8"), lines);
+        assertFalse(iterator.hasNext());
+
+        // stop at the first line
+        iterator = FileIOUtils.lines(path, "UTF-8");
+        assertNotNull(iterator);
+        assertEquals("first", iterator.next());
+        iterator.close();
+        assertFalse(iterator.hasNext());
+
+        assertNull(FileIOUtils.lines(PATH_TEMP + "notExists.txt"));
+        assertNull(FileIOUtils.lines(path, "unsupported"));
+    }
+
+    @Test
+    public void readFile2StringWithCharset() {
+        String content = "first\r\nsecond\n中文\uD83D\uDE00last";
+        String path = PATH_TEMP + "readFile2String.txt";
+        FileIOUtils.writeFileFromBytesByStream(path, content.getBytes(StandardCharsets.UTF_8));
+        assertEquals(content, FileIOUtils.readFile2String(path, "UTF-8"));
+        FileIOUtils.writeFileFromBytesByStream(path, content.getBytes(StandardCharsets.UTF_16));
+        assertEquals(content, FileIOUtils.readFile2String(path, "UTF-16"));
+        FileIOUtils.writeFileFromBytesByStream(path, new byte[0]);
+        assertEquals("", FileIOUtils.readFile2String(path, "UTF-8"));
+        assertNull(FileIOUtils.readFile2String(PATH_TEMP + "notExists.txt"));
+    }
+
+    @Test
+    public void readFile2BytesByMapAndMapFile() {
+        byte[] bytes = new byte[20 * 1024 * 1024 + 7];
+        new Random(37).nextBytes(bytes);
+        String path = PATH_TEMP + "mapFile.bin";
+        FileIOUtils.writeFileFromBytesByChannel(path, bytes, true);
+
+        assertArrayEquals(bytes, FileIOUtils.readFile2BytesByMap(path));
+        ByteBuffer[] buffers = FileIOUtils.mapFile(path);
+        assertNotNull(buffers);
+        assertEquals(1, buffers.length);
+        assertTrue(buffers[0].isReadOnly());
+        assertEquals(bytes.length, buffers[0].remaining());
+        assertEquals(bytes[bytes.length - 1], buffers[0].get(bytes.length - 1));
+        assertNull(FileIOUtils.mapFile(PATH_TEMP + "notExists.bin"));
+    }
+
     @After
     public void tearDown() {
         FileUtils.deleteAllInDir(PATH_TEMP);
@@ -1,13 +1,20 @@
 package com.blankj.utilcode.util;
 
+import android.os.FileObserver;
+
 import org.junit.Test;
 
 import java.io.File;
 import java.io.FileFilter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.blankj.utilcode.util.TestConfig.FILE_SEP;
 import static com.blankj.utilcode.util.TestConfig.PATH_FILE;
 import static com.blankj.utilcode.util.TestConfig.PATH_TEMP;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -123,6 +130,129 @@ public class FileUtilsTest extends BaseTest {
         FileUtils.delete(PATH_TEMP);
     }
 
+    @Test
+    public void copyAndMoveLargeFile() {
+        byte[] bytes = new byte[20 * 1024 * 1024 + 7];
+        new Random(37).nextBytes(bytes);
+        String src = PATH_TEMP + "large.bin";
+        FileIOUtils.writeFileFromBytesByChannel(src, bytes, true);
+
+        assertTrue(FileUtils.copy(src, PATH_TEMP + "copy" + FILE_SEP + "large.bin"));
+        assertArrayEquals(bytes, FileIOUtils.readFile2BytesByChannel(PATH_TEMP + "copy" + FILE_SEP + "large.bin"));
+        assertTrue(FileUtils.move(PATH_TEMP + "copy", PATH_TEMP + "move"));
+        assertFalse(FileUtils.isFileExists(PATH_TEMP + "copy"));
+        assertArrayEquals(bytes, FileIOUtils.readFile2BytesByChannel(PATH_TEMP + "move" + FILE_SEP + "large.bin"));
+        assertTrue(FileUtils.delete(PATH_TEMP));
+    }
+
+    @Test
+    public void dirWalker() {
+        String root = PATH_TEMP + "walk" + FILE_SEP;
+        long expectedLen = 0;
+        for (int i = 0; i < 8; i++) {
+            for (int j = 0; j < 8; j++) {
+                String dir = root + i + FILE_SEP + j + FILE_SEP;
+                for (int k = 0; k < 8; k++) {
+                    String content = "walk" + i + j + k;
+                    FileIOUtils.writeFileFromString(dir + k + ".txt", content);
+                    expectedLen += content.length();
+                }
+            }
+        }
+        assertEquals(expectedLen, FileUtils.getLength(root));
+        assertEquals(8 + 64 + 512, FileUtils.listFilesInDir(root, true).size());
+
+        final AtomicInteger visited = new AtomicInteger();
+        final FileUtils.DirWalker walker = new FileUtils.DirWalker(new File(root));
+        assertFalse(walker.walk(new FileUtils.OnWalkListener() {
+            @Override
+            public boolean onVisit(File file, boolean isDir, int depth) {
+                if (visited.incrementAndGet() == 10) walker.cancel();
+                return true;
+            }
+        }));
+        assertTrue(walker.isCancelled());
+
+        assertTrue(FileUtils.deleteFilesInDir(root + "0"));
+        assertEquals(8 + 64, FileUtils.listFilesInDir(root + "0", true).size());
+        assertTrue(FileUtils.deleteFilesInDir(root + "0" + FILE_SEP + "0"));
+        assertEquals(8 + 56, FileUtils.listFilesInDir(root + "0", true).size());
+        assertTrue(FileUtils.deleteAllInDir(root));
+        assertTrue(FileUtils.isDir(root));
+        assertEquals(0, FileUtils.listFilesInDir(root).size());
+        assertTrue(FileUtils.delete(PATH_TEMP));
+    }
+
+    @Test
+    public void dirLengthTracker() {
+        String root = PATH_TEMP + "track" + FILE_SEP;
+        FileIOUtils.writeFileFromString(root + "a.txt", "12345");
+        FileIOUtils.writeFileFromString(root + "sub" + FILE_SEP + "b.txt", "1234567890");
+
+        FileUtils.DirLengthTracker tracker = FileUtils.DirLengthTracker.track(root);
+        assertNotNull(tracker);
+        assertEquals(tracker, FileUtils.DirLengthTracker.track(root));
+        assertEquals(15, tracker.getLength());
+        assertEquals(10, tracker.getLength(new File(root + "sub")));
+        assertEquals(5, tracker.getLength(new File(root + "a.txt")));
+        assertEquals(-1, tracker.getLength(new File(PATH_FILE)));
+
+        assertEquals(10, tracker.peekLength(new File(root + "sub")));
+        FileIOUtils.writeFileFromString(root + "sub" + FILE_SEP + "b.txt", "123", true);
+        tracker.notifyChanged(new File(root + "sub" + FILE_SEP + "b.txt"));
+        // it doesn't refresh the changes
+        assertEquals(-1, tracker.peekLength(new File(root + "sub")));
+        assertEquals(18, tracker.getLength());
+        assertEquals(13, tracker.peekLength(new File(root + "sub")));
+
+        FileIOUtils.writeFileFromString(root + "new" + FILE_SEP + "deep" + FILE_SEP + "c.txt", "1234");
+        tracker.notifyChanged(new File(root + "new"));
+        assertEquals(22, tracker.getLength());
+        assertEquals(4, tracker.getLength(new File(root + "new" + FILE_SEP + "deep")));
+
+        assertTrue(FileUtils.delete(root + "sub"));
+        tracker.notifyChanged(new File(root + "sub"));
+        assertEquals(9, tracker.getLength());
+        assertEquals(-1, tracker.getLength(new File(root + "sub")));
+
+        tracker.stop();
+        assertEquals(0, tracker.getLength());
+        assertTrue(FileUtils.delete(PATH_TEMP));
+    }
+
+    @Test
+    public void dirLengthTracker_events() {
+        String root = PATH_TEMP + "trackEvents" + FILE_SEP;
+        File sub = new File(root + "sub");
+        FileIOUtils.writeFileFromString(root + "sub" + FILE_SEP + "a.txt", "12345");
+
+        FileUtils.DirLengthTracker tracker = FileUtils.DirLengthTracker.track(root);
+        assertNotNull(tracker);
+        assertEquals(tracker, FileUtils.DirLengthTracker.getTracker(sub));
+        assertEquals(5, FileUtils.getLength(root));
+
+        // the changes are tracked by the events of FileObserver without notifying
+        FileIOUtils.writeFileFromString(root + "sub" + FILE_SEP + "b.txt", "123");
+        tracker.onEvent4Test(sub, FileObserver.CREATE, "b.txt");
+        assertEquals(8, tracker.getLength());
+        FileIOUtils.writeFileFromString(root + "sub" + FILE_SEP + "a.txt", "1234567890", true);
+        tracker.onEvent4Test(sub, FileObserver.MODIFY, "a.txt");
+        assertEquals(18, tracker.getLength());
+        assertTrue(FileUtils.delete(root + "sub" + FILE_SEP + "b.txt"));
+        tracker.onEvent4Test(sub, FileObserver.DELETE, "b.txt");
+        assertEquals(15, tracker.getLength());
+        assertEquals(15, FileUtils.getLength(root));
+        assertEquals(15, FileUtils.getLength(sub));
+
+        FileIOUtils.writeFileFromString(root + "new" + FILE_SEP + "c.txt", "1234");
+        tracker.onEvent4Test(new File(root), FileObserver.CREATE, "new");
+        assertEquals(19, tracker.getLength());
+
+        tracker.stop();
+        assertNull(FileUtils.DirLengthTracker.getTracker(new File(root)));
+        assertTrue(FileUtils.delete(PATH_TEMP));
+    }
+
     @Test
     public void listFilesInDir() {
         System.out.println(FileUtils.listFilesInDir(PATH_FILE, false).toString());
@@ -135,6 +265,47 @@ public class FileUtilsTest extends BaseTest {
         System.out.println(FileUtils.listFilesInDirWithFilter(PATH_FILE, mFilter, true).toString());
     }
 
+    @Test
+    public void listFilesInDirWithFilter_walkOrder() {
+        String root = PATH_TEMP + "order" + FILE_SEP;
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                FileIOUtils.writeFileFromString(root + i + FILE_SEP + j + FILE_SEP + "f.txt", "order");
+            }
+            FileIOUtils.writeFileFromString(root + i + FILE_SEP + "f.txt", "order");
+        }
+        final Thread thread = Thread.currentThread();
+        final AtomicInteger otherThreadCount = new AtomicInteger();
+        FileFilter filter = new FileFilter() {
+            @Override
+            public boolean accept(File pathname) {
+                if (Thread.currentThread() != thread) otherThreadCount.incrementAndGet();
+                return pathname.isFile() || pathname.getName().equals("1");
+            }
+        };
+        List<File> expected = new ArrayList<>();
+        listFilesInPreOrder(new File(root), filter, expected);
+        assertEquals(4 * 4 + 4 + 4 + 1, expected.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(expected, FileUtils.listFilesInDirWithFilter(root, filter, true));
+        }
+        assertEquals(0, otherThreadCount.get());
+        assertTrue(FileUtils.delete(PATH_TEMP));
+    }
+
+    private static void listFilesInPreOrder(final File dir, final FileFilter filter, final List<File> list) {
+        File[] files = dir.listFiles();
+        if (files == null) return;
+        for (File file : files) {
+            if (filter.accept(file)) {
+                list.add(file);
+            }
+            if (file.isDirectory()) {
+                listFilesInPreOrder(file, filter, list);
+            }
+        }
+    }
+
     @Test
     public void getFileLastModified() {
         System.out.println(TimeUtils.millis2String(FileUtils.getFileLastModified(PATH_FILE)));
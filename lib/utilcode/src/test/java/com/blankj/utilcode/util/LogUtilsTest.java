@@ -1,9 +1,16 @@
 package com.blankj.utilcode.util;
 
+import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.File;
+import java.io.FileFilter;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -168,6 +175,657 @@ public class LogUtilsTest extends BaseTest {
         LogUtils.d(MAP);
     }
 
+    @Test
+    public void testFileThroughput() {
+        final int count = 10000;
+        final String logDir = TestConfig.PATH_TEMP + "log" + TestConfig.FILE_SEP;
+        LogUtils.getConfig()
+                .setConsoleSwitch(false)
+                .setLog2FileSwitch(true)
+                .setDir(logDir);
+        try {
+            // write every line by opening and closing the file, which is the way before buffered writer
+            LogUtils.getConfig().setFileWriter(new LogUtils.IFileWriter() {
+                @Override
+                public void write(String file, String content) {
+                    FileIOUtils.writeFileFromString(file, content, true);
+                }
+            });
+            long cost = writeFileLogs(count);
+            System.out.println("open and close per line: " + count + " lines cost " + cost + "ms");
+            FileUtils.deleteAllInDir(logDir);
+
+            LogUtils.getConfig().setFileWriter(null);
+            cost = writeFileLogs(count);
+            System.out.println("buffered writer        : " + count + " lines cost " + cost + "ms");
+            FileUtils.deleteAllInDir(logDir);
+
+            LogUtils.getConfig().setMmapSwitch(true);
+            cost = writeFileLogs(count);
+            System.out.println("mmap buffer            : " + count + " lines cost " + cost + "ms");
+        } finally {
+            LogUtils.getConfig()
+                    .setConsoleSwitch(true)
+                    .setLog2FileSwitch(false)
+                    .setMmapSwitch(false)
+                    .setDir((String) null);
+            FileUtils.delete(logDir);
+        }
+    }
+
+    @Test
+    public void testMmapSwitch() {
+        final int count = 1000;
+        final String logDir = TestConfig.PATH_TEMP + "log" + TestConfig.FILE_SEP;
+        LogUtils.getConfig()
+                .setConsoleSwitch(false)
+                .setLog2FileSwitch(true)
+                .setMmapSwitch(true)
+                .setDir(logDir);
+        try {
+            writeFileLogs(count);
+            List<File> logFiles = LogUtils.getLogFiles();
+            Assert.assertEquals(1, logFiles.size());
+            int lines = 0;
+            for (String line : FileIOUtils.readFile2List(logFiles.get(0))) {
+                if (line.contains("log line ")) {
+                    Assert.assertTrue(line.endsWith("log line " + lines));
+                    lines++;
+                }
+            }
+            Assert.assertEquals(count, lines);
+        } finally {
+            LogUtils.getConfig()
+                    .setConsoleSwitch(true)
+                    .setLog2FileSwitch(false)
+                    .setMmapSwitch(false)
+                    .setDir((String) null);
+            FileUtils.delete(logDir);
+        }
+    }
+
+    @Test
+    public void testMmapSync() {
+        final String logDir = TestConfig.PATH_TEMP + "logSync" + TestConfig.FILE_SEP;
+        LogUtils.getConfig()
+                .setConsoleSwitch(false)
+                .setLog2FileSwitch(true)
+                .setMmapSwitch(true)
+                .setDir(logDir);
+        try {
+            LogUtils.d("mmap sync line");
+            // it's in the mmap buffer once the log returns, not queued
+            Assert.assertTrue(new String(FileIOUtils.readFile2BytesByStream(getMmapFile(logDir)), "UTF-8")
+                    .contains("mmap sync line"));
+            LogUtils.flush();
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        } finally {
+            LogUtils.getConfig()
+                    .setConsoleSwitch(true)
+                    .setLog2FileSwitch(false)
+                    .setMmapSwitch(false)
+                    .setDir((String) null);
+            FileUtils.delete(logDir);
+        }
+    }
+
+    @Test
+    public void testMmapRecover() {
+        final int count = 100;
+        final String logDir = TestConfig.PATH_TEMP + "logRecover" + TestConfig.FILE_SEP;
+        LogUtils.getConfig()
+                .setConsoleSwitch(false)
+                .setLog2FileSwitch(true)
+                .setMmapSwitch(true)
+                .setFileFlushInterval(60 * 1000)
+                .setDir(logDir);
+        try {
+            for (int i = 0; i < count; i++) {
+                LogUtils.d("log line " + i);
+            }
+            // the logs are only in the mmap buffer
+            Assert.assertTrue(LogUtils.getLogFiles().isEmpty());
+
+            // the process is killed without flushing, and the logs are recovered on the next start
+            LogUtils.restartMmapBuffer4Test();
+            LogUtils.flush();
+            List<File> logFiles = LogUtils.getLogFiles();
+            Assert.assertEquals(1, logFiles.size());
+            String date = new SimpleDateFormat("yyyy_MM_dd", Locale.getDefault()).format(new Date());
+            Assert.assertTrue(logFiles.get(0).getName().contains(date));
+            int lines = 0;
+            for (String line : FileIOUtils.readFile2List(logFiles.get(0))) {
+                if (line.contains("log line ")) lines++;
+            }
+            Assert.assertEquals(count, lines);
+        } finally {
+            LogUtils.getConfig()
+                    .setConsoleSwitch(true)
+                    .setLog2FileSwitch(false)
+                    .setMmapSwitch(false)
+                    .setFileFlushInterval(1000)
+                    .setDir((String) null);
+            FileUtils.delete(logDir);
+        }
+    }
+
+    private static File getMmapFile(final String logDir) {
+        List<File> files = FileUtils.listFilesInDirWithFilter(logDir, new FileFilter() {
+            @Override
+            public boolean accept(File file) {
+                return file.getName().endsWith(".mmap");
+            }
+        });
+        Assert.assertEquals(1, files.size());
+        return files.get(0);
+    }
+
+    @Test
+    public void testMmapSetDir() {
+        final int count = 100;
+        final String logDir = TestConfig.PATH_TEMP + "log" + TestConfig.FILE_SEP;
+        final String logDir2 = TestConfig.PATH_TEMP + "log2" + TestConfig.FILE_SEP;
+        LogUtils.getConfig()
+                .setConsoleSwitch(false)
+                .setLog2FileSwitch(true)
+                .setMmapSwitch(true)
+                .setDir(logDir);
+        try {
+            writeFileLogs(count);
+            Assert.assertEquals(1, LogUtils.getLogFiles().size());
+
+            // the buffer follows the new dir
+            LogUtils.getConfig().setDir(logDir2);
+            writeFileLogs(count);
+            Assert.assertEquals(1, FileUtils.listFilesInDirWithFilter(logDir2, new FileFilter() {
+                @Override
+                public boolean accept(File file) {
+                    return file.getName().endsWith(".mmap");
+                }
+            }).size());
+            List<File> logFiles = LogUtils.getLogFiles();
+            Assert.assertEquals(1, logFiles.size());
+            Assert.assertTrue(logFiles.get(0).getPath().startsWith(logDir2));
+            int lines = 0;
+            for (String line : FileIOUtils.readFile2List(logFiles.get(0))) {
+                if (line.contains("log line ")) lines++;
+            }
+            Assert.assertEquals(count, lines);
+        } finally {
+            LogUtils.getConfig()
+                    .setConsoleSwitch(true)
+                    .setLog2FileSwitch(false)
+                    .setMmapSwitch(false)
+                    .setDir((String) null);
+            FileUtils.delete(logDir);
+            FileUtils.delete(logDir2);
+        }
+    }
+
+    @Test
+    public void testBinaryFile() {
+        final int count = 10000;
+        final String logDir = TestConfig.PATH_TEMP + "log" + TestConfig.FILE_SEP;
+        LogUtils.getConfig()
+                .setConsoleSwitch(false)
+                .setLog2FileSwitch(true)
+                .setDir(logDir);
+        try {
+            writeTagLogs(count);
+            LogUtils.getConfig().setBinaryFileSwitch(true);
+            writeTagLogs(count);
+
+            File textFile = null, binaryFile = null;
+            for (File file : LogUtils.getLogFiles()) {
+                if (file.getName().endsWith(".txt")) textFile = file;
+                if (file.getName().endsWith(".blog")) binaryFile = file;
+            }
+            Assert.assertNotNull(textFile);
+            Assert.assertNotNull(binaryFile);
+            System.out.println("text file  : " + textFile.length() + " bytes");
+            System.out.println("binary file: " + binaryFile.length() + " bytes");
+            Assert.assertTrue(binaryFile.length() < textFile.length());
+
+            // the first one is log head
+            Assert.assertEquals(count + 1, LogUtils.readBinaryLogs(binaryFile).size());
+            List<LogUtils.LogRecord> records =
+                    LogUtils.readBinaryLogs(binaryFile, 0, Long.MAX_VALUE, LogUtils.E, null);
+            Assert.assertEquals(count / 10, records.size());
+            for (LogUtils.LogRecord record : records) {
+                Assert.assertEquals("Net", record.getTag());
+                Assert.assertEquals(LogUtils.E, record.getType());
+            }
+            Assert.assertEquals(count - count / 10,
+                    LogUtils.readBinaryLogs(binaryFile, 0, Long.MAX_VALUE, LogUtils.V, "Ui").size());
+            Assert.assertEquals(0,
+                    LogUtils.readBinaryLogs(binaryFile, 0, 1, LogUtils.V, null).size());
+        } finally {
+            LogUtils.getConfig()
+                    .setConsoleSwitch(true)
+                    .setLog2FileSwitch(false)
+                    .setBinaryFileSwitch(false)
+                    .setDir((String) null);
+            FileUtils.delete(logDir);
+        }
+    }
+
+    private static void writeTagLogs(final int count) {
+        for (int i = 0; i < count; i++) {
+            if (i % 10 == 0) {
+                LogUtils.eTag("Net", "request failed " + i);
+            } else {
+                LogUtils.dTag("Ui", "click item " + i);
+            }
+        }
+        LogUtils.flush();
+    }
+
+    @Test
+    public void testRotationAndRetention() throws Exception {
+        final String logDir = TestConfig.PATH_TEMP + "log" + TestConfig.FILE_SEP;
+        final File dueLog = new File(logDir + "util_2000_01_01_.txt");
+        FileIOUtils.writeFileFromString(dueLog, "due");
+        LogUtils.getConfig()
+                .setConsoleSwitch(false)
+                .setLog2FileSwitch(true)
+                .setDir(logDir)
+                .setSaveDays(30)
+                .setFileMaxSize(10 * 1024);
+        try {
+            for (int i = 0; i < 1000; i++) {
+                LogUtils.d("rotation line " + i);
+            }
+            LogUtils.flush();
+            List<File> logFiles = LogUtils.getLogFiles();
+            Assert.assertTrue(logFiles.size() > 1);
+            for (File logFile : logFiles) {
+                // the head of new file is not counted in max size
+                Assert.assertTrue(logFile.length() < 11 * 1024);
+            }
+            // sweep in io thread
+            for (int i = 0; i < 50 && dueLog.exists(); i++) {
+                Thread.sleep(20);
+            }
+            Assert.assertFalse(dueLog.exists());
+        } finally {
+            LogUtils.getConfig()
+                    .setConsoleSwitch(true)
+                    .setLog2FileSwitch(false)
+                    .setSaveDays(-1)
+                    .setFileMaxSize(-1)
+                    .setDir((String) null);
+            FileUtils.delete(logDir);
+        }
+    }
+
+    @Test
+    public void testRotationCountsBytes() {
+        final String logDir = TestConfig.PATH_TEMP + "log" + TestConfig.FILE_SEP;
+        LogUtils.getConfig()
+                .setConsoleSwitch(false)
+                .setLog2FileSwitch(true)
+                .setDir(logDir)
+                .setFileMaxSize(4 * 1024);
+        try {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < 100; i++) {
+                sb.append("日志");
+            }
+            for (int i = 0; i < 100; i++) {
+                LogUtils.d(sb.toString());
+            }
+            LogUtils.flush();
+            List<File> logFiles = LogUtils.getLogFiles();
+            Assert.assertTrue(logFiles.size() > 1);
+            for (File logFile : logFiles) {
+                // the head of new file is not counted in max size
+                Assert.assertTrue(logFile.length() < 5 * 1024);
+            }
+        } finally {
+            LogUtils.getConfig()
+                    .setConsoleSwitch(true)
+                    .setLog2FileSwitch(false)
+                    .setFileMaxSize(-1)
+                    .setDir((String) null);
+            FileUtils.delete(logDir);
+        }
+    }
+
+    @Test
+    public void testTagFilterAndFormat() {
+        final List<String> contents = new ArrayList<>();
+        final int[] supplierCalls = new int[1];
+        LogUtils.getConfig()
+                .setConsoleSwitch(false)
+                .setLog2FileSwitch(true)
+                .setTagFilter("Net", LogUtils.E)
+                .setFileWriter(new LogUtils.IFileWriter() {
+                    @Override
+                    public void write(String file, String content) {
+                        contents.add(content);
+                    }
+                });
+        try {
+            Utils.Supplier<String> supplier = new Utils.Supplier<String>() {
+                @Override
+                public String get() {
+                    supplierCalls[0]++;
+                    return "lazy";
+                }
+            };
+            LogUtils.dTag("Net", supplier);
+            LogUtils.dFormat("Net", "x={}", supplier);
+            LogUtils.flush();
+            Assert.assertEquals(0, supplierCalls[0]);
+
+            LogUtils.eTag("Net", supplier);
+            LogUtils.dFormat("Ui", "x={} y={} z={}", 1, supplier);
+            LogUtils.flush();
+            Assert.assertEquals(2, supplierCalls[0]);
+            String last = contents.get(contents.size() - 1);
+            Assert.assertTrue(last.endsWith("x=1 y=lazy z={}" + System.getProperty("line.separator")));
+
+            long start = System.nanoTime();
+            for (int i = 0; i < 100000; i++) {
+                LogUtils.dFormat("Net", "x={}", i);
+            }
+            System.out.println("filtered: " + (System.nanoTime() - start) / 100000 + "ns per log");
+        } finally {
+            LogUtils.getConfig()
+                    .setConsoleSwitch(true)
+                    .setLog2FileSwitch(false)
+                    .setTagFilter("Net", null)
+                    .setFileWriter(null);
+        }
+    }
+
+    @Test
+    public void testSinks() throws Exception {
+        final int threadCount = 4, count = 1000;
+        final long dropCount = LogUtils.getSinkDropCount();
+        final List<LogUtils.LogRecord> allRecords = new ArrayList<>();
+        final List<LogUtils.LogRecord> errorRecords = new ArrayList<>();
+        LogUtils.ISink allSink = new LogUtils.ISink() {
+            @Override
+            public void write(LogUtils.LogRecord record) {
+                allRecords.add(record);
+            }
+        };
+        LogUtils.ISink errorSink = new LogUtils.ISink() {
+            @Override
+            public boolean isLoggable(int type, String tag) {
+                return type >= LogUtils.E;
+            }
+
+            @Override
+            public void write(LogUtils.LogRecord record) {
+                errorRecords.add(record);
+            }
+        };
+        LogUtils.getConfig()
+                .setConsoleSwitch(false)
+                .addSink(allSink)
+                .addSink(errorSink);
+        try {
+            Thread[] threads = new Thread[threadCount];
+            for (int i = 0; i < threadCount; i++) {
+                threads[i] = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (int j = 0; j < count; j++) {
+                            if (j % 10 == 0) {
+                                LogUtils.eTag("Sink", j);
+                            } else {
+                                LogUtils.dTag("Sink", j);
+                            }
+                        }
+                    }
+                });
+                threads[i].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            LogUtils.flush();
+            Assert.assertEquals(threadCount * count, allRecords.size() + LogUtils.getSinkDropCount() - dropCount);
+            Assert.assertEquals(0, LogUtils.getSinkPendingCount());
+            for (LogUtils.LogRecord record : errorRecords) {
+                Assert.assertEquals(LogUtils.E, record.getType());
+            }
+        } finally {
+            LogUtils.getConfig()
+                    .setConsoleSwitch(true)
+                    .removeSink(allSink)
+                    .removeSink(errorSink);
+        }
+    }
+
+    @Test
+    public void testSinkFilterBeforeFormat() {
+        final int[] supplierCalls = new int[1];
+        final List<String> contents = new ArrayList<>();
+        LogUtils.ISink errorSink = new LogUtils.ISink() {
+            @Override
+            public boolean isLoggable(int type, String tag) {
+                return type >= LogUtils.E;
+            }
+
+            @Override
+            public void write(LogUtils.LogRecord record) {
+                contents.add("sink: " + record.getMsg());
+            }
+        };
+        LogUtils.getConfig()
+                .setConsoleSwitch(false)
+                .setLog2FileSwitch(true)
+                .setFileFilter(LogUtils.W)
+                .setLogHeadSwitch(false)
+                .setFileWriter(new LogUtils.IFileWriter() {
+                    @Override
+                    public void write(String file, String content) {
+                        contents.add("file: " + content.substring(content.indexOf('/')));
+                    }
+                })
+                .addSink(errorSink);
+        try {
+            Utils.Supplier<String> supplier = new Utils.Supplier<String>() {
+                @Override
+                public String get() {
+                    supplierCalls[0]++;
+                    return "lazy";
+                }
+            };
+            LogUtils.dTag("Sink", supplier);
+            LogUtils.flush();
+            Assert.assertEquals(0, supplierCalls[0]);
+            Assert.assertTrue(contents.isEmpty());
+
+            LogUtils.eTag("Sink", supplier);
+            LogUtils.flush();
+            Assert.assertEquals(1, supplierCalls[0]);
+            // the file is a sink written before the added ones
+            Assert.assertEquals(2, contents.size());
+            Assert.assertEquals("file: /Sink: lazy" + System.getProperty("line.separator"), contents.get(0));
+            Assert.assertEquals("sink: lazy", contents.get(1));
+        } finally {
+            LogUtils.getConfig()
+                    .setConsoleSwitch(true)
+                    .setLog2FileSwitch(false)
+                    .setFileFilter(LogUtils.V)
+                    .setLogHeadSwitch(true)
+                    .setFileWriter(null)
+                    .removeSink(errorSink);
+        }
+    }
+
+    @Test
+    public void testSinkDrop() {
+        final long dropCount = LogUtils.getSinkDropCount();
+        LogUtils.ISink slowSink = new LogUtils.ISink() {
+            @Override
+            public void write(LogUtils.LogRecord record) {
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException ignore) {
+                }
+            }
+        };
+        LogUtils.getConfig()
+                .setConsoleSwitch(false)
+                .setSinkQueueCapacity(16)
+                .addSink(slowSink);
+        try {
+            for (int i = 0; i < 1000; i++) {
+                LogUtils.d(i);
+            }
+            Assert.assertTrue(LogUtils.getSinkDropCount() > dropCount);
+            LogUtils.flush();
+        } finally {
+            LogUtils.getConfig()
+                    .setConsoleSwitch(true)
+                    .setSinkQueueCapacity(4096)
+                    .removeSink(slowSink);
+        }
+    }
+
+    @Test
+    public void testRingBufferSink() {
+        final String logDir = TestConfig.PATH_TEMP + "log" + TestConfig.FILE_SEP;
+        final File dumpFile = new File(logDir + "ring.txt");
+        LogUtils.RingBufferSink ringBufferSink = new LogUtils.RingBufferSink(100, 20);
+        LogUtils.getConfig()
+                .setConsoleSwitch(false)
+                .setLogHeadSwitch(false)
+                .addSink(ringBufferSink);
+        try {
+            for (int i = 0; i < 250; i++) {
+                LogUtils.dTag("Ring", "line " + i + " of ring buffer");
+            }
+            Assert.assertTrue(ringBufferSink.dump(dumpFile));
+            List<String> lines = FileIOUtils.readFile2List(dumpFile);
+            // the first line is the head of dump
+            Assert.assertEquals(101, lines.size());
+            // the oldest is the 150th, and the message is truncated to 20 chars
+            Assert.assertTrue(lines.get(1).contains("D/Ring"));
+            Assert.assertTrue(lines.get(1).endsWith(": line 150 of ring buf"));
+            Assert.assertTrue(lines.get(100).endsWith(": line 249 of ring buf"));
+
+            // the dumped logs are cleared
+            Assert.assertTrue(ringBufferSink.dump(dumpFile));
+            Assert.assertEquals(102, FileIOUtils.readFile2List(dumpFile).size());
+
+            // the message starts with the location if head is on
+            LogUtils.getConfig().setLogHeadSwitch(true);
+            LogUtils.dTag("Ring", "line with head");
+            Assert.assertTrue(ringBufferSink.dump(dumpFile));
+            lines = FileIOUtils.readFile2List(dumpFile);
+            Assert.assertTrue(lines.get(lines.size() - 1).endsWith(": com.blankj.utilcode."));
+        } finally {
+            LogUtils.getConfig()
+                    .setConsoleSwitch(true)
+                    .setLogHeadSwitch(true)
+                    .removeSink(ringBufferSink);
+            FileUtils.delete(logDir);
+        }
+    }
+
+    @Test
+    public void testFlushOnCrashInLogThread() {
+        final String logDir = TestConfig.PATH_TEMP + "logCrash" + TestConfig.FILE_SEP;
+        final long[] cost = {-1};
+        LogUtils.RingBufferSink ringBufferSink = new LogUtils.RingBufferSink(10, 100, true);
+        LogUtils.ISink crashSink = new LogUtils.ISink() {
+            @Override
+            public void write(LogUtils.LogRecord record) {
+                if (!"Crash".equals(record.getTag())) return;
+                // it crashes in the thread of sinks
+                long start = System.currentTimeMillis();
+                LogUtils.flushOnCrash();
+                cost[0] = System.currentTimeMillis() - start;
+            }
+        };
+        LogUtils.getConfig()
+                .setConsoleSwitch(false)
+                .setLogHeadSwitch(false)
+                .setDir(logDir)
+                .addSink(ringBufferSink)
+                .addSink(crashSink);
+        try {
+            LogUtils.dTag("Ring", "before crash");
+            LogUtils.dTag("Crash", "crash");
+            LogUtils.flush();
+            // it never waits for the task which can't run until it returns
+            Assert.assertTrue(cost[0] >= 0 && cost[0] < 500);
+            List<File> dumpFiles = FileUtils.listFilesInDirWithFilter(logDir, new FileFilter() {
+                @Override
+                public boolean accept(File file) {
+                    return file.getName().contains("_ring");
+                }
+            });
+            Assert.assertEquals(1, dumpFiles.size());
+            Assert.assertTrue(FileIOUtils.readFile2String(dumpFiles.get(0)).contains("before crash"));
+        } finally {
+            LogUtils.getConfig()
+                    .setConsoleSwitch(true)
+                    .setLogHeadSwitch(true)
+                    .setDir((String) null)
+                    .removeSink(ringBufferSink)
+                    .removeSink(crashSink);
+            FileUtils.delete(logDir);
+        }
+    }
+
+    @Test
+    public void testHeadCost() {
+        final int count = 100000;
+        LogUtils.getConfig()
+                .setConsoleSwitch(false)
+                .setLog2FileSwitch(true)
+                .setFileWriter(new LogUtils.IFileWriter() {
+                    @Override
+                    public void write(String file, String content) {
+                        // ignore, only measure the cost of log call
+                    }
+                });
+        try {
+            LogUtils.getConfig().setLogHeadSwitch(true);
+            System.out.println("head on             : " + getLogCost(count) + "ns per log");
+            LogUtils.getConfig().setLogHeadSwitch(false);
+            System.out.println("head off            : " + getLogCost(count) + "ns per log");
+            // the stack won't be captured if head is off and tag is set
+            LogUtils.getConfig().setGlobalTag("LogUtilsTest");
+            System.out.println("head off and tag set: " + getLogCost(count) + "ns per log");
+        } finally {
+            LogUtils.getConfig()
+                    .setConsoleSwitch(true)
+                    .setLog2FileSwitch(false)
+                    .setLogHeadSwitch(true)
+                    .setGlobalTag("")
+                    .setFileWriter(null);
+        }
+    }
+
+    private static long getLogCost(final int count) {
+        for (int i = 0; i < count / 10; i++) {
+            LogUtils.d("warm up");
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            LogUtils.d("log line");
+        }
+        return (System.nanoTime() - start) / count;
+    }
+
+    private static long writeFileLogs(final int count) {
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < count; i++) {
+            LogUtils.d("log line " + i);
+        }
+        LogUtils.flush();
+        return System.currentTimeMillis() - start;
+    }
+
     static class Person {
 
         String name;
@@ -4,12 +4,34 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
 import static com.blankj.utilcode.util.TestConfig.PATH_TEMP;
 import static com.blankj.utilcode.util.TestConfig.PATH_ZIP;
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertNull;
 import static junit.framework.TestCase.assertTrue;
+import static org.junit.Assert.assertArrayEquals;
 
 /**
  * <pre>
@@ -59,6 +81,356 @@ public class ZipUtilsTest extends BaseTest {
         System.out.println(ZipUtils.getComments(zipFile));
     }
 
+    @Test
+    public void open() throws Exception {
+        ZipUtils.ZipArchive archive = ZipUtils.open(zipFile);
+        ZipFile zip = new ZipFile(zipFile);
+        try {
+            assertEquals(zip.size(), archive.size());
+            for (ZipEntry entry : archive.getEntries()) {
+                ZipEntry expected = zip.getEntry(entry.getName());
+                assertEquals(expected.getCrc(), entry.getCrc());
+                assertEquals("测试zip", entry.getComment());
+                if (entry.isDirectory()) continue;
+                assertArrayEquals(readAll(zip.getInputStream(expected)), readAll(archive.getInputStream(entry)));
+                ByteBuffer buffer = archive.getByteBuffer(entry);
+                byte[] bytes = new byte[buffer.remaining()];
+                buffer.get(bytes);
+                assertArrayEquals(readAll(zip.getInputStream(expected)), bytes);
+            }
+            assertNull(archive.getEntry("notExists"));
+        } finally {
+            zip.close();
+            archive.close();
+        }
+    }
+
+    @Test
+    public void open_getEntriesByGlob() throws Exception {
+        File assetsZip = new File(PATH_TEMP + "assets.zip");
+        String[] names = {"res/d.png", "assets/sub/b.png", "assets/c.txt", "assets/a.png", "assets/b.png.txt"};
+        writeZip(assetsZip, names, ZipEntry.STORED);
+        ZipUtils.ZipArchive archive = ZipUtils.open(assetsZip);
+        try {
+            assertEquals("[assets/a.png, assets/b.png.txt, assets/c.txt, assets/sub/b.png]", getNames(archive.getEntriesByPrefix("assets/")));
+            assertEquals("[assets/a.png]", getNames(archive.getEntriesByGlob("assets/*.png")));
+            assertEquals("[assets/a.png, assets/sub/b.png]", getNames(archive.getEntriesByGlob("assets/**.png")));
+            assertEquals("[assets/a.png, assets/sub/b.png, res/d.png]", getNames(archive.getEntriesByGlob("**.png")));
+            assertEquals("[assets/c.txt]", getNames(archive.getEntriesByGlob("assets/?.txt")));
+            assertEquals("[res/d.png]", getNames(archive.getEntriesByGlob("res/d.png")));
+
+            ByteBuffer buffer = archive.getByteBuffer(archive.getEntry("assets/c.txt"));
+            assertTrue(buffer instanceof MappedByteBuffer);
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            assertEquals("assets/c.txt", new String(bytes, "UTF-8"));
+        } finally {
+            archive.close();
+        }
+
+        // the index is updated once the file is changed
+        writeZip(assetsZip, new String[]{"assets/new.png"}, ZipEntry.DEFLATED);
+        archive = ZipUtils.open(assetsZip);
+        try {
+            assertEquals("[assets/new.png]", getNames(archive.getEntriesByGlob("**")));
+            assertEquals("assets/new.png", new String(readAll(archive.getInputStream(archive.getEntry("assets/new.png"))), "UTF-8"));
+        } finally {
+            archive.close();
+        }
+    }
+
+    @Test
+    public void open_reindexIfChanged() throws Exception {
+        File sameZip = new File(PATH_TEMP + "same.zip");
+        // the two files have the same length but different central directories
+        writeZip(sameZip, new String[]{"abcd"}, ZipEntry.STORED, "comment_padding_comment_padding_comment_padding_comment_padding_comment_padd");
+        long length = sameZip.length();
+        long time = sameZip.lastModified() - 60 * 1000;
+        assertTrue(sameZip.setLastModified(time));
+        ZipUtils.ZipArchive archive = ZipUtils.open(sameZip);
+        try {
+            assertEquals("[abcd]", getNames(archive.getEntries()));
+        } finally {
+            archive.close();
+        }
+        writeZip(sameZip, new String[]{"ab", "cd"}, ZipEntry.STORED);
+        assertTrue(sameZip.setLastModified(time));
+        assertEquals(length, sameZip.length());
+        archive = ZipUtils.open(sameZip);
+        try {
+            assertEquals("[ab, cd]", getNames(archive.getEntries()));
+            assertEquals("cd", new String(readAll(archive.getInputStream(archive.getEntry("cd"))), "UTF-8"));
+        } finally {
+            archive.close();
+        }
+    }
+
+    @Test
+    public void getFilesPath_zip64() throws Exception {
+        File zip64 = new File(PATH_TEMP + "zip64.zip");
+        String[] names = new String[0xFFFF];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = "file" + i;
+        }
+        writeZip(zip64, names, ZipEntry.DEFLATED);
+        assertEquals(names.length, ZipUtils.getFilesPath(zip64).size());
+        assertEquals(names.length, ZipUtils.getComments(zip64).size());
+    }
+
+    @Test
+    public void zipFilesParallel_unzipFileParallel() throws Exception {
+        File srcDir = createTestDir(PATH_TEMP + "parallelSrc", 3 * 1024 * 1024 + 12345);
+        File parallelZip = new File(PATH_TEMP + "parallel.zip");
+        final long[] progress = new long[2];
+        ZipUtils.OnProgressListener listener = new ZipUtils.OnProgressListener() {
+            @Override
+            public void onProgress(long doneSize, long totalSize) {
+                assertTrue(doneSize >= progress[0]);
+                progress[0] = doneSize;
+                progress[1] = totalSize;
+            }
+        };
+        assertTrue(ZipUtils.zipFilesParallel(Collections.singletonList(srcDir), parallelZip, "测试zip", listener));
+        assertTrue(progress[1] > 0);
+        assertEquals(progress[1], progress[0]);
+
+        // ZipInputStream checks the crc and size of each entry
+        Map<String, byte[]> entries = new HashMap<>();
+        ZipInputStream zis = new ZipInputStream(new FileInputStream(parallelZip));
+        try {
+            ZipEntry entry;
+            while ((entry = zis.getNextEntry()) != null) {
+                entries.put(entry.getName(), readAll(zis));
+            }
+        } finally {
+            zis.close();
+        }
+        assertEquals(ZipUtils.getFilesPath(parallelZip).size(), entries.size());
+        assertTrue(entries.containsKey("parallelSrc/emptyDir/"));
+        assertArrayEquals(FileIOUtils.readFile2BytesByStream(new File(srcDir, "big.bin")), entries.get("parallelSrc/big.bin"));
+        assertEquals(0, entries.get("parallelSrc/empty.txt").length);
+        for (String comment : ZipUtils.getComments(parallelZip)) {
+            assertEquals("测试zip", comment);
+        }
+
+        File serialZip = new File(PATH_TEMP + "serial.zip");
+        assertTrue(ZipUtils.zipFile(srcDir, serialZip));
+        assertTrue(parallelZip.length() < serialZip.length() * 1.02);
+
+        File destDir = new File(PATH_TEMP + "parallelDest");
+        progress[0] = 0;
+        List<File> files = ZipUtils.unzipFileByKeywordParallel(parallelZip, destDir, null, listener);
+        assertEquals(entries.size(), files.size());
+        assertEquals(progress[1], progress[0]);
+        for (File file : files) {
+            String name = file.getPath().substring(destDir.getPath().length() + 1).replace(File.separatorChar, '/');
+            if (file.isDirectory()) {
+                assertTrue(entries.containsKey(name + "/"));
+            } else {
+                assertArrayEquals(entries.get(name), FileIOUtils.readFile2BytesByStream(file));
+            }
+        }
+        assertEquals(1, ZipUtils.unzipFileByKeywordParallel(parallelZip, destDir, "big", null).size());
+
+        // the directory follows the chunks of file in flight
+        assertTrue(ZipUtils.zipFilesParallel(Arrays.asList(new File(srcDir, "big.bin"), new File(srcDir, "emptyDir")), parallelZip));
+        zis = new ZipInputStream(new FileInputStream(parallelZip));
+        try {
+            assertEquals("big.bin", zis.getNextEntry().getName());
+            assertArrayEquals(entries.get("parallelSrc/big.bin"), readAll(zis));
+            assertEquals("emptyDir/", zis.getNextEntry().getName());
+            assertNull(zis.getNextEntry());
+        } finally {
+            zis.close();
+        }
+    }
+
+    @Test
+    public void updateZipFiles() throws Exception {
+        File srcDir = createTestDir(PATH_TEMP + "updateSrc", 2 * 1024 * 1024);
+        List<File> srcFiles = Collections.singletonList(srcDir);
+        File updateZip = new File(PATH_TEMP + "update.zip");
+        assertTrue(ZipUtils.updateZipFiles(srcFiles, updateZip));
+        assertZipEquals(srcDir, updateZip);
+
+        long time = srcDir.lastModified() - 60 * 1000;
+        // changed content with the same size and time is regarded as unchanged, so the entry is copied raw
+        File rawFile = new File(srcDir, "sub0/file0.txt");
+        assertTrue(rawFile.setLastModified(time));
+        assertTrue(ZipUtils.updateZipFiles(srcFiles, updateZip));
+        byte[] oldData = FileIOUtils.readFile2BytesByStream(rawFile);
+        byte[] newData = oldData.clone();
+        newData[0] ^= 1;
+        assertTrue(FileIOUtils.writeFileFromBytesByStream(rawFile, newData));
+        assertTrue(rawFile.setLastModified(time));
+        // the file whose time is changed only is copied raw with new time
+        File touchedFile = new File(srcDir, "sub1/file1.txt");
+        assertTrue(touchedFile.setLastModified(time));
+        // the changed, added and deleted files
+        assertTrue(FileIOUtils.writeFileFromString(new File(srcDir, "sub2/file2.txt"), "changed"));
+        assertTrue(FileIOUtils.writeFileFromString(new File(srcDir, "added/added.txt"), "added"));
+        assertTrue(FileUtils.delete(new File(srcDir, "sub3/file3.txt")));
+        final long[] progress = new long[2];
+        assertTrue(ZipUtils.updateZipFiles(srcFiles, updateZip, null, new ZipUtils.OnProgressListener() {
+            @Override
+            public void onProgress(long doneSize, long totalSize) {
+                progress[0] = doneSize;
+                progress[1] = totalSize;
+            }
+        }));
+        assertEquals(progress[1], progress[0]);
+        assertFalse(new File(updateZip.getPath() + ".tmp").exists());
+
+        assertTrue(FileIOUtils.writeFileFromBytesByStream(rawFile, oldData));
+        assertTrue(rawFile.setLastModified(time));
+        assertZipEquals(srcDir, updateZip);
+        ZipUtils.ZipArchive archive = ZipUtils.open(updateZip);
+        try {
+            assertEquals(touchedFile.lastModified() / 2000, archive.getEntry("updateSrc/sub1/file1.txt").getTime() / 2000);
+            assertNull(archive.getEntry("updateSrc/sub3/file3.txt"));
+        } finally {
+            archive.close();
+        }
+    }
+
+    @Test
+    public void zipParallelBenchmark() throws Exception {
+        File srcDir = createTestDir(PATH_TEMP + "benchmarkSrc", 16 * 1024 * 1024);
+        long totalSize = 0;
+        for (File file : FileUtils.listFilesInDir(srcDir, true)) {
+            totalSize += file.length();
+        }
+        List<File> srcFiles = Collections.singletonList(srcDir);
+        File serialZip = new File(PATH_TEMP + "serial.zip");
+        File parallelZip = new File(PATH_TEMP + "parallel.zip");
+        for (int i = 0; i < 2; i++) {
+            long st = System.nanoTime();
+            ZipUtils.zipFiles(srcFiles, serialZip);
+            long zip = System.nanoTime() - st;
+            st = System.nanoTime();
+            ZipUtils.zipFilesParallel(srcFiles, parallelZip);
+            long zipParallel = System.nanoTime() - st;
+            st = System.nanoTime();
+            ZipUtils.unzipFile(serialZip, new File(PATH_TEMP + "serialDest"));
+            long unzip = System.nanoTime() - st;
+            st = System.nanoTime();
+            ZipUtils.unzipFileParallel(serialZip, new File(PATH_TEMP + "parallelDest"));
+            long unzipParallel = System.nanoTime() - st;
+            System.out.println(String.format("zip: %.1fMB/s, zipParallel: %.1fMB/s, unzip: %.1fMB/s, unzipParallel: %.1fMB/s",
+                    totalSize * 1e3 / zip, totalSize * 1e3 / zipParallel, totalSize * 1e3 / unzip, totalSize * 1e3 / unzipParallel));
+        }
+        System.out.println(String.format("serial: %dB, parallel: %dB", serialZip.length(), parallelZip.length()));
+
+        File updateZip = new File(PATH_TEMP + "update.zip");
+        ZipUtils.updateZipFiles(srcFiles, updateZip);
+        for (int i = 0; i < 2; i++) {
+            FileIOUtils.writeFileFromString(new File(srcDir, "sub0/file0.txt"), "changed" + i);
+            long st = System.nanoTime();
+            ZipUtils.updateZipFiles(srcFiles, updateZip);
+            long update = System.nanoTime() - st;
+            System.out.println(String.format("update one file: %.1fMB/s", totalSize * 1e3 / update));
+        }
+    }
+
+    /**
+     * Create the directory of files whose content is compressible, with an empty file and an
+     * empty directory.
+     */
+    private static File createTestDir(final String path, final int bigSize) throws IOException {
+        File dir = new File(path);
+        assertTrue(FileUtils.createOrExistsDir(new File(dir, "emptyDir")));
+        Random random = new Random(7);
+        String[] words = {"zip", "utils", "parallel", "deflate", "chunk", "测试", "\n"};
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 32; i++) {
+            sb.setLength(0);
+            int len = random.nextInt(64 * 1024);
+            while (sb.length() < len) {
+                sb.append(words[random.nextInt(words.length)]).append(random.nextInt(1000));
+            }
+            assertTrue(FileIOUtils.writeFileFromString(new File(dir, "sub" + (i % 4) + "/file" + i + ".txt"), sb.toString()));
+        }
+        byte[] big = new byte[bigSize];
+        for (int i = 0; i < bigSize; i++) {
+            big[i] = (byte) (random.nextInt(16) + (i >> 12));
+        }
+        assertTrue(FileIOUtils.writeFileFromBytesByStream(new File(dir, "big.bin"), big));
+        assertTrue(FileUtils.createOrExistsFile(new File(dir, "empty.txt")));
+        return dir;
+    }
+
+    private static void assertZipEquals(final File srcDir, final File zipFile) throws IOException {
+        int count = 0;
+        ZipInputStream zis = new ZipInputStream(new FileInputStream(zipFile));
+        try {
+            ZipEntry entry;
+            while ((entry = zis.getNextEntry()) != null) {
+                File file = new File(srcDir.getParentFile(), entry.getName());
+                if (entry.isDirectory()) {
+                    assertTrue(file.isDirectory());
+                } else {
+                    assertArrayEquals(FileIOUtils.readFile2BytesByStream(file), readAll(zis));
+                }
+                count++;
+            }
+        } finally {
+            zis.close();
+        }
+        int fileCount = 0;
+        for (File file : FileUtils.listFilesInDir(srcDir, true)) {
+            if (file.isFile() || file.list().length == 0) fileCount++;
+        }
+        assertEquals(fileCount, count);
+    }
+
+    private static void writeZip(final File file, final String[] names, final int method) throws IOException {
+        writeZip(file, names, method, null);
+    }
+
+    private static void writeZip(final File file,
+                                 final String[] names,
+                                 final int method,
+                                 final String comment) throws IOException {
+        ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(file));
+        zos.setComment(comment);
+        try {
+            for (String name : names) {
+                byte[] data = name.getBytes("UTF-8");
+                ZipEntry entry = new ZipEntry(name);
+                entry.setMethod(method);
+                if (method == ZipEntry.STORED) {
+                    CRC32 crc32 = new CRC32();
+                    crc32.update(data);
+                    entry.setSize(data.length);
+                    entry.setCrc(crc32.getValue());
+                }
+                zos.putNextEntry(entry);
+                zos.write(data);
+                zos.closeEntry();
+            }
+        } finally {
+            zos.close();
+        }
+    }
+
+    private static String getNames(final List<ZipEntry> entries) {
+        List<String> names = new ArrayList<>();
+        for (ZipEntry entry : entries) {
+            names.add(entry.getName());
+        }
+        return names.toString();
+    }
+
+    private static byte[] readAll(final InputStream is) throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int len;
+        while ((len = is.read(buffer)) != -1) {
+            os.write(buffer, 0, len);
+        }
+        return os.toByteArray();
+    }
+
     @After
     public void tearDown() {
         FileUtils.deleteAllInDir(PATH_TEMP);
@@ -1,8 +1,15 @@
 package com.blankj.utildebug.debug.tool.fileExplorer;
 
+import com.blankj.utilcode.util.FileUtils;
+import com.blankj.utilcode.util.PathUtils;
+import com.blankj.utilcode.util.ThreadUtils;
 import com.blankj.utildebug.R;
 import com.blankj.utildebug.base.view.BaseContentFloatView;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * <pre>
  *     author: blankj
@@ -13,6 +20,9 @@ import com.blankj.utildebug.base.view.BaseContentFloatView;
  */
 public class FileExplorerFloatView extends BaseContentFloatView<FileExplorerFloatView> {
 
+    private final List<FileUtils.DirLengthTracker> mTrackers = new ArrayList<>();
+    private       boolean                          isDetached;
+
     @Override
     public int bindTitle() {
         return R.string.du_file_explorer;
@@ -27,4 +37,69 @@ public class FileExplorerFloatView extends BaseContentFloatView<FileExplorerFloa
     public void initContentView() {
         FileContentView.show(this);
     }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        synchronized (mTrackers) {
+            isDetached = false;
+        }
+        trackAppDataDirs();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        stopTrackers();
+        super.onDetachedFromWindow();
+    }
+
+    /**
+     * Track the length of app's data directories while it's shown, so the size of directories in
+     * them is shown without walking again.
+     */
+    private void trackAppDataDirs() {
+        ThreadUtils.getIoPool().execute(new Runnable() {
+            @Override
+            public void run() {
+                track(PathUtils.getInternalAppDataPath());
+                track(PathUtils.getExternalAppDataPath());
+            }
+        });
+    }
+
+    private void track(final String dirPath) {
+        File dir = FileUtils.getFileByPath(dirPath);
+        // The directory tracked by others is left alone.
+        if (dir == null || FileUtils.DirLengthTracker.getTracker(dir) != null) return;
+        FileUtils.DirLengthTracker tracker = FileUtils.DirLengthTracker.track(dir);
+        if (tracker == null) return;
+        synchronized (mTrackers) {
+            if (!isDetached) {
+                mTrackers.add(tracker);
+                return;
+            }
+        }
+        tracker.stop();
+    }
+
+    /**
+     * Stop the trackers in io thread, so the watches of directories are released when it's closed.
+     */
+    private void stopTrackers() {
+        final List<FileUtils.DirLengthTracker> trackers;
+        synchronized (mTrackers) {
+            isDetached = true;
+            trackers = new ArrayList<>(mTrackers);
+            mTrackers.clear();
+        }
+        if (trackers.isEmpty()) return;
+        ThreadUtils.getIoPool().execute(new Runnable() {
+            @Override
+            public void run() {
+                for (FileUtils.DirLengthTracker tracker : trackers) {
+                    tracker.stop();
+                }
+            }
+        });
+    }
 }
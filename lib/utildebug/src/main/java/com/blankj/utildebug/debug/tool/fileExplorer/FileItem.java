@@ -11,11 +11,13 @@ import com.blankj.utilcode.constant.PermissionConstants;
 import com.blankj.utilcode.util.ActivityUtils;
 import com.blankj.utilcode.util.ClickUtils;
 import com.blankj.utilcode.util.CollectionUtils;
+import com.blankj.utilcode.util.ConvertUtils;
 import com.blankj.utilcode.util.FileUtils;
 import com.blankj.utilcode.util.PathUtils;
 import com.blankj.utilcode.util.PermissionUtils;
 import com.blankj.utilcode.util.SDCardUtils;
 import com.blankj.utilcode.util.StringUtils;
+import com.blankj.utilcode.util.ThreadUtils;
 import com.blankj.utilcode.util.TimeUtils;
 import com.blankj.utilcode.util.UriUtils;
 import com.blankj.utildebug.R;
@@ -49,6 +51,8 @@ public class FileItem extends BaseItem<FileItem> {
     private File     mFile;
     private String   mName;
     private boolean  isSdcard;
+    private long     mDirLength = -1;
+    private boolean  isLoadingDirLength;
 
     private RelativeLayout fileContentRl;
     private ImageView      fileTypeIv;
@@ -112,7 +116,7 @@ public class FileItem extends BaseItem<FileItem> {
 
         if (mFile.isDirectory()) {
             fileTypeIv.setImageResource(R.drawable.du_ic_debug_file_explorer);
-            fileInfoTv.setText(String.format("%s  %s", StringUtils.getString(R.string.du_file_item_num, CollectionUtils.size(mFile.list())), TimeUtils.millis2String(mFile.lastModified(), "yyyy.MM.dd")));
+            fileInfoTv.setText(String.format("%s  %s%s", StringUtils.getString(R.string.du_file_item_num, CollectionUtils.size(mFile.list())), getTrackedDirSize(), TimeUtils.millis2String(mFile.lastModified(), "yyyy.MM.dd")));
             fileContentRl.setOnClickListener(new View.OnClickListener() {
                 @Override
                 public void onClick(final View v) {
@@ -182,6 +186,44 @@ public class FileItem extends BaseItem<FileItem> {
         return mFile;
     }
 
+    /**
+     * Return the size of directory if it's tracked. It's peeked without blocking, if the tracker
+     * has changes to refresh, the last size is returned and the new one is got in io thread, then
+     * the item is bound again.
+     */
+    private String getTrackedDirSize() {
+        final FileUtils.DirLengthTracker tracker = FileUtils.DirLengthTracker.getTracker(mFile);
+        if (tracker == null) return "";
+        long len = tracker.peekLength(mFile);
+        if (len != -1) {
+            mDirLength = len;
+        } else if (!isLoadingDirLength) {
+            isLoadingDirLength = true;
+            ThreadUtils.executeByIo(new ThreadUtils.SimpleTask<Long>() {
+                @Override
+                public Long doInBackground() {
+                    return tracker.getLength(mFile);
+                }
+
+                @Override
+                public void onSuccess(Long result) {
+                    isLoadingDirLength = false;
+                    if (result != -1 && result != mDirLength) {
+                        mDirLength = result;
+                        update();
+                    }
+                }
+
+                @Override
+                public void onFail(Throwable t) {
+                    super.onFail(t);
+                    isLoadingDirLength = false;
+                }
+            });
+        }
+        return mDirLength == -1 ? "" : ConvertUtils.byte2FitMemorySize(mDirLength) + "  ";
+    }
+
     public static List<FileItem> getFileItems(final FileItem parent) {
         if (parent == null) return getFileItems();
         List<File> files = FileUtils.listFilesInDir(parent.getFile(), new Comparator<File>() {
@@ -9,6 +9,7 @@ import org.objectweb.asm.Type;
 import org.objectweb.asm.commons.AdviceAdapter;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -23,6 +24,8 @@ import java.util.Map;
 public class BusClassVisitor extends ClassVisitor {
 
     private Map<String, List<BusInfo>> mBusMap;
+    private List<BusInfo>              mTypeBusList;
+    private Map<String, List<String>>  mSuperTypesMap;
 
     private String  className;
     private BusInfo busInfo;
@@ -32,14 +35,31 @@ public class BusClassVisitor extends ClassVisitor {
     private boolean isStartVisitParams;
 
     public BusClassVisitor(ClassVisitor classVisitor, Map<String, List<BusInfo>> busMap, String busUtilsClass) {
+        this(classVisitor, busMap, new ArrayList<BusInfo>(), new HashMap<String, List<String>>(), busUtilsClass);
+    }
+
+    public BusClassVisitor(ClassVisitor classVisitor, Map<String, List<BusInfo>> busMap,
+                           List<BusInfo> typeBusList, Map<String, List<String>> superTypesMap, String busUtilsClass) {
         super(Opcodes.ASM5, classVisitor);
         mBusMap = busMap;
+        mTypeBusList = typeBusList;
+        mSuperTypesMap = superTypesMap;
         mBusUtilsClass = busUtilsClass.replace(".", "/");
     }
 
     @Override
     public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
         className = name.replace("/", ".");
+        List<String> superTypes = new ArrayList<>();// 记录父类及接口，用于预先计算按类型订阅的事件表
+        if (superName != null) {
+            superTypes.add(superName.replace("/", "."));
+        }
+        if (interfaces != null) {
+            for (String anInterface : interfaces) {
+                superTypes.add(anInterface.replace("/", "."));
+            }
+        }
+        mSuperTypesMap.put(className, superTypes);
         super.visit(version, access, name, signature, superName, interfaces);
     }
 
@@ -55,6 +75,7 @@ public class BusClassVisitor extends ClassVisitor {
                 final AnnotationVisitor av = super.visitAnnotation(desc1, visible);
                 if (("L" + mBusUtilsClass + "$Bus;").equals(desc1)) {
                     busInfo = new BusInfo(className, funName);
+                    tag = "";
                     funParamDesc = desc.substring(1, desc.indexOf(")"));
                     return new AnnotationVisitor(Opcodes.ASM5, av) {
                         @Override
@@ -104,6 +125,14 @@ public class BusClassVisitor extends ClassVisitor {
             public void visitEnd() {
                 super.visitEnd();
                 if (busInfo != null) {
+                    if ("".equals(tag)) {// tag 为空则按参数类型订阅
+                        Type[] argumentTypes = Type.getArgumentTypes(desc);
+                        busInfo.eventType = argumentTypes.length == 1
+                                ? EventTypeResolver.getBoxedClassName(argumentTypes[0].getClassName())
+                                : "";
+                        mTypeBusList.add(busInfo);
+                        return;
+                    }
                     List<BusInfo> infoList = mBusMap.get(tag);
                     if (infoList == null) {
                         infoList = new ArrayList<>();
@@ -20,6 +20,7 @@ public class BusInfo {
     public String           threadMode;               // 线程模式
     public int              priority;                 // 优先级
     public boolean          isParamSizeNoMoreThanOne; // 参数是否不多于 1 个
+    public String           eventType;                // 按类型订阅的事件类型，为 null 则按 tag 订阅
 
     public BusInfo(String className, String funName) {
         this.className = className;
@@ -29,6 +30,21 @@ public class BusInfo {
         threadMode = "POSTING";
         priority = 0;
         isParamSizeNoMoreThanOne = true;
+        eventType = null;
+    }
+
+    public boolean isTypeBus() {
+        return eventType != null;
+    }
+
+    /**
+     * 按 tag 订阅的参数不能多于 1 个，按类型订阅的必须有且仅有 1 个参数并且不支持粘性
+     */
+    public boolean isRight() {
+        if (isTypeBus()) {
+            return paramsInfo.size() == 1 && !sticky;
+        }
+        return isParamSizeNoMoreThanOne;
     }
 
     @Override
@@ -40,6 +56,7 @@ public class BusInfo {
                 (threadMode.equals("POSTING") ? "" : ", threadMode: " + threadMode) +
                 (priority == 0 ? "" : ", priority: " + priority) +
                 (isParamSizeNoMoreThanOne ? "" : ", paramSize: " + paramsInfo.size()) +
+                (eventType == null ? "" : ", eventType: " + eventType) +
                 " }";
     }
 
@@ -8,7 +8,8 @@ import org.objectweb.asm.ClassWriter
 
 class BusInject {
 
-    static void start(Map<String, BusInfo> busMap, File busUtilsTransformFile, String busUtilsClass) {
+    static void start(Map<String, List<BusInfo>> busMap, Map<String, List<BusInfo>> eventTypeBusMap,
+                      Map<String, List<String>> unresolvedTypesMap, File busUtilsTransformFile, String busUtilsClass) {
         if (busUtilsTransformFile.getPath().endsWith(".jar")) {
             String jarPath = busUtilsTransformFile.getAbsolutePath()
             String decompressedJarPath = jarPath.substring(0, jarPath.length() - 4);
@@ -20,7 +21,7 @@ class BusInject {
                             busUtilsClass.replace('.', Config.FILE_SEP) + '.class'
             )
 
-            inject2BusUtils(busUtilsFile, busMap, busUtilsClass)
+            inject2BusUtils(busUtilsFile, busMap, eventTypeBusMap, unresolvedTypesMap, busUtilsClass)
 
             FileUtils.forceDelete(busUtilsTransformFile)
             ZipUtils.zipFiles(Arrays.asList(decompressedJar.listFiles()), busUtilsTransformFile)
@@ -31,14 +32,16 @@ class BusInject {
                             busUtilsClass.replace('.', Config.FILE_SEP) + '.class'
             )
 
-            inject2BusUtils(busUtilsFile, busMap, busUtilsClass)
+            inject2BusUtils(busUtilsFile, busMap, eventTypeBusMap, unresolvedTypesMap, busUtilsClass)
         }
     }
 
-    private static void inject2BusUtils(File busUtilsFile, Map<String, BusInfo> busMap, String busUtilsClass) {
+    private static void inject2BusUtils(File busUtilsFile, Map<String, List<BusInfo>> busMap,
+                                        Map<String, List<BusInfo>> eventTypeBusMap,
+                                        Map<String, List<String>> unresolvedTypesMap, String busUtilsClass) {
         ClassReader cr = new ClassReader(busUtilsFile.bytes);
         ClassWriter cw = new ClassWriter(cr, 0);
-        ClassVisitor cv = new BusUtilsClassVisitor(cw, busMap, busUtilsClass);
+        ClassVisitor cv = new BusUtilsClassVisitor(cw, busMap, eventTypeBusMap, unresolvedTypesMap, busUtilsClass);
         cr.accept(cv, ClassReader.SKIP_FRAMES);
         FileUtils.writeByteArrayToFile(busUtilsFile, cw.toByteArray())
     }
@@ -15,6 +15,8 @@ class BusPlugin extends BaseTransformPlugin<BusExtension> {
     String busUtilsClass
     File jsonFile
     Map<String, List<BusInfo>> busMap = [:]
+    List<BusInfo> typeBusList = []
+    Map<String, List<String>> superTypesMap = [:]
     File busUtilsTransformFile
 
     @Override
@@ -67,7 +69,7 @@ class BusPlugin extends BaseTransformPlugin<BusExtension> {
 
         ClassReader cr = new ClassReader(classFile.bytes);
         ClassWriter cw = new ClassWriter(cr, 0);
-        ClassVisitor cv = new BusClassVisitor(cw, busMap, busUtilsClass);
+        ClassVisitor cv = new BusClassVisitor(cw, busMap, typeBusList, superTypesMap, busUtilsClass);
         try {
             cr.accept(cv, ClassReader.SKIP_FRAMES);
         } catch (Exception ignore) {
@@ -78,7 +80,7 @@ class BusPlugin extends BaseTransformPlugin<BusExtension> {
     @Override
     void onScanFinished() {
         if (busUtilsTransformFile != null) {
-            if (busMap.isEmpty()) {
+            if (busMap.isEmpty() && typeBusList.isEmpty()) {
                 log("no bus.")
             } else {
                 busMap.each { String tag, List<BusInfo> infoList ->
@@ -109,22 +111,39 @@ class BusPlugin extends BaseTransformPlugin<BusExtension> {
                         wrongBus.put(tag, wrongInfoString)
                     }
                 }
+
+                List<String> rightTypeBus = []
+                List<String> wrongTypeBus = []
+                typeBusList.each { BusInfo info ->
+                    if (info.isRight()) {
+                        rightTypeBus.add(info.toString())
+                    } else {
+                        wrongTypeBus.add(info.toString())
+                    }
+                }
+                Map<String, List<String>> unresolvedTypesMap = [:]
+                Map<String, List<BusInfo>> eventTypeBusMap = EventTypeResolver.resolve(typeBusList, superTypesMap, unresolvedTypesMap)
+
                 Map busDetails = [:]
                 busDetails.put("BusUtilsClass", ext.busUtilsClass)
                 busDetails.put("rightBus", rightBus)
                 busDetails.put("wrongBus", wrongBus)
+                busDetails.put("rightTypeBus", rightTypeBus)
+                busDetails.put("wrongTypeBus", wrongTypeBus)
+                busDetails.put("eventTypeSize", eventTypeBusMap.size())
+                busDetails.put("unresolvedEventTypes", unresolvedTypesMap)
                 String busJson = JsonUtils.getFormatJson(busDetails)
                 log(jsonFile.toString() + ": " + busJson)
                 FileUtils.write(jsonFile, busJson)
 
-                if (wrongBus.size() > 0) {
+                if (wrongBus.size() > 0 || wrongTypeBus.size() > 0) {
                     if (ext.abortOnError) {
-                        throw new Exception("These buses is not right: " + wrongBus +
+                        throw new Exception("These buses is not right: " + wrongBus + wrongTypeBus +
                                 "\n u can check it in file: " + jsonFile.toString())
                     }
                 }
 
-                BusInject.start(busMap, busUtilsTransformFile, ext.busUtilsClass)
+                BusInject.start(busMap, eventTypeBusMap, unresolvedTypesMap, busUtilsTransformFile, ext.busUtilsClass)
             }
         } else {
             throw new Exception("No BusUtils of ${ext.busUtilsClass} in $mProject.")
@@ -6,6 +6,7 @@ import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.commons.AdviceAdapter;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -20,11 +21,21 @@ import java.util.Map;
 public class BusUtilsClassVisitor extends ClassVisitor {
 
     private Map<String, List<BusInfo>> mBusMap;
+    private Map<String, List<BusInfo>> mEventTypeBusMap;
+    private Map<String, List<String>>  mUnresolvedTypesMap;
     private String                     mBusUtilsClass;
 
     public BusUtilsClassVisitor(ClassVisitor classVisitor, Map<String, List<BusInfo>> busMap, String busUtilsClass) {
+        this(classVisitor, busMap, new HashMap<String, List<BusInfo>>(), new HashMap<String, List<String>>(), busUtilsClass);
+    }
+
+    public BusUtilsClassVisitor(ClassVisitor classVisitor, Map<String, List<BusInfo>> busMap,
+                                Map<String, List<BusInfo>> eventTypeBusMap, Map<String, List<String>> unresolvedTypesMap,
+                                String busUtilsClass) {
         super(Opcodes.ASM5, classVisitor);
         mBusMap = busMap;
+        mEventTypeBusMap = eventTypeBusMap;
+        mUnresolvedTypesMap = unresolvedTypesMap;
         mBusUtilsClass = busUtilsClass.replace(".", "/");
     }
 
@@ -72,6 +83,29 @@ public class BusUtilsClassVisitor extends ClassVisitor {
                         mv.visitMethodInsn(INVOKESPECIAL, mBusUtilsClass, "registerBus", "(Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;ZLjava/lang/String;I)V", false);
                     }
                 }
+                // 写入已展开父类及接口的事件类型表，运行时按类型分发只需一次查表
+                for (Map.Entry<String, List<BusInfo>> eventTypeEntry : mEventTypeBusMap.entrySet()) {
+                    for (BusInfo busInfo : eventTypeEntry.getValue()) {
+                        mv.visitVarInsn(ALOAD, 0);
+                        mv.visitLdcInsn(eventTypeEntry.getKey());
+                        mv.visitLdcInsn(busInfo.className);
+                        mv.visitLdcInsn(busInfo.funName);
+                        mv.visitLdcInsn(busInfo.paramsInfo.get(0).className);
+                        mv.visitLdcInsn(busInfo.paramsInfo.get(0).name);
+                        mv.visitLdcInsn(busInfo.threadMode);
+                        mv.visitIntInsn(SIPUSH, busInfo.priority);
+                        mv.visitMethodInsn(INVOKESPECIAL, mBusUtilsClass, "registerEventTypeBus", "(Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;I)V", false);
+                    }
+                }
+                // 写入未能展开的父类型，运行时补全这部分订阅者
+                for (Map.Entry<String, List<String>> unresolvedEntry : mUnresolvedTypesMap.entrySet()) {
+                    for (String unresolvedType : unresolvedEntry.getValue()) {
+                        mv.visitVarInsn(ALOAD, 0);
+                        mv.visitLdcInsn(unresolvedEntry.getKey());
+                        mv.visitLdcInsn(unresolvedType);
+                        mv.visitMethodInsn(INVOKESPECIAL, mBusUtilsClass, "registerUnresolvedEventType", "(Ljava/lang/String;Ljava/lang/String;)V", false);
+                    }
+                }
             }
         };
         return mv;
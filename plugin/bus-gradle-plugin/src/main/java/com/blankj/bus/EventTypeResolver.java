@@ -0,0 +1,122 @@
+package com.blankj.bus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * <pre>
+ *     author: Blankj
+ *     blog  : http://blankj.com
+ *     time  : 2020/06/01
+ *     desc  : 预先计算每个事件类型（包括其父类及接口）对应的所有订阅者
+ * </pre>
+ */
+public class EventTypeResolver {
+
+    private static final String OBJECT = "java.lang.Object";
+
+    /**
+     * 只有扫描到的类才能展开其父类及接口，未扫描到的类（如 ArrayList 等框架类）的父类型需在运行时补全，
+     * 所以这些类型会被记录到 unresolvedTypesMap 中，由运行时再遍历一次并缓存。
+     *
+     * @param typeBusList        按类型订阅的 bus
+     * @param superTypesMap      扫描到的类及其直接父类和接口
+     * @param unresolvedTypesMap 输出：事件类型 -> 其未能展开的父类型
+     * @return 事件类型 -> 按优先级排序后的订阅者列表
+     */
+    public static Map<String, List<BusInfo>> resolve(List<BusInfo> typeBusList,
+                                                     Map<String, List<String>> superTypesMap,
+                                                     Map<String, List<String>> unresolvedTypesMap) {
+        Map<String, List<BusInfo>> paramTypeBusMap = new HashMap<>();
+        for (BusInfo busInfo : typeBusList) {
+            if (!busInfo.isRight()) continue;
+            List<BusInfo> infoList = paramTypeBusMap.get(busInfo.eventType);
+            if (infoList == null) {
+                infoList = new ArrayList<>();
+                paramTypeBusMap.put(busInfo.eventType, infoList);
+            }
+            infoList.add(busInfo);
+        }
+
+        Map<String, List<BusInfo>> eventTypeBusMap = new TreeMap<>();
+        if (paramTypeBusMap.isEmpty()) return eventTypeBusMap;
+
+        Set<String> eventTypes = new HashSet<>(superTypesMap.keySet());
+        eventTypes.addAll(paramTypeBusMap.keySet());
+        Map<String, Set<String>> allTypesCache = new HashMap<>();
+        for (String eventType : eventTypes) {
+            List<BusInfo> infoList = new ArrayList<>();
+            List<String> unresolvedTypes = new ArrayList<>();
+            for (String type : getAllTypes(eventType, superTypesMap, allTypesCache)) {
+                List<BusInfo> busInfoList = paramTypeBusMap.get(type);
+                if (busInfoList != null) {
+                    infoList.addAll(busInfoList);
+                }
+                if (!superTypesMap.containsKey(type) && !OBJECT.equals(type)) {
+                    unresolvedTypes.add(type);
+                }
+            }
+            // 为空时运行时会完整遍历该事件类型，无需写入
+            if (infoList.isEmpty()) continue;
+            if (!unresolvedTypes.isEmpty()) {
+                unresolvedTypesMap.put(eventType, unresolvedTypes);
+            }
+            Collections.sort(infoList, new Comparator<BusInfo>() {
+                @Override
+                public int compare(BusInfo t0, BusInfo t1) {
+                    return t1.priority - t0.priority;
+                }
+            });
+            eventTypeBusMap.put(eventType, infoList);
+        }
+        return eventTypeBusMap;
+    }
+
+    private static Set<String> getAllTypes(String type,
+                                           Map<String, List<String>> superTypesMap,
+                                           Map<String, Set<String>> allTypesCache) {
+        Set<String> allTypes = allTypesCache.get(type);
+        if (allTypes != null) return allTypes;
+        allTypes = new LinkedHashSet<>();
+        allTypes.add(type);
+        allTypesCache.put(type, allTypes);
+        List<String> superTypes = superTypesMap.get(type);
+        if (superTypes != null) {
+            for (String superType : superTypes) {
+                allTypes.addAll(getAllTypes(superType, superTypesMap, allTypesCache));
+            }
+        }
+        return allTypes;
+    }
+
+    public static String getBoxedClassName(String className) {
+        switch (className) {
+            case "boolean":
+                return "java.lang.Boolean";
+            case "int":
+                return "java.lang.Integer";
+            case "long":
+                return "java.lang.Long";
+            case "short":
+                return "java.lang.Short";
+            case "byte":
+                return "java.lang.Byte";
+            case "double":
+                return "java.lang.Double";
+            case "float":
+                return "java.lang.Float";
+            case "char":
+                return "java.lang.Character";
+            default:
+                return className;
+        }
+    }
+}
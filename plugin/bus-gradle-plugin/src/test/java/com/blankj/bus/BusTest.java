@@ -2,6 +2,7 @@ package com.blankj.bus;
 
 
 import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
 import org.junit.Test;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.ClassVisitor;
@@ -9,6 +10,9 @@ import org.objectweb.asm.ClassWriter;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
@@ -86,18 +90,85 @@ public class BusTest {
         });
     }
 
+    @BusUtils.Bus
+    public void callbackEventFun(Callback callback) {
+        System.out.println("callbackEvent: " + callback.call());
+    }
+
+    @BusUtils.Bus(priority = 1)
+    public void stringCallbackEventFun(StringCallback callback) {
+        System.out.println("stringCallbackEvent: " + callback.call());
+    }
+
+    @BusUtils.Bus(priority = 1)
+    public void listEventFun(ListEvent event) {
+        System.out.println("listEvent: " + event);
+    }
+
+    @BusUtils.Bus
+    public void listFun(List list) {
+        System.out.println("list: " + list);
+    }
+
     @Test
     public void testInject() throws IOException {
-        inject2BusUtils(getBuses());
+        Map<String, List<BusInfo>> busMap = new HashMap<>();
+        Map<String, List<BusInfo>> eventTypeBusMap = new HashMap<>();
+        Map<String, List<String>> unresolvedTypesMap = new HashMap<>();
+        getBuses(busMap, eventTypeBusMap, unresolvedTypesMap);
+        inject2BusUtils(busMap, eventTypeBusMap, unresolvedTypesMap);
     }
 
-    private static Map<String, List<BusInfo>> getBuses() throws IOException {
+    @Test
+    public void testResolveEventType() throws IOException {
         Map<String, List<BusInfo>> busMap = new HashMap<>();
+        Map<String, List<BusInfo>> eventTypeBusMap = new HashMap<>();
+        Map<String, List<String>> unresolvedTypesMap = new HashMap<>();
+        getBuses(busMap, eventTypeBusMap, unresolvedTypesMap);
+
+        Assert.assertEquals(Collections.singletonList("callbackEventFun"),
+                getFunNames(eventTypeBusMap.get(Callback.class.getName())));
+        Assert.assertNull(unresolvedTypesMap.get(Callback.class.getName()));
+
+        Assert.assertEquals(Arrays.asList("stringCallbackEventFun", "callbackEventFun"),
+                getFunNames(eventTypeBusMap.get(StringCallback.class.getName())));
+        Assert.assertNull(unresolvedTypesMap.get(StringCallback.class.getName()));
+
+        // ArrayList 未被扫描，List 的订阅者需在运行时补全
+        Assert.assertEquals(Collections.singletonList("listEventFun"),
+                getFunNames(eventTypeBusMap.get(ListEvent.class.getName())));
+        Assert.assertEquals(Collections.singletonList(ArrayList.class.getName()),
+                unresolvedTypesMap.get(ListEvent.class.getName()));
+
+        Assert.assertEquals(Collections.singletonList("listFun"),
+                getFunNames(eventTypeBusMap.get(List.class.getName())));
+        Assert.assertEquals(Collections.singletonList(List.class.getName()),
+                unresolvedTypesMap.get(List.class.getName()));
+
+        // 没有订阅者的事件类型不写入，运行时会完整遍历
+        Assert.assertFalse(eventTypeBusMap.containsKey(BusTest.class.getName()));
+    }
 
-        ClassReader cr = new ClassReader(BusTest.class.getName());
-        ClassWriter cw = new ClassWriter(cr, 0);
-        ClassVisitor cv = new BusClassVisitor(cw, busMap, BusUtils.class.getName());
-        cr.accept(cv, ClassReader.SKIP_FRAMES);
+    private static List<String> getFunNames(List<BusInfo> busInfoList) {
+        List<String> funNames = new ArrayList<>();
+        for (BusInfo busInfo : busInfoList) {
+            funNames.add(busInfo.funName);
+        }
+        return funNames;
+    }
+
+    private static void getBuses(Map<String, List<BusInfo>> busMap,
+                                 Map<String, List<BusInfo>> eventTypeBusMap,
+                                 Map<String, List<String>> unresolvedTypesMap) throws IOException {
+        List<BusInfo> typeBusList = new ArrayList<>();
+        Map<String, List<String>> superTypesMap = new HashMap<>();
+
+        for (Class<?> clazz : new Class[]{BusTest.class, Callback.class, StringCallback.class, ListEvent.class}) {
+            ClassReader cr = new ClassReader(clazz.getName());
+            ClassWriter cw = new ClassWriter(cr, 0);
+            ClassVisitor cv = new BusClassVisitor(cw, busMap, typeBusList, superTypesMap, BusUtils.class.getName());
+            cr.accept(cv, ClassReader.SKIP_FRAMES);
+        }
 
         for (List<BusInfo> value : busMap.values()) {
             value.sort(new Comparator<BusInfo>() {
@@ -107,14 +178,18 @@ public class BusTest {
                 }
             });
         }
+        eventTypeBusMap.putAll(EventTypeResolver.resolve(typeBusList, superTypesMap, unresolvedTypesMap));
         System.out.println("busMap = " + busMap);
-        return busMap;
+        System.out.println("eventTypeBusMap = " + eventTypeBusMap);
+        System.out.println("unresolvedTypesMap = " + unresolvedTypesMap);
     }
 
-    private static void inject2BusUtils(Map<String, List<BusInfo>> busMap) throws IOException {
+    private static void inject2BusUtils(Map<String, List<BusInfo>> busMap,
+                                        Map<String, List<BusInfo>> eventTypeBusMap,
+                                        Map<String, List<String>> unresolvedTypesMap) throws IOException {
         ClassReader cr = new ClassReader(BusUtils.class.getName());
         ClassWriter cw = new ClassWriter(cr, 0);
-        ClassVisitor cv = new BusUtilsClassVisitor(cw, busMap, BusUtils.class.getName());
+        ClassVisitor cv = new BusUtilsClassVisitor(cw, busMap, eventTypeBusMap, unresolvedTypesMap, BusUtils.class.getName());
         cr.accept(cv, ClassReader.SKIP_FRAMES);
 
         FileUtils.writeByteArrayToFile(new File("BusUtils2333.class"), cw.toByteArray());
@@ -123,4 +198,10 @@ public class BusTest {
     public interface Callback {
         String call();
     }
+
+    public interface StringCallback extends Callback {
+    }
+
+    public static class ListEvent extends ArrayList<String> {
+    }
 }
\ No newline at end of file
@@ -7,6 +7,8 @@ import java.lang.annotation.Target;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -29,7 +31,14 @@ public final class BusUtils {
     private static final Object NULL = "nULl";
     private static final String TAG  = "BusUtils";
 
-    private final Map<String, List<BusInfo>> mTag_BusInfoListMap = new HashMap<>();
+    private final Map<String, List<BusInfo>> mTag_BusInfoListMap       = new HashMap<>();
+    private final Map<String, List<BusInfo>> mEventType_BusInfoListMap = new HashMap<>();
+    private final Map<String, List<BusInfo>> mParamType_BusInfoListMap = new HashMap<>();
+    private final Map<String, BusInfo>       mTypeBusKey_BusInfoMap    = new HashMap<>();
+    private final Map<String, List<String>>  mEventType_UnresolvedMap  = new HashMap<>();
+
+    private final Map<Class, List<BusInfo>> mEventClass_BusInfoListCache = new ConcurrentHashMap<>();
+
 
     private final Map<String, Set<Object>>         mClassName_BusesMap          = new ConcurrentHashMap<>();
     private final Map<String, List<String>>        mClassName_TagsMap           = new HashMap<>();
@@ -62,6 +71,47 @@ public final class BusUtils {
         busInfoList.add(new BusInfo(className, funName, paramType, paramName, sticky, threadMode, priority));
     }
 
+    /**
+     * It'll be injected by the plugin for every event type that is assignable to the param of the bus,
+     * in order of priority, so the flattened list of one event type costs only one lookup.
+     */
+    private void registerEventTypeBus(String eventType,
+                                      String className, String funName, String paramType, String paramName,
+                                      String threadMode, int priority) {
+        String busKey = className + "#" + funName + "(" + paramType + ")";
+        BusInfo busInfo = mTypeBusKey_BusInfoMap.get(busKey);
+        if (busInfo == null) {
+            busInfo = new BusInfo(className, funName, paramType, paramName, false, threadMode, priority);
+            mTypeBusKey_BusInfoMap.put(busKey, busInfo);
+            String boxedParamType = getBoxedClassName(paramType);
+            List<BusInfo> paramTypeBusInfoList = mParamType_BusInfoListMap.get(boxedParamType);
+            if (paramTypeBusInfoList == null) {
+                paramTypeBusInfoList = new ArrayList<>();
+                mParamType_BusInfoListMap.put(boxedParamType, paramTypeBusInfoList);
+            }
+            paramTypeBusInfoList.add(busInfo);
+        }
+        List<BusInfo> busInfoList = mEventType_BusInfoListMap.get(eventType);
+        if (busInfoList == null) {
+            busInfoList = new ArrayList<>();
+            mEventType_BusInfoListMap.put(eventType, busInfoList);
+        }
+        busInfoList.add(busInfo);
+    }
+
+    /**
+     * It'll be injected by the plugin for every super type of the event type that was not scanned,
+     * such as types of framework, whose buses are merged at runtime.
+     */
+    private void registerUnresolvedEventType(String eventType, String unresolvedType) {
+        List<String> unresolvedTypes = mEventType_UnresolvedMap.get(eventType);
+        if (unresolvedTypes == null) {
+            unresolvedTypes = new ArrayList<>();
+            mEventType_UnresolvedMap.put(eventType, unresolvedTypes);
+        }
+        unresolvedTypes.add(unresolvedType);
+    }
+
     public static void register(final Object bus) {
         getInstance().registerInner(bus);
     }
@@ -90,13 +140,22 @@ public final class BusUtils {
         getInstance().removeStickyInner(tag);
     }
 
+    /**
+     * Post the event to the buses whose tag is empty and whose param is assignable from the type of event.
+     *
+     * @param event The event.
+     */
+    public static void postEvent(final Object event) {
+        getInstance().postEventInner(event);
+    }
+
     public static String toString_() {
         return getInstance().toString();
     }
 
     @Override
     public String toString() {
-        return "BusUtils: " + mTag_BusInfoListMap;
+        return "BusUtils: " + mTag_BusInfoListMap + ", EventTypes: " + mEventType_BusInfoListMap;
     }
 
     private static BusUtils getInstance() {
@@ -133,6 +192,15 @@ public final class BusUtils {
                             }
                         }
                     }
+                    for (BusInfo busInfo : mTypeBusKey_BusInfoMap.values()) {
+                        try {
+                            if (Class.forName(busInfo.className).isAssignableFrom(aClass)) {
+                                busInfo.classNames.add(className);
+                            }
+                        } catch (ClassNotFoundException e) {
+                            e.printStackTrace();
+                        }
+                    }
                     mClassName_TagsMap.put(className, tags);
                 }
             }
@@ -185,6 +253,103 @@ public final class BusUtils {
         }
     }
 
+    private void postEventInner(final Object event) {
+        if (event == null) {
+            System.out.println("The event should not be null.");
+            return;
+        }
+        Class eventClass = event.getClass();
+        List<BusInfo> busInfoList = getBusInfoListByEventClass(eventClass);
+        if (busInfoList.isEmpty()) {
+            System.out.println("The bus of event type <" + eventClass.getName() + "> is not exists.");
+            return;
+        }
+        for (BusInfo busInfo : busInfoList) {
+            if (busInfo.method == null) {
+                Method method = getMethodByBusInfo(busInfo);
+                if (method == null) {
+                    return;
+                }
+                busInfo.method = method;
+            }
+            invokeMethod(eventClass.getName(), event, busInfo, false);
+        }
+    }
+
+    private List<BusInfo> getBusInfoListByEventClass(final Class eventClass) {
+        List<BusInfo> resolvedList = mEventType_BusInfoListMap.get(eventClass.getName());
+        List<String> unresolvedTypes = mEventType_UnresolvedMap.get(eventClass.getName());
+        if (resolvedList != null && unresolvedTypes == null) return resolvedList;
+        // The event type was not scanned by the plugin, or some of its super types were not,
+        // such as types of framework, so walk them only once and cache the result.
+        List<BusInfo> busInfoList = mEventClass_BusInfoListCache.get(eventClass);
+        if (busInfoList != null) return busInfoList;
+        busInfoList = new ArrayList<>();
+        Set<Class> visitedTypes = new HashSet<>();
+        if (resolvedList == null) {
+            collectBusInfoOfEventClass(eventClass, visitedTypes, busInfoList);
+        } else {
+            busInfoList.addAll(resolvedList);
+            List<BusInfo> unresolvedList = new ArrayList<>();
+            for (String unresolvedType : unresolvedTypes) {
+                try {
+                    Class type = Class.forName(unresolvedType, false, eventClass.getClassLoader());
+                    collectBusInfoOfEventClass(type, visitedTypes, unresolvedList);
+                } catch (ClassNotFoundException e) {
+                    e.printStackTrace();
+                }
+            }
+            for (BusInfo busInfo : unresolvedList) {
+                if (!busInfoList.contains(busInfo)) {
+                    busInfoList.add(busInfo);
+                }
+            }
+        }
+        Collections.sort(busInfoList, new Comparator<BusInfo>() {
+            @Override
+            public int compare(BusInfo t0, BusInfo t1) {
+                return t1.priority - t0.priority;
+            }
+        });
+        mEventClass_BusInfoListCache.put(eventClass, busInfoList);
+        return busInfoList;
+    }
+
+    private void collectBusInfoOfEventClass(final Class type, final Set<Class> visitedTypes, final List<BusInfo> result) {
+        if (type == null || !visitedTypes.add(type)) return;
+        List<BusInfo> busInfoList = mParamType_BusInfoListMap.get(type.getName());
+        if (busInfoList != null) {
+            result.addAll(busInfoList);
+        }
+        collectBusInfoOfEventClass(type.getSuperclass(), visitedTypes, result);
+        for (Class anInterface : type.getInterfaces()) {
+            collectBusInfoOfEventClass(anInterface, visitedTypes, result);
+        }
+    }
+
+    private static String getBoxedClassName(String paramType) {
+        switch (paramType) {
+            case "boolean":
+                return Boolean.class.getName();
+            case "int":
+                return Integer.class.getName();
+            case "long":
+                return Long.class.getName();
+            case "short":
+                return Short.class.getName();
+            case "byte":
+                return Byte.class.getName();
+            case "double":
+                return Double.class.getName();
+            case "float":
+                return Float.class.getName();
+            case "char":
+                return Character.class.getName();
+            default:
+                return paramType;
+        }
+    }
+
     private Method getMethodByBusInfo(BusInfo busInfo) {
         try {
             if ("".equals(busInfo.paramType)) {
@@ -372,7 +537,10 @@ public final class BusUtils {
     @Target({ElementType.METHOD})
     @Retention(RetentionPolicy.CLASS)
     public @interface Bus {
-        String tag();
+        /**
+         * Leave it empty to subscribe by the type of the only param, which is posted by {@link #postEvent}.
+         */
+        String tag() default "";
 
         boolean sticky() default false;
 